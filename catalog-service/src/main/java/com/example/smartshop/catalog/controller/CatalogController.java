@@ -0,0 +1,74 @@
+package com.example.smartshop.catalog.controller;
+
+import com.example.smartshop.catalog.dto.ProductFilterDTO;
+import com.example.smartshop.catalog.dto.ProductResponseDTO;
+import com.example.smartshop.catalog.service.CatalogService;
+import jakarta.validation.Valid;
+import org.springframework.data.domain.Page;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Endpoints publics du catalogue, mêmes chemins et mêmes réponses que
+ * PublicProductController. Le reverse proxy route les GET /api/products/** vers ce service.
+ */
+@RestController
+@RequestMapping("/api/products")
+public class CatalogController {
+
+  private final CatalogService catalogService;
+
+  public CatalogController(CatalogService catalogService) {
+    this.catalogService = catalogService;
+  }
+
+  @GetMapping
+  public Mono<Map<String, Object>> getAllProducts(
+      @RequestParam(defaultValue = "0") int page,
+      @RequestParam(defaultValue = "10") int size) {
+    return catalogService.findAll(page, size)
+        .map(products -> {
+          Map<String, Object> response = toPageResponse("Products retrieved successfully", products);
+          response.put("currentPage", page);
+          return response;
+        });
+  }
+
+  /**
+   * Export du catalogue actif en NDJSON, un produit par ligne, sans charger la liste en mémoire.
+   */
+  @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public Flux<ProductResponseDTO> streamProducts() {
+    return catalogService.streamAll();
+  }
+
+  @GetMapping("/search")
+  public Mono<Map<String, Object>> searchProducts(@Valid ProductFilterDTO filters) {
+    return catalogService.findByFilters(filters)
+        .map(products -> toPageResponse("Products found", products));
+  }
+
+  @GetMapping("/{id}")
+  public Mono<Map<String, Object>> getProductById(@PathVariable Long id) {
+    return catalogService.findById(id)
+        .map(product -> {
+          Map<String, Object> response = new HashMap<>();
+          response.put("message", "Product retrieved successfully");
+          response.put("product", product);
+          return response;
+        });
+  }
+
+  private Map<String, Object> toPageResponse(String message, Page<ProductResponseDTO> products) {
+    Map<String, Object> response = new HashMap<>();
+    response.put("message", message);
+    response.put("products", products.getContent());
+    response.put("totalPages", products.getTotalPages());
+    response.put("totalElements", products.getTotalElements());
+    return response;
+  }
+}
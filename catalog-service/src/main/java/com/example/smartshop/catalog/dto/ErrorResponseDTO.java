@@ -0,0 +1,28 @@
+package com.example.smartshop.catalog.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Même format d'erreur que l'API SmartShop (timestamp, status, error, code, message, path)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ErrorResponseDTO {
+  private LocalDateTime timestamp;
+  private Integer status;
+  private String error;
+
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private String code;
+
+  private String message;
+  private String path;
+}
@@ -0,0 +1,18 @@
+package com.example.smartshop.catalog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductResponseDTO {
+  private Long id;
+  private String sku;
+  private String name;
+  private Double price;
+  private Integer stock;
+}
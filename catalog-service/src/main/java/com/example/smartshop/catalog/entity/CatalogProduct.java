@@ -0,0 +1,32 @@
+package com.example.smartshop.catalog.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * Vue lecture seule de la table products, partagée avec l'API SmartShop.
+ * Le schéma reste géré par l'application principale.
+ */
+@Table("products")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogProduct {
+  @Id
+  private Long id;
+
+  private String sku;
+
+  private String name;
+
+  private Double price;
+
+  private Integer stock;
+
+  private Boolean deleted;
+}
@@ -0,0 +1,69 @@
+package com.example.smartshop.catalog.exception;
+
+import com.example.smartshop.catalog.dto.ErrorResponseDTO;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.time.LocalDateTime;
+import java.util.stream.Collectors;
+
+/**
+ * Conserve les codes HTTP et le format d'erreur de l'API principale : un produit
+ * introuvable y est signalé en 422 Unprocessable Entity (code PRODUCT_NOT_FOUND),
+ * des filtres invalides en 400 Bad Request.
+ */
+@RestControllerAdvice
+public class CatalogExceptionHandler {
+
+  static final String PRODUCT_NOT_FOUND = "PRODUCT_NOT_FOUND";
+
+  @ExceptionHandler(ProductNotFoundException.class)
+  public ResponseEntity<ErrorResponseDTO> handleProductNotFound(
+      ProductNotFoundException ex,
+      ServerWebExchange exchange) {
+
+    ErrorResponseDTO error = ErrorResponseDTO.builder()
+        .timestamp(LocalDateTime.now())
+        .status(HttpStatus.UNPROCESSABLE_ENTITY.value())
+        .error("Unprocessable Entity")
+        .code(PRODUCT_NOT_FOUND)
+        .message(ex.getMessage())
+        .path(exchange.getRequest().getPath().value())
+        .build();
+
+    return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(error);
+  }
+
+  /**
+   * Paramètres de recherche invalides (binding ou @Valid), même message que
+   * GlobalExceptionHandler côté API principale
+   */
+  @ExceptionHandler(WebExchangeBindException.class)
+  public ResponseEntity<ErrorResponseDTO> handleBindException(
+      WebExchangeBindException ex,
+      ServerWebExchange exchange) {
+
+    String validationErrors = ex.getBindingResult()
+        .getAllErrors()
+        .stream()
+        .map(error -> error instanceof FieldError fieldError
+            ? fieldError.getField() + ": " + fieldError.getDefaultMessage()
+            : error.getDefaultMessage())
+        .collect(Collectors.joining(", "));
+
+    ErrorResponseDTO error = ErrorResponseDTO.builder()
+        .timestamp(LocalDateTime.now())
+        .status(HttpStatus.BAD_REQUEST.value())
+        .error("Bad Request")
+        .message("Erreur de validation des données: " + validationErrors)
+        .path(exchange.getRequest().getPath().value())
+        .build();
+
+    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+  }
+}
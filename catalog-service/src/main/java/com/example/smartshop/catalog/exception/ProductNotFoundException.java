@@ -0,0 +1,9 @@
+package com.example.smartshop.catalog.exception;
+
+public class ProductNotFoundException extends RuntimeException {
+
+  public ProductNotFoundException(String message) {
+    // Résultat attendu : pas de stack trace à capturer
+    super(message, null, false, false);
+  }
+}
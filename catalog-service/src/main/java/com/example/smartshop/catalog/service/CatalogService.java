@@ -0,0 +1,106 @@
+package com.example.smartshop.catalog.service;
+
+import com.example.smartshop.catalog.dto.ProductFilterDTO;
+import com.example.smartshop.catalog.dto.ProductResponseDTO;
+import com.example.smartshop.catalog.entity.CatalogProduct;
+import com.example.smartshop.catalog.exception.ProductNotFoundException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Lecture non bloquante du catalogue.
+ *
+ * Mêmes règles que ProductService côté API principale : seuls les produits
+ * non supprimés (deleted = false) sont visibles. Les résultats sont triés par id
+ * pour garantir une pagination stable.
+ */
+@Service
+public class CatalogService {
+
+  private static final Sort BY_ID = Sort.by("id");
+
+  private final R2dbcEntityTemplate template;
+
+  public CatalogService(R2dbcEntityTemplate template) {
+    this.template = template;
+  }
+
+  public Mono<Page<ProductResponseDTO>> findAll(int page, int size) {
+    return findPage(activeProducts(), PageRequest.of(page, size, BY_ID));
+  }
+
+  public Mono<Page<ProductResponseDTO>> findByFilters(ProductFilterDTO filters) {
+    int page = filters.getPage() != null ? filters.getPage() : 0;
+    int size = filters.getSize() != null ? filters.getSize() : 10;
+
+    Criteria criteria = activeProducts();
+    if (filters.getName() != null) {
+      criteria = criteria.and("name").like("%" + filters.getName() + "%");
+    }
+    if (filters.getMinPrice() != null) {
+      criteria = criteria.and("price").greaterThanOrEquals(filters.getMinPrice());
+    }
+    if (filters.getMaxPrice() != null) {
+      criteria = criteria.and("price").lessThanOrEquals(filters.getMaxPrice());
+    }
+    if (Boolean.TRUE.equals(filters.getInStock())) {
+      criteria = criteria.and("stock").greaterThan(0);
+    }
+
+    return findPage(criteria, PageRequest.of(page, size, BY_ID));
+  }
+
+  /**
+   * Parcourt tout le catalogue actif. Les lignes sont lues au rythme de la demande
+   * du client (backpressure propagée jusqu'au curseur R2DBC).
+   */
+  public Flux<ProductResponseDTO> streamAll() {
+    return template.select(CatalogProduct.class)
+        .matching(Query.query(activeProducts()).sort(BY_ID))
+        .all()
+        .map(this::toResponseDTO);
+  }
+
+  public Mono<ProductResponseDTO> findById(Long id) {
+    return template.selectOne(Query.query(activeProducts().and("id").is(id)), CatalogProduct.class)
+        .map(this::toResponseDTO)
+        .switchIfEmpty(Mono.error(() -> new ProductNotFoundException("Product not found")));
+  }
+
+  private Mono<Page<ProductResponseDTO>> findPage(Criteria criteria, Pageable pageable) {
+    Mono<List<ProductResponseDTO>> content = template.select(CatalogProduct.class)
+        .matching(Query.query(criteria).with(pageable))
+        .all()
+        .map(this::toResponseDTO)
+        .collectList();
+    Mono<Long> total = template.count(Query.query(criteria), CatalogProduct.class);
+
+    return Mono.zip(content, total)
+        .map(tuple -> new PageImpl<>(tuple.getT1(), pageable, tuple.getT2()));
+  }
+
+  private Criteria activeProducts() {
+    return Criteria.where("deleted").isFalse();
+  }
+
+  private ProductResponseDTO toResponseDTO(CatalogProduct product) {
+    return ProductResponseDTO.builder()
+        .id(product.getId())
+        .sku(product.getSku())
+        .name(product.getName())
+        .price(product.getPrice())
+        .stock(product.getStock())
+        .build();
+  }
+}
@@ -0,0 +1,134 @@
+package com.example.smartshop.catalog.controller;
+
+import com.example.smartshop.catalog.dto.ProductResponseDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+
+/**
+ * Endpoints du catalogue réactif sur une table products H2 (R2DBC) : mêmes réponses que
+ * PublicProductController (produits supprimés masqués, sku, pagination, erreurs).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("it")
+class CatalogControllerTest {
+
+  @Autowired
+  private WebTestClient webTestClient;
+
+  @Autowired
+  private DatabaseClient databaseClient;
+
+  @BeforeEach
+  void setUp() {
+    databaseClient.sql("DELETE FROM products").fetch().rowsUpdated().block();
+    insert(1, "KB-001", "Clavier mécanique", 80.0, 12, false);
+    insert(2, "KB-002", "Clavier sans fil", 45.0, 0, false);
+    insert(3, "MS-001", "Souris", 25.0, 30, false);
+    insert(4, "KB-003", "Clavier retiré", 60.0, 5, true);
+  }
+
+  @Test
+  void listsActiveProductsWithSku() {
+    webTestClient.get().uri("/api/products?page=0&size=2")
+        .exchange()
+        .expectStatus().isOk()
+        .expectBody()
+        .jsonPath("$.message").isEqualTo("Products retrieved successfully")
+        .jsonPath("$.totalElements").isEqualTo(3)
+        .jsonPath("$.totalPages").isEqualTo(2)
+        .jsonPath("$.currentPage").isEqualTo(0)
+        .jsonPath("$.products.length()").isEqualTo(2)
+        .jsonPath("$.products[0].id").isEqualTo(1)
+        .jsonPath("$.products[0].sku").isEqualTo("KB-001")
+        .jsonPath("$.products[1].id").isEqualTo(2);
+  }
+
+  @Test
+  void searchAppliesAllFilters() {
+    webTestClient.get().uri("/api/products/search?name=Clavier&maxPrice=70")
+        .exchange()
+        .expectStatus().isOk()
+        .expectBody()
+        .jsonPath("$.message").isEqualTo("Products found")
+        .jsonPath("$.totalElements").isEqualTo(1)
+        .jsonPath("$.products[0].sku").isEqualTo("KB-002");
+
+    webTestClient.get().uri("/api/products/search?name=Clavier&inStock=true")
+        .exchange()
+        .expectStatus().isOk()
+        .expectBody()
+        .jsonPath("$.totalElements").isEqualTo(1)
+        .jsonPath("$.products[0].sku").isEqualTo("KB-001");
+  }
+
+  @Test
+  void invalidSearchParametersAreRejected() {
+    webTestClient.get().uri("/api/products/search?minPrice=cheap")
+        .exchange()
+        .expectStatus().isBadRequest()
+        .expectBody()
+        .jsonPath("$.status").isEqualTo(400)
+        .jsonPath("$.message").value(startsWith("Erreur de validation des données: minPrice"))
+        .jsonPath("$.path").isEqualTo("/api/products/search");
+  }
+
+  @Test
+  void getsProductById() {
+    webTestClient.get().uri("/api/products/3")
+        .exchange()
+        .expectStatus().isOk()
+        .expectBody()
+        .jsonPath("$.message").isEqualTo("Product retrieved successfully")
+        .jsonPath("$.product.sku").isEqualTo("MS-001")
+        .jsonPath("$.product.price").isEqualTo(25.0)
+        .jsonPath("$.product.stock").isEqualTo(30);
+  }
+
+  @Test
+  void deletedProductIsNotFound() {
+    webTestClient.get().uri("/api/products/4")
+        .exchange()
+        .expectStatus().isEqualTo(422)
+        .expectBody()
+        .jsonPath("$.code").isEqualTo("PRODUCT_NOT_FOUND")
+        .jsonPath("$.message").isEqualTo("Product not found")
+        .jsonPath("$.path").isEqualTo("/api/products/4");
+  }
+
+  @Test
+  void streamsActiveCatalogAsNdjson() {
+    List<ProductResponseDTO> products = webTestClient.get().uri("/api/products/stream")
+        .accept(MediaType.APPLICATION_NDJSON)
+        .exchange()
+        .expectStatus().isOk()
+        .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+        .expectBodyList(ProductResponseDTO.class)
+        .returnResult()
+        .getResponseBody();
+
+    assertThat(products).extracting(ProductResponseDTO::getSku).containsExactly("KB-001", "KB-002", "MS-001");
+  }
+
+  private void insert(long id, String sku, String name, double price, int stock, boolean deleted) {
+    databaseClient.sql("INSERT INTO products (id, sku, name, price, stock, deleted) "
+            + "VALUES (:id, :sku, :name, :price, :stock, :deleted)")
+        .bind("id", id)
+        .bind("sku", sku)
+        .bind("name", name)
+        .bind("price", price)
+        .bind("stock", stock)
+        .bind("deleted", deleted)
+        .fetch().rowsUpdated().block();
+  }
+}
@@ -0,0 +1,9 @@
+-- Table products telle que créée par les migrations de l'API SmartShop (V1, V4)
+CREATE TABLE IF NOT EXISTS products (
+    id      BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    sku     VARCHAR(64) UNIQUE,
+    name    VARCHAR(255)     NOT NULL,
+    price   DOUBLE PRECISION NOT NULL,
+    stock   INTEGER          NOT NULL,
+    deleted BOOLEAN          NOT NULL
+);
@@ -17,8 +17,8 @@
 -- 1. CRÉER DES UTILISATEURS (Users)
 -- ============================================================================
 
--- Réinitialiser la séquence des IDs
-ALTER SEQUENCE users_id_seq RESTART WITH 1;
+-- Réinitialiser la séquence des IDs (pas de 1 le temps du script, remis à 50 à la fin)
+ALTER SEQUENCE users_seq RESTART WITH 1 INCREMENT BY 1;
 
 -- Admin
 INSERT INTO users (username, password, role) VALUES
@@ -36,7 +36,7 @@ INSERT INTO users (username, password, role) VALUES
 -- 2. CRÉER DES PRODUITS (Products)
 -- ============================================================================
 
-ALTER SEQUENCE products_id_seq RESTART WITH 1;
+ALTER SEQUENCE products_seq RESTART WITH 1 INCREMENT BY 1;
 
 INSERT INTO products (name, price, stock, deleted) VALUES
 ('Laptop ASUS VivoBook 15', 8500.00, 15, false),
@@ -83,7 +83,10 @@ INSERT INTO clients (user_id, name, email, tier, total_orders, total_spent, firs
 -- 4. CRÉER DES COMMANDES (Orders)
 -- ============================================================================
 
-ALTER SEQUENCE orders_id_seq RESTART WITH 1;
+ALTER SEQUENCE orders_seq RESTART WITH 1 INCREMENT BY 1;
+
+-- Partitions mensuelles de 2025 (V12), sinon les commandes vont dans les partitions DEFAULT
+SELECT create_order_partitions('2025-01-01', 12);
 
 -- Commandes PENDING pour John Doe (client 2)
 INSERT INTO orders (client_id, date, created_at, status, subtotal, discount_amount, tax, total, remaining_amount, promo_code) VALUES
@@ -137,121 +140,207 @@ INSERT INTO orders (client_id, date, created_at, status, subtotal, discount_amou
 -- 5. CRÉER DES ARTICLES DE COMMANDE (Order Items)
 -- ============================================================================
 
-ALTER SEQUENCE order_items_id_seq RESTART WITH 1;
+ALTER SEQUENCE order_items_seq RESTART WITH 1 INCREMENT BY 1;
 
 -- Order 1 (John Doe - PENDING): Laptop + Mouse
-INSERT INTO order_items (order_id, product_id, quantity, unit_price, line_total) VALUES
+INSERT INTO order_items (order_id, order_created_at, product_id, quantity, unit_price, line_total)
+SELECT v.order_id, o.created_at, v.product_id, v.quantity, v.unit_price, v.line_total FROM (VALUES
 (1, 1, 1, 8500.00, 8500.00),
-(1, 2, 1, 350.00, 350.00);
+(1, 2, 1, 350.00, 350.00)
+) AS v (order_id, product_id, quantity, unit_price, line_total) JOIN orders o ON o.id = v.order_id;
 
 -- Order 2 (Jane Smith): Clavier + Écran
-INSERT INTO order_items (order_id, product_id, quantity, unit_price, line_total) VALUES
-(2, 3, 1, 1200.00, 1200.00);
+INSERT INTO order_items (order_id, order_created_at, product_id, quantity, unit_price, line_total)
+SELECT v.order_id, o.created_at, v.product_id, v.quantity, v.unit_price, v.line_total FROM (VALUES
+(2, 3, 1, 1200.00, 1200.00)
+) AS v (order_id, product_id, quantity, unit_price, line_total) JOIN orders o ON o.id = v.order_id;
 
 -- Order 3 (Jane Smith): Casque + Webcam
-INSERT INTO order_items (order_id, product_id, quantity, unit_price, line_total) VALUES
-(3, 5, 1, 1800.00, 1800.00);
+INSERT INTO order_items (order_id, order_created_at, product_id, quantity, unit_price, line_total)
+SELECT v.order_id, o.created_at, v.product_id, v.quantity, v.unit_price, v.line_total FROM (VALUES
+(3, 5, 1, 1800.00, 1800.00)
+) AS v (order_id, product_id, quantity, unit_price, line_total) JOIN orders o ON o.id = v.order_id;
 
 -- Order 4 (Jane Smith): SSD
-INSERT INTO order_items (order_id, product_id, quantity, unit_price, line_total) VALUES
-(4, 7, 1, 900.00, 900.00);
+INSERT INTO order_items (order_id, order_created_at, product_id, quantity, unit_price, line_total)
+SELECT v.order_id, o.created_at, v.product_id, v.quantity, v.unit_price, v.line_total FROM (VALUES
+(4, 7, 1, 900.00, 900.00)
+) AS v (order_id, product_id, quantity, unit_price, line_total) JOIN orders o ON o.id = v.order_id;
 
 -- Order 5 (Bob Wilson): Écran + Casque
-INSERT INTO order_items (order_id, product_id, quantity, unit_price, line_total) VALUES
-(5, 4, 1, 3500.00, 3500.00);
+INSERT INTO order_items (order_id, order_created_at, product_id, quantity, unit_price, line_total)
+SELECT v.order_id, o.created_at, v.product_id, v.quantity, v.unit_price, v.line_total FROM (VALUES
+(5, 4, 1, 3500.00, 3500.00)
+) AS v (order_id, product_id, quantity, unit_price, line_total) JOIN orders o ON o.id = v.order_id;
 
 -- Order 6 (Bob Wilson): Moniteur gaming
-INSERT INTO order_items (order_id, product_id, quantity, unit_price, line_total) VALUES
-(6, 8, 1, 2200.00, 2200.00);
+INSERT INTO order_items (order_id, order_created_at, product_id, quantity, unit_price, line_total)
+SELECT v.order_id, o.created_at, v.product_id, v.quantity, v.unit_price, v.line_total FROM (VALUES
+(6, 8, 1, 2200.00, 2200.00)
+) AS v (order_id, product_id, quantity, unit_price, line_total) JOIN orders o ON o.id = v.order_id;
 
 -- Order 7 (Bob Wilson): Souris gaming
-INSERT INTO order_items (order_id, product_id, quantity, unit_price, line_total) VALUES
-(7, 9, 2, 650.00, 1300.00);
+INSERT INTO order_items (order_id, order_created_at, product_id, quantity, unit_price, line_total)
+SELECT v.order_id, o.created_at, v.product_id, v.quantity, v.unit_price, v.line_total FROM (VALUES
+(7, 9, 2, 650.00, 1300.00)
+) AS v (order_id, product_id, quantity, unit_price, line_total) JOIN orders o ON o.id = v.order_id;
 
 -- Order 8 (Bob Wilson): Tapis souris
-INSERT INTO order_items (order_id, product_id, quantity, unit_price, line_total) VALUES
-(8, 10, 2, 180.00, 360.00);
+INSERT INTO order_items (order_id, order_created_at, product_id, quantity, unit_price, line_total)
+SELECT v.order_id, o.created_at, v.product_id, v.quantity, v.unit_price, v.line_total FROM (VALUES
+(8, 10, 2, 180.00, 360.00)
+) AS v (order_id, product_id, quantity, unit_price, line_total) JOIN orders o ON o.id = v.order_id;
 
 -- Order 9 (Bob Wilson): Hub USB + Câble
-INSERT INTO order_items (order_id, product_id, quantity, unit_price, line_total) VALUES
+INSERT INTO order_items (order_id, order_created_at, product_id, quantity, unit_price, line_total)
+SELECT v.order_id, o.created_at, v.product_id, v.quantity, v.unit_price, v.line_total FROM (VALUES
 (9, 11, 1, 380.00, 380.00),
-(9, 13, 3, 85.00, 255.00);
+(9, 13, 3, 85.00, 255.00)
+) AS v (order_id, product_id, quantity, unit_price, line_total) JOIN orders o ON o.id = v.order_id;
 
 -- Order 10 (Bob Wilson - PENDING): Support Laptop
-INSERT INTO order_items (order_id, product_id, quantity, unit_price, line_total) VALUES
-(10, 14, 2, 250.00, 500.00);
+INSERT INTO order_items (order_id, order_created_at, product_id, quantity, unit_price, line_total)
+SELECT v.order_id, o.created_at, v.product_id, v.quantity, v.unit_price, v.line_total FROM (VALUES
+(10, 14, 2, 250.00, 500.00)
+) AS v (order_id, product_id, quantity, unit_price, line_total) JOIN orders o ON o.id = v.order_id;
 
 -- Orders pour Alice Johnson (client 5)
 -- Order 11 (Alice): Laptop + Mouse + Clavier
-INSERT INTO order_items (order_id, product_id, quantity, unit_price, line_total) VALUES
+INSERT INTO order_items (order_id, order_created_at, product_id, quantity, unit_price, line_total)
+SELECT v.order_id, o.created_at, v.product_id, v.quantity, v.unit_price, v.line_total FROM (VALUES
 (11, 1, 1, 8500.00, 8500.00),
 (11, 2, 1, 350.00, 350.00),
-(11, 3, 1, 1200.00, 1200.00);
+(11, 3, 1, 1200.00, 1200.00)
+) AS v (order_id, product_id, quantity, unit_price, line_total) JOIN orders o ON o.id = v.order_id;
 
 -- Order 12 (Alice): Écran + Casque
-INSERT INTO order_items (order_id, product_id, quantity, unit_price, line_total) VALUES
+INSERT INTO order_items (order_id, order_created_at, product_id, quantity, unit_price, line_total)
+SELECT v.order_id, o.created_at, v.product_id, v.quantity, v.unit_price, v.line_total FROM (VALUES
 (12, 4, 1, 3500.00, 3500.00),
-(12, 5, 1, 1800.00, 1800.00);
+(12, 5, 1, 1800.00, 1800.00)
+) AS v (order_id, product_id, quantity, unit_price, line_total) JOIN orders o ON o.id = v.order_id;
 
 -- Order 13 (Alice): Webcam + Hub
-INSERT INTO order_items (order_id, product_id, quantity, unit_price, line_total) VALUES
+INSERT INTO order_items (order_id, order_created_at, product_id, quantity, unit_price, line_total)
+SELECT v.order_id, o.created_at, v.product_id, v.quantity, v.unit_price, v.line_total FROM (VALUES
 (13, 6, 2, 450.00, 900.00),
-(13, 11, 1, 380.00, 380.00);
+(13, 11, 1, 380.00, 380.00)
+) AS v (order_id, product_id, quantity, unit_price, line_total) JOIN orders o ON o.id = v.order_id;
 
 -- Order 14 (Alice): SSD + Moniteur
-INSERT INTO order_items (order_id, product_id, quantity, unit_price, line_total) VALUES
+INSERT INTO order_items (order_id, order_created_at, product_id, quantity, unit_price, line_total)
+SELECT v.order_id, o.created_at, v.product_id, v.quantity, v.unit_price, v.line_total FROM (VALUES
 (14, 7, 2, 900.00, 1800.00),
-(14, 8, 1, 2200.00, 2200.00);
+(14, 8, 1, 2200.00, 2200.00)
+) AS v (order_id, product_id, quantity, unit_price, line_total) JOIN orders o ON o.id = v.order_id;
 
 -- Order 15 (Alice): Souris + Tapis
-INSERT INTO order_items (order_id, product_id, quantity, unit_price, line_total) VALUES
+INSERT INTO order_items (order_id, order_created_at, product_id, quantity, unit_price, line_total)
+SELECT v.order_id, o.created_at, v.product_id, v.quantity, v.unit_price, v.line_total FROM (VALUES
 (15, 9, 1, 650.00, 650.00),
-(15, 10, 3, 180.00, 540.00);
+(15, 10, 3, 180.00, 540.00)
+) AS v (order_id, product_id, quantity, unit_price, line_total) JOIN orders o ON o.id = v.order_id;
 
 -- Order 16 (Alice): Adaptateurs + Câbles
-INSERT INTO order_items (order_id, product_id, quantity, unit_price, line_total) VALUES
+INSERT INTO order_items (order_id, order_created_at, product_id, quantity, unit_price, line_total)
+SELECT v.order_id, o.created_at, v.product_id, v.quantity, v.unit_price, v.line_total FROM (VALUES
 (16, 12, 2, 120.00, 240.00),
-(16, 13, 5, 85.00, 425.00);
+(16, 13, 5, 85.00, 425.00)
+) AS v (order_id, product_id, quantity, unit_price, line_total) JOIN orders o ON o.id = v.order_id;
 
 -- Order 17 (Alice)
-INSERT INTO order_items (order_id, product_id, quantity, unit_price, line_total) VALUES
-(17, 1, 1, 8500.00, 8500.00);
+INSERT INTO order_items (order_id, order_created_at, product_id, quantity, unit_price, line_total)
+SELECT v.order_id, o.created_at, v.product_id, v.quantity, v.unit_price, v.line_total FROM (VALUES
+(17, 1, 1, 8500.00, 8500.00)
+) AS v (order_id, product_id, quantity, unit_price, line_total) JOIN orders o ON o.id = v.order_id;
 
 -- Order 18 (Alice)
-INSERT INTO order_items (order_id, product_id, quantity, unit_price, line_total) VALUES
-(18, 4, 1, 3500.00, 3500.00);
+INSERT INTO order_items (order_id, order_created_at, product_id, quantity, unit_price, line_total)
+SELECT v.order_id, o.created_at, v.product_id, v.quantity, v.unit_price, v.line_total FROM (VALUES
+(18, 4, 1, 3500.00, 3500.00)
+) AS v (order_id, product_id, quantity, unit_price, line_total) JOIN orders o ON o.id = v.order_id;
 
 -- Order 19 (Alice)
-INSERT INTO order_items (order_id, product_id, quantity, unit_price, line_total) VALUES
-(19, 8, 1, 2200.00, 2200.00);
+INSERT INTO order_items (order_id, order_created_at, product_id, quantity, unit_price, line_total)
+SELECT v.order_id, o.created_at, v.product_id, v.quantity, v.unit_price, v.line_total FROM (VALUES
+(19, 8, 1, 2200.00, 2200.00)
+) AS v (order_id, product_id, quantity, unit_price, line_total) JOIN orders o ON o.id = v.order_id;
 
 -- Order 20 (Alice)
-INSERT INTO order_items (order_id, product_id, quantity, unit_price, line_total) VALUES
-(20, 11, 2, 380.00, 760.00);
+INSERT INTO order_items (order_id, order_created_at, product_id, quantity, unit_price, line_total)
+SELECT v.order_id, o.created_at, v.product_id, v.quantity, v.unit_price, v.line_total FROM (VALUES
+(20, 11, 2, 380.00, 760.00)
+) AS v (order_id, product_id, quantity, unit_price, line_total) JOIN orders o ON o.id = v.order_id;
 
 -- Order 21 (Alice)
-INSERT INTO order_items (order_id, product_id, quantity, unit_price, line_total) VALUES
-(21, 3, 1, 1200.00, 1200.00);
+INSERT INTO order_items (order_id, order_created_at, product_id, quantity, unit_price, line_total)
+SELECT v.order_id, o.created_at, v.product_id, v.quantity, v.unit_price, v.line_total FROM (VALUES
+(21, 3, 1, 1200.00, 1200.00)
+) AS v (order_id, product_id, quantity, unit_price, line_total) JOIN orders o ON o.id = v.order_id;
 
 -- Order 22 (Alice)
-INSERT INTO order_items (order_id, product_id, quantity, unit_price, line_total) VALUES
-(22, 5, 1, 1800.00, 1800.00);
+INSERT INTO order_items (order_id, order_created_at, product_id, quantity, unit_price, line_total)
+SELECT v.order_id, o.created_at, v.product_id, v.quantity, v.unit_price, v.line_total FROM (VALUES
+(22, 5, 1, 1800.00, 1800.00)
+) AS v (order_id, product_id, quantity, unit_price, line_total) JOIN orders o ON o.id = v.order_id;
 
 -- Order 23 (Alice)
-INSERT INTO order_items (order_id, product_id, quantity, unit_price, line_total) VALUES
-(23, 7, 1, 900.00, 900.00);
+INSERT INTO order_items (order_id, order_created_at, product_id, quantity, unit_price, line_total)
+SELECT v.order_id, o.created_at, v.product_id, v.quantity, v.unit_price, v.line_total FROM (VALUES
+(23, 7, 1, 900.00, 900.00)
+) AS v (order_id, product_id, quantity, unit_price, line_total) JOIN orders o ON o.id = v.order_id;
 
 -- Order 24 (Alice)
-INSERT INTO order_items (order_id, product_id, quantity, unit_price, line_total) VALUES
-(24, 2, 1, 350.00, 350.00);
+INSERT INTO order_items (order_id, order_created_at, product_id, quantity, unit_price, line_total)
+SELECT v.order_id, o.created_at, v.product_id, v.quantity, v.unit_price, v.line_total FROM (VALUES
+(24, 2, 1, 350.00, 350.00)
+) AS v (order_id, product_id, quantity, unit_price, line_total) JOIN orders o ON o.id = v.order_id;
 
 -- Order 25 (Alice)
-INSERT INTO order_items (order_id, product_id, quantity, unit_price, line_total) VALUES
-(25, 9, 1, 650.00, 650.00);
+INSERT INTO order_items (order_id, order_created_at, product_id, quantity, unit_price, line_total)
+SELECT v.order_id, o.created_at, v.product_id, v.quantity, v.unit_price, v.line_total FROM (VALUES
+(25, 9, 1, 650.00, 650.00)
+) AS v (order_id, product_id, quantity, unit_price, line_total) JOIN orders o ON o.id = v.order_id;
 
 -- Order 26 (Charlie Brown)
-INSERT INTO order_items (order_id, product_id, quantity, unit_price, line_total) VALUES
-(26, 6, 1, 450.00, 450.00);
+INSERT INTO order_items (order_id, order_created_at, product_id, quantity, unit_price, line_total)
+SELECT v.order_id, o.created_at, v.product_id, v.quantity, v.unit_price, v.line_total FROM (VALUES
+(26, 6, 1, 450.00, 450.00)
+) AS v (order_id, product_id, quantity, unit_price, line_total) JOIN orders o ON o.id = v.order_id;
+
+-- ============================================================================
+-- 6. RÉALIGNER LES SÉQUENCES (allocation par blocs de 50 côté Hibernate)
+-- ============================================================================
+
+SELECT setval('users_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM users), false);
+ALTER SEQUENCE users_seq INCREMENT BY 50;
+SELECT setval('products_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM products), false);
+ALTER SEQUENCE products_seq INCREMENT BY 50;
+SELECT setval('orders_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM orders), false);
+ALTER SEQUENCE orders_seq INCREMENT BY 50;
+SELECT setval('order_items_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM order_items), false);
+ALTER SEQUENCE order_items_seq INCREMENT BY 50;
+
+-- ============================================================================
+-- CAMPAGNES DE CODES PROMO
+-- ============================================================================
+INSERT INTO promo_codes (code, discount_percentage, valid_from, valid_until, max_uses, used_count, active, created_at, updated_at) VALUES
+('PROMO-ABC1', 5.0, '2025-11-01 00:00:00', NULL, 100, 1, TRUE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+('PROMO-NOEL', 10.0, '2025-12-01 00:00:00', '2026-01-01 00:00:00', 500, 0, TRUE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
+
+-- ============================================================================
+-- PROJECTION ORDER_SUMMARY (listes de commandes)
+-- ============================================================================
+INSERT INTO order_summary (order_id, client_id, client_name, date, created_at, status, item_count,
+                           subtotal, discount_amount, total, paid_amount, remaining_amount, updated_at)
+SELECT o.id, o.client_id, c.name, o.date, o.created_at, o.status,
+       (SELECT COUNT(*) FROM order_items i WHERE i.order_id = o.id),
+       o.subtotal, o.discount_amount, o.total,
+       (SELECT COALESCE(SUM(p.amount), 0) FROM payments p WHERE p.order_id = o.id AND p.status = 'ENCAISSE'),
+       o.remaining_amount, CURRENT_TIMESTAMP
+FROM orders o
+JOIN clients c ON c.user_id = o.client_id
+ON CONFLICT (order_id) DO NOTHING;
 
 -- ============================================================================
 -- STATISTIQUES FINALES
@@ -0,0 +1,17 @@
+package com.example.smartshop.config;
+
+import com.example.smartshop.exception.BusinessException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applique smartshop.exceptions.stack-traces au démarrage.
+ * Mettre à true pour retrouver les stack traces des exceptions métier en débogage.
+ */
+@Component
+public class BusinessExceptionSettings {
+
+  public BusinessExceptionSettings(@Value("${smartshop.exceptions.stack-traces:false}") boolean stackTraces) {
+    BusinessException.setStackTraceEnabled(stackTraces);
+  }
+}
@@ -0,0 +1,57 @@
+package com.example.smartshop.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache de second niveau Hibernate (JCache / Caffeine, local à l'instance).
+ *
+ * Chaque région est créée explicitement avec sa taille maximale et sa durée de vie :
+ * smartshop.cache.<region>.max-size et smartshop.cache.<region>.ttl-minutes.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+  /** Régions déclarées par les @Cache des entités */
+  static final List<String> REGIONS = List.of("products", "clients", "users");
+
+  private static final long DEFAULT_MAX_SIZE = 10_000;
+  private static final long DEFAULT_TTL_MINUTES = 10;
+
+  @Bean(destroyMethod = "close")
+  public CacheManager hibernateCacheManager(Environment environment) {
+    CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+        .getCacheManager();
+
+    for (String region : REGIONS) {
+      long maxSize = environment.getProperty("smartshop.cache." + region + ".max-size", Long.class, DEFAULT_MAX_SIZE);
+      long ttlMinutes = environment.getProperty("smartshop.cache." + region + ".ttl-minutes", Long.class,
+          DEFAULT_TTL_MINUTES);
+
+      CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+      configuration.setMaximumSize(OptionalLong.of(maxSize));
+      configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.MINUTES.toNanos(ttlMinutes)));
+      configuration.setStatisticsEnabled(true);
+
+      if (cacheManager.getCache(region) == null) {
+        cacheManager.createCache(region, configuration);
+      }
+    }
+    return cacheManager;
+  }
+
+  @Bean
+  public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+    return properties -> properties.put("hibernate.javax.cache.cache_manager", hibernateCacheManager);
+  }
+}
@@ -0,0 +1,27 @@
+package com.example.smartshop.config;
+
+import com.example.smartshop.metrics.QueryCountingIntegrator;
+import com.example.smartshop.metrics.QueryCountingStatementInspector;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Branche les compteurs par requête HTTP (RequestQueryStats) sur Hibernate
+ */
+@Configuration
+public class HibernateMetricsConfig {
+
+  @Bean
+  public HibernatePropertiesCustomizer queryCountingCustomizer() {
+    return properties -> {
+      properties.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryCountingStatementInspector());
+      properties.put("hibernate.integrator_provider",
+          (IntegratorProvider) () -> List.of(new QueryCountingIntegrator()));
+    };
+  }
+}
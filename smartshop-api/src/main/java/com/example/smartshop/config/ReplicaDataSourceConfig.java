@@ -0,0 +1,84 @@
+package com.example.smartshop.config;
+
+import com.example.smartshop.datasource.ReadWriteRoutingDataSource;
+import com.example.smartshop.datasource.ReadYourWritesGuard;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Réplique en lecture, active si smartshop.datasource.replica.url est renseignée.
+ *
+ * Deux pools Hikari : "primary" (spring.datasource.*, spring.datasource.hikari.*) et
+ * "replica" (smartshop.datasource.replica.url / username / password, puis
+ * smartshop.datasource.replica.hikari.*). Le DataSource de l'application (JPA, JdbcTemplate)
+ * les aiguille selon la transaction (ReadWriteRoutingDataSource) ; Flyway migre le primaire.
+ *
+ * Hibernate rend sa connexion à la fin de chaque transaction : par défaut (Spring), un
+ * EntityManager ouvert pour toute la requête (open-in-view) garderait la première connexion
+ * obtenue, et une écriture suivant une lecture readOnly partirait sur la réplique.
+ *
+ * Sans réplique, Spring Boot configure son unique pool habituel.
+ */
+@Configuration
+@ConditionalOnProperty(name = "smartshop.datasource.replica.url")
+public class ReplicaDataSourceConfig {
+
+  @Bean
+  @FlywayDataSource
+  @ConfigurationProperties("spring.datasource.hikari")
+  public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+    HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    dataSource.setPoolName("primary");
+    return dataSource;
+  }
+
+  @Bean
+  @ConfigurationProperties("smartshop.datasource.replica.hikari")
+  public HikariDataSource replicaDataSource(@Value("${smartshop.datasource.replica.url}") String url,
+      @Value("${smartshop.datasource.replica.username:${spring.datasource.username:}}") String username,
+      @Value("${smartshop.datasource.replica.password:${spring.datasource.password:}}") String password) {
+    HikariDataSource dataSource = DataSourceBuilder.create()
+        .type(HikariDataSource.class)
+        .url(url)
+        .username(username)
+        .password(password)
+        .build();
+    dataSource.setPoolName("replica");
+    dataSource.setReadOnly(true);
+    return dataSource;
+  }
+
+  @Bean
+  public HibernatePropertiesCustomizer connectionPerTransactionCustomizer() {
+    return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+        PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+      @Qualifier("replicaDataSource") DataSource replicaDataSource, ReadYourWritesGuard guard,
+      MeterRegistry meterRegistry) {
+    ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primaryDataSource, replicaDataSource,
+        guard, meterRegistry);
+    routing.afterPropertiesSet();
+    // Connexion réelle obtenue à la première requête, une fois le caractère readOnly connu
+    return new LazyConnectionDataSourceProxy(routing);
+  }
+}
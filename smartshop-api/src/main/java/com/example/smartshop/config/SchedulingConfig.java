@@ -0,0 +1,14 @@
+package com.example.smartshop.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Active les tâches @Scheduled propres à chaque nœud (relais outbox, heartbeats SSE, caches) ;
+ * taille du pool : spring.task.scheduling.pool.size. Les traitements de JobRunner ont leur
+ * propre planificateur (smartshop.jobs.scheduler.pool-size).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
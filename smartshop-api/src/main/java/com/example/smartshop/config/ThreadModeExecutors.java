@@ -0,0 +1,79 @@
+package com.example.smartshop.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pools de threads propres aux composants (traitements JobRunner, envoi SSE, commandes en
+ * lot) qui suivent spring.threads.virtual.enabled comme Tomcat, @Async et @Scheduled.
+ *
+ * Threads plateforme : pool borné de threads démons. Threads virtuels : un thread neuf par
+ * tâche (Executors.newThreadPerTaskExecutor, aucun ThreadLocal hérité d'une tâche
+ * précédente), la concurrence étant bornée par l'appelant. Ces pools ne sont pas des beans
+ * Executor pour ne pas remplacer applicationTaskExecutor ni taskScheduler.
+ */
+@Component
+public class ThreadModeExecutors {
+
+  private final boolean virtualThreads;
+
+  public ThreadModeExecutors(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+    this.virtualThreads = virtualThreads;
+  }
+
+  public boolean isVirtualThreads() {
+    return virtualThreads;
+  }
+
+  /**
+   * @param platformThreads taille du pool en mode threads plateforme
+   */
+  public ExecutorService newExecutor(String name, int platformThreads) {
+    return virtualThreads
+        ? newThreadPerTaskExecutor(threadFactory(name))
+        : Executors.newFixedThreadPool(platformThreads, threadFactory(name));
+  }
+
+  /**
+   * Planificateur dédié, distinct du taskScheduler partagé des tâches @Scheduled
+   */
+  public ThreadPoolTaskScheduler newScheduler(String name, int poolSize) {
+    ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+    scheduler.setPoolSize(poolSize);
+    scheduler.setThreadFactory(threadFactory(name));
+    scheduler.initialize();
+    return scheduler;
+  }
+
+  // API Java 21 (threads virtuels), appelée par réflexion : le code est compilé en Java 17
+  private static ExecutorService newThreadPerTaskExecutor(ThreadFactory threadFactory) {
+    try {
+      return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+          .invoke(null, threadFactory);
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      throw new IllegalStateException("Virtual threads require Java 21", e);
+    } catch (InvocationTargetException e) {
+      throw new IllegalStateException("Cannot create a thread-per-task executor", e.getCause());
+    }
+  }
+
+  private ThreadFactory threadFactory(String name) {
+    if (virtualThreads) {
+      return new VirtualThreadTaskExecutor(name + "-").getVirtualThreadFactory();
+    }
+    AtomicInteger threadCount = new AtomicInteger();
+    return runnable -> {
+      Thread thread = new Thread(runnable, name + "-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+}
@@ -2,7 +2,9 @@ package com.example.smartshop.config;
 
 import com.example.smartshop.interceptor.AdminInterceptor;
 import com.example.smartshop.interceptor.LoginInterceptor;
+import com.example.smartshop.interceptor.RequestMetricsInterceptor;
 import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -10,18 +12,31 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 public class WebConfig implements WebMvcConfigurer {
   private LoginInterceptor loginInterceptor;
   private AdminInterceptor adminInterceptor;
+  private RequestMetricsInterceptor requestMetricsInterceptor;
 
-  public WebConfig(LoginInterceptor loginInterceptor, AdminInterceptor adminInterceptor) {
+  public WebConfig(LoginInterceptor loginInterceptor, AdminInterceptor adminInterceptor,
+      RequestMetricsInterceptor requestMetricsInterceptor) {
     this.loginInterceptor = loginInterceptor;
     this.adminInterceptor = adminInterceptor;
+    this.requestMetricsInterceptor = requestMetricsInterceptor;
   }
 
   @Override
   public void addInterceptors(InterceptorRegistry registry) {
+    // En premier : mesure aussi les requêtes SQL des interceptors d'authentification
+    registry.addInterceptor(requestMetricsInterceptor)
+        .addPathPatterns("/api/**");
+
     registry.addInterceptor(loginInterceptor)
         .addPathPatterns("/api/client/**", "/api/admin/orders/**", "/api/profile/**");
 
     registry.addInterceptor(adminInterceptor)
         .addPathPatterns("/api/admin/**");
   }
+
+  @Override
+  public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+    // Compteurs SQL des réponses en flux, sur le thread du traitement asynchrone
+    configurer.registerCallableInterceptors(requestMetricsInterceptor);
+  }
 }
@@ -0,0 +1,57 @@
+package com.example.smartshop.controller;
+
+import com.example.smartshop.service.FlightRecordingService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Enregistrements JFR à la demande, réservés aux administrateurs
+ */
+@RestController
+@RequestMapping("/api/admin/diagnostics/jfr")
+public class DiagnosticsController {
+
+  private final FlightRecordingService flightRecordingService;
+
+  public DiagnosticsController(FlightRecordingService flightRecordingService) {
+    this.flightRecordingService = flightRecordingService;
+  }
+
+  @PostMapping("/start")
+  public ResponseEntity<Map<String, Object>> start() {
+    Map<String, Object> recording = flightRecordingService.start();
+    Map<String, Object> response = new HashMap<>();
+    response.put("message", "Recording started");
+    response.put("recording", recording);
+    return ResponseEntity.ok(response);
+  }
+
+  @PostMapping("/dump")
+  public ResponseEntity<Map<String, Object>> dump() {
+    Path file = flightRecordingService.dump();
+    Map<String, Object> response = new HashMap<>();
+    response.put("message", "Recording dumped");
+    response.put("file", file.toString());
+    return ResponseEntity.ok(response);
+  }
+
+  @PostMapping("/stop")
+  public ResponseEntity<Map<String, Object>> stop() {
+    Path file = flightRecordingService.stop();
+    Map<String, Object> response = new HashMap<>();
+    response.put("message", "Recording stopped");
+    response.put("file", file.toString());
+    return ResponseEntity.ok(response);
+  }
+
+  @GetMapping
+  public ResponseEntity<Map<String, Object>> status() {
+    Map<String, Object> response = new HashMap<>();
+    response.put("message", "Recording status retrieved successfully");
+    response.put("recording", flightRecordingService.status());
+    return ResponseEntity.ok(response);
+  }
+}
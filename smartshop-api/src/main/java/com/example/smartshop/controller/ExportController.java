@@ -0,0 +1,51 @@
+package com.example.smartshop.controller;
+
+import com.example.smartshop.service.ExportService;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.time.LocalDate;
+
+/**
+ * Exports complets au format NDJSON, écrits en flux (pas de pagination)
+ */
+@RestController
+@RequestMapping("/api/admin/export")
+public class ExportController {
+
+  private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+  private final ExportService exportService;
+
+  public ExportController(ExportService exportService) {
+    this.exportService = exportService;
+  }
+
+  @GetMapping("/products")
+  public ResponseEntity<StreamingResponseBody> exportProducts() {
+    return ndjson("products", exportService::exportProducts);
+  }
+
+  @GetMapping("/orders")
+  public ResponseEntity<StreamingResponseBody> exportOrders() {
+    return ndjson("orders", exportService::exportOrders);
+  }
+
+  @GetMapping("/payments")
+  public ResponseEntity<StreamingResponseBody> exportPayments() {
+    return ndjson("payments", exportService::exportPayments);
+  }
+
+  private ResponseEntity<StreamingResponseBody> ndjson(String name, StreamingResponseBody body) {
+    String filename = name + "-" + LocalDate.now() + ".ndjson";
+    return ResponseEntity.ok()
+        .contentType(NDJSON)
+        .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+        .body(body);
+  }
+}
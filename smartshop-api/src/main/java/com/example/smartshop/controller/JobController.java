@@ -0,0 +1,53 @@
+package com.example.smartshop.controller;
+
+import com.example.smartshop.dto.JobDTO;
+import com.example.smartshop.dto.JobExecutionDTO;
+import com.example.smartshop.job.JobRunner;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/jobs")
+public class JobController {
+
+  private final JobRunner jobRunner;
+
+  public JobController(JobRunner jobRunner) {
+    this.jobRunner = jobRunner;
+  }
+
+  @GetMapping
+  public ResponseEntity<Map<String, Object>> getJobs() {
+    List<JobDTO> jobs = jobRunner.jobs();
+    Map<String, Object> response = new HashMap<>();
+    response.put("message", "Jobs retrieved successfully");
+    response.put("jobs", jobs);
+    return ResponseEntity.ok(response);
+  }
+
+  /**
+   * Lance le traitement en arrière-plan sur ce nœud ; 409 s'il est déjà en cours sur un nœud
+   */
+  @PostMapping("/{name}/run")
+  public ResponseEntity<Map<String, Object>> runJob(@PathVariable String name) {
+    jobRunner.trigger(name);
+    Map<String, Object> response = new HashMap<>();
+    response.put("message", "Job started");
+    response.put("job", name);
+    return ResponseEntity.accepted().body(response);
+  }
+
+  @GetMapping("/{name}/executions")
+  public ResponseEntity<Map<String, Object>> getExecutions(
+      @PathVariable String name,
+      @RequestParam(defaultValue = "20") int limit) {
+    List<JobExecutionDTO> executions = jobRunner.executions(name, Math.max(1, Math.min(limit, 100)));
+    Map<String, Object> response = new HashMap<>();
+    response.put("message", "Job executions retrieved successfully");
+    response.put("executions", executions);
+    return ResponseEntity.ok(response);
+  }
+}
@@ -1,9 +1,14 @@
 package com.example.smartshop.controller;
 
+import com.example.smartshop.dto.BulkOrderRequestDTO;
+import com.example.smartshop.dto.BulkOrderResultDTO;
 import com.example.smartshop.dto.OrderRequestDTO;
 import com.example.smartshop.dto.OrderResponseDTO;
+import com.example.smartshop.dto.OrderSummaryDTO;
 import com.example.smartshop.dto.PaymentRequestDTO;
 import com.example.smartshop.dto.PaymentResponseDTO;
+import com.example.smartshop.idempotency.IdempotencyStore;
+import com.example.smartshop.service.BulkOrderService;
 import com.example.smartshop.service.OrderService;
 import com.example.smartshop.service.PaymentService;
 import org.springframework.http.ResponseEntity;
@@ -19,24 +24,46 @@ public class OrderController {
 
   private final OrderService orderService;
   private final PaymentService paymentService;
+  private final BulkOrderService bulkOrderService;
+  private final IdempotencyStore idempotencyStore;
 
-  public OrderController(OrderService orderService, PaymentService paymentService) {
+  public OrderController(OrderService orderService, PaymentService paymentService,
+      BulkOrderService bulkOrderService, IdempotencyStore idempotencyStore) {
     this.orderService = orderService;
     this.paymentService = paymentService;
+    this.bulkOrderService = bulkOrderService;
+    this.idempotencyStore = idempotencyStore;
   }
 
   @PostMapping
-  public ResponseEntity<Map<String, Object>> createOrder(@Valid @RequestBody OrderRequestDTO dto) {
-    OrderResponseDTO order = orderService.create(dto);
+  public ResponseEntity<Map<String, Object>> createOrder(@Valid @RequestBody OrderRequestDTO dto,
+      @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+    return idempotencyStore.execute(IdempotencyStore.ORDER_CREATE, idempotencyKey, dto, () -> {
+      OrderResponseDTO order = orderService.create(dto);
+      Map<String, Object> response = new HashMap<>();
+      response.put("message", "Order created successfully");
+      response.put("order", order);
+      return ResponseEntity.status(201).body(response);
+    });
+  }
+
+  @PostMapping("/bulk")
+  public ResponseEntity<Map<String, Object>> createOrders(@Valid @RequestBody BulkOrderRequestDTO dto) {
+    List<BulkOrderResultDTO> results = bulkOrderService.createAll(dto.getOrders());
+    long created = results.stream()
+        .filter(result -> BulkOrderResultDTO.CREATED.equals(result.getResult()))
+        .count();
     Map<String, Object> response = new HashMap<>();
-    response.put("message", "Order created successfully");
-    response.put("order", order);
-    return ResponseEntity.status(201).body(response);
+    response.put("message", "Bulk order request processed");
+    response.put("results", results);
+    response.put("created", created);
+    response.put("rejected", results.size() - created);
+    return ResponseEntity.ok(response);
   }
 
   @GetMapping
   public ResponseEntity<Map<String, Object>> getAllOrders() {
-    List<OrderResponseDTO> orders = orderService.findAll();
+    List<OrderSummaryDTO> orders = orderService.findAll();
     Map<String, Object> response = new HashMap<>();
     response.put("message", "Orders retrieved successfully");
     response.put("orders", orders);
@@ -55,7 +82,7 @@ public class OrderController {
 
   @GetMapping("/client/{clientId}")
   public ResponseEntity<Map<String, Object>> getClientOrders(@PathVariable Long clientId) {
-    List<OrderResponseDTO> orders = orderService.findAllByClientId(clientId);
+    List<OrderSummaryDTO> orders = orderService.findAllByClientId(clientId);
     Map<String, Object> response = new HashMap<>();
     response.put("message", "Orders retrieved successfully");
     response.put("orders", orders);
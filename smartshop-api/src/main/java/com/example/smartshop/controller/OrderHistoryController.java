@@ -2,10 +2,15 @@ package com.example.smartshop.controller;
 
 import com.example.smartshop.dto.OrderHistoryDTO;
 import com.example.smartshop.service.OrderService;
+import com.example.smartshop.sse.ClientEventHub;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import jakarta.servlet.http.HttpSession;
 import java.util.HashMap;
 import java.util.List;
@@ -16,9 +21,11 @@ import java.util.Map;
 public class OrderHistoryController {
 
   private final OrderService orderService;
+  private final ClientEventHub clientEventHub;
 
-  public OrderHistoryController(OrderService orderService) {
+  public OrderHistoryController(OrderService orderService, ClientEventHub clientEventHub) {
     this.orderService = orderService;
+    this.clientEventHub = clientEventHub;
   }
 
   @GetMapping("/history")
@@ -34,4 +41,20 @@ public class OrderHistoryController {
 
     return ResponseEntity.ok(response);
   }
+
+  /**
+   * Flux SSE des changements de statut des commandes (order-status) et paiements
+   * (payment-status) du client connecté, poussés après validation.
+   * 503 + Retry-After si le plafond de connexions est atteint.
+   */
+  @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public ResponseEntity<SseEmitter> streamOrderEvents(HttpSession session) {
+    Long clientId = (Long) session.getAttribute("user");
+
+    return clientEventHub.subscribe(clientId)
+        .map(ResponseEntity::ok)
+        .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, "30")
+            .build());
+  }
 }
@@ -1,9 +1,12 @@
 package com.example.smartshop.controller;
 
+import com.example.smartshop.dto.BulkPaymentStatusRequestDTO;
+import com.example.smartshop.dto.BulkPaymentStatusResultDTO;
 import com.example.smartshop.dto.PaymentRequestDTO;
 import com.example.smartshop.dto.PaymentResponseDTO;
 import com.example.smartshop.entity.PaymentMethod;
 import com.example.smartshop.entity.PaymentStatus;
+import com.example.smartshop.idempotency.IdempotencyStore;
 import com.example.smartshop.service.PaymentService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -19,9 +22,11 @@ import java.util.Map;
 public class PaymentController {
 
   private final PaymentService paymentService;
+  private final IdempotencyStore idempotencyStore;
 
-  public PaymentController(PaymentService paymentService) {
+  public PaymentController(PaymentService paymentService, IdempotencyStore idempotencyStore) {
     this.paymentService = paymentService;
+    this.idempotencyStore = idempotencyStore;
   }
 
   /**
@@ -34,18 +39,25 @@ public class PaymentController {
    * 
    * Fractional payments: orders can be paid in multiple installments
    * 
-   * @param dto Payment request DTO
+   * Retries: a request sent again with the same Idempotency-Key header returns the
+   * first response instead of recording a second installment
+   * 
+   * @param dto            Payment request DTO
+   * @param idempotencyKey Optional Idempotency-Key header
    * @return Created payment with sequence number and remaining amount
    */
   @PostMapping
-  public ResponseEntity<Map<String, Object>> addPayment(@Valid @RequestBody PaymentRequestDTO dto) {
-    PaymentResponseDTO payment = paymentService.addPayment(dto);
-    Map<String, Object> response = new HashMap<>();
-    response.put("message", "Payment recorded successfully");
-    response.put("payment", payment);
-    response.put("sequence_number", payment.getSequenceNumber());
-    response.put("remaining_amount", payment.getRemainingAmount());
-    return ResponseEntity.status(201).body(response);
+  public ResponseEntity<Map<String, Object>> addPayment(@Valid @RequestBody PaymentRequestDTO dto,
+      @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+    return idempotencyStore.execute(IdempotencyStore.PAYMENT_CREATE, idempotencyKey, dto, () -> {
+      PaymentResponseDTO payment = paymentService.addPayment(dto);
+      Map<String, Object> response = new HashMap<>();
+      response.put("message", "Payment recorded successfully");
+      response.put("payment", payment);
+      response.put("sequence_number", payment.getSequenceNumber());
+      response.put("remaining_amount", payment.getRemainingAmount());
+      return ResponseEntity.status(201).body(response);
+    });
   }
 
   /**
@@ -162,6 +174,30 @@ public class PaymentController {
     return ResponseEntity.ok(response);
   }
 
+  /**
+   * Update the status of several payments at once (cheques collected, transfers rejected)
+   * 
+   * Each change follows the same transitions as the single update; an invalid change
+   * is reported in its result without blocking the others.
+   * 
+   * @param dto Status changes
+   * @return Result per change, with the number of updated and rejected changes
+   */
+  @PutMapping("/status")
+  public ResponseEntity<Map<String, Object>> updatePaymentStatuses(
+      @Valid @RequestBody BulkPaymentStatusRequestDTO dto) {
+    List<BulkPaymentStatusResultDTO> results = paymentService.updatePaymentStatuses(dto.getUpdates());
+    long updated = results.stream()
+        .filter(result -> BulkPaymentStatusResultDTO.UPDATED.equals(result.getResult()))
+        .count();
+    Map<String, Object> response = new HashMap<>();
+    response.put("message", "Bulk payment status update processed");
+    response.put("results", results);
+    response.put("updated", updated);
+    response.put("rejected", results.size() - updated);
+    return ResponseEntity.ok(response);
+  }
+
   /**
    * Check if an order is fully paid
    * 
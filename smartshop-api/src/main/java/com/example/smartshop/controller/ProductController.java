@@ -1,11 +1,15 @@
 package com.example.smartshop.controller;
 
+import com.example.smartshop.dto.ProductImportReportDTO;
 import com.example.smartshop.dto.ProductRequestDTO;
 import com.example.smartshop.dto.ProductResponseDTO;
+import com.example.smartshop.service.ProductImportService;
 import com.example.smartshop.service.ProductService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import jakarta.validation.Valid;
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -14,9 +18,11 @@ import java.util.Map;
 public class ProductController {
 
   private final ProductService productService;
+  private final ProductImportService productImportService;
 
-  public ProductController(ProductService productService) {
+  public ProductController(ProductService productService, ProductImportService productImportService) {
     this.productService = productService;
+    this.productImportService = productImportService;
   }
 
   // ===== ADMIN ONLY ENDPOINTS =====
@@ -30,6 +36,21 @@ public class ProductController {
     return ResponseEntity.status(201).body(response);
   }
 
+  /**
+   * Import ERP : CSV (en-tête sku,name,price,stock) ou NDJSON, lu en flux
+   */
+  @PostMapping(value = "/import", consumes = { "text/csv", "application/x-ndjson" })
+  public ResponseEntity<Map<String, Object>> importProducts(
+      @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+      InputStream body) {
+    ProductImportReportDTO report = productImportService.importProducts(body,
+        ProductImportService.Format.fromContentType(contentType));
+    Map<String, Object> response = new HashMap<>();
+    response.put("message", "Product import completed");
+    response.put("report", report);
+    return ResponseEntity.ok(response);
+  }
+
   @PutMapping("/{id}")
   public ResponseEntity<Map<String, Object>> updateProduct(
       @PathVariable Long id,
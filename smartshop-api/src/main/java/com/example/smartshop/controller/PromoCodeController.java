@@ -0,0 +1,52 @@
+package com.example.smartshop.controller;
+
+import com.example.smartshop.dto.PromoCodeRequestDTO;
+import com.example.smartshop.dto.PromoCodeResponseDTO;
+import com.example.smartshop.service.PromoCodeService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import jakarta.validation.Valid;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/promo-codes")
+public class PromoCodeController {
+
+  private final PromoCodeService promoCodeService;
+
+  public PromoCodeController(PromoCodeService promoCodeService) {
+    this.promoCodeService = promoCodeService;
+  }
+
+  @GetMapping
+  public ResponseEntity<Map<String, Object>> getAllPromoCodes() {
+    List<PromoCodeResponseDTO> promoCodes = promoCodeService.findAll();
+    Map<String, Object> response = new HashMap<>();
+    response.put("message", "Promo codes retrieved successfully");
+    response.put("promoCodes", promoCodes);
+    response.put("total", promoCodes.size());
+    return ResponseEntity.ok(response);
+  }
+
+  @PostMapping
+  public ResponseEntity<Map<String, Object>> createPromoCode(@Valid @RequestBody PromoCodeRequestDTO dto) {
+    PromoCodeResponseDTO promoCode = promoCodeService.create(dto);
+    Map<String, Object> response = new HashMap<>();
+    response.put("message", "Promo code created successfully");
+    response.put("promoCode", promoCode);
+    return ResponseEntity.status(201).body(response);
+  }
+
+  @PutMapping("/{id}")
+  public ResponseEntity<Map<String, Object>> updatePromoCode(
+      @PathVariable Long id,
+      @Valid @RequestBody PromoCodeRequestDTO dto) {
+    PromoCodeResponseDTO promoCode = promoCodeService.update(id, dto);
+    Map<String, Object> response = new HashMap<>();
+    response.put("message", "Promo code updated successfully");
+    response.put("promoCode", promoCode);
+    return ResponseEntity.ok(response);
+  }
+}
@@ -0,0 +1,70 @@
+package com.example.smartshop.controller;
+
+import com.example.smartshop.dto.TierRuleDTO;
+import com.example.smartshop.entity.CustomerTier;
+import com.example.smartshop.job.JobRunner;
+import com.example.smartshop.job.TierRecomputationJob;
+import com.example.smartshop.service.TierRuleService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import jakarta.validation.Valid;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/tier-rules")
+public class TierRuleController {
+
+  private final TierRuleService tierRuleService;
+  private final TierRecomputationJob tierRecomputationJob;
+  private final JobRunner jobRunner;
+
+  public TierRuleController(TierRuleService tierRuleService, TierRecomputationJob tierRecomputationJob,
+      JobRunner jobRunner) {
+    this.tierRuleService = tierRuleService;
+    this.tierRecomputationJob = tierRecomputationJob;
+    this.jobRunner = jobRunner;
+  }
+
+  @GetMapping
+  public ResponseEntity<Map<String, Object>> getTierRules() {
+    List<TierRuleDTO> rules = tierRuleService.findAll();
+    Map<String, Object> response = new HashMap<>();
+    response.put("message", "Tier rules retrieved successfully");
+    response.put("tierRules", rules);
+    return ResponseEntity.ok(response);
+  }
+
+  @PutMapping("/{tier}")
+  public ResponseEntity<Map<String, Object>> updateTierRule(
+      @PathVariable CustomerTier tier,
+      @Valid @RequestBody TierRuleDTO dto) {
+    TierRuleDTO rule = tierRuleService.update(tier, dto);
+    Map<String, Object> response = new HashMap<>();
+    response.put("message", "Tier rule updated successfully");
+    response.put("tierRule", rule);
+    return ResponseEntity.ok(response);
+  }
+
+  /**
+   * Relance le recalcul des niveaux de tous les clients (par exemple après une
+   * modification des règles) ; il reprend au dernier point de reprise s'il a été interrompu
+   */
+  @PostMapping("/recompute")
+  public ResponseEntity<Map<String, Object>> recomputeTiers() {
+    jobRunner.trigger(TierRecomputationJob.NAME);
+    Map<String, Object> response = new HashMap<>();
+    response.put("message", "Tier recomputation started");
+    response.put("job", tierRecomputationJob.progress());
+    return ResponseEntity.accepted().body(response);
+  }
+
+  @GetMapping("/recompute")
+  public ResponseEntity<Map<String, Object>> getRecomputeProgress() {
+    Map<String, Object> response = new HashMap<>();
+    response.put("message", "Tier recomputation progress retrieved successfully");
+    response.put("job", tierRecomputationJob.progress());
+    return ResponseEntity.ok(response);
+  }
+}
@@ -0,0 +1,397 @@
+package com.example.smartshop.datagen;
+
+import com.example.smartshop.entity.CustomerTier;
+import com.example.smartshop.entity.Order;
+import com.example.smartshop.entity.OrderStatus;
+import com.example.smartshop.entity.PaymentMethod;
+import com.example.smartshop.entity.PaymentStatus;
+import com.example.smartshop.entity.UserRole;
+import com.example.smartshop.pricing.TierRuleTable;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Génère les lignes d'un jeu de données réaliste à partir d'un DatasetSpec.
+ *
+ * Chaque commande est tirée d'un générateur aléatoire dédié (graine + index) : la même
+ * commande peut être régénérée à l'identique, ce qui permet d'écrire orders,
+ * order_items puis payments en trois passes (un seul COPY actif par connexion) sans
+ * garder les commandes en mémoire. Une passe préalable calcule les statistiques et le
+ * tier de chaque client, écrits avant les commandes pour respecter les clés étrangères.
+ * Les commandes sont créées dans l'ordre de leurs ids : cette passe retient le tier de
+ * chaque client à la date de chaque commande, qui en fixe la remise de fidélité.
+ *
+ * Distributions :
+ * - clients et produits choisis avec une concentration (skew) : quelques gros clients,
+ *   quelques produits best-sellers ;
+ * - paniers de 1 à maxBasketSize produits distincts, 2,2 lignes en moyenne ;
+ * - statuts 70 % CONFIRMED, 15 % PENDING, 10 % CANCELED, 5 % REJECTED ;
+ * - commandes confirmées payées en 1 (70 %), 2 (20 %) ou 3 (10 %) échéances ;
+ * - 30 % espèces (plafond 20 000 DH), 30 % chèques (échéance à 0-60 jours), 40 % virements ;
+ * - tier déduit des commandes confirmées, avec les règles par défaut de TierRuleTable ;
+ * - remise de fidélité du tier (TierRuleTable.DEFAULT, comme OrderService), plus 5 % pour
+ *   un code promo, puis TVA de Order.VAT_RATE.
+ */
+public class DatasetGenerator {
+
+  public static final String[] USER_COLUMNS = { "id", "username", "password", "role" };
+  public static final String[] CLIENT_COLUMNS = { "user_id", "name", "email", "tier", "total_orders",
+      "total_spent", "first_order_date", "last_order_date" };
+  public static final String[] PRODUCT_COLUMNS = { "id", "sku", "name", "price", "stock", "deleted" };
+  public static final String[] ORDER_COLUMNS = { "id", "client_id", "date", "created_at", "status", "subtotal",
+      "discount_amount", "tax", "total", "promo_code", "remaining_amount" };
+  public static final String[] ORDER_ITEM_COLUMNS = { "id", "order_id", "order_created_at", "product_id",
+      "quantity", "unit_price", "line_total" };
+  public static final String[] PAYMENT_COLUMNS = { "id", "order_id", "order_created_at", "amount", "method", "status",
+      "payment_date", "sequence_number", "receipt_number", "check_number", "check_bank", "check_due_date", "transfer_reference",
+      "transfer_bank", "created_at", "updated_at" };
+
+  private static final String PASSWORD = Base64.getEncoder()
+      .encodeToString("client123".getBytes(StandardCharsets.UTF_8));
+  // Remise des codes promo générés (aucune campagne n'est chargée)
+  private static final double PROMO_PERCENTAGE = 5.0;
+  private static final double CASH_LIMIT = 20_000.0;
+
+  private static final String[] FIRST_NAMES = { "Youssef", "Salma", "Amine", "Imane", "Omar", "Khadija", "Mehdi",
+      "Sara", "Hamza", "Nadia", "Karim", "Leila", "Anas", "Houda", "Reda", "Meryem", "Ilyas", "Zineb", "Adam", "Rania" };
+  private static final String[] LAST_NAMES = { "El Amrani", "Benali", "Alaoui", "Tazi", "Bennani", "Idrissi",
+      "Chraibi", "Berrada", "Fassi", "Lahlou", "Ouazzani", "Kettani", "Sekkat", "Benjelloun", "Mansouri" };
+  private static final String[] PRODUCT_TYPES = { "Laptop", "Souris", "Clavier", "Écran", "Casque", "Webcam",
+      "Disque SSD", "Hub USB-C", "Imprimante", "Routeur", "Tablette", "Enceinte", "Station d'accueil", "Câble HDMI" };
+  private static final String[] BRANDS = { "ASUS", "Logitech", "Dell", "HP", "Lenovo", "Samsung", "Sony", "Anker",
+      "Corsair", "Razer", "TP-Link", "Acer" };
+  private static final String[] BANKS = { "Attijariwafa Bank", "BMCE Bank", "Banque Populaire", "CIH Bank",
+      "Société Générale", "Crédit Agricole" };
+
+  private final DatasetSpec spec;
+  private final IdOffsets offsets;
+  private final double[] productPrices;
+
+  // Statistiques clients calculées par la passe préalable
+  private int[] clientOrders;
+  private double[] clientSpent;
+  private LocalDateTime[] clientFirstOrder;
+  private LocalDateTime[] clientLastOrder;
+  // Tier du client à la date de chaque commande (ordinal)
+  private byte[] orderTiers;
+
+  public DatasetGenerator(DatasetSpec spec, IdOffsets offsets) {
+    this.spec = spec;
+    this.offsets = offsets;
+    this.productPrices = new double[spec.getProducts()];
+    SplittableRandom random = new SplittableRandom(spec.getSeed());
+    for (int i = 0; i < productPrices.length; i++) {
+      // Prix log-uniformes entre 20 et 20 000 DH
+      productPrices[i] = round(Math.exp(Math.log(20) + random.nextDouble() * (Math.log(20_000) - Math.log(20))));
+    }
+  }
+
+  public long writeUsers(RowSink sink) throws SQLException {
+    sink.begin("users", USER_COLUMNS);
+    for (int i = 0; i < spec.getClients(); i++) {
+      long id = clientId(i);
+      sink.row(id, "client" + id, PASSWORD, UserRole.CLIENT);
+    }
+    return sink.end();
+  }
+
+  public long writeClients(RowSink sink) throws SQLException {
+    computeClientStatistics();
+    sink.begin("clients", CLIENT_COLUMNS);
+    SplittableRandom random = new SplittableRandom(spec.getSeed() + 1);
+    for (int i = 0; i < spec.getClients(); i++) {
+      long id = clientId(i);
+      String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+      double spent = round(clientSpent[i]);
+      sink.row(id, name, "client" + id + "@example.com", tier(clientOrders[i], spent), clientOrders[i], spent,
+          clientFirstOrder[i], clientLastOrder[i]);
+    }
+    return sink.end();
+  }
+
+  public long writeProducts(RowSink sink) throws SQLException {
+    sink.begin("products", PRODUCT_COLUMNS);
+    SplittableRandom random = new SplittableRandom(spec.getSeed() + 2);
+    for (int i = 0; i < spec.getProducts(); i++) {
+      long id = productId(i);
+      String name = PRODUCT_TYPES[random.nextInt(PRODUCT_TYPES.length)] + " " + BRANDS[random.nextInt(BRANDS.length)]
+          + " " + (100 + random.nextInt(900));
+      int stock = random.nextDouble() < 0.05 ? 0 : random.nextInt(1, 500);
+      boolean deleted = random.nextDouble() < 0.03;
+      sink.row(id, String.format("GEN-%08d", id), name, productPrices[i], stock, deleted);
+    }
+    return sink.end();
+  }
+
+  public long writeOrders(RowSink sink) throws SQLException {
+    sink.begin("orders", ORDER_COLUMNS);
+    for (long i = 0; i < spec.getOrders(); i++) {
+      OrderPlan order = plan(i);
+      sink.row(order.id, clientId(order.clientIndex), order.createdAt.toLocalDate(), order.createdAt, order.status,
+          order.subtotal, order.discount, Order.VAT_RATE, order.total, order.promoCode, order.remaining);
+    }
+    return sink.end();
+  }
+
+  public long writeOrderItems(RowSink sink) throws SQLException {
+    sink.begin("order_items", ORDER_ITEM_COLUMNS);
+    long itemId = offsets.orderItems();
+    for (long i = 0; i < spec.getOrders(); i++) {
+      OrderPlan order = plan(i);
+      for (int line = 0; line < order.productIndexes.length; line++) {
+        double unitPrice = productPrices[order.productIndexes[line]];
+        sink.row(++itemId, order.id, order.createdAt, productId(order.productIndexes[line]), order.quantities[line],
+            unitPrice, round(unitPrice * order.quantities[line]));
+      }
+    }
+    return sink.end();
+  }
+
+  public long writePayments(RowSink sink) throws SQLException {
+    sink.begin("payments", PAYMENT_COLUMNS);
+    long paymentId = offsets.payments();
+    for (long i = 0; i < spec.getOrders(); i++) {
+      OrderPlan order = plan(i);
+      for (int sequence = 0; sequence < order.payments.size(); sequence++) {
+        PaymentPlan payment = order.payments.get(sequence);
+        long id = ++paymentId;
+        sink.row(id, order.id, order.createdAt, payment.amount, payment.method, payment.status, payment.date,
+            sequence + 1,
+            payment.method == PaymentMethod.CASH ? "REC-" + id : null,
+            payment.method == PaymentMethod.CHEQUE ? "CHK-" + id : null,
+            payment.method == PaymentMethod.CHEQUE ? payment.bank : null,
+            payment.method == PaymentMethod.CHEQUE ? payment.date.toLocalDate().plusDays(payment.dueInDays) : null,
+            payment.method == PaymentMethod.TRANSFER ? "VIR-" + id : null,
+            payment.method == PaymentMethod.TRANSFER ? payment.bank : null,
+            payment.date, payment.date);
+      }
+    }
+    return sink.end();
+  }
+
+  /** Plus grand id utilisé par table, pour réaligner les séquences après chargement */
+  public IdOffsets lastIds(long itemCount, long paymentCount) {
+    return new IdOffsets(
+        clientId(spec.getClients() - 1),
+        productId(spec.getProducts() - 1),
+        offsets.orders() + spec.getOrders(),
+        offsets.orderItems() + itemCount,
+        offsets.payments() + paymentCount);
+  }
+
+  private void computeClientStatistics() {
+    int clients = spec.getClients();
+    clientOrders = new int[clients];
+    clientSpent = new double[clients];
+    clientFirstOrder = new LocalDateTime[clients];
+    clientLastOrder = new LocalDateTime[clients];
+    byte[] tiers = new byte[Math.toIntExact(spec.getOrders())];
+    for (int i = 0; i < tiers.length; i++) {
+      // Tier atteint avant la commande (commandes dans l'ordre chronologique)
+      int client = clientIndex(i);
+      CustomerTier tier = tier(clientOrders[client], round(clientSpent[client]));
+      tiers[i] = (byte) tier.ordinal();
+      OrderPlan order = plan(i, tier);
+      if (order.status != OrderStatus.CONFIRMED) {
+        continue;
+      }
+      clientOrders[client]++;
+      clientSpent[client] += order.total;
+      if (clientFirstOrder[client] == null || order.createdAt.isBefore(clientFirstOrder[client])) {
+        clientFirstOrder[client] = order.createdAt;
+      }
+      if (clientLastOrder[client] == null || order.createdAt.isAfter(clientLastOrder[client])) {
+        clientLastOrder[client] = order.createdAt;
+      }
+    }
+    orderTiers = tiers;
+  }
+
+  private OrderPlan plan(long index) {
+    if (orderTiers == null) {
+      computeClientStatistics();
+    }
+    return plan(index, CustomerTier.values()[orderTiers[Math.toIntExact(index)]]);
+  }
+
+  private int clientIndex(long index) {
+    return skewedIndex(orderRandom(index), spec.getClients());
+  }
+
+  private SplittableRandom orderRandom(long index) {
+    return new SplittableRandom(spec.getSeed() * 1_000_003L + index);
+  }
+
+  private OrderPlan plan(long index, CustomerTier tier) {
+    SplittableRandom random = orderRandom(index);
+    OrderPlan order = new OrderPlan();
+    order.id = offsets.orders() + index + 1;
+    order.clientIndex = skewedIndex(random, spec.getClients());
+    // Date uniforme dans le créneau de la commande : les ids suivent la chronologie
+    double slotSeconds = (double) Math.max(1L, spec.getHistoryDays() * 86_400L) / spec.getOrders();
+    order.createdAt = spec.getReferenceDate()
+        .minusSeconds((long) ((spec.getOrders() - index - random.nextDouble()) * slotSeconds));
+
+    // Panier : nombre de lignes géométrique, produits distincts
+    int lines = 1;
+    int maxLines = Math.min(spec.getMaxBasketSize(), spec.getProducts());
+    while (lines < maxLines && random.nextDouble() < 0.55) {
+      lines++;
+    }
+    order.productIndexes = new int[lines];
+    order.quantities = new int[lines];
+    double subtotal = 0;
+    for (int line = 0; line < lines; line++) {
+      int product;
+      do {
+        product = skewedIndex(random, spec.getProducts());
+      } while (contains(order.productIndexes, line, product));
+      order.productIndexes[line] = product;
+      order.quantities[line] = random.nextDouble() < 0.8 ? 1 : random.nextInt(2, 6);
+      subtotal += round(productPrices[product] * order.quantities[line]);
+    }
+
+    double statusDraw = random.nextDouble();
+    order.status = statusDraw < 0.70 ? OrderStatus.CONFIRMED
+        : statusDraw < 0.85 ? OrderStatus.PENDING
+        : statusDraw < 0.95 ? OrderStatus.CANCELED
+        : OrderStatus.REJECTED;
+
+    if (random.nextDouble() < 0.10) {
+      order.promoCode = String.format("PROMO-%04d", random.nextInt(10_000));
+    }
+
+    order.payments = new ArrayList<>();
+    if (order.status == OrderStatus.REJECTED) {
+      // Rupture de stock : montants à zéro, comme OrderService
+      order.subtotal = 0.0;
+      order.discount = 0.0;
+      order.total = 0.0;
+      order.remaining = 0.0;
+      return order;
+    }
+
+    order.subtotal = round(subtotal);
+    double discountPercentage = TierRuleTable.DEFAULT.discountPercentage(tier, order.subtotal)
+        + (order.promoCode != null ? PROMO_PERCENTAGE : 0.0);
+    order.discount = round(order.subtotal * discountPercentage / 100);
+    double taxable = round(order.subtotal - order.discount);
+    order.total = round(taxable + round(taxable * Order.VAT_RATE / 100));
+    order.remaining = order.total;
+
+    if (order.status == OrderStatus.CONFIRMED) {
+      double installmentDraw = random.nextDouble();
+      int installments = installmentDraw < 0.70 ? 1 : installmentDraw < 0.90 ? 2 : 3;
+      addInstallments(random, order, order.total, installments, false);
+    } else if (order.status == OrderStatus.PENDING && random.nextDouble() < 0.5) {
+      addInstallments(random, order, round(order.total * (0.3 + random.nextDouble() * 0.4)), 1, true);
+    }
+    return order;
+  }
+
+  private void addInstallments(SplittableRandom random, OrderPlan order, double amount, int installments,
+      boolean pending) {
+    double left = amount;
+    LocalDateTime date = order.createdAt;
+    for (int i = 0; i < installments; i++) {
+      double part = i == installments - 1 ? round(left) : round(amount / installments);
+      left = round(left - part);
+      date = date.plusHours(random.nextInt(1, 24 * 5));
+
+      PaymentPlan payment = new PaymentPlan();
+      payment.amount = part;
+      payment.date = date;
+      payment.bank = BANKS[random.nextInt(BANKS.length)];
+      double methodDraw = random.nextDouble();
+      if (methodDraw < 0.30 && part <= CASH_LIMIT) {
+        payment.method = PaymentMethod.CASH;
+      } else if (methodDraw < 0.60) {
+        payment.method = PaymentMethod.CHEQUE;
+        payment.dueInDays = random.nextInt(0, 61);
+      } else {
+        payment.method = PaymentMethod.TRANSFER;
+      }
+
+      if (!pending) {
+        payment.status = PaymentStatus.ENCAISSE;
+      } else if (payment.method == PaymentMethod.CASH) {
+        payment.status = PaymentStatus.ENCAISSE;
+      } else {
+        payment.status = random.nextDouble() < 0.1 ? PaymentStatus.REJETÉ : PaymentStatus.EN_ATTENTE;
+      }
+      if (payment.status == PaymentStatus.ENCAISSE) {
+        order.remaining = round(order.remaining - part);
+      }
+      order.payments.add(payment);
+    }
+  }
+
+  private int skewedIndex(SplittableRandom random, int size) {
+    return Math.min(size - 1, (int) (size * Math.pow(random.nextDouble(), spec.getSkew())));
+  }
+
+  private static boolean contains(int[] values, int length, int value) {
+    for (int i = 0; i < length; i++) {
+      if (values[i] == value) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // Règles par défaut (TierRuleTable.DEFAULT, reprises par la migration V8)
+  private static CustomerTier tier(int totalOrders, double totalSpent) {
+    return TierRuleTable.DEFAULT.tierFor(totalOrders, totalSpent);
+  }
+
+  private long clientId(int index) {
+    return offsets.users() + index + 1;
+  }
+
+  private long productId(int index) {
+    return offsets.products() + index + 1;
+  }
+
+  private static double round(double value) {
+    return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP).doubleValue();
+  }
+
+  /**
+   * Plus grand id existant par table avant chargement : les lignes générées sont
+   * numérotées à la suite, sans collision avec les données déjà présentes.
+   */
+  public record IdOffsets(long users, long products, long orders, long orderItems, long payments) {
+  }
+
+  private static final class OrderPlan {
+    private long id;
+    private int clientIndex;
+    private LocalDateTime createdAt;
+    private int[] productIndexes;
+    private int[] quantities;
+    private OrderStatus status;
+    private String promoCode;
+    private double subtotal;
+    private double discount;
+    private double total;
+    private double remaining;
+    private List<PaymentPlan> payments;
+  }
+
+  private static final class PaymentPlan {
+    private double amount;
+    private PaymentMethod method;
+    private PaymentStatus status;
+    private LocalDateTime date;
+    private String bank;
+    private int dueInDays;
+  }
+}
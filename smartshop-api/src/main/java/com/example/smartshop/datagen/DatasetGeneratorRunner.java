@@ -0,0 +1,60 @@
+package com.example.smartshop.datagen;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Chargement d'un jeu de données au démarrage, avec le profil "datagen" :
+ *
+ * mvn spring-boot:run -Dspring-boot.run.profiles=datagen \
+ *     -Dspring-boot.run.arguments="--smartshop.datagen.orders=5000000 --smartshop.datagen.clients=200000"
+ */
+@Slf4j
+@Component
+@Profile("datagen")
+public class DatasetGeneratorRunner implements ApplicationRunner {
+
+  private final DataSource dataSource;
+  private final ConfigurableApplicationContext context;
+  private final DatasetSpec spec;
+  private final boolean exitAfterLoad;
+
+  public DatasetGeneratorRunner(DataSource dataSource, ConfigurableApplicationContext context,
+      @Value("${smartshop.datagen.clients:10000}") int clients,
+      @Value("${smartshop.datagen.products:5000}") int products,
+      @Value("${smartshop.datagen.orders:100000}") long orders,
+      @Value("${smartshop.datagen.seed:42}") long seed,
+      @Value("${smartshop.datagen.history-days:730}") int historyDays,
+      @Value("${smartshop.datagen.skew:2.0}") double skew,
+      @Value("${smartshop.datagen.exit-after-load:true}") boolean exitAfterLoad) {
+    this.dataSource = dataSource;
+    this.context = context;
+    this.spec = DatasetSpec.builder()
+        .clients(clients)
+        .products(products)
+        .orders(orders)
+        .seed(seed)
+        .historyDays(historyDays)
+        .skew(skew)
+        .build();
+    this.exitAfterLoad = exitAfterLoad;
+  }
+
+  @Override
+  public void run(ApplicationArguments args) {
+    log.info("Generating dataset: {}", spec);
+    DatasetLoadReport report = new DatasetLoader(dataSource).load(spec);
+    log.info("Dataset ready: {}", report);
+    if (exitAfterLoad) {
+      System.exit(SpringApplication.exit(context, () -> 0));
+    }
+  }
+}
@@ -0,0 +1,30 @@
+package com.example.smartshop.datagen;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DatasetLoadReport {
+  private String sink;
+
+  // Lignes chargées par table, dans l'ordre de chargement
+  @Builder.Default
+  private Map<String, Long> rows = new LinkedHashMap<>();
+
+  @Builder.Default
+  private Map<String, Long> durationsMs = new LinkedHashMap<>();
+
+  private long totalDurationMs;
+
+  public long getTotalRows() {
+    return rows.values().stream().mapToLong(Long::longValue).sum();
+  }
+}
@@ -0,0 +1,151 @@
+package com.example.smartshop.datagen;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Charge un jeu de données DatasetSpec dans la base (COPY sur PostgreSQL).
+ *
+ * Utilisable depuis un test ou un benchmark :
+ *   new DatasetLoader(dataSource).load(DatasetSpec.builder().orders(1_000_000).build());
+ *
+ * Chaque table est validée séparément. Les séquences Hibernate (*_seq, pas de 50)
+ * sont repositionnées après le dernier id chargé. Sur PostgreSQL, les partitions
+ * mensuelles couvrant l'historique généré sont créées avant le chargement.
+ */
+@Slf4j
+public class DatasetLoader {
+
+  // Modèle de lecture des listes de commandes, calculé comme dans V5__order_summary.sql
+  private static final String ORDER_SUMMARY_SQL =
+      "INSERT INTO order_summary (order_id, client_id, client_name, date, created_at, status, item_count, " +
+          "subtotal, discount_amount, total, paid_amount, remaining_amount, updated_at) " +
+          "SELECT o.id, o.client_id, c.name, o.date, o.created_at, o.status, " +
+          "(SELECT COUNT(*) FROM order_items i WHERE i.order_id = o.id AND i.order_created_at = o.created_at), " +
+          "o.subtotal, o.discount_amount, o.total, " +
+          "(SELECT COALESCE(SUM(p.amount), 0) FROM payments p WHERE p.order_id = o.id AND p.order_created_at = o.created_at AND p.status = 'ENCAISSE'), " +
+          "o.remaining_amount, CURRENT_TIMESTAMP " +
+          "FROM orders o JOIN clients c ON c.user_id = o.client_id WHERE o.id > ";
+
+  private final DataSource dataSource;
+
+  public DatasetLoader(DataSource dataSource) {
+    this.dataSource = dataSource;
+  }
+
+  public DatasetLoadReport load(DatasetSpec spec) {
+    long start = System.nanoTime();
+    try (Connection connection = dataSource.getConnection()) {
+      boolean autoCommit = connection.getAutoCommit();
+      connection.setAutoCommit(false);
+      try (RowSink sink = RowSink.open(connection, spec.getBatchSize())) {
+        DatasetGenerator.IdOffsets offsets = readOffsets(connection);
+        DatasetGenerator generator = new DatasetGenerator(spec, offsets);
+        DatasetLoadReport report = DatasetLoadReport.builder()
+            .sink(sink.getClass().getSimpleName())
+            .build();
+
+        step(connection, report, "users", () -> generator.writeUsers(sink));
+        step(connection, report, "clients", () -> generator.writeClients(sink));
+        step(connection, report, "products", () -> generator.writeProducts(sink));
+        if (connection.isWrapperFor(PGConnection.class)) {
+          createPartitions(connection, spec);
+        }
+        step(connection, report, "orders", () -> generator.writeOrders(sink));
+        long items = step(connection, report, "order_items", () -> generator.writeOrderItems(sink));
+        long payments = step(connection, report, "payments", () -> generator.writePayments(sink));
+        step(connection, report, "order_summary", () -> writeOrderSummaries(connection, offsets.orders()));
+
+        alignSequences(connection, generator.lastIds(items, payments));
+        connection.commit();
+
+        report.setTotalDurationMs((System.nanoTime() - start) / 1_000_000);
+        log.info("Dataset loaded with {} : {} rows in {} ms {}", report.getSink(), report.getTotalRows(),
+            report.getTotalDurationMs(), report.getRows());
+        return report;
+      } catch (SQLException | RuntimeException e) {
+        connection.rollback();
+        throw e;
+      } finally {
+        connection.setAutoCommit(autoCommit);
+      }
+    } catch (SQLException e) {
+      throw new IllegalStateException("Dataset load failed", e);
+    }
+  }
+
+  private long step(Connection connection, DatasetLoadReport report, String table, TableWriter writer)
+      throws SQLException {
+    long start = System.nanoTime();
+    long rows = writer.write();
+    connection.commit();
+    long durationMs = (System.nanoTime() - start) / 1_000_000;
+    report.getRows().put(table, rows);
+    report.getDurationsMs().put(table, durationMs);
+    log.info("Loaded {} rows into {} in {} ms", rows, table, durationMs);
+    return rows;
+  }
+
+  private DatasetGenerator.IdOffsets readOffsets(Connection connection) throws SQLException {
+    return new DatasetGenerator.IdOffsets(
+        maxId(connection, "users"),
+        maxId(connection, "products"),
+        maxId(connection, "orders"),
+        maxId(connection, "order_items"),
+        maxId(connection, "payments"));
+  }
+
+  private long maxId(Connection connection, String table) throws SQLException {
+    try (Statement statement = connection.createStatement();
+        ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+      rs.next();
+      return rs.getLong(1);
+    }
+  }
+
+  private long writeOrderSummaries(Connection connection, long orderOffset) throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      return statement.executeUpdate(ORDER_SUMMARY_SQL + orderOffset);
+    }
+  }
+
+  // Fonction create_order_partitions de V12__partitioned_orders.sql
+  private void createPartitions(Connection connection, DatasetSpec spec) throws SQLException {
+    LocalDate last = spec.getReferenceDate().toLocalDate().withDayOfMonth(1);
+    LocalDate first = spec.getReferenceDate().minusDays(spec.getHistoryDays()).toLocalDate().withDayOfMonth(1);
+    try (PreparedStatement statement = connection.prepareStatement("SELECT create_order_partitions(?, ?)")) {
+      statement.setDate(1, Date.valueOf(first));
+      statement.setInt(2, (int) ChronoUnit.MONTHS.between(first, last) + 1);
+      try (ResultSet rs = statement.executeQuery()) {
+        rs.next();
+        log.info("Created {} monthly partitions from {} to {}", rs.getInt(1), first, last);
+      }
+    }
+    connection.commit();
+  }
+
+  private void alignSequences(Connection connection, DatasetGenerator.IdOffsets lastIds) throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("ALTER SEQUENCE users_seq RESTART WITH " + (lastIds.users() + 1));
+      statement.execute("ALTER SEQUENCE products_seq RESTART WITH " + (lastIds.products() + 1));
+      statement.execute("ALTER SEQUENCE orders_seq RESTART WITH " + (lastIds.orders() + 1));
+      statement.execute("ALTER SEQUENCE order_items_seq RESTART WITH " + (lastIds.orderItems() + 1));
+      statement.execute("ALTER SEQUENCE payments_seq RESTART WITH " + (lastIds.payments() + 1));
+    }
+  }
+
+  @FunctionalInterface
+  private interface TableWriter {
+    long write() throws SQLException;
+  }
+}
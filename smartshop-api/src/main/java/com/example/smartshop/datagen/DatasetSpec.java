@@ -0,0 +1,50 @@
+package com.example.smartshop.datagen;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Volumes et paramètres d'un jeu de données synthétique.
+ * Même graine et même date de référence = mêmes lignes générées.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DatasetSpec {
+
+  @Builder.Default
+  private int clients = 10_000;
+
+  @Builder.Default
+  private int products = 5_000;
+
+  @Builder.Default
+  private long orders = 100_000;
+
+  @Builder.Default
+  private long seed = 42L;
+
+  // Les commandes sont réparties sur cette période, jusqu'à la date de référence
+  @Builder.Default
+  private int historyDays = 730;
+
+  @Builder.Default
+  private LocalDateTime referenceDate = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+  // Exposant de concentration : 1 = uniforme, 2 = quelques clients et produits très actifs
+  @Builder.Default
+  private double skew = 2.0;
+
+  @Builder.Default
+  private int maxBasketSize = 10;
+
+  // Taille des batchs JDBC quand COPY n'est pas disponible
+  @Builder.Default
+  private int batchSize = 1_000;
+}
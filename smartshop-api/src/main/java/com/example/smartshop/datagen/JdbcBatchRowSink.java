@@ -0,0 +1,63 @@
+package com.example.smartshop.datagen;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+
+/**
+ * INSERT en batch JDBC, pour les bases sans COPY (H2 dans les tests)
+ */
+public class JdbcBatchRowSink implements RowSink {
+
+  private final Connection connection;
+  private final int batchSize;
+  private PreparedStatement statement;
+  private int pending;
+  private long rows;
+
+  public JdbcBatchRowSink(Connection connection, int batchSize) {
+    this.connection = connection;
+    this.batchSize = batchSize;
+  }
+
+  @Override
+  public void begin(String table, String... columns) throws SQLException {
+    String placeholders = String.join(", ", Collections.nCopies(columns.length, "?"));
+    statement = connection.prepareStatement(
+        "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES (" + placeholders + ")");
+    pending = 0;
+    rows = 0;
+  }
+
+  @Override
+  public void row(Object... values) throws SQLException {
+    for (int i = 0; i < values.length; i++) {
+      Object value = values[i];
+      statement.setObject(i + 1, value instanceof Enum<?> constant ? constant.name() : value);
+    }
+    statement.addBatch();
+    rows++;
+    if (++pending >= batchSize) {
+      statement.executeBatch();
+      pending = 0;
+    }
+  }
+
+  @Override
+  public long end() throws SQLException {
+    if (pending > 0) {
+      statement.executeBatch();
+    }
+    statement.close();
+    statement = null;
+    return rows;
+  }
+
+  @Override
+  public void close() throws SQLException {
+    if (statement != null) {
+      statement.close();
+    }
+  }
+}
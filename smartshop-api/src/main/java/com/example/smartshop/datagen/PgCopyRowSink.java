@@ -0,0 +1,86 @@
+package com.example.smartshop.datagen;
+
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.temporal.TemporalAccessor;
+
+/**
+ * Chargement par COPY ... FROM STDIN (format CSV), en flux par blocs de 64 Ko
+ */
+public class PgCopyRowSink implements RowSink {
+
+  private static final int FLUSH_THRESHOLD = 64 * 1024;
+
+  private final CopyManager copyManager;
+  private final StringBuilder buffer = new StringBuilder(FLUSH_THRESHOLD + 1024);
+  private CopyIn copyIn;
+  private long rows;
+
+  public PgCopyRowSink(CopyManager copyManager) {
+    this.copyManager = copyManager;
+  }
+
+  @Override
+  public void begin(String table, String... columns) throws SQLException {
+    copyIn = copyManager.copyIn("COPY " + table + " (" + String.join(", ", columns) + ") FROM STDIN WITH (FORMAT csv)");
+    rows = 0;
+  }
+
+  @Override
+  public void row(Object... values) throws SQLException {
+    for (int i = 0; i < values.length; i++) {
+      if (i > 0) {
+        buffer.append(',');
+      }
+      appendValue(values[i]);
+    }
+    buffer.append('\n');
+    rows++;
+    if (buffer.length() >= FLUSH_THRESHOLD) {
+      flush();
+    }
+  }
+
+  @Override
+  public long end() throws SQLException {
+    flush();
+    copyIn.endCopy();
+    copyIn = null;
+    return rows;
+  }
+
+  @Override
+  public void close() throws SQLException {
+    if (copyIn != null && copyIn.isActive()) {
+      copyIn.cancelCopy();
+    }
+  }
+
+  private void appendValue(Object value) {
+    if (value == null) {
+      // Champ vide non quoté = NULL en CSV
+      return;
+    }
+    if (value instanceof String text) {
+      buffer.append('"').append(text.replace("\"", "\"\"")).append('"');
+    } else if (value instanceof Enum<?> constant) {
+      buffer.append(constant.name());
+    } else if (value instanceof TemporalAccessor || value instanceof Number || value instanceof Boolean) {
+      buffer.append(value);
+    } else {
+      throw new IllegalArgumentException("Unsupported value type: " + value.getClass());
+    }
+  }
+
+  private void flush() throws SQLException {
+    if (buffer.length() == 0) {
+      return;
+    }
+    byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+    copyIn.writeToCopy(bytes, 0, bytes.length);
+    buffer.setLength(0);
+  }
+}
@@ -0,0 +1,39 @@
+package com.example.smartshop.datagen;
+
+import org.postgresql.PGConnection;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Destination des lignes générées, une table à la fois : begin, row..., end.
+ *
+ * Les implémentations écrivent sur la connexion fournie sans la valider ; le
+ * commit est à la charge de l'appelant (DatasetLoader).
+ */
+public interface RowSink extends AutoCloseable {
+
+  void begin(String table, String... columns) throws SQLException;
+
+  void row(Object... values) throws SQLException;
+
+  /**
+   * Termine la table en cours
+   *
+   * @return nombre de lignes écrites pour cette table
+   */
+  long end() throws SQLException;
+
+  @Override
+  void close() throws SQLException;
+
+  /**
+   * COPY pour PostgreSQL, INSERT en batch JDBC pour les autres bases (H2 des tests)
+   */
+  static RowSink open(Connection connection, int batchSize) throws SQLException {
+    if (connection.isWrapperFor(PGConnection.class)) {
+      return new PgCopyRowSink(connection.unwrap(PGConnection.class).getCopyAPI());
+    }
+    return new JdbcBatchRowSink(connection, batchSize);
+  }
+}
@@ -0,0 +1,9 @@
+package com.example.smartshop.datasource;
+
+/**
+ * Pool cible d'une connexion (ReadWriteRoutingDataSource)
+ */
+public enum DataSourceRoute {
+  PRIMARY,
+  REPLICA
+}
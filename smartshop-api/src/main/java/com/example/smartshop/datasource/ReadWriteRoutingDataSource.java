@@ -0,0 +1,66 @@
+package com.example.smartshop.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Aiguillage des connexions entre primaire et réplique.
+ *
+ * Une transaction readOnly (@Transactional(readOnly = true), méthodes de lecture des
+ * repositories Spring Data) lit la réplique, sauf si ReadYourWritesGuard impose le primaire ;
+ * tout le reste (écritures, accès hors transaction, migrations, verrous) va au primaire.
+ *
+ * Le choix dépend de la transaction courante : il doit être fait à la première requête SQL,
+ * pas à l'ouverture de la transaction, d'où l'enveloppe LazyConnectionDataSourceProxy
+ * (ReplicaDataSourceConfig).
+ *
+ * Métrique : smartshop.datasource.connections{route}.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+  private final ReadYourWritesGuard guard;
+  private final Map<DataSourceRoute, Counter> connections = new EnumMap<>(DataSourceRoute.class);
+
+  public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReadYourWritesGuard guard,
+      MeterRegistry meterRegistry) {
+    this.guard = guard;
+    setTargetDataSources(Map.of(DataSourceRoute.PRIMARY, primary, DataSourceRoute.REPLICA, replica));
+    setDefaultTargetDataSource(primary);
+    for (DataSourceRoute route : DataSourceRoute.values()) {
+      connections.put(route, Counter.builder("smartshop.datasource.connections")
+          .description("Connexions obtenues par pool (primaire / réplique)")
+          .tag("route", route.name().toLowerCase())
+          .register(meterRegistry));
+    }
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    DataSourceRoute route = route();
+    connections.get(route).increment();
+    return route;
+  }
+
+  private DataSourceRoute route() {
+    if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+      return guard.isPinnedToPrimary() ? DataSourceRoute.PRIMARY : DataSourceRoute.REPLICA;
+    }
+    if (TransactionSynchronizationManager.isActualTransactionActive()
+        && TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          guard.recordWrite();
+        }
+      });
+    }
+    return DataSourceRoute.PRIMARY;
+  }
+}
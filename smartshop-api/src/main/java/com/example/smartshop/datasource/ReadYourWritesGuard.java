@@ -0,0 +1,85 @@
+package com.example.smartshop.datasource;
+
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Lecture de ses propres écritures malgré le retard de réplication.
+ *
+ * Après la validation d'une transaction en écriture, les lectures suivantes restent sur le
+ * primaire pendant smartshop.datasource.replica.read-your-writes-ms :
+ * - dans la suite de la requête HTTP (événements AFTER_COMMIT, rechargement des règles),
+ *   par un attribut de requête : un thread Tomcat réutilisé n'impose pas le primaire aux
+ *   requêtes des autres sessions ;
+ * - hors requête (tâches planifiées, jobs), dans le même thread ;
+ * - pour la session HTTP qui a écrit, sur ses requêtes suivantes (attribut de session).
+ */
+@Component
+public class ReadYourWritesGuard {
+
+  static final String SESSION_ATTRIBUTE = ReadYourWritesGuard.class.getName() + ".lastWriteAt";
+  static final String REQUEST_ATTRIBUTE = ReadYourWritesGuard.class.getName() + ".requestWrite";
+
+  private final ThreadLocal<Long> lastThreadWrite = new ThreadLocal<>();
+  private final long windowMs;
+
+  public ReadYourWritesGuard(@Value("${smartshop.datasource.replica.read-your-writes-ms:5000}") long windowMs) {
+    this.windowMs = windowMs;
+  }
+
+  /**
+   * Appelé après la validation d'une transaction en écriture
+   */
+  public void recordWrite() {
+    long now = System.currentTimeMillis();
+    RequestAttributes request = RequestContextHolder.getRequestAttributes();
+    if (request == null) {
+      lastThreadWrite.set(now);
+      return;
+    }
+    request.setAttribute(REQUEST_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+    HttpSession session = currentSession();
+    if (session != null) {
+      try {
+        session.setAttribute(SESSION_ATTRIBUTE, now);
+      } catch (IllegalStateException e) {
+        // Session invalidée pendant la requête (déconnexion) : plus de lecture à protéger
+      }
+    }
+  }
+
+  /**
+   * @return true si la requête (ou, hors requête, le thread) ou la session courante a écrit
+   * dans la fenêtre de réplication
+   */
+  public boolean isPinnedToPrimary() {
+    long now = System.currentTimeMillis();
+    RequestAttributes request = RequestContextHolder.getRequestAttributes();
+    if (request == null) {
+      Long threadWrite = lastThreadWrite.get();
+      return threadWrite != null && now - threadWrite < windowMs;
+    }
+    if (request.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null) {
+      return true;
+    }
+    HttpSession session = currentSession();
+    if (session == null) {
+      return false;
+    }
+    try {
+      return session.getAttribute(SESSION_ATTRIBUTE) instanceof Long sessionWrite && now - sessionWrite < windowMs;
+    } catch (IllegalStateException e) {
+      return false;
+    }
+  }
+
+  private static HttpSession currentSession() {
+    return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+        ? attributes.getRequest().getSession(false)
+        : null;
+  }
+}
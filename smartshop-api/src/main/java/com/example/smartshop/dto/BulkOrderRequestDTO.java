@@ -0,0 +1,21 @@
+package com.example.smartshop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+
+/**
+ * Lot de commandes : chaque commande est validée individuellement par BulkOrderService,
+ * une commande invalide n'empêche pas la création des autres.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOrderRequestDTO {
+  @NotEmpty(message = "Orders cannot be empty")
+  private List<OrderRequestDTO> orders;
+}
@@ -0,0 +1,33 @@
+package com.example.smartshop.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkOrderResultDTO {
+  public static final String CREATED = "CREATED";
+  public static final String REJECTED = "REJECTED";
+
+  // Position de la commande dans le lot reçu
+  private Integer index;
+
+  private String result;
+
+  // Renseigné si la commande a été enregistrée (y compris REJECTED pour rupture de stock)
+  private Long orderId;
+
+  private String orderStatus;
+
+  private Double total;
+
+  private String code;
+
+  private String reason;
+}
@@ -0,0 +1,25 @@
+package com.example.smartshop.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+/**
+ * Lot de changements de statut de paiements : chaque changement est validé
+ * individuellement par PaymentService, un changement invalide n'empêche pas les autres.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkPaymentStatusRequestDTO {
+  @NotEmpty(message = "Updates cannot be empty")
+  @Size(max = 500, message = "At most 500 updates per request")
+  @Valid
+  private List<PaymentStatusUpdateDTO> updates;
+}
@@ -0,0 +1,38 @@
+package com.example.smartshop.dto;
+
+import com.example.smartshop.entity.PaymentStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkPaymentStatusResultDTO {
+  public static final String UPDATED = "UPDATED";
+  public static final String REJECTED = "REJECTED";
+
+  // Position du changement dans le lot reçu
+  private Integer index;
+
+  private Long paymentId;
+
+  private String result;
+
+  // Renseignés si le statut a été modifié
+  private Long orderId;
+
+  private PaymentStatus previousStatus;
+
+  private PaymentStatus status;
+
+  private Double remainingAmount;
+
+  private String code;
+
+  private String reason;
+}
@@ -1,5 +1,6 @@
 package com.example.smartshop.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -15,6 +16,7 @@ import java.time.LocalDateTime;
  * - timestamp: date/heure de l'erreur (ISO 8601)
  * - status: code HTTP numérique
  * - error: type d'erreur (ex: "Bad Request", "Not Found")
+ * - code: code d'erreur métier (ex: "INVALID_PROMO_CODE"), absent pour les autres erreurs
  * - message: message explicatif en français
  * - path: chemin de la requête qui a échoué
  */
@@ -33,6 +35,10 @@ public class ErrorResponseDTO {
   @JsonProperty("error")
   private String error;
 
+  @JsonProperty("code")
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private String code;
+
   @JsonProperty("message")
   private String message;
 
@@ -0,0 +1,20 @@
+package com.example.smartshop.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class JobDTO {
+  private String name;
+  // Déclenchement effectif (configuration comprise), ex. "cron 0 30 2 * * *"
+  private String schedule;
+  private boolean enabled;
+  private JobExecutionDTO lastExecution;
+}
@@ -0,0 +1,28 @@
+package com.example.smartshop.dto;
+
+import com.example.smartshop.entity.JobExecutionStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class JobExecutionDTO {
+  private Long id;
+  private String jobName;
+  private String node;
+  private String triggerType;
+  private JobExecutionStatus status;
+  private LocalDateTime startedAt;
+  private LocalDateTime finishedAt;
+  private Long durationMs;
+  private Long rowsProcessed;
+  private String error;
+}
@@ -0,0 +1,26 @@
+package com.example.smartshop.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class JobProgressDTO {
+  private String jobName;
+  private LocalDateTime startedAt;
+  private LocalDateTime completedAt;
+  private Long nextId;
+  private Long upperBound;
+  private Long processed;
+  private Long changed;
+  // Part de la plage d'ids parcourue, en %
+  private Double progress;
+}
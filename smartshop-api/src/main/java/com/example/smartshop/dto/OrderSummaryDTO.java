@@ -0,0 +1,31 @@
+package com.example.smartshop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Ligne des listes de commandes (sans le détail des articles, voir OrderResponseDTO)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummaryDTO {
+  private Long id;
+  private Long clientId;
+  private String clientName;
+  private LocalDate date;
+  private LocalDateTime createdAt;
+  private String status;
+  private Long itemCount;
+  private Double subtotal;
+  private Double discountAmount;
+  private Double total;
+  private Double paidAmount;
+  private Double remainingAmount;
+}
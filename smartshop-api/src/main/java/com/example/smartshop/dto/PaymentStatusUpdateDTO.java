@@ -0,0 +1,23 @@
+package com.example.smartshop.dto;
+
+import com.example.smartshop.entity.PaymentStatus;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Changement de statut d'un paiement dans un lot (BulkPaymentStatusRequestDTO)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentStatusUpdateDTO {
+  @NotNull(message = "Payment ID is required")
+  private Long paymentId;
+
+  @NotNull(message = "Status is required")
+  private PaymentStatus status;
+}
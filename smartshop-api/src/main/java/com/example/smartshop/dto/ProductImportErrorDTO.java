@@ -0,0 +1,19 @@
+package com.example.smartshop.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductImportErrorDTO {
+  // Numéro de ligne dans le fichier (en-tête CSV compris)
+  private Long line;
+  private String sku;
+  private String message;
+}
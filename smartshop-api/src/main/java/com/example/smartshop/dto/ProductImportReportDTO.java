@@ -0,0 +1,24 @@
+package com.example.smartshop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportReportDTO {
+  private String format;
+  private long processed;
+  private long upserted;
+  private long rejected;
+  private List<ProductImportErrorDTO> errors;
+
+  // true si seules les premières erreurs sont listées (smartshop.products.import.max-reported-errors)
+  private boolean errorsTruncated;
+
+  private long durationMs;
+}
@@ -13,6 +13,9 @@ import jakarta.validation.constraints.Positive;
 @NoArgsConstructor
 @AllArgsConstructor
 public class ProductRequestDTO {
+  @Size(max = 64, message = "SKU must not exceed 64 characters")
+  private String sku;
+
   @NotNull(message = "Product name is required")
   @Size(min = 3, max = 100, message = "Name must be between 3 and 100 characters")
   private String name;
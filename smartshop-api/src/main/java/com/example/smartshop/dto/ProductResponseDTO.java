@@ -11,6 +11,7 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class ProductResponseDTO {
   private Long id;
+  private String sku;
   private String name;
   private Double price;
   private Integer stock;
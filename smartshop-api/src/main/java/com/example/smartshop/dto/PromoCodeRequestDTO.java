@@ -0,0 +1,39 @@
+package com.example.smartshop.dto;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PromoCodeRequestDTO {
+  @NotNull(message = "Promo code is required")
+  @Pattern(regexp = "^PROMO-[A-Z0-9]{4}$", message = "Invalid promo code format. Expected PROMO-XXXX")
+  private String code;
+
+  @NotNull(message = "Discount percentage is required")
+  @Positive(message = "Discount percentage must be positive")
+  @DecimalMax(value = "100.0", message = "Discount percentage cannot exceed 100")
+  private Double discountPercentage;
+
+  @NotNull(message = "Start of validity is required")
+  private LocalDateTime validFrom;
+
+  // null = sans date de fin
+  private LocalDateTime validUntil;
+
+  // null = utilisations illimitées
+  @Positive(message = "Max uses must be positive")
+  private Integer maxUses;
+
+  private Boolean active;
+}
@@ -0,0 +1,23 @@
+package com.example.smartshop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PromoCodeResponseDTO {
+  private Long id;
+  private String code;
+  private Double discountPercentage;
+  private LocalDateTime validFrom;
+  private LocalDateTime validUntil;
+  private Integer maxUses;
+  private Integer usedCount;
+  private Boolean active;
+}
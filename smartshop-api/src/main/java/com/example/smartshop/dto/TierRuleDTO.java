@@ -0,0 +1,36 @@
+package com.example.smartshop.dto;
+
+import com.example.smartshop.entity.CustomerTier;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TierRuleDTO {
+  // Renseigné dans les réponses (le niveau modifié est pris dans l'URL)
+  private CustomerTier tier;
+
+  @NotNull(message = "Minimum number of orders is required")
+  @PositiveOrZero(message = "Minimum number of orders cannot be negative")
+  private Integer minOrders;
+
+  @NotNull(message = "Minimum amount spent is required")
+  @PositiveOrZero(message = "Minimum amount spent cannot be negative")
+  private Double minSpent;
+
+  @NotNull(message = "Minimum subtotal is required")
+  @PositiveOrZero(message = "Minimum subtotal cannot be negative")
+  private Double minSubtotal;
+
+  @NotNull(message = "Discount percentage is required")
+  @PositiveOrZero(message = "Discount percentage cannot be negative")
+  @DecimalMax(value = "100.0", message = "Discount percentage cannot exceed 100")
+  private Double discountPercentage;
+}
@@ -0,0 +1,39 @@
+package com.example.smartshop.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Nombre et montant des commandes CONFIRMED d'un client dans les mois archivés.
+ *
+ * Alimentée par OrderPartitionJob avant la suppression d'un mois, lue par
+ * TierRecomputationJob qui l'ajoute aux commandes encore en base.
+ */
+@Entity
+@Table(name = "client_archived_totals")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientArchivedTotals {
+
+  @Id
+  @Column(name = "client_id")
+  private Long clientId;
+
+  @Column(name = "archived_orders", nullable = false)
+  private Integer archivedOrders;
+
+  @Column(name = "archived_spent", nullable = false)
+  private Double archivedSpent;
+
+  @Column(name = "updated_at", nullable = false)
+  private LocalDateTime updatedAt;
+}
@@ -0,0 +1,61 @@
+package com.example.smartshop.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Point de reprise d'un traitement par lots parcourant une table par plages d'id.
+ *
+ * nextId = premier id non encore traité ; upperBound = id maximal au dernier lancement.
+ * completedAt est null tant que le parcours n'est pas terminé.
+ */
+@Entity
+@Table(name = "job_checkpoints")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobCheckpoint {
+
+  @Id
+  @Column(name = "job_name", length = 50)
+  private String jobName;
+
+  @Column(name = "started_at", nullable = false)
+  private LocalDateTime startedAt;
+
+  @Column(name = "completed_at")
+  private LocalDateTime completedAt;
+
+  @Column(name = "next_id", nullable = false)
+  private Long nextId;
+
+  @Column(name = "upper_bound", nullable = false)
+  private Long upperBound;
+
+  @Column(nullable = false)
+  @Builder.Default
+  private Long processed = 0L;
+
+  @Column(nullable = false)
+  @Builder.Default
+  private Long changed = 0L;
+
+  @Column(name = "updated_at", nullable = false)
+  private LocalDateTime updatedAt;
+
+  @PrePersist
+  @PreUpdate
+  protected void onSave() {
+    this.updatedAt = LocalDateTime.now();
+  }
+}
@@ -0,0 +1,61 @@
+package com.example.smartshop.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Exécution d'un traitement planifié. triggerType = SCHEDULED ou MANUAL.
+ */
+@Entity
+@Table(name = "job_executions")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobExecution {
+
+  public static final String SCHEDULED = "SCHEDULED";
+  public static final String MANUAL = "MANUAL";
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "job_executions_seq")
+  @SequenceGenerator(name = "job_executions_seq", sequenceName = "job_executions_seq", allocationSize = 50)
+  private Long id;
+
+  @Column(name = "job_name", nullable = false, length = 50)
+  private String jobName;
+
+  @Column(nullable = false)
+  private String node;
+
+  @Column(name = "trigger_type", nullable = false, length = 20)
+  private String triggerType;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 20)
+  private JobExecutionStatus status;
+
+  @Column(name = "started_at", nullable = false)
+  private LocalDateTime startedAt;
+
+  @Column(name = "finished_at")
+  private LocalDateTime finishedAt;
+
+  @Column(name = "rows_processed")
+  private Long rowsProcessed;
+
+  @Column(length = 1000)
+  private String error;
+}
@@ -0,0 +1,7 @@
+package com.example.smartshop.entity;
+
+public enum JobExecutionStatus {
+  RUNNING,
+  SUCCEEDED,
+  FAILED
+}
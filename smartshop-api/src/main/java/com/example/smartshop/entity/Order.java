@@ -12,6 +12,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -21,6 +22,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.PartitionKey;
 
 @Entity
 @Table(name = "orders")
@@ -29,8 +31,13 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 public class Order {
+
+  // Taux de TVA (%) appliqué aux commandes
+  public static final double VAT_RATE = 20.0;
+
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+  @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
   private Long id;
 
   @ManyToOne(fetch = FetchType.LAZY)
@@ -41,7 +48,10 @@ public class Order {
   @Builder.Default
   private LocalDate date = LocalDate.now();
 
-  @Column(nullable = false)
+  // Clé de partitionnement de orders, order_items et payments : jamais modifiée, ajoutée
+  // par Hibernate aux UPDATE et DELETE de la commande
+  @PartitionKey
+  @Column(nullable = false, updatable = false)
   @Builder.Default
   private LocalDateTime createdAt = LocalDateTime.now();
 
@@ -63,7 +73,7 @@ public class Order {
 
   @Column(nullable = false)
   @Builder.Default
-  private Double tax = 20.0;
+  private Double tax = VAT_RATE;
 
   @Column(nullable = false)
   private Double total;
@@ -8,11 +8,15 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import java.time.LocalDateTime;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.PartitionKey;
 
 @Entity
 @Table(name = "order_items")
@@ -22,13 +26,19 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class OrderItem {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_seq")
+  @SequenceGenerator(name = "order_items_seq", sequenceName = "order_items_seq", allocationSize = 50)
   private Long id;
 
   @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "order_id", nullable = false)
   private Order order;
 
+  // Date de création de la commande : clé de partitionnement (même mois que la commande)
+  @PartitionKey
+  @Column(name = "order_created_at", nullable = false, updatable = false)
+  private LocalDateTime orderCreatedAt;
+
   @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "product_id", nullable = false)
   private Product product;
@@ -41,4 +51,9 @@ public class OrderItem {
 
   @Column(nullable = false)
   private Double lineTotal;
+
+  @PrePersist
+  protected void onCreate() {
+    this.orderCreatedAt = order.getCreatedAt();
+  }
 }
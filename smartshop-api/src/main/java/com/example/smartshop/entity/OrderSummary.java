@@ -0,0 +1,68 @@
+package com.example.smartshop.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Modèle de lecture des listes de commandes : une ligne par commande, recalculée par
+ * OrderSummaryProjector à chaque création, confirmation, annulation ou paiement.
+ * Jamais modifiée directement par les services métier.
+ */
+@Entity
+@Table(name = "order_summary")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummary {
+  @Id
+  @Column(name = "order_id")
+  private Long orderId;
+
+  @Column(name = "client_id", nullable = false)
+  private Long clientId;
+
+  @Column(name = "client_name", nullable = false)
+  private String clientName;
+
+  @Column(nullable = false)
+  private LocalDate date;
+
+  @Column(name = "created_at", nullable = false)
+  private LocalDateTime createdAt;
+
+  @Column(nullable = false)
+  @Enumerated(EnumType.STRING)
+  private OrderStatus status;
+
+  @Column(name = "item_count", nullable = false)
+  private Long itemCount;
+
+  @Column(nullable = false)
+  private Double subtotal;
+
+  @Column(name = "discount_amount", nullable = false)
+  private Double discountAmount;
+
+  @Column(nullable = false)
+  private Double total;
+
+  @Column(name = "paid_amount", nullable = false)
+  private Double paidAmount;
+
+  @Column(name = "remaining_amount", nullable = false)
+  private Double remainingAmount;
+
+  @Column(name = "updated_at", nullable = false)
+  private LocalDateTime updatedAt;
+}
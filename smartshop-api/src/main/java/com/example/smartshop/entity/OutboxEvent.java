@@ -0,0 +1,68 @@
+package com.example.smartshop.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Événement à publier vers les systèmes aval, écrit dans la transaction métier
+ * (OutboxService) puis relayé par OutboxRelay.
+ *
+ * payload contient la représentation JSON de l'API (OrderResponseDTO, PaymentResponseDTO).
+ */
+@Entity
+@Table(name = "outbox_events")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_seq")
+  @SequenceGenerator(name = "outbox_events_seq", sequenceName = "outbox_events_seq", allocationSize = 50)
+  private Long id;
+
+  @Column(name = "event_type", nullable = false, length = 50)
+  @Enumerated(EnumType.STRING)
+  private OutboxEventType eventType;
+
+  @Column(name = "aggregate_type", nullable = false, length = 50)
+  private String aggregateType;
+
+  @Column(name = "aggregate_id", nullable = false)
+  private Long aggregateId;
+
+  @Column(nullable = false, columnDefinition = "TEXT")
+  private String payload;
+
+  @Column(name = "created_at", nullable = false)
+  private LocalDateTime createdAt;
+
+  /**
+   * Date à partir de laquelle le relais peut (re)tenter la livraison
+   */
+  @Column(name = "available_at", nullable = false)
+  private LocalDateTime availableAt;
+
+  @Column(nullable = false)
+  @Builder.Default
+  private Integer attempts = 0;
+
+  @Column(name = "last_error", length = 1000)
+  private String lastError;
+
+  @Column(name = "published_at")
+  private LocalDateTime publishedAt;
+}
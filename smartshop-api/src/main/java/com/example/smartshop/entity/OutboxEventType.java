@@ -0,0 +1,8 @@
+package com.example.smartshop.entity;
+
+public enum OutboxEventType {
+  ORDER_CONFIRMED,
+  ORDER_CANCELED,
+  PAYMENT_ADDED,
+  PAYMENT_STATUS_CHANGED
+}
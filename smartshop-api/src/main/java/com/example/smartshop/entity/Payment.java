@@ -2,6 +2,7 @@ package com.example.smartshop.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.PartitionKey;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
@@ -24,13 +25,19 @@ import java.time.LocalDateTime;
 public class Payment {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payments_seq")
+  @SequenceGenerator(name = "payments_seq", sequenceName = "payments_seq", allocationSize = 50)
   private Long id;
 
   @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "order_id", nullable = false)
   private Order order;
 
+  // Date de création de la commande : clé de partitionnement (même mois que la commande)
+  @PartitionKey
+  @Column(name = "order_created_at", nullable = false, updatable = false)
+  private LocalDateTime orderCreatedAt;
+
   @Column(nullable = false)
   private Double amount;
 
@@ -101,6 +108,7 @@ public class Payment {
 
   @PrePersist
   protected void onCreate() {
+    this.orderCreatedAt = order.getCreatedAt();
     this.createdAt = LocalDateTime.now();
     this.updatedAt = LocalDateTime.now();
   }
@@ -0,0 +1,77 @@
+package com.example.smartshop.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Campagne de code promo : remise, période de validité et nombre d'utilisations maximal
+ * (null = illimité).
+ *
+ * usedCount n'est jamais écrit par une mise à jour de l'entité : seul PromoCodeRegistry
+ * l'incrémente, par delta, pour ne pas écraser les utilisations enregistrées entre-temps.
+ */
+@Entity
+@Table(name = "promo_codes")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PromoCode {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "promo_codes_seq")
+  @SequenceGenerator(name = "promo_codes_seq", sequenceName = "promo_codes_seq", allocationSize = 50)
+  private Long id;
+
+  @Column(nullable = false, unique = true, length = 20)
+  private String code;
+
+  @Column(name = "discount_percentage", nullable = false)
+  private Double discountPercentage;
+
+  @Column(name = "valid_from", nullable = false)
+  private LocalDateTime validFrom;
+
+  @Column(name = "valid_until")
+  private LocalDateTime validUntil;
+
+  @Column(name = "max_uses")
+  private Integer maxUses;
+
+  @Column(name = "used_count", nullable = false, updatable = false)
+  @Builder.Default
+  private Integer usedCount = 0;
+
+  @Column(nullable = false)
+  @Builder.Default
+  private Boolean active = true;
+
+  @Column(nullable = false, updatable = false)
+  private LocalDateTime createdAt;
+
+  @Column(nullable = false)
+  private LocalDateTime updatedAt;
+
+  @PrePersist
+  protected void onCreate() {
+    this.createdAt = LocalDateTime.now();
+    this.updatedAt = LocalDateTime.now();
+  }
+
+  @PreUpdate
+  protected void onUpdate() {
+    this.updatedAt = LocalDateTime.now();
+  }
+}
@@ -0,0 +1,54 @@
+package com.example.smartshop.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Règle de fidélité d'un niveau : seuils d'obtention (commandes OU montant cumulé) et
+ * remise appliquée si le sous-total atteint min_subtotal.
+ */
+@Entity
+@Table(name = "tier_rules")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TierRule {
+
+  @Id
+  @Enumerated(EnumType.STRING)
+  @Column(length = 20)
+  private CustomerTier tier;
+
+  @Column(name = "min_orders", nullable = false)
+  private Integer minOrders;
+
+  @Column(name = "min_spent", nullable = false)
+  private Double minSpent;
+
+  @Column(name = "min_subtotal", nullable = false)
+  private Double minSubtotal;
+
+  @Column(name = "discount_percentage", nullable = false)
+  private Double discountPercentage;
+
+  @Column(nullable = false)
+  private LocalDateTime updatedAt;
+
+  @PrePersist
+  @PreUpdate
+  protected void onSave() {
+    this.updatedAt = LocalDateTime.now();
+  }
+}
@@ -0,0 +1,26 @@
+package com.example.smartshop.event;
+
+import lombok.Getter;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Commandes créées ou modifiées (statut, paiements) dans la transaction courante.
+ *
+ * Publié par les services métier ; OrderSummaryProjector recalcule les lignes
+ * order_summary correspondantes avant la validation de la transaction.
+ */
+@Getter
+public class OrderChangedEvent {
+
+  private final List<Long> orderIds;
+
+  public OrderChangedEvent(Collection<Long> orderIds) {
+    this.orderIds = List.copyOf(orderIds);
+  }
+
+  public static OrderChangedEvent of(Long orderId) {
+    return new OrderChangedEvent(List.of(orderId));
+  }
+}
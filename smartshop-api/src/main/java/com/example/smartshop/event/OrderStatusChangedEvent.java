@@ -0,0 +1,21 @@
+package com.example.smartshop.event;
+
+import com.example.smartshop.entity.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Changement de statut d'une commande (validation, annulation, rejet).
+ *
+ * Publié par OrderService ; ClientEventHub le pousse au client concerné une fois
+ * la transaction validée.
+ */
+@Getter
+@AllArgsConstructor
+public class OrderStatusChangedEvent {
+
+  private final Long orderId;
+  private final Long clientId;
+  private final OrderStatus previousStatus;
+  private final OrderStatus status;
+}
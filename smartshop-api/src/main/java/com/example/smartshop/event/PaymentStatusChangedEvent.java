@@ -0,0 +1,24 @@
+package com.example.smartshop.event;
+
+import com.example.smartshop.entity.PaymentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Paiement enregistré (previousStatus null) ou changement de statut d'un paiement
+ * (chèque encaissé, virement rejeté...).
+ *
+ * Publié par PaymentService ; ClientEventHub le pousse au client concerné une fois
+ * la transaction validée.
+ */
+@Getter
+@AllArgsConstructor
+public class PaymentStatusChangedEvent {
+
+  private final Long paymentId;
+  private final Long orderId;
+  private final Long clientId;
+  private final PaymentStatus previousStatus;
+  private final PaymentStatus status;
+  private final Double remainingAmount;
+}
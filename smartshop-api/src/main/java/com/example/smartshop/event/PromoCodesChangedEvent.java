@@ -0,0 +1,8 @@
+package com.example.smartshop.event;
+
+/**
+ * Campagnes de codes promo créées ou modifiées : PromoCodeRegistry recharge son index
+ * une fois la transaction validée.
+ */
+public class PromoCodesChangedEvent {
+}
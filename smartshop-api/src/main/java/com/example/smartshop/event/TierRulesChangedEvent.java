@@ -0,0 +1,8 @@
+package com.example.smartshop.event;
+
+/**
+ * Règles de fidélité modifiées : TierRuleEngine recompile sa table une fois la
+ * transaction validée.
+ */
+public class TierRulesChangedEvent {
+}
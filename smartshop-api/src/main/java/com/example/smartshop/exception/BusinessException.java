@@ -0,0 +1,37 @@
+package com.example.smartshop.exception;
+
+/**
+ * Base des exceptions métier attendues (ressource introuvable, code promo invalide,
+ * montant supérieur au reste à payer...)
+ *
+ * Ces exceptions sont converties en réponse HTTP par GlobalExceptionHandler sans que
+ * la stack trace soit jamais lue : elle n'est donc pas capturée, sauf si
+ * smartshop.exceptions.stack-traces=true (débogage).
+ */
+public abstract class BusinessException extends RuntimeException {
+
+  private static volatile boolean stackTraceEnabled = false;
+
+  private final ErrorCode errorCode;
+
+  protected BusinessException(ErrorCode errorCode, String message) {
+    this(errorCode, message, null);
+  }
+
+  protected BusinessException(ErrorCode errorCode, String message, Throwable cause) {
+    super(message, cause, false, stackTraceEnabled);
+    this.errorCode = errorCode;
+  }
+
+  public ErrorCode getErrorCode() {
+    return errorCode;
+  }
+
+  public static boolean isStackTraceEnabled() {
+    return stackTraceEnabled;
+  }
+
+  public static void setStackTraceEnabled(boolean enabled) {
+    stackTraceEnabled = enabled;
+  }
+}
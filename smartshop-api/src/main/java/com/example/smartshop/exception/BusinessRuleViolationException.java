@@ -0,0 +1,15 @@
+package com.example.smartshop.exception;
+
+public class BusinessRuleViolationException extends BusinessException {
+  public BusinessRuleViolationException(String message) {
+    super(ErrorCode.BUSINESS_RULE_VIOLATION, message);
+  }
+
+  public BusinessRuleViolationException(String message, Throwable cause) {
+    super(ErrorCode.BUSINESS_RULE_VIOLATION, message, cause);
+  }
+
+  public BusinessRuleViolationException(ErrorCode errorCode, String message) {
+    super(errorCode, message);
+  }
+}
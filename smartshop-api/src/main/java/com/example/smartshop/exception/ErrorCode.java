@@ -0,0 +1,48 @@
+package com.example.smartshop.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Codes d'erreur métier renvoyés dans le champ "code" des réponses d'erreur
+ *
+ * Le statut HTTP reste 422 Unprocessable Entity pour toutes les violations de
+ * règles métier, comme avant l'introduction des codes. Les conflits d'état
+ * technique (enregistrement JFR déjà démarré, traitement par lots déjà en
+ * cours, etc.) renvoient 409.
+ */
+public enum ErrorCode {
+  BUSINESS_RULE_VIOLATION(HttpStatus.UNPROCESSABLE_ENTITY),
+  CLIENT_NOT_FOUND(HttpStatus.UNPROCESSABLE_ENTITY),
+  PRODUCT_NOT_FOUND(HttpStatus.UNPROCESSABLE_ENTITY),
+  ORDER_NOT_FOUND(HttpStatus.UNPROCESSABLE_ENTITY),
+  PAYMENT_NOT_FOUND(HttpStatus.UNPROCESSABLE_ENTITY),
+  DUPLICATE_RESOURCE(HttpStatus.UNPROCESSABLE_ENTITY),
+  INVALID_CREDENTIALS(HttpStatus.UNPROCESSABLE_ENTITY),
+  INVALID_ORDER(HttpStatus.UNPROCESSABLE_ENTITY),
+  INVALID_PROMO_CODE(HttpStatus.UNPROCESSABLE_ENTITY),
+  INSUFFICIENT_STOCK(HttpStatus.UNPROCESSABLE_ENTITY),
+  INVALID_STATUS_TRANSITION(HttpStatus.UNPROCESSABLE_ENTITY),
+  ORDER_NOT_FULLY_PAID(HttpStatus.UNPROCESSABLE_ENTITY),
+  ORDER_NOT_PAYABLE(HttpStatus.UNPROCESSABLE_ENTITY),
+  PAYMENT_EXCEEDS_REMAINING(HttpStatus.UNPROCESSABLE_ENTITY),
+  CASH_LIMIT_EXCEEDED(HttpStatus.UNPROCESSABLE_ENTITY),
+  MISSING_PAYMENT_DETAILS(HttpStatus.UNPROCESSABLE_ENTITY),
+  PROMO_CODE_NOT_FOUND(HttpStatus.UNPROCESSABLE_ENTITY),
+  PROMO_CODE_EXHAUSTED(HttpStatus.UNPROCESSABLE_ENTITY),
+  INVALID_TIER_RULE(HttpStatus.UNPROCESSABLE_ENTITY),
+  JOB_NOT_FOUND(HttpStatus.UNPROCESSABLE_ENTITY),
+  INVALID_IDEMPOTENCY_KEY(HttpStatus.UNPROCESSABLE_ENTITY),
+  RECORDING_STATE_CONFLICT(HttpStatus.CONFLICT),
+  JOB_ALREADY_RUNNING(HttpStatus.CONFLICT),
+  IDEMPOTENCY_KEY_CONFLICT(HttpStatus.CONFLICT);
+
+  private final HttpStatus status;
+
+  ErrorCode(HttpStatus status) {
+    this.status = status;
+  }
+
+  public HttpStatus getStatus() {
+    return status;
+  }
+}
@@ -18,6 +18,7 @@ import java.util.stream.Collectors;
  * 
  * Standardise les réponses d'erreur avec:
  * - Code HTTP approprié (400, 401, 403, 404, 422, 500)
+ * - Code d'erreur métier (ErrorCode) pour les exceptions métier
  * - Timestamp ISO 8601
  * - Message d'erreur en français
  * - Chemin de la requête
@@ -49,24 +50,31 @@ public class GlobalExceptionHandler {
   }
 
   /**
-   * Gère BusinessRuleViolationException (422 Unprocessable Entity)
+   * Gère BusinessException et ses sous-classes, dont BusinessRuleViolationException
+   * (422 Unprocessable Entity par défaut, selon le code d'erreur)
    * Violation des règles métier (stock insuffisant, état invalide, etc.)
    */
-  @ExceptionHandler(BusinessRuleViolationException.class)
-  public ResponseEntity<ErrorResponseDTO> handleBusinessRuleViolation(
-      BusinessRuleViolationException ex,
+  @ExceptionHandler(BusinessException.class)
+  public ResponseEntity<ErrorResponseDTO> handleBusinessException(
+      BusinessException ex,
       HttpServletRequest request) {
 
+    HttpStatus status = ex.getErrorCode().getStatus();
     ErrorResponseDTO error = ErrorResponseDTO.builder()
         .timestamp(LocalDateTime.now())
-        .status(HttpStatus.UNPROCESSABLE_ENTITY.value())
-        .error("Unprocessable Entity")
+        .status(status.value())
+        .error(status.getReasonPhrase())
+        .code(ex.getErrorCode().name())
         .message(ex.getMessage())
         .path(request.getRequestURI())
         .build();
 
-    log.error("Violation de règle métier: {}", ex.getMessage());
-    return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(error);
+    if (BusinessException.isStackTraceEnabled()) {
+      log.warn("Violation de règle métier [{}]: {}", ex.getErrorCode(), ex.getMessage(), ex);
+    } else {
+      log.warn("Violation de règle métier [{}]: {}", ex.getErrorCode(), ex.getMessage());
+    }
+    return ResponseEntity.status(status).body(error);
   }
 
   /**
@@ -0,0 +1,220 @@
+package com.example.smartshop.idempotency;
+
+import com.example.smartshop.entity.IdempotencyRecord;
+import com.example.smartshop.exception.BusinessRuleViolationException;
+import com.example.smartshop.exception.ErrorCode;
+import com.example.smartshop.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Rejeu des créations envoyées avec un en-tête Idempotency-Key (terminaux de caisse qui
+ * renvoient une requête après une coupure réseau).
+ *
+ * La première requête est exécutée dans une transaction qui insère d'abord la clé (index
+ * unique scope + clé), puis y enregistre la réponse : création et clé sont validées ou
+ * annulées ensemble. Une requête concurrente avec la même clé attend la fin de la première
+ * sur l'index unique, puis renvoie la réponse enregistrée sans rien exécuter. Une requête
+ * refusée (règle métier) ne laisse pas de clé et peut être renvoyée.
+ *
+ * Les réponses sont aussi gardées en mémoire (smartshop.idempotency.cache.max-size) : un
+ * rejeu sur le même nœud ne lit pas la base. Une clé réutilisée pour une requête différente
+ * est refusée. Les clés expirent après smartshop.idempotency.ttl-hours (traitement
+ * idempotency-purge).
+ *
+ * Métrique : smartshop.idempotency.requests{scope,outcome}.
+ */
+@Component
+@Slf4j
+public class IdempotencyStore {
+
+  public static final String HEADER = "Idempotency-Key";
+  public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+  public static final String ORDER_CREATE = "order-create";
+  public static final String PAYMENT_CREATE = "payment-create";
+
+  private static final int MAX_KEY_LENGTH = 255;
+  private static final int MAX_ATTEMPTS = 2;
+  private static final TypeReference<Map<String, Object>> BODY_TYPE = new TypeReference<>() {
+  };
+
+  private final IdempotencyRecordRepository repository;
+  private final TransactionTemplate transactionTemplate;
+  private final ObjectMapper objectMapper;
+  private final MeterRegistry meterRegistry;
+  private final Duration ttl;
+  private final Cache<String, StoredResponse> responses;
+
+  public IdempotencyStore(IdempotencyRecordRepository repository, TransactionTemplate transactionTemplate,
+      ObjectMapper objectMapper, MeterRegistry meterRegistry,
+      @Value("${smartshop.idempotency.ttl-hours:24}") long ttlHours,
+      @Value("${smartshop.idempotency.cache.max-size:10000}") long cacheMaxSize) {
+    this.repository = repository;
+    this.transactionTemplate = transactionTemplate;
+    this.objectMapper = objectMapper;
+    this.meterRegistry = meterRegistry;
+    this.ttl = Duration.ofHours(ttlHours);
+    this.responses = Caffeine.newBuilder()
+        .maximumSize(cacheMaxSize)
+        .expireAfterWrite(ttl)
+        .build();
+  }
+
+  /**
+   * Exécute action une seule fois par clé ; sans clé, l'exécute à chaque appel
+   *
+   * @param request corps de la requête, comparé (SHA-256) à celui du premier appel
+   * @return la réponse de action, ou celle du premier appel (en-tête Idempotent-Replayed)
+   * @throws BusinessRuleViolationException si la clé est invalide ou déjà utilisée pour une
+   *                                        autre requête
+   */
+  public ResponseEntity<Map<String, Object>> execute(String scope, String key, Object request,
+      Supplier<ResponseEntity<Map<String, Object>>> action) {
+    if (key == null) {
+      return action.get();
+    }
+    if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+      throw new BusinessRuleViolationException(ErrorCode.INVALID_IDEMPOTENCY_KEY,
+          "Idempotency-Key must contain 1 to " + MAX_KEY_LENGTH + " characters");
+    }
+    String requestHash = hash(request);
+    String cacheKey = scope + ':' + key;
+
+    StoredResponse cached = responses.getIfPresent(cacheKey);
+    if (cached != null && cached.expiresAt().isAfter(LocalDateTime.now())) {
+      return replay(scope, cached, requestHash);
+    }
+
+    for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+      try {
+        Executed executed = transactionTemplate.execute(status -> executeFirst(scope, key, requestHash, action));
+        responses.put(cacheKey, executed.stored());
+        count(scope, "executed");
+        return executed.response();
+      } catch (KeyConflictException e) {
+        Optional<StoredResponse> existing = transactionTemplate.execute(status -> findValid(scope, key));
+        if (existing.isPresent()) {
+          responses.put(cacheKey, existing.get());
+          return replay(scope, existing.get(), requestHash);
+        }
+        // Première requête annulée ou clé expirée : nouvel essai
+      }
+    }
+    count(scope, "conflict");
+    throw new BusinessRuleViolationException(ErrorCode.IDEMPOTENCY_KEY_CONFLICT,
+        "A request with this Idempotency-Key is still being processed");
+  }
+
+  private Executed executeFirst(String scope, String key, String requestHash,
+      Supplier<ResponseEntity<Map<String, Object>>> action) {
+    LocalDateTime now = LocalDateTime.now();
+    IdempotencyRecord record;
+    try {
+      // Insertion immédiate : une requête concurrente avec la même clé attend ici
+      record = repository.saveAndFlush(IdempotencyRecord.builder()
+          .scope(scope)
+          .idempotencyKey(key)
+          .requestHash(requestHash)
+          .createdAt(now)
+          .expiresAt(now.plus(ttl))
+          .build());
+    } catch (DataIntegrityViolationException | PessimisticLockingFailureException e) {
+      throw new KeyConflictException();
+    }
+
+    ResponseEntity<Map<String, Object>> response = action.get();
+    StoredResponse stored = new StoredResponse(requestHash, response.getStatusCode().value(),
+        write(response.getBody()), record.getExpiresAt());
+    record.setResponseStatus(stored.status());
+    record.setResponseBody(stored.body());
+    return new Executed(response, stored);
+  }
+
+  private Optional<StoredResponse> findValid(String scope, String key) {
+    Optional<IdempotencyRecord> record = repository.findByScopeAndIdempotencyKey(scope, key);
+    if (record.isPresent() && !record.get().getExpiresAt().isAfter(LocalDateTime.now())) {
+      repository.delete(record.get());
+      return Optional.empty();
+    }
+    return record.map(found -> new StoredResponse(found.getRequestHash(), found.getResponseStatus(),
+        found.getResponseBody(), found.getExpiresAt()));
+  }
+
+  private ResponseEntity<Map<String, Object>> replay(String scope, StoredResponse stored, String requestHash) {
+    if (!stored.requestHash().equals(requestHash)) {
+      count(scope, "rejected");
+      throw new BusinessRuleViolationException(ErrorCode.INVALID_IDEMPOTENCY_KEY,
+          "Idempotency-Key already used for a different request");
+    }
+    count(scope, "replayed");
+    log.debug("Idempotent replay for {}", scope);
+    return ResponseEntity.status(stored.status())
+        .header(REPLAYED_HEADER, "true")
+        .body(read(stored.body()));
+  }
+
+  private String hash(Object request) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+    } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+      throw new IllegalStateException("Cannot hash request", e);
+    }
+  }
+
+  private String write(Map<String, Object> body) {
+    try {
+      return objectMapper.writeValueAsString(body);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Cannot serialize response", e);
+    }
+  }
+
+  private Map<String, Object> read(String body) {
+    try {
+      return objectMapper.readValue(body, BODY_TYPE);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Cannot read stored response", e);
+    }
+  }
+
+  private void count(String scope, String outcome) {
+    meterRegistry.counter("smartshop.idempotency.requests", "scope", scope, "outcome", outcome).increment();
+  }
+
+  private record StoredResponse(String requestHash, int status, String body, LocalDateTime expiresAt) {
+  }
+
+  private record Executed(ResponseEntity<Map<String, Object>> response, StoredResponse stored) {
+  }
+
+  /**
+   * Clé déjà insérée par une autre transaction ; annule la transaction courante
+   */
+  private static final class KeyConflictException extends RuntimeException {
+    KeyConflictException() {
+      super(null, null, false, false);
+    }
+  }
+}
@@ -0,0 +1,135 @@
+package com.example.smartshop.interceptor;
+
+import com.example.smartshop.metrics.RequestQueryStats;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Mesure chaque méthode de controller :
+ * - smartshop.request.duration : latence (histogramme, percentiles Prometheus)
+ * - smartshop.request.sql.statements : requêtes SQL exécutées
+ * - smartshop.request.entity.loads / smartshop.request.collection.fetches : chargements Hibernate
+ *
+ * Si smartshop.metrics.slow-request.enabled=true, les requêtes plus lentes que le seuil
+ * sont journalisées avec leurs requêtes SQL les plus fréquentes.
+ *
+ * Réponse asynchrone (StreamingResponseBody, Callable) : le début et les compteurs sont
+ * gardés dans des attributs de la requête. Le traitement asynchrone (intercepteur de
+ * Callable, enregistré par WebConfig) et le redispatch final les reprennent ; la mesure
+ * est enregistrée une fois, à la fin du redispatch.
+ */
+@Component
+@Slf4j
+public class RequestMetricsInterceptor implements AsyncHandlerInterceptor, CallableProcessingInterceptor {
+
+  private static final String START_ATTRIBUTE = RequestMetricsInterceptor.class.getName() + ".start";
+  private static final String STATS_ATTRIBUTE = RequestMetricsInterceptor.class.getName() + ".stats";
+
+  private final MeterRegistry meterRegistry;
+  private final boolean slowRequestLogEnabled;
+  private final long slowRequestThresholdNanos;
+  private final int topStatements;
+
+  public RequestMetricsInterceptor(MeterRegistry meterRegistry,
+      @Value("${smartshop.metrics.slow-request.enabled:false}") boolean slowRequestLogEnabled,
+      @Value("${smartshop.metrics.slow-request.threshold-ms:500}") long slowRequestThresholdMs,
+      @Value("${smartshop.metrics.slow-request.top-statements:5}") int topStatements) {
+    this.meterRegistry = meterRegistry;
+    this.slowRequestLogEnabled = slowRequestLogEnabled;
+    this.slowRequestThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowRequestThresholdMs);
+    this.topStatements = topStatements;
+  }
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+    if (!(handler instanceof HandlerMethod)) {
+      return true;
+    }
+    if (request.getAttribute(STATS_ATTRIBUTE) instanceof RequestQueryStats stats) {
+      // Redispatch après le traitement asynchrone : même début, mêmes compteurs
+      RequestQueryStats.bind(stats);
+    } else {
+      request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+      request.setAttribute(STATS_ATTRIBUTE, RequestQueryStats.start(slowRequestLogEnabled));
+    }
+    return true;
+  }
+
+  @Override
+  public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+      Exception ex) {
+    RequestQueryStats.clear();
+
+    Object start = request.getAttribute(START_ATTRIBUTE);
+    if (!(handler instanceof HandlerMethod handlerMethod) || start == null
+        || !(request.getAttribute(STATS_ATTRIBUTE) instanceof RequestQueryStats stats)) {
+      return;
+    }
+
+    long duration = System.nanoTime() - (Long) start;
+    String handlerName = handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+
+    Timer.builder("smartshop.request.duration")
+        .description("Latence par méthode de controller")
+        .tag("handler", handlerName)
+        .publishPercentileHistogram()
+        .register(meterRegistry)
+        .record(duration, TimeUnit.NANOSECONDS);
+    summary("smartshop.request.sql.statements", handlerName).record(stats.getStatements());
+    summary("smartshop.request.entity.loads", handlerName).record(stats.getEntityLoads());
+    summary("smartshop.request.collection.fetches", handlerName).record(stats.getCollectionFetches());
+
+    if (slowRequestLogEnabled && duration > slowRequestThresholdNanos) {
+      String top = stats.topStatements(topStatements).stream()
+          .map(entry -> entry.getValue() + "x " + entry.getKey())
+          .collect(Collectors.joining("\n  "));
+      log.warn("Requête lente {} {} ({}) : {} ms, {} requêtes SQL, {} entités, {} collections\n  {}",
+          request.getMethod(), request.getRequestURI(), handlerName, TimeUnit.NANOSECONDS.toMillis(duration),
+          stats.getStatements(), stats.getEntityLoads(), stats.getCollectionFetches(), top);
+    }
+  }
+
+  @Override
+  public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+      Object handler) {
+    // Réponse asynchrone (streaming) : le thread est rendu au pool, ne pas y laisser de compteurs ;
+    // la mesure se termine au redispatch (attributs de la requête)
+    RequestQueryStats.clear();
+  }
+
+  /**
+   * Thread du traitement asynchrone : requêtes SQL comptées pour la requête HTTP
+   */
+  @Override
+  public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+    if (request.getAttribute(STATS_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof RequestQueryStats stats) {
+      RequestQueryStats.bind(stats);
+    }
+  }
+
+  @Override
+  public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+    RequestQueryStats.clear();
+  }
+
+  private DistributionSummary summary(String name, String handlerName) {
+    return DistributionSummary.builder(name)
+        .tag("handler", handlerName)
+        .register(meterRegistry);
+  }
+}
@@ -0,0 +1,73 @@
+package com.example.smartshop.jfr;
+
+import com.example.smartshop.dto.OrderResponseDTO;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Événement JFR émis par OrderService (create, confirm, cancel).
+ * La durée de l'événement couvre toute l'opération, requêtes SQL comprises.
+ */
+@Name("com.example.smartshop.OrderOperation")
+@Label("Order Operation")
+@Category({"SmartShop", "Orders"})
+@Description("Création, confirmation ou annulation d'une commande")
+@StackTrace(false)
+public class OrderOperationEvent extends jdk.jfr.Event {
+
+  public static final String CREATE = "create";
+  public static final String CONFIRM = "confirm";
+  public static final String CANCEL = "cancel";
+
+  @Label("Operation")
+  String operation;
+
+  @Label("Order Id")
+  long orderId;
+
+  @Label("Client Id")
+  long clientId;
+
+  @Label("Line Count")
+  int lineCount;
+
+  @Label("Status")
+  String status;
+
+  @Label("Succeeded")
+  boolean succeeded;
+
+  public OrderOperationEvent(String operation) {
+    this.operation = operation;
+  }
+
+  public void setOrderId(Long orderId) {
+    this.orderId = orderId != null ? orderId : 0L;
+  }
+
+  public void setClientId(Long clientId) {
+    this.clientId = clientId != null ? clientId : 0L;
+  }
+
+  public void setLineCount(int lineCount) {
+    this.lineCount = lineCount;
+  }
+
+  /**
+   * Complète l'événement avec la commande résultante
+   */
+  public void succeeded(OrderResponseDTO order) {
+    if (order != null) {
+      setOrderId(order.getId());
+      setClientId(order.getClientId());
+      if (order.getItems() != null) {
+        this.lineCount = order.getItems().size();
+      }
+      this.status = order.getStatus();
+    }
+    this.succeeded = true;
+  }
+}
@@ -0,0 +1,69 @@
+package com.example.smartshop.jfr;
+
+import com.example.smartshop.dto.PaymentResponseDTO;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Événement JFR émis par PaymentService (addPayment, updatePaymentStatus)
+ */
+@Name("com.example.smartshop.PaymentOperation")
+@Label("Payment Operation")
+@Category({"SmartShop", "Payments"})
+@Description("Ajout d'un paiement ou changement de statut d'un paiement")
+@StackTrace(false)
+public class PaymentOperationEvent extends jdk.jfr.Event {
+
+  public static final String ADD = "add";
+  public static final String UPDATE_STATUS = "updateStatus";
+
+  @Label("Operation")
+  String operation;
+
+  @Label("Payment Id")
+  long paymentId;
+
+  @Label("Order Id")
+  long orderId;
+
+  @Label("Amount")
+  double amount;
+
+  @Label("Method")
+  String method;
+
+  @Label("Status")
+  String status;
+
+  @Label("Succeeded")
+  boolean succeeded;
+
+  public PaymentOperationEvent(String operation) {
+    this.operation = operation;
+  }
+
+  public void setPaymentId(Long paymentId) {
+    this.paymentId = paymentId != null ? paymentId : 0L;
+  }
+
+  public void setOrderId(Long orderId) {
+    this.orderId = orderId != null ? orderId : 0L;
+  }
+
+  /**
+   * Complète l'événement avec le paiement résultant
+   */
+  public void succeeded(PaymentResponseDTO payment) {
+    if (payment != null) {
+      setPaymentId(payment.getId());
+      setOrderId(payment.getOrderId());
+      this.amount = payment.getAmount() != null ? payment.getAmount() : 0.0;
+      this.method = payment.getMethod() != null ? payment.getMethod().name() : null;
+      this.status = payment.getStatus() != null ? payment.getStatus().name() : null;
+    }
+    this.succeeded = true;
+  }
+}
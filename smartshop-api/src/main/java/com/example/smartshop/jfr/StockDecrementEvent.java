@@ -0,0 +1,40 @@
+package com.example.smartshop.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Événement JFR émis par ProductService.decrementStock
+ */
+@Name("com.example.smartshop.StockDecrement")
+@Label("Stock Decrement")
+@Category({"SmartShop", "Products"})
+@Description("Décrément du stock d'un produit lors de la confirmation d'une commande")
+@StackTrace(false)
+public class StockDecrementEvent extends jdk.jfr.Event {
+
+  @Label("Product Id")
+  long productId;
+
+  @Label("Quantity")
+  int quantity;
+
+  @Label("Remaining Stock")
+  int remainingStock;
+
+  @Label("Succeeded")
+  boolean succeeded;
+
+  public StockDecrementEvent(Long productId, Integer quantity) {
+    this.productId = productId != null ? productId : 0L;
+    this.quantity = quantity != null ? quantity : 0;
+  }
+
+  public void succeeded(int remainingStock) {
+    this.remainingStock = remainingStock;
+    this.succeeded = true;
+  }
+}
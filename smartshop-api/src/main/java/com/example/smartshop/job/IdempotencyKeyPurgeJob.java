@@ -0,0 +1,53 @@
+package com.example.smartshop.job;
+
+import com.example.smartshop.repository.IdempotencyRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Supprime les clés Idempotency-Key expirées (smartshop.idempotency.ttl-hours).
+ *
+ * Planifié par JobRunner (smartshop.jobs.idempotency-purge.*) ; une clé expirée mais pas
+ * encore purgée est déjà ignorée par IdempotencyStore.
+ */
+@Component
+@Slf4j
+public class IdempotencyKeyPurgeJob implements ScheduledJob {
+
+  public static final String NAME = "idempotency-purge";
+
+  private final IdempotencyRecordRepository repository;
+  private final TransactionTemplate transactionTemplate;
+
+  public IdempotencyKeyPurgeJob(IdempotencyRecordRepository repository, TransactionTemplate transactionTemplate) {
+    this.repository = repository;
+    this.transactionTemplate = transactionTemplate;
+  }
+
+  @Override
+  public String name() {
+    return NAME;
+  }
+
+  @Override
+  public JobTrigger defaultTrigger() {
+    return JobTrigger.fixedDelay(Duration.ofHours(1));
+  }
+
+  /**
+   * @return nombre de clés supprimées
+   */
+  @Override
+  public long execute() {
+    LocalDateTime now = LocalDateTime.now();
+    Integer purged = transactionTemplate.execute(status -> repository.deleteExpired(now));
+    if (purged != null && purged > 0) {
+      log.info("Idempotency keys: {} expired keys purged", purged);
+    }
+    return purged != null ? purged : 0;
+  }
+}
@@ -0,0 +1,126 @@
+package com.example.smartshop.job;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Élection d'un nœud par traitement à l'aide des verrous consultatifs PostgreSQL.
+ *
+ * Le verrou (pg_try_advisory_lock, clé (LOCK_NAMESPACE, hash du nom)) est pris au niveau
+ * de la session, sur une connexion dédiée conservée jusqu'à la fin de l'exécution : il est
+ * libéré explicitement, ou par PostgreSQL si la connexion est perdue (nœud arrêté). Un
+ * nœud qui n'obtient pas le verrou saute son déclenchement.
+ *
+ * Sur une autre base (H2 des tests), le verrou est local au processus.
+ */
+@Component
+@Slf4j
+public class JobLockManager {
+
+  // Premier entier de la clé : isole les verrous des traitements d'autres usages éventuels
+  static final int LOCK_NAMESPACE = 0x534A4F42;
+
+  private final DataSource dataSource;
+  private final Set<String> localLocks = ConcurrentHashMap.newKeySet();
+  private volatile Boolean postgres;
+
+  public JobLockManager(DataSource dataSource) {
+    this.dataSource = dataSource;
+  }
+
+  /**
+   * Tente de prendre le verrou du traitement, sans attendre
+   *
+   * @return le bail à fermer en fin d'exécution, vide si un autre nœud (ou thread) le détient
+   */
+  public Optional<Lease> tryLock(String jobName) {
+    if (!isPostgres()) {
+      return localLocks.add(jobName)
+          ? Optional.of(() -> localLocks.remove(jobName))
+          : Optional.empty();
+    }
+
+    Connection connection = null;
+    try {
+      connection = dataSource.getConnection();
+      // Hors transaction : le verrou de session survit aux commits de la connexion
+      connection.setAutoCommit(true);
+      if (advisoryLock(connection, "SELECT pg_try_advisory_lock(?, ?)", jobName)) {
+        return Optional.of(new AdvisoryLease(connection, jobName));
+      }
+      connection.close();
+      return Optional.empty();
+    } catch (SQLException e) {
+      closeQuietly(connection);
+      throw new IllegalStateException("Could not acquire lock for job " + jobName, e);
+    }
+  }
+
+  private boolean isPostgres() {
+    if (postgres == null) {
+      try (Connection connection = dataSource.getConnection()) {
+        postgres = "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+      } catch (SQLException e) {
+        throw new IllegalStateException("Could not detect database for job locks", e);
+      }
+      if (!postgres) {
+        log.warn("Job locks are local to this process: advisory locks require PostgreSQL");
+      }
+    }
+    return postgres;
+  }
+
+  private static boolean advisoryLock(Connection connection, String sql, String jobName) throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+      statement.setInt(1, LOCK_NAMESPACE);
+      statement.setInt(2, jobName.hashCode());
+      try (ResultSet rs = statement.executeQuery()) {
+        return rs.next() && rs.getBoolean(1);
+      }
+    }
+  }
+
+  private static void closeQuietly(Connection connection) {
+    if (connection != null) {
+      try {
+        connection.close();
+      } catch (SQLException ignored) {
+        // Connexion déjà inutilisable
+      }
+    }
+  }
+
+  /**
+   * Verrou détenu ; close() le libère
+   */
+  @FunctionalInterface
+  public interface Lease extends AutoCloseable {
+    @Override
+    void close();
+  }
+
+  private record AdvisoryLease(Connection connection, String jobName) implements Lease {
+    @Override
+    public void close() {
+      try {
+        if (!advisoryLock(connection, "SELECT pg_advisory_unlock(?, ?)", jobName)) {
+          log.warn("Advisory lock of job {} was not held at release", jobName);
+        }
+      } catch (SQLException e) {
+        // Connexion rompue : le pool l'écarte et la fin de session libère le verrou
+        log.warn("Could not release lock of job {}: {}", jobName, e.getMessage());
+      } finally {
+        closeQuietly(connection);
+      }
+    }
+  }
+}
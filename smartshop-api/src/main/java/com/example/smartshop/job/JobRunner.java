@@ -0,0 +1,291 @@
+package com.example.smartshop.job;
+
+import com.example.smartshop.config.ThreadModeExecutors;
+import com.example.smartshop.dto.JobDTO;
+import com.example.smartshop.dto.JobExecutionDTO;
+import com.example.smartshop.entity.JobExecution;
+import com.example.smartshop.entity.JobExecutionStatus;
+import com.example.smartshop.exception.BusinessRuleViolationException;
+import com.example.smartshop.exception.ErrorCode;
+import com.example.smartshop.repository.JobExecutionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Registre et exécution des traitements planifiés (ScheduledJob) en environnement multi-nœuds.
+ *
+ * Chaque déclenchement (cron ou délai fixe) tente de prendre le verrou du traitement
+ * (JobLockManager) : un seul nœud l'exécute, les autres sautent ce déclenchement. Le
+ * détenteur du verrou enregistre l'exécution dans job_executions (nœud, durée, statut,
+ * lignes traitées) et clôt en FAILED les exécutions restées RUNNING après l'arrêt
+ * brutal d'un nœud.
+ *
+ * Configuration : smartshop.jobs.enabled (tous les déclenchements planifiés), puis par
+ * traitement smartshop.jobs.&lt;name&gt;.enabled, .cron et .fixed-delay-ms. Le lancement
+ * manuel (trigger) reste possible quand la planification est désactivée.
+ *
+ * Les traitements ont leur propre planificateur (smartshop.jobs.scheduler.pool-size) et
+ * leur propre pool de lancements manuels, en threads virtuels si
+ * spring.threads.virtual.enabled : un traitement long n'occupe jamais le taskScheduler
+ * partagé du relais outbox, des heartbeats SSE et du flush des codes promo.
+ *
+ * Métriques : smartshop.jobs.duration{job,outcome}, smartshop.jobs.rows{job},
+ * smartshop.jobs.skipped{job}.
+ */
+@Component
+@Slf4j
+public class JobRunner {
+
+  private static final int MAX_ERROR_LENGTH = 1000;
+
+  private final Map<String, ScheduledJob> jobs = new TreeMap<>();
+  private final JobLockManager lockManager;
+  private final JobExecutionRepository executionRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final MeterRegistry meterRegistry;
+  private final Environment environment;
+  private final boolean enabled;
+  private final String node = ManagementFactory.getRuntimeMXBean().getName();
+  private final ThreadPoolTaskScheduler scheduler;
+  private final ExecutorService manualRuns;
+
+  public JobRunner(List<ScheduledJob> scheduledJobs, JobLockManager lockManager,
+      JobExecutionRepository executionRepository, TransactionTemplate transactionTemplate,
+      MeterRegistry meterRegistry, Environment environment, ThreadModeExecutors executors,
+      @Value("${smartshop.jobs.enabled:true}") boolean enabled,
+      @Value("${smartshop.jobs.scheduler.pool-size:2}") int schedulerPoolSize) {
+    for (ScheduledJob job : scheduledJobs) {
+      if (jobs.putIfAbsent(job.name(), job) != null) {
+        throw new IllegalStateException("Duplicate job name: " + job.name());
+      }
+    }
+    this.lockManager = lockManager;
+    this.executionRepository = executionRepository;
+    this.transactionTemplate = transactionTemplate;
+    this.meterRegistry = meterRegistry;
+    this.environment = environment;
+    this.enabled = enabled;
+
+    this.scheduler = executors.newScheduler("job-scheduler", schedulerPoolSize);
+    // Un lancement manuel par traitement au plus (verrou pris avant la soumission)
+    this.manualRuns = executors.newExecutor("job-runner", Math.max(1, jobs.size()));
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void schedule() {
+    for (ScheduledJob job : jobs.values()) {
+      if (!isScheduled(job)) {
+        log.info("Job {} is not scheduled on this node", job.name());
+        continue;
+      }
+      JobTrigger trigger = triggerOf(job);
+      Runnable task = () -> runScheduled(job);
+      if (trigger.isCron()) {
+        scheduler.schedule(task, new CronTrigger(trigger.cron()));
+      } else {
+        // Premier déclenchement après un délai complet : pas de rafale au démarrage des nœuds
+        scheduler.scheduleWithFixedDelay(task, Instant.now().plus(trigger.fixedDelay()), trigger.fixedDelay());
+      }
+      log.info("Job {} scheduled: {}", job.name(), trigger.describe());
+    }
+  }
+
+  /**
+   * Exécute le traitement dans le thread appelant si aucun nœud ne l'exécute déjà
+   *
+   * @return l'exécution enregistrée, vide si le verrou est détenu ailleurs
+   */
+  public Optional<JobExecution> runNow(String name) {
+    ScheduledJob job = require(name);
+    Optional<JobLockManager.Lease> lease = lockManager.tryLock(name);
+    if (lease.isEmpty()) {
+      skipped(name);
+      return Optional.empty();
+    }
+    try (JobLockManager.Lease held = lease.get()) {
+      return Optional.of(execute(job, JobExecution.MANUAL));
+    }
+  }
+
+  /**
+   * Lance le traitement en arrière-plan (déclenchement manuel) ; le verrou est pris avant
+   * de répondre pour signaler immédiatement un traitement déjà en cours
+   *
+   * @throws BusinessRuleViolationException si le traitement est inconnu ou déjà en cours
+   */
+  public void trigger(String name) {
+    ScheduledJob job = require(name);
+    JobLockManager.Lease lease = lockManager.tryLock(name)
+        .orElseThrow(() -> new BusinessRuleViolationException(ErrorCode.JOB_ALREADY_RUNNING,
+            "Job is already running: " + name));
+    try {
+      manualRuns.execute(() -> {
+        try (lease) {
+          execute(job, JobExecution.MANUAL);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      lease.close();
+      throw e;
+    }
+  }
+
+  public List<JobDTO> jobs() {
+    return jobs.values().stream()
+        .map(job -> JobDTO.builder()
+            .name(job.name())
+            .schedule(triggerOf(job).describe())
+            .enabled(isScheduled(job))
+            .lastExecution(executions(job.name(), 1).stream().findFirst().orElse(null))
+            .build())
+        .toList();
+  }
+
+  public List<JobExecutionDTO> executions(String name, int limit) {
+    require(name);
+    return executionRepository.findByJobNameOrderByStartedAtDesc(name, PageRequest.of(0, limit)).stream()
+        .map(JobRunner::toDTO)
+        .toList();
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    scheduler.shutdown();
+    manualRuns.shutdownNow();
+  }
+
+  private void runScheduled(ScheduledJob job) {
+    try {
+      Optional<JobLockManager.Lease> lease = lockManager.tryLock(job.name());
+      if (lease.isEmpty()) {
+        skipped(job.name());
+        log.debug("Job {} skipped: running on another node", job.name());
+        return;
+      }
+      try (JobLockManager.Lease held = lease.get()) {
+        execute(job, JobExecution.SCHEDULED);
+      }
+    } catch (RuntimeException e) {
+      // Base indisponible : le prochain déclenchement réessaiera
+      log.error("Job {} could not be started: {}", job.name(), e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Exécute le traitement et enregistre son historique ; appelé par le détenteur du verrou
+   */
+  private JobExecution execute(ScheduledJob job, String triggerType) {
+    String name = job.name();
+    LocalDateTime startedAt = LocalDateTime.now();
+    JobExecution execution = transactionTemplate.execute(status -> {
+      int interrupted = executionRepository.closeInterrupted(name, JobExecutionStatus.RUNNING,
+          JobExecutionStatus.FAILED, startedAt);
+      if (interrupted > 0) {
+        log.warn("Job {}: {} interrupted executions marked as failed", name, interrupted);
+      }
+      return executionRepository.save(JobExecution.builder()
+          .jobName(name)
+          .node(node)
+          .triggerType(triggerType)
+          .status(JobExecutionStatus.RUNNING)
+          .startedAt(startedAt)
+          .build());
+    });
+
+    long start = System.nanoTime();
+    try {
+      long rows = job.execute();
+      execution.setStatus(JobExecutionStatus.SUCCEEDED);
+      execution.setRowsProcessed(rows);
+      meterRegistry.counter("smartshop.jobs.rows", "job", name).increment(rows);
+    } catch (RuntimeException e) {
+      execution.setStatus(JobExecutionStatus.FAILED);
+      execution.setError(truncate(e.toString()));
+      log.error("Job {} failed: {}", name, e.getMessage(), e);
+    }
+    long elapsed = System.nanoTime() - start;
+    Timer.builder("smartshop.jobs.duration")
+        .description("Durée d'exécution des traitements planifiés")
+        .tag("job", name)
+        .tag("outcome", execution.getStatus().name().toLowerCase())
+        .register(meterRegistry)
+        .record(Duration.ofNanos(elapsed));
+    execution.setFinishedAt(LocalDateTime.now());
+    execution = executionRepository.save(execution);
+    log.info("Job {} {} in {} ms ({} rows)", name, execution.getStatus(), elapsed / 1_000_000,
+        execution.getRowsProcessed());
+    return execution;
+  }
+
+  private boolean isScheduled(ScheduledJob job) {
+    return enabled && environment.getProperty("smartshop.jobs." + job.name() + ".enabled", Boolean.class, true);
+  }
+
+  private JobTrigger triggerOf(ScheduledJob job) {
+    String prefix = "smartshop.jobs." + job.name();
+    String cron = environment.getProperty(prefix + ".cron");
+    if (cron != null && !cron.isBlank()) {
+      return JobTrigger.cron(cron);
+    }
+    Long delayMs = environment.getProperty(prefix + ".fixed-delay-ms", Long.class);
+    if (delayMs != null) {
+      return JobTrigger.fixedDelay(Duration.ofMillis(delayMs));
+    }
+    return job.defaultTrigger();
+  }
+
+  private ScheduledJob require(String name) {
+    ScheduledJob job = jobs.get(name);
+    if (job == null) {
+      throw new BusinessRuleViolationException(ErrorCode.JOB_NOT_FOUND, "Job not found: " + name);
+    }
+    return job;
+  }
+
+  private void skipped(String name) {
+    meterRegistry.counter("smartshop.jobs.skipped", "job", name).increment();
+  }
+
+  private static String truncate(String message) {
+    return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+  }
+
+  private static JobExecutionDTO toDTO(JobExecution execution) {
+    return JobExecutionDTO.builder()
+        .id(execution.getId())
+        .jobName(execution.getJobName())
+        .node(execution.getNode())
+        .triggerType(execution.getTriggerType())
+        .status(execution.getStatus())
+        .startedAt(execution.getStartedAt())
+        .finishedAt(execution.getFinishedAt())
+        .durationMs(execution.getFinishedAt() != null
+            ? Duration.between(execution.getStartedAt(), execution.getFinishedAt()).toMillis()
+            : null)
+        .rowsProcessed(execution.getRowsProcessed())
+        .error(execution.getError())
+        .build();
+  }
+}
@@ -0,0 +1,25 @@
+package com.example.smartshop.job;
+
+import java.time.Duration;
+
+/**
+ * Déclenchement d'un traitement : expression cron ou délai fixe entre deux exécutions
+ */
+public record JobTrigger(String cron, Duration fixedDelay) {
+
+  public static JobTrigger cron(String expression) {
+    return new JobTrigger(expression, null);
+  }
+
+  public static JobTrigger fixedDelay(Duration delay) {
+    return new JobTrigger(null, delay);
+  }
+
+  public boolean isCron() {
+    return cron != null;
+  }
+
+  public String describe() {
+    return isCron() ? "cron " + cron : "fixed delay " + fixedDelay.toMillis() + " ms";
+  }
+}
@@ -0,0 +1,234 @@
+package com.example.smartshop.job;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Entretien des partitions mensuelles de orders, order_items et payments (V12).
+ *
+ * À chaque passe :
+ * - les partitions du mois courant et des smartshop.orders.partitions.months-ahead mois
+ *   suivants sont créées si elles manquent ;
+ * - chaque mois antérieur à smartshop.orders.archive.retention-months est archivé :
+ *   ses trois partitions sont exportées (COPY, CSV gzip) dans
+ *   smartshop.orders.archive.directory/AAAA-MM/, puis retirées des tables avec les
+ *   résumés order_summary du mois. Les commandes CONFIRMED du mois sont d'abord
+ *   ajoutées, par client, à client_archived_totals (V15), que TierRecomputationJob
+ *   additionne aux commandes restantes.
+ *
+ * L'archivage d'un mois se fait dans une transaction : partitions verrouillées en
+ * écriture pendant l'export, puis détachées et supprimées. Un export en échec annule
+ * tout ; un mois contenant encore des commandes PENDING est laissé en place. Le
+ * détachement verrouille brièvement les tables parentes (au plus
+ * smartshop.orders.archive.lock-timeout-ms, sinon nouvel essai à la passe suivante).
+ *
+ * Des lignes dans une partition DEFAULT (mois non créé) échappent à l'élagage et à
+ * l'archivage : leur nombre est publié par table (smartshop.orders.partitions.default.rows)
+ * et la passe se termine en échec après l'archivage, jusqu'à ce qu'elles soient déplacées.
+ *
+ * Sans PostgreSQL (H2 des tests), il n'y a pas de partitions et la passe ne fait rien.
+ */
+@Slf4j
+@Component
+public class OrderPartitionJob implements ScheduledJob {
+
+  public static final String NAME = "order-partitions";
+
+  private static final String PARTITIONS_SQL =
+      "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+      "WHERE i.inhparent = 'orders'::regclass";
+
+  // %s : partition de orders du mois archivé
+  static final String ARCHIVE_TOTALS_SQL =
+      "INSERT INTO client_archived_totals (client_id, archived_orders, archived_spent, updated_at) " +
+      "SELECT client_id, COUNT(*), SUM(total), CURRENT_TIMESTAMP FROM %s WHERE status = 'CONFIRMED' " +
+      "GROUP BY client_id " +
+      "ON CONFLICT (client_id) DO UPDATE SET " +
+      "archived_orders = client_archived_totals.archived_orders + EXCLUDED.archived_orders, " +
+      "archived_spent = client_archived_totals.archived_spent + EXCLUDED.archived_spent, " +
+      "updated_at = EXCLUDED.updated_at";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final Path directory;
+  private final int monthsAhead;
+  private final int retentionMonths;
+  private final long lockTimeoutMs;
+  private final Map<String, AtomicLong> defaultRows = new ConcurrentHashMap<>();
+
+  public OrderPartitionJob(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+      MeterRegistry meterRegistry,
+      @Value("${smartshop.orders.archive.directory:archive}") String directory,
+      @Value("${smartshop.orders.partitions.months-ahead:3}") int monthsAhead,
+      @Value("${smartshop.orders.archive.retention-months:24}") int retentionMonths,
+      @Value("${smartshop.orders.archive.lock-timeout-ms:5000}") long lockTimeoutMs) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = transactionTemplate;
+    this.directory = Paths.get(directory);
+    this.monthsAhead = monthsAhead;
+    this.retentionMonths = retentionMonths;
+    this.lockTimeoutMs = lockTimeoutMs;
+    for (String table : OrderPartitions.TABLES) {
+      AtomicLong rows = defaultRows.computeIfAbsent(table, key -> new AtomicLong());
+      Gauge.builder("smartshop.orders.partitions.default.rows", rows, AtomicLong::get)
+          .description("Lignes hors des partitions mensuelles (partition DEFAULT)")
+          .tag("table", table)
+          .register(meterRegistry);
+    }
+  }
+
+  @Override
+  public String name() {
+    return NAME;
+  }
+
+  @Override
+  public JobTrigger defaultTrigger() {
+    return JobTrigger.cron("0 15 3 * * *");
+  }
+
+  /**
+   * @return nombre de commandes archivées
+   */
+  @Override
+  public long execute() {
+    if (!isPostgres()) {
+      log.debug("Order partitions require PostgreSQL, nothing to do");
+      return 0;
+    }
+
+    YearMonth current = YearMonth.now();
+    Integer created = jdbcTemplate.queryForObject("SELECT create_order_partitions(?, ?)", Integer.class,
+        current.atDay(1), monthsAhead + 1);
+    if (created != null && created > 0) {
+      log.info("Created {} order partitions up to {}", created, current.plusMonths(monthsAhead));
+    }
+    long outsidePartitions = 0;
+    for (String table : OrderPartitions.TABLES) {
+      Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + "_default", Long.class);
+      defaultRows.get(table).set(rows != null ? rows : 0);
+      if (rows != null && rows > 0) {
+        outsidePartitions += rows;
+        log.error("{}_default contains {} rows outside monthly partitions; create_order_partitions cannot "
+            + "cover their months until they are moved", table, rows);
+      }
+    }
+
+    List<YearMonth> months = jdbcTemplate.queryForList(PARTITIONS_SQL, String.class).stream()
+        .map(OrderPartitions::monthOf)
+        .flatMap(Optional::stream)
+        .toList();
+    long archived = 0;
+    for (YearMonth month : OrderPartitions.archivable(months, current, retentionMonths)) {
+      archived += archive(month);
+    }
+    if (outsidePartitions > 0) {
+      throw new IllegalStateException(outsidePartitions + " order rows are in DEFAULT partitions ("
+          + archived + " orders archived)");
+    }
+    return archived;
+  }
+
+  private long archive(YearMonth month) {
+    Path target = directory.resolve(month.toString());
+    Long orders = transactionTemplate.execute(status -> jdbcTemplate.execute(
+        (ConnectionCallback<Long>) connection -> archive(connection, month, target)));
+    if (orders != null && orders > 0) {
+      log.info("Archived {} orders of {} to {}", orders, month, target);
+    }
+    return orders != null ? orders : 0;
+  }
+
+  private long archive(Connection connection, YearMonth month, Path target) throws SQLException {
+    String orders = OrderPartitions.name("orders", month);
+    String items = OrderPartitions.name("order_items", month);
+    String payments = OrderPartitions.name("payments", month);
+
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("SET LOCAL lock_timeout = " + lockTimeoutMs);
+      // Aucune écriture sur le mois entre l'export et la suppression
+      statement.execute("LOCK TABLE " + orders + ", " + items + ", " + payments + " IN SHARE MODE");
+      try (ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM " + orders + " WHERE status = 'PENDING'")) {
+        rs.next();
+        if (rs.getLong(1) > 0) {
+          log.warn("{} not archived: {} orders are still PENDING", month, rs.getLong(1));
+          return 0L;
+        }
+      }
+
+      CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+      long exported;
+      try {
+        Files.createDirectories(target);
+        exported = export(copyManager, orders, target.resolve("orders.csv.gz"));
+        export(copyManager, items, target.resolve("order_items.csv.gz"));
+        export(copyManager, payments, target.resolve("payments.csv.gz"));
+      } catch (IOException e) {
+        throw new UncheckedIOException("Archive export failed for " + month, e);
+      }
+
+      // Historique des clients conservé pour le recalcul des niveaux
+      statement.executeUpdate(String.format(ARCHIVE_TOTALS_SQL, orders));
+      try (PreparedStatement delete = connection.prepareStatement(
+          "DELETE FROM order_summary WHERE created_at >= ? AND created_at < ?")) {
+        delete.setTimestamp(1, Timestamp.valueOf(month.atDay(1).atStartOfDay()));
+        delete.setTimestamp(2, Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay()));
+        delete.executeUpdate();
+      }
+      // Lignes et paiements d'abord : la partition de orders n'est alors plus référencée
+      statement.execute("DROP TABLE " + payments);
+      statement.execute("DROP TABLE " + items);
+      statement.execute("ALTER TABLE orders DETACH PARTITION " + orders);
+      statement.execute("DROP TABLE " + orders);
+      return exported;
+    }
+  }
+
+  /**
+   * COPY ... TO STDOUT (CSV avec en-tête) compressé ; le fichier n'apparaît sous son nom qu'une fois complet
+   */
+  private static long export(CopyManager copyManager, String table, Path file) throws SQLException, IOException {
+    Path partial = file.resolveSibling(file.getFileName() + ".partial");
+    long rows;
+    try (OutputStream out = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(partial)), 64 * 1024)) {
+      rows = copyManager.copyOut("COPY " + table + " TO STDOUT WITH (FORMAT csv, HEADER)", out);
+    }
+    Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    return rows;
+  }
+
+  private boolean isPostgres() {
+    return Boolean.TRUE.equals(jdbcTemplate.execute(
+        (ConnectionCallback<Boolean>) connection -> connection.isWrapperFor(PGConnection.class)));
+  }
+}
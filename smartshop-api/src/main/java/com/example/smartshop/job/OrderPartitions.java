@@ -0,0 +1,48 @@
+package com.example.smartshop.job;
+
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Nommage des partitions mensuelles créées par create_order_partitions (V12) :
+ * orders_y2025m01, order_items_y2025m01, payments_y2025m01.
+ */
+public final class OrderPartitions {
+
+  public static final List<String> TABLES = List.of("orders", "order_items", "payments");
+
+  private static final Pattern ORDERS_PARTITION = Pattern.compile("orders_y(\\d{4})m(\\d{2})");
+
+  private OrderPartitions() {
+  }
+
+  public static String name(String table, YearMonth month) {
+    return String.format("%s_y%04dm%02d", table, month.getYear(), month.getMonthValue());
+  }
+
+  /**
+   * Mois d'une partition de orders ; vide pour la partition DEFAULT et les autres tables
+   */
+  public static Optional<YearMonth> monthOf(String partitionName) {
+    Matcher matcher = ORDERS_PARTITION.matcher(partitionName);
+    if (!matcher.matches()) {
+      return Optional.empty();
+    }
+    return Optional.of(YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))));
+  }
+
+  /**
+   * Mois entièrement antérieurs à la fenêtre de rétention (mois courant exclu), du plus ancien au plus récent
+   */
+  public static List<YearMonth> archivable(Collection<YearMonth> months, YearMonth current, int retentionMonths) {
+    YearMonth oldestKept = current.minusMonths(retentionMonths);
+    return months.stream()
+        .filter(month -> month.isBefore(oldestKept))
+        .sorted()
+        .toList();
+  }
+}
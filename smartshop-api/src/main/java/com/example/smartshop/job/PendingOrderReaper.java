@@ -0,0 +1,77 @@
+package com.example.smartshop.job;
+
+import com.example.smartshop.service.OrderService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Annule les commandes restées PENDING au-delà de smartshop.orders.pending-ttl-hours sans
+ * paiement encaissé.
+ *
+ * Chaque lot (smartshop.orders.reaper.batch-size) est annulé dans sa propre transaction par
+ * OrderService.cancelExpiredOrders : réservation FOR UPDATE SKIP LOCKED, puis une mise à
+ * jour ensembliste. Planifié par JobRunner (smartshop.jobs.pending-order-reaper.*) ; les
+ * commandes annulées sont comptées dans smartshop.jobs.rows{job=pending-order-reaper}.
+ */
+@Component
+@Slf4j
+public class PendingOrderReaper implements ScheduledJob {
+
+  public static final String NAME = "pending-order-reaper";
+
+  private final OrderService orderService;
+  private final Duration ttl;
+  private final int batchSize;
+  private final int maxBatchesPerRun;
+
+  public PendingOrderReaper(OrderService orderService,
+      @Value("${smartshop.orders.pending-ttl-hours:72}") long ttlHours,
+      @Value("${smartshop.orders.reaper.batch-size:500}") int batchSize,
+      @Value("${smartshop.orders.reaper.max-batches-per-run:20}") int maxBatchesPerRun) {
+    this.orderService = orderService;
+    this.ttl = Duration.ofHours(ttlHours);
+    this.batchSize = batchSize;
+    this.maxBatchesPerRun = maxBatchesPerRun;
+  }
+
+  @Override
+  public String name() {
+    return NAME;
+  }
+
+  @Override
+  public JobTrigger defaultTrigger() {
+    return JobTrigger.fixedDelay(Duration.ofMinutes(5));
+  }
+
+  @Override
+  public long execute() {
+    return reap();
+  }
+
+  /**
+   * Annule les commandes expirées, lot par lot, jusqu'à épuisement ou
+   * smartshop.orders.reaper.max-batches-per-run
+   *
+   * @return nombre de commandes annulées
+   */
+  public int reap() {
+    LocalDateTime cutoff = LocalDateTime.now().minus(ttl);
+    int total = 0;
+    for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+      int canceled = orderService.cancelExpiredOrders(cutoff, batchSize).size();
+      total += canceled;
+      if (canceled < batchSize) {
+        break;
+      }
+    }
+    if (total > 0) {
+      log.info("Pending order reaper: {} orders created before {} canceled", total, cutoff);
+    }
+    return total;
+  }
+}
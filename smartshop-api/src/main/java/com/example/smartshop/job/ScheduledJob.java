@@ -0,0 +1,25 @@
+package com.example.smartshop.job;
+
+/**
+ * Traitement planifié exécuté par JobRunner sur un seul nœud à la fois.
+ *
+ * Le déclenchement par défaut peut être remplacé par configuration :
+ * smartshop.jobs.&lt;name&gt;.enabled, smartshop.jobs.&lt;name&gt;.cron ou
+ * smartshop.jobs.&lt;name&gt;.fixed-delay-ms.
+ */
+public interface ScheduledJob {
+
+  /**
+   * Nom unique du traitement (clé du verrou, de l'historique et des métriques)
+   */
+  String name();
+
+  JobTrigger defaultTrigger();
+
+  /**
+   * Exécute une passe du traitement ; appelé uniquement par le détenteur du verrou
+   *
+   * @return nombre de lignes traitées
+   */
+  long execute();
+}
@@ -0,0 +1,258 @@
+package com.example.smartshop.job;
+
+import com.example.smartshop.config.ThreadModeExecutors;
+import com.example.smartshop.dto.JobProgressDTO;
+import com.example.smartshop.entity.Client;
+import com.example.smartshop.entity.CustomerTier;
+import com.example.smartshop.entity.JobCheckpoint;
+import com.example.smartshop.pricing.TierRuleEngine;
+import com.example.smartshop.pricing.TierRuleTable;
+import com.example.smartshop.repository.JobCheckpointRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Recalcul nocturne des statistiques et du niveau de fidélité de tous les clients.
+ *
+ * Les clients sont parcourus par plages d'id (smartshop.tiers.recompute.chunk-size). Pour
+ * chaque plage, une seule requête agrégée calcule nombre et montant des commandes
+ * CONFIRMED, mois archivés compris (client_archived_totals) ; seuls les clients dont les
+ * valeurs changent sont mis à jour, en batch JDBC.
+ * Les plages sont traitées en parallèle par vagues de smartshop.tiers.recompute.parallelism,
+ * une transaction par plage, en threads virtuels si spring.threads.virtual.enabled.
+ *
+ * La position est enregistrée dans job_checkpoints après chaque vague : un traitement
+ * interrompu reprend à la première vague non terminée. Une mise à jour ne s'applique que
+ * si les compteurs du client n'ont pas changé depuis la lecture (commande confirmée
+ * entre-temps), la confirmation recalculant alors elle-même le niveau.
+ *
+ * Planifié par JobRunner (smartshop.jobs.tier-recompute.cron) : un seul nœud l'exécute.
+ */
+@Slf4j
+@Component
+public class TierRecomputationJob implements ScheduledJob {
+
+  public static final String NAME = "tier-recompute";
+
+  // Commandes CONFIRMED en base plus celles des mois archivés (client_archived_totals)
+  static final String AGGREGATE_SQL =
+      "SELECT c.user_id, c.tier, c.total_orders, c.total_spent, " +
+      "COALESCE(a.archived_orders, 0) + COUNT(o.id) AS confirmed_orders, " +
+      "COALESCE(a.archived_spent, 0) + COALESCE(SUM(o.total), 0) AS confirmed_spent " +
+      "FROM clients c " +
+      "LEFT JOIN client_archived_totals a ON a.client_id = c.user_id " +
+      "LEFT JOIN orders o ON o.client_id = c.user_id AND o.status = 'CONFIRMED' " +
+      "WHERE c.user_id >= ? AND c.user_id < ? " +
+      "GROUP BY c.user_id, c.tier, c.total_orders, c.total_spent, a.archived_orders, a.archived_spent";
+
+  static final String UPDATE_SQL =
+      "UPDATE clients SET tier = ?, total_orders = ?, total_spent = ? " +
+      "WHERE user_id = ? AND total_orders = ? AND total_spent = ?";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final EntityManagerFactory entityManagerFactory;
+  private final JobCheckpointRepository checkpointRepository;
+  private final TierRuleEngine tierRuleEngine;
+  private final ExecutorService chunkPool;
+  private final int chunkSize;
+  private final int parallelism;
+
+  public TierRecomputationJob(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+      EntityManagerFactory entityManagerFactory, JobCheckpointRepository checkpointRepository,
+      TierRuleEngine tierRuleEngine, ThreadModeExecutors executors,
+      @Value("${smartshop.tiers.recompute.chunk-size:5000}") int chunkSize,
+      @Value("${smartshop.tiers.recompute.parallelism:4}") int parallelism) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = transactionTemplate;
+    this.entityManagerFactory = entityManagerFactory;
+    this.checkpointRepository = checkpointRepository;
+    this.tierRuleEngine = tierRuleEngine;
+    this.chunkSize = chunkSize;
+    this.parallelism = parallelism;
+    // Une vague compte au plus parallelism plages : c'est elle qui borne la concurrence
+    this.chunkPool = executors.newExecutor("tier-recompute", parallelism);
+  }
+
+  @Override
+  public String name() {
+    return NAME;
+  }
+
+  @Override
+  public JobTrigger defaultTrigger() {
+    return JobTrigger.cron("0 30 2 * * *");
+  }
+
+  @Override
+  public long execute() {
+    return run().getProcessed();
+  }
+
+  /**
+   * Parcourt tous les clients depuis le dernier point de reprise ; l'exclusion entre
+   * exécutions est assurée par le verrou de JobRunner
+   *
+   * @return progression finale (nombre de clients lus et modifiés)
+   */
+  public JobProgressDTO run() {
+    long start = System.nanoTime();
+    // Mêmes règles pour tout le parcours, même si elles sont modifiées pendant le traitement
+    TierRuleTable rules = tierRuleEngine.current();
+    long upperBound = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(user_id), 0) FROM clients", Long.class);
+    JobCheckpoint checkpoint = transactionTemplate.execute(status -> startOrResume(upperBound));
+
+    long nextId = checkpoint.getNextId();
+    while (nextId <= upperBound) {
+      List<Future<ChunkResult>> wave = new ArrayList<>(parallelism);
+      for (int i = 0; i < parallelism && nextId <= upperBound; i++) {
+        long from = nextId;
+        long to = nextId + chunkSize;
+        wave.add(chunkPool.submit(() -> processChunk(from, to, rules)));
+        nextId = to;
+      }
+
+      long processed = 0;
+      long changed = 0;
+      for (Future<ChunkResult> chunk : wave) {
+        ChunkResult result = await(chunk);
+        processed += result.processed();
+        changed += result.changed();
+      }
+
+      checkpoint.setNextId(nextId);
+      checkpoint.setProcessed(checkpoint.getProcessed() + processed);
+      checkpoint.setChanged(checkpoint.getChanged() + changed);
+      checkpoint = checkpointRepository.save(checkpoint);
+      log.info("Tier recomputation: {} / {} ids, {} clients read, {} updated",
+          Math.min(nextId - 1, upperBound), upperBound, checkpoint.getProcessed(), checkpoint.getChanged());
+    }
+
+    checkpoint.setCompletedAt(LocalDateTime.now());
+    checkpoint = checkpointRepository.save(checkpoint);
+    log.info("Tier recomputation completed: {} clients read, {} updated in {} ms",
+        checkpoint.getProcessed(), checkpoint.getChanged(), (System.nanoTime() - start) / 1_000_000);
+    return toProgress(checkpoint);
+  }
+
+  public JobProgressDTO progress() {
+    return checkpointRepository.findById(NAME)
+        .map(this::toProgress)
+        .orElse(JobProgressDTO.builder().jobName(NAME).build());
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    chunkPool.shutdownNow();
+  }
+
+  private JobCheckpoint startOrResume(long upperBound) {
+    JobCheckpoint checkpoint = checkpointRepository.findById(NAME).orElse(null);
+    if (checkpoint != null && checkpoint.getCompletedAt() == null) {
+      log.info("Tier recomputation resumed at id {}", checkpoint.getNextId());
+      checkpoint.setUpperBound(upperBound);
+      return checkpointRepository.save(checkpoint);
+    }
+    return checkpointRepository.save(JobCheckpoint.builder()
+        .jobName(NAME)
+        .startedAt(LocalDateTime.now())
+        .nextId(0L)
+        .upperBound(upperBound)
+        .build());
+  }
+
+  /**
+   * Recalcule une plage [from, to) dans sa propre transaction
+   */
+  private ChunkResult processChunk(long from, long to, TierRuleTable rules) {
+    List<Long> updatedIds = new ArrayList<>();
+    int processed = transactionTemplate.execute(status -> {
+      List<ClientTotals> clients = jdbcTemplate.query(AGGREGATE_SQL, (rs, rowNum) -> new ClientTotals(
+          rs.getLong("user_id"),
+          CustomerTier.valueOf(rs.getString("tier")),
+          rs.getInt("total_orders"),
+          rs.getDouble("total_spent"),
+          rs.getInt("confirmed_orders"),
+          roundToTwoDecimals(rs.getDouble("confirmed_spent"))), from, to);
+
+      List<Object[]> updates = new ArrayList<>();
+      List<Long> ids = new ArrayList<>();
+      for (ClientTotals client : clients) {
+        CustomerTier tier = rules.tierFor(client.confirmedOrders(), client.confirmedSpent());
+        if (tier != client.tier() || client.confirmedOrders() != client.totalOrders()
+            || client.confirmedSpent() != client.totalSpent()) {
+          updates.add(new Object[] {tier.name(), client.confirmedOrders(), client.confirmedSpent(),
+              client.id(), client.totalOrders(), client.totalSpent()});
+          ids.add(client.id());
+        }
+      }
+      if (!updates.isEmpty()) {
+        int[] counts = jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+        for (int i = 0; i < counts.length; i++) {
+          if (counts[i] != 0) {
+            updatedIds.add(ids.get(i));
+          }
+        }
+      }
+      return clients.size();
+    });
+
+    // Lignes modifiées en SQL direct : les clients en cache de second niveau sont périmés
+    for (Long id : updatedIds) {
+      entityManagerFactory.getCache().evict(Client.class, id);
+    }
+    return new ChunkResult(processed, updatedIds.size());
+  }
+
+  private static ChunkResult await(Future<ChunkResult> chunk) {
+    try {
+      return chunk.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Tier recomputation interrupted", e);
+    } catch (ExecutionException e) {
+      throw e.getCause() instanceof RuntimeException runtime ? runtime : new IllegalStateException(e.getCause());
+    }
+  }
+
+  private JobProgressDTO toProgress(JobCheckpoint checkpoint) {
+    double progress = checkpoint.getCompletedAt() != null || checkpoint.getUpperBound() == 0
+        ? 100.0
+        : Math.min(100.0, 100.0 * checkpoint.getNextId() / checkpoint.getUpperBound());
+    return JobProgressDTO.builder()
+        .jobName(checkpoint.getJobName())
+        .startedAt(checkpoint.getStartedAt())
+        .completedAt(checkpoint.getCompletedAt())
+        .nextId(checkpoint.getNextId())
+        .upperBound(checkpoint.getUpperBound())
+        .processed(checkpoint.getProcessed())
+        .changed(checkpoint.getChanged())
+        .progress(BigDecimal.valueOf(progress).setScale(1, RoundingMode.HALF_UP).doubleValue())
+        .build();
+  }
+
+  private static double roundToTwoDecimals(double value) {
+    return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP).doubleValue();
+  }
+
+  private record ClientTotals(long id, CustomerTier tier, int totalOrders, double totalSpent,
+      int confirmedOrders, double confirmedSpent) {
+  }
+
+  private record ChunkResult(int processed, int changed) {
+  }
+}
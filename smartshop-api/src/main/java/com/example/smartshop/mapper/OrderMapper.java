@@ -3,9 +3,11 @@ package com.example.smartshop.mapper;
 import com.example.smartshop.entity.Order;
 import com.example.smartshop.entity.OrderItem;
 import com.example.smartshop.entity.Client;
+import com.example.smartshop.entity.OrderSummary;
 import com.example.smartshop.dto.OrderRequestDTO;
 import com.example.smartshop.dto.OrderResponseDTO;
 import com.example.smartshop.dto.OrderItemResponseDTO;
+import com.example.smartshop.dto.OrderSummaryDTO;
 import org.springframework.stereotype.Component;
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -27,7 +29,7 @@ public class OrderMapper {
         .promoCode(dto.getPromoCode())
         .subtotal(0.0)
         .discountAmount(0.0)
-        .tax(20.0)
+        .tax(Order.VAT_RATE)
         .total(0.0)
         .remainingAmount(0.0)
         .items(new ArrayList<>())
@@ -60,6 +62,27 @@ public class OrderMapper {
         .build();
   }
 
+  public OrderSummaryDTO toSummaryDTO(OrderSummary summary) {
+    if (summary == null) {
+      return null;
+    }
+
+    return OrderSummaryDTO.builder()
+        .id(summary.getOrderId())
+        .clientId(summary.getClientId())
+        .clientName(summary.getClientName())
+        .date(summary.getDate())
+        .createdAt(summary.getCreatedAt())
+        .status(summary.getStatus() != null ? summary.getStatus().name() : "PENDING")
+        .itemCount(summary.getItemCount())
+        .subtotal(summary.getSubtotal())
+        .discountAmount(summary.getDiscountAmount())
+        .total(summary.getTotal())
+        .paidAmount(summary.getPaidAmount())
+        .remainingAmount(summary.getRemainingAmount())
+        .build();
+  }
+
   private OrderItemResponseDTO toItemResponseDTO(OrderItem item) {
     if (item == null) {
       return null;
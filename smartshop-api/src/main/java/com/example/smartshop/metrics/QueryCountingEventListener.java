@@ -0,0 +1,29 @@
+package com.example.smartshop.metrics;
+
+import org.hibernate.event.spi.InitializeCollectionEvent;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+
+/**
+ * Compte les entités chargées et les collections initialisées (lazy loading)
+ * pour la requête HTTP en cours
+ */
+public class QueryCountingEventListener implements PostLoadEventListener, InitializeCollectionEventListener {
+
+  @Override
+  public void onPostLoad(PostLoadEvent event) {
+    RequestQueryStats stats = RequestQueryStats.current();
+    if (stats != null) {
+      stats.recordEntityLoad();
+    }
+  }
+
+  @Override
+  public void onInitializeCollection(InitializeCollectionEvent event) {
+    RequestQueryStats stats = RequestQueryStats.current();
+    if (stats != null) {
+      stats.recordCollectionFetch();
+    }
+  }
+}
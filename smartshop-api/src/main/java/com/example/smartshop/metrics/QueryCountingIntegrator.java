@@ -0,0 +1,29 @@
+package com.example.smartshop.metrics;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+/**
+ * Enregistre QueryCountingEventListener auprès de la SessionFactory
+ */
+public class QueryCountingIntegrator implements Integrator {
+
+  @Override
+  public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+      SessionFactoryImplementor sessionFactory) {
+    QueryCountingEventListener listener = new QueryCountingEventListener();
+    EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+    registry.appendListeners(EventType.POST_LOAD, listener);
+    registry.appendListeners(EventType.INIT_COLLECTION, listener);
+  }
+
+  @Override
+  public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    // Rien à libérer
+  }
+}
@@ -0,0 +1,18 @@
+package com.example.smartshop.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Compte chaque requête SQL préparée par Hibernate pour la requête HTTP en cours
+ */
+public class QueryCountingStatementInspector implements StatementInspector {
+
+  @Override
+  public String inspect(String sql) {
+    RequestQueryStats stats = RequestQueryStats.current();
+    if (stats != null) {
+      stats.recordStatement(sql);
+    }
+    return sql;
+  }
+}
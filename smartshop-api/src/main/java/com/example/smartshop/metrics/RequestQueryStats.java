@@ -0,0 +1,96 @@
+package com.example.smartshop.metrics;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Compteurs Hibernate de la requête HTTP en cours (requêtes SQL, entités chargées,
+ * collections initialisées).
+ *
+ * Les statistiques globales Hibernate mélangent toutes les requêtes concurrentes ;
+ * ce holder rattache chaque événement au thread qui traite la requête. Une requête
+ * asynchrone passe d'un thread à l'autre : RequestMetricsInterceptor conserve alors le
+ * suivi dans un attribut de la requête et le rattache à chaque thread qui la traite.
+ */
+public final class RequestQueryStats {
+
+  private static final ThreadLocal<RequestQueryStats> CURRENT = new ThreadLocal<>();
+
+  private final Map<String, Integer> statementCounts;
+  private int statements;
+  private int entityLoads;
+  private int collectionFetches;
+
+  private RequestQueryStats(boolean captureStatements) {
+    this.statementCounts = captureStatements ? new HashMap<>() : null;
+  }
+
+  /**
+   * Démarre le suivi pour le thread courant.
+   *
+   * @param captureStatements conserve le texte SQL de chaque requête (log des requêtes lentes)
+   */
+  public static RequestQueryStats start(boolean captureStatements) {
+    RequestQueryStats stats = new RequestQueryStats(captureStatements);
+    CURRENT.set(stats);
+    return stats;
+  }
+
+  /**
+   * Rattache au thread courant le suivi d'une requête commencé sur un autre thread
+   * (traitement asynchrone, redispatch)
+   */
+  public static void bind(RequestQueryStats stats) {
+    CURRENT.set(stats);
+  }
+
+  public static RequestQueryStats current() {
+    return CURRENT.get();
+  }
+
+  public static void clear() {
+    CURRENT.remove();
+  }
+
+  void recordStatement(String sql) {
+    statements++;
+    if (statementCounts != null) {
+      statementCounts.merge(sql, 1, Integer::sum);
+    }
+  }
+
+  void recordEntityLoad() {
+    entityLoads++;
+  }
+
+  void recordCollectionFetch() {
+    collectionFetches++;
+  }
+
+  public int getStatements() {
+    return statements;
+  }
+
+  public int getEntityLoads() {
+    return entityLoads;
+  }
+
+  public int getCollectionFetches() {
+    return collectionFetches;
+  }
+
+  /**
+   * Requêtes SQL les plus exécutées, par nombre d'exécutions décroissant
+   */
+  public List<Map.Entry<String, Integer>> topStatements(int limit) {
+    if (statementCounts == null) {
+      return List.of();
+    }
+    return statementCounts.entrySet().stream()
+        .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+        .limit(limit)
+        .collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,68 @@
+package com.example.smartshop.outbox;
+
+import com.example.smartshop.entity.OutboxEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Ajoute les événements en NDJSON (une ligne par événement) à un fichier local.
+ * Le fichier est synchronisé sur disque avant que le lot soit marqué publié.
+ */
+@Component
+@ConditionalOnProperty(name = "smartshop.outbox.sink", havingValue = "file", matchIfMissing = true)
+public class FileOutboxSink implements OutboxSink {
+
+  private final ObjectMapper objectMapper;
+  private final Path path;
+  // Un seul lot écrit à la fois : les lignes de deux lots ne s'entrelacent pas
+  private final ReentrantLock lock = new ReentrantLock();
+
+  public FileOutboxSink(ObjectMapper objectMapper,
+      @Value("${smartshop.outbox.file.path:outbox/events.ndjson}") String path) {
+    this.objectMapper = objectMapper;
+    this.path = Path.of(path);
+  }
+
+  @Override
+  public String name() {
+    return "file";
+  }
+
+  @Override
+  public void deliver(List<OutboxEvent> events) throws IOException {
+    StringBuilder lines = new StringBuilder();
+    for (OutboxEvent event : events) {
+      lines.append(objectMapper.writeValueAsString(OutboxEnvelope.toJson(objectMapper, event))).append('\n');
+    }
+
+    ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+    lock.lock();
+    try {
+      Path parent = path.toAbsolutePath().getParent();
+      if (parent != null) {
+        Files.createDirectories(parent);
+      }
+      try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+          StandardOpenOption.APPEND)) {
+        while (buffer.hasRemaining()) {
+          channel.write(buffer);
+        }
+        channel.force(false);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+}
@@ -0,0 +1,26 @@
+package com.example.smartshop.outbox;
+
+import com.example.smartshop.entity.OutboxEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Format JSON commun aux sinks : métadonnées de l'événement et payload d'origine
+ */
+final class OutboxEnvelope {
+
+  private OutboxEnvelope() {
+  }
+
+  static ObjectNode toJson(ObjectMapper objectMapper, OutboxEvent event) throws JsonProcessingException {
+    ObjectNode node = objectMapper.createObjectNode();
+    node.put("id", event.getId());
+    node.put("type", event.getEventType().name());
+    node.put("aggregateType", event.getAggregateType());
+    node.put("aggregateId", event.getAggregateId());
+    node.put("createdAt", event.getCreatedAt().toString());
+    node.set("payload", objectMapper.readTree(event.getPayload()));
+    return node;
+  }
+}
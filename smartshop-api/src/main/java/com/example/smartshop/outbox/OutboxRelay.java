@@ -0,0 +1,182 @@
+package com.example.smartshop.outbox;
+
+import com.example.smartshop.entity.OutboxEvent;
+import com.example.smartshop.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Relaie les événements de la table outbox_events vers le sink configuré.
+ *
+ * Chaque lot est traité dans sa propre transaction : réservation FOR UPDATE SKIP LOCKED,
+ * livraison, puis marquage publié. Un arrêt entre la livraison et la validation provoque
+ * une relivraison (au moins une fois). Un lot en échec est reprogrammé avec un délai
+ * exponentiel borné.
+ *
+ * Métriques : smartshop.outbox.events (outcome=delivered|failed), smartshop.outbox.batch.duration,
+ * smartshop.outbox.batch.size et smartshop.outbox.pending.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+  private static final int MAX_ERROR_LENGTH = 1000;
+
+  private final OutboxEventRepository outboxEventRepository;
+  private final OutboxSink sink;
+  private final TransactionTemplate transactionTemplate;
+  private final boolean enabled;
+  private final int batchSize;
+  private final int maxBatchesPerRun;
+  private final Duration retryBaseDelay;
+  private final Duration retryMaxDelay;
+  private final Duration retention;
+
+  private final Counter delivered;
+  private final Counter failed;
+  private final Timer batchDuration;
+  private final DistributionSummary batchSizes;
+
+  public OutboxRelay(OutboxEventRepository outboxEventRepository, OutboxSink sink,
+      TransactionTemplate transactionTemplate, MeterRegistry meterRegistry,
+      @Value("${smartshop.outbox.relay.enabled:true}") boolean enabled,
+      @Value("${smartshop.outbox.relay.batch-size:500}") int batchSize,
+      @Value("${smartshop.outbox.relay.max-batches-per-run:20}") int maxBatchesPerRun,
+      @Value("${smartshop.outbox.relay.retry-base-delay-ms:1000}") long retryBaseDelayMs,
+      @Value("${smartshop.outbox.relay.retry-max-delay-ms:300000}") long retryMaxDelayMs,
+      @Value("${smartshop.outbox.retention-hours:168}") long retentionHours) {
+    this.outboxEventRepository = outboxEventRepository;
+    this.sink = sink;
+    this.transactionTemplate = transactionTemplate;
+    this.enabled = enabled;
+    this.batchSize = batchSize;
+    this.maxBatchesPerRun = maxBatchesPerRun;
+    this.retryBaseDelay = Duration.ofMillis(retryBaseDelayMs);
+    this.retryMaxDelay = Duration.ofMillis(retryMaxDelayMs);
+    this.retention = Duration.ofHours(retentionHours);
+
+    this.delivered = Counter.builder("smartshop.outbox.events")
+        .description("Événements outbox traités par le relais")
+        .tag("sink", sink.name())
+        .tag("outcome", "delivered")
+        .register(meterRegistry);
+    this.failed = Counter.builder("smartshop.outbox.events")
+        .description("Événements outbox traités par le relais")
+        .tag("sink", sink.name())
+        .tag("outcome", "failed")
+        .register(meterRegistry);
+    this.batchDuration = Timer.builder("smartshop.outbox.batch.duration")
+        .description("Durée de traitement d'un lot (réservation, livraison, marquage)")
+        .tag("sink", sink.name())
+        .register(meterRegistry);
+    this.batchSizes = DistributionSummary.builder("smartshop.outbox.batch.size")
+        .description("Nombre d'événements par lot")
+        .tag("sink", sink.name())
+        .register(meterRegistry);
+    Gauge.builder("smartshop.outbox.pending", outboxEventRepository, OutboxEventRepository::countByPublishedAtIsNull)
+        .description("Événements outbox non publiés")
+        .register(meterRegistry);
+  }
+
+  @Scheduled(fixedDelayString = "${smartshop.outbox.relay.interval-ms:1000}")
+  public void scheduledRelay() {
+    if (enabled) {
+      relayPending();
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${smartshop.outbox.purge.interval-ms:3600000}")
+  public void scheduledPurge() {
+    if (enabled) {
+      purgePublished();
+    }
+  }
+
+  /**
+   * Relaie les événements disponibles, lot par lot, jusqu'à vider la file ou atteindre
+   * smartshop.outbox.relay.max-batches-per-run
+   *
+   * @return nombre d'événements livrés
+   */
+  public int relayPending() {
+    int total = 0;
+    for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+      BatchResult result = relayBatch();
+      total += result.delivered();
+      if (result.claimed() < batchSize || result.delivered() == 0) {
+        break;
+      }
+    }
+    return total;
+  }
+
+  public int purgePublished() {
+    LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+    Integer purged = transactionTemplate.execute(status -> outboxEventRepository.deletePublishedBefore(cutoff));
+    if (purged != null && purged > 0) {
+      log.info("Outbox: {} published events older than {} purged", purged, cutoff);
+    }
+    return purged != null ? purged : 0;
+  }
+
+  private BatchResult relayBatch() {
+    long start = System.nanoTime();
+    BatchResult result = transactionTemplate.execute(status -> {
+      LocalDateTime now = LocalDateTime.now();
+      List<OutboxEvent> events = outboxEventRepository.claimBatch(now, batchSize);
+      if (events.isEmpty()) {
+        return new BatchResult(0, 0);
+      }
+
+      List<Long> ids = events.stream().map(OutboxEvent::getId).toList();
+      try {
+        sink.deliver(events);
+      } catch (IOException | RuntimeException e) {
+        int attempts = events.stream().mapToInt(OutboxEvent::getAttempts).max().orElse(0) + 1;
+        LocalDateTime retryAt = now.plus(retryDelay(attempts));
+        outboxEventRepository.markFailed(ids, retryAt, truncate(e.toString()));
+        failed.increment(events.size());
+        log.warn("Outbox: delivery of {} events to {} failed (attempt {}), retry at {}: {}",
+            events.size(), sink.name(), attempts, retryAt, e.toString());
+        return new BatchResult(events.size(), 0);
+      }
+
+      outboxEventRepository.markPublished(ids, now);
+      delivered.increment(events.size());
+      return new BatchResult(events.size(), events.size());
+    });
+
+    if (result.claimed() > 0) {
+      batchDuration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      batchSizes.record(result.claimed());
+    }
+    return result;
+  }
+
+  private Duration retryDelay(int attempts) {
+    // 2^(attempts - 1) plafonné pour éviter le dépassement
+    Duration delay = retryBaseDelay.multipliedBy(1L << Math.min(attempts - 1, 20));
+    return delay.compareTo(retryMaxDelay) > 0 ? retryMaxDelay : delay;
+  }
+
+  private static String truncate(String message) {
+    return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+  }
+
+  private record BatchResult(int claimed, int delivered) {
+  }
+}
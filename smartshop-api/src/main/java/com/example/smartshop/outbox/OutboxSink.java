@@ -0,0 +1,19 @@
+package com.example.smartshop.outbox;
+
+import com.example.smartshop.entity.OutboxEvent;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destination des événements relayés par OutboxRelay (smartshop.outbox.sink).
+ *
+ * deliver ne doit rendre la main qu'une fois le lot durablement accepté : le lot est
+ * ensuite marqué publié. En cas d'exception, tout le lot est relivré plus tard.
+ */
+public interface OutboxSink {
+
+  String name();
+
+  void deliver(List<OutboxEvent> events) throws IOException;
+}
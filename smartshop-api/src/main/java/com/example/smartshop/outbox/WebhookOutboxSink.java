@@ -0,0 +1,72 @@
+package com.example.smartshop.outbox;
+
+import com.example.smartshop.entity.OutboxEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Envoie chaque lot en un seul POST JSON (tableau d'événements) vers smartshop.outbox.webhook.url.
+ * Toute réponse hors 2xx fait échouer le lot, qui sera relivré.
+ */
+@Component
+@ConditionalOnProperty(name = "smartshop.outbox.sink", havingValue = "webhook")
+public class WebhookOutboxSink implements OutboxSink {
+
+  private final ObjectMapper objectMapper;
+  private final URI url;
+  private final Duration timeout;
+  private final HttpClient httpClient;
+
+  public WebhookOutboxSink(ObjectMapper objectMapper,
+      @Value("${smartshop.outbox.webhook.url}") String url,
+      @Value("${smartshop.outbox.webhook.timeout-ms:5000}") long timeoutMs) {
+    this.objectMapper = objectMapper;
+    this.url = URI.create(url);
+    this.timeout = Duration.ofMillis(timeoutMs);
+    this.httpClient = HttpClient.newBuilder()
+        .connectTimeout(timeout)
+        .build();
+  }
+
+  @Override
+  public String name() {
+    return "webhook";
+  }
+
+  @Override
+  public void deliver(List<OutboxEvent> events) throws IOException {
+    ArrayNode body = objectMapper.createArrayNode();
+    for (OutboxEvent event : events) {
+      body.add(OutboxEnvelope.toJson(objectMapper, event));
+    }
+
+    HttpRequest request = HttpRequest.newBuilder(url)
+        .timeout(timeout)
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+        .build();
+
+    HttpResponse<Void> response;
+    try {
+      response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Webhook delivery interrupted");
+    }
+    if (response.statusCode() / 100 != 2) {
+      throw new IOException("Webhook " + url + " answered HTTP " + response.statusCode());
+    }
+  }
+}
@@ -0,0 +1,67 @@
+package com.example.smartshop.pricing;
+
+import com.example.smartshop.event.TierRulesChangedEvent;
+import com.example.smartshop.repository.TierRuleRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Règles de fidélité (niveaux et remises) utilisées par ClientService et OrderService.
+ *
+ * Les règles de la table tier_rules sont compilées en TierRuleTable et remplacées d'un
+ * bloc : après chaque modification validée et périodiquement (modifications faites sur
+ * d'autres nœuds). Un appelant lit la table courante une fois (current()) et évalue
+ * toutes ses règles sur la même version.
+ */
+@Component
+@Slf4j
+public class TierRuleEngine {
+
+  private final TierRuleRepository tierRuleRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final AtomicReference<TierRuleTable> table = new AtomicReference<>(TierRuleTable.DEFAULT);
+
+  public TierRuleEngine(TierRuleRepository tierRuleRepository, TransactionTemplate transactionTemplate) {
+    this.tierRuleRepository = tierRuleRepository;
+    this.transactionTemplate = transactionTemplate;
+  }
+
+  public TierRuleTable current() {
+    return table.get();
+  }
+
+  @PostConstruct
+  public void load() {
+    reload();
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onTierRulesChanged(TierRulesChangedEvent event) {
+    reload();
+  }
+
+  @Scheduled(fixedDelayString = "${smartshop.tiers.refresh-interval-ms:60000}",
+      initialDelayString = "${smartshop.tiers.refresh-interval-ms:60000}")
+  public void scheduledReload() {
+    reload();
+  }
+
+  /**
+   * Recompile les règles ; des règles incohérentes en base laissent la table courante en place
+   */
+  public void reload() {
+    try {
+      // Transaction en écriture : lecture sur le primaire, pas sur une réplique en retard
+      table.set(TierRuleTable.compile(transactionTemplate.execute(status -> tierRuleRepository.findAll())));
+    } catch (IllegalArgumentException e) {
+      log.error("Tier rules not applied, keeping current rules: {}", e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,106 @@
+package com.example.smartshop.pricing;
+
+import com.example.smartshop.entity.CustomerTier;
+import com.example.smartshop.entity.TierRule;
+
+/**
+ * Règles de fidélité compilées : un tableau par critère, indexé par l'ordinal du niveau.
+ * Immuable, partagée sans synchronisation ; l'évaluation ne fait ni allocation ni
+ * recherche.
+ *
+ * Les seuils d'obtention sont croissants d'un niveau à l'autre (vérifié à la compilation) :
+ * le niveau d'un client est le plus haut dont l'un des deux seuils est atteint.
+ */
+public final class TierRuleTable {
+
+  private static final CustomerTier[] TIERS = CustomerTier.values();
+
+  /**
+   * Règles historiques, reprises par la migration V8 ; utilisées pour un niveau absent
+   * de la table tier_rules
+   */
+  public static final TierRuleTable DEFAULT = new TierRuleTable(
+      new int[] {0, 3, 10, 20},
+      new double[] {0.0, 1000.0, 5000.0, 15000.0},
+      new double[] {0.0, 500.0, 800.0, 1200.0},
+      new double[] {0.0, 5.0, 10.0, 15.0});
+
+  private final int[] minOrders;
+  private final double[] minSpent;
+  private final double[] minSubtotal;
+  private final double[] discountPercentage;
+
+  private TierRuleTable(int[] minOrders, double[] minSpent, double[] minSubtotal, double[] discountPercentage) {
+    for (int i = 0; i < TIERS.length; i++) {
+      if (minOrders[i] < 0 || minSpent[i] < 0 || minSubtotal[i] < 0) {
+        throw new IllegalArgumentException("Thresholds of tier " + TIERS[i] + " cannot be negative");
+      }
+      if (discountPercentage[i] < 0 || discountPercentage[i] > 100) {
+        throw new IllegalArgumentException("Discount of tier " + TIERS[i] + " must be between 0 and 100");
+      }
+      if (i > 0 && (minOrders[i] < minOrders[i - 1] || minSpent[i] < minSpent[i - 1])) {
+        throw new IllegalArgumentException("Thresholds of tier " + TIERS[i] + " must not be lower than those of "
+            + TIERS[i - 1]);
+      }
+    }
+    this.minOrders = minOrders;
+    this.minSpent = minSpent;
+    this.minSubtotal = minSubtotal;
+    this.discountPercentage = discountPercentage;
+  }
+
+  /**
+   * Compile les règles persistées ; un niveau sans règle garde les valeurs par défaut
+   *
+   * @throws IllegalArgumentException si les règles sont incohérentes
+   */
+  public static TierRuleTable compile(Iterable<TierRule> rules) {
+    int[] minOrders = DEFAULT.minOrders.clone();
+    double[] minSpent = DEFAULT.minSpent.clone();
+    double[] minSubtotal = DEFAULT.minSubtotal.clone();
+    double[] discountPercentage = DEFAULT.discountPercentage.clone();
+    for (TierRule rule : rules) {
+      int i = rule.getTier().ordinal();
+      minOrders[i] = rule.getMinOrders();
+      minSpent[i] = rule.getMinSpent();
+      minSubtotal[i] = rule.getMinSubtotal();
+      discountPercentage[i] = rule.getDiscountPercentage();
+    }
+    return new TierRuleTable(minOrders, minSpent, minSubtotal, discountPercentage);
+  }
+
+  /**
+   * Niveau atteint pour un historique client (seuil de commandes OU de montant cumulé)
+   */
+  public CustomerTier tierFor(int totalOrders, double totalSpent) {
+    int i = TIERS.length - 1;
+    while (i > 0 && totalOrders < minOrders[i] && totalSpent < minSpent[i]) {
+      i--;
+    }
+    return TIERS[i];
+  }
+
+  /**
+   * Remise de fidélité (en %) d'une commande ; 0 si le sous-total est sous le seuil du niveau
+   */
+  public double discountPercentage(CustomerTier tier, double subtotal) {
+    int i = tier != null ? tier.ordinal() : 0;
+    return subtotal >= minSubtotal[i] ? discountPercentage[i] : 0.0;
+  }
+
+  public int getMinOrders(CustomerTier tier) {
+    return minOrders[tier.ordinal()];
+  }
+
+  public double getMinSpent(CustomerTier tier) {
+    return minSpent[tier.ordinal()];
+  }
+
+  public double getMinSubtotal(CustomerTier tier) {
+    return minSubtotal[tier.ordinal()];
+  }
+
+  public double getDiscountPercentage(CustomerTier tier) {
+    return discountPercentage[tier.ordinal()];
+  }
+}
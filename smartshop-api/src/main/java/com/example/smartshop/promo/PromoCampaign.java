@@ -0,0 +1,102 @@
+package com.example.smartshop.promo;
+
+import com.example.smartshop.entity.PromoCode;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Vue en mémoire d'une campagne : attributs figés au chargement et compteurs atomiques.
+ *
+ * used = utilisations connues (base au dernier chargement + utilisations locales non
+ * encore écrites). unflushed = utilisations locales à reporter en base ; il est conservé
+ * d'un rechargement à l'autre pour ne perdre aucune utilisation.
+ */
+public final class PromoCampaign {
+
+  private final Long id;
+  private final String code;
+  private final double discountPercentage;
+  private final LocalDateTime validFrom;
+  private final LocalDateTime validUntil;
+  private final Integer maxUses;
+  private final boolean active;
+  private final AtomicInteger used;
+  private final AtomicInteger unflushed;
+
+  PromoCampaign(PromoCode promoCode, AtomicInteger unflushed) {
+    this.id = promoCode.getId();
+    this.code = promoCode.getCode();
+    this.discountPercentage = promoCode.getDiscountPercentage();
+    this.validFrom = promoCode.getValidFrom();
+    this.validUntil = promoCode.getValidUntil();
+    this.maxUses = promoCode.getMaxUses();
+    this.active = Boolean.TRUE.equals(promoCode.getActive());
+    this.unflushed = unflushed;
+    this.used = new AtomicInteger(promoCode.getUsedCount() + unflushed.get());
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public String getCode() {
+    return code;
+  }
+
+  public double getDiscountPercentage() {
+    return discountPercentage;
+  }
+
+  public Integer getMaxUses() {
+    return maxUses;
+  }
+
+  public int getUsed() {
+    return used.get();
+  }
+
+  /**
+   * Campagne active, dans sa période de validité et avec des utilisations restantes
+   */
+  public boolean isRedeemableAt(LocalDateTime now) {
+    return active
+        && !now.isBefore(validFrom)
+        && (validUntil == null || now.isBefore(validUntil))
+        && (maxUses == null || used.get() < maxUses);
+  }
+
+  /**
+   * Réserve une utilisation sans verrou
+   *
+   * @return false si le nombre maximal d'utilisations est atteint
+   */
+  boolean tryRedeem() {
+    int current;
+    do {
+      current = used.get();
+      if (maxUses != null && current >= maxUses) {
+        return false;
+      }
+    } while (!used.compareAndSet(current, current + 1));
+    unflushed.incrementAndGet();
+    return true;
+  }
+
+  void release() {
+    used.decrementAndGet();
+    unflushed.decrementAndGet();
+  }
+
+  AtomicInteger unflushedCounter() {
+    return unflushed;
+  }
+
+  int drainUnflushed() {
+    return unflushed.getAndSet(0);
+  }
+
+  void restoreUnflushed(int delta) {
+    unflushed.addAndGet(delta);
+  }
+}
@@ -0,0 +1,186 @@
+package com.example.smartshop.promo;
+
+import com.example.smartshop.entity.PromoCode;
+import com.example.smartshop.event.PromoCodesChangedEvent;
+import com.example.smartshop.exception.BusinessRuleViolationException;
+import com.example.smartshop.exception.ErrorCode;
+import com.example.smartshop.repository.PromoCodeRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Index en mémoire des campagnes de codes promo, consulté à chaque création de commande
+ * sans requête SQL.
+ *
+ * L'index est une table immuable remplacée d'un bloc (rechargement après chaque
+ * modification de campagne et périodiquement pour les modifications faites sur d'autres
+ * nœuds). Les utilisations sont comptées par compteurs atomiques (CAS, sans verrou) et
+ * reportées en base par lots (smartshop.promo.flush-interval-ms).
+ *
+ * Une utilisation réservée dans une transaction annulée est rendue ; celle d'une commande
+ * annulée l'est après validation de l'annulation. Avec plusieurs nœuds, le plafond
+ * max-uses est appliqué sur les utilisations connues localement (base au dernier
+ * rechargement + utilisations du nœud) : il peut être dépassé de quelques unités.
+ */
+@Component
+@Slf4j
+public class PromoCodeRegistry {
+
+  private final PromoCodeRepository promoCodeRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final AtomicReference<Map<String, PromoCampaign>> campaigns = new AtomicReference<>(Map.of());
+  // reload/flush uniquement : les utilisations (redeem/release) restent sans verrou
+  private final ReentrantLock lock = new ReentrantLock();
+
+  public PromoCodeRegistry(PromoCodeRepository promoCodeRepository, TransactionTemplate transactionTemplate) {
+    this.promoCodeRepository = promoCodeRepository;
+    this.transactionTemplate = transactionTemplate;
+  }
+
+  public Optional<PromoCampaign> find(String code) {
+    return Optional.ofNullable(campaigns.get().get(code));
+  }
+
+  /**
+   * Enregistre une utilisation du code dans la transaction courante
+   *
+   * @throws BusinessRuleViolationException si le code est inconnu ou épuisé
+   */
+  public void redeem(String code) {
+    PromoCampaign campaign = campaigns.get().get(code);
+    if (campaign == null) {
+      throw new BusinessRuleViolationException(ErrorCode.INVALID_PROMO_CODE, "Unknown promo code: " + code);
+    }
+    if (!campaign.tryRedeem()) {
+      throw new BusinessRuleViolationException(ErrorCode.PROMO_CODE_EXHAUSTED,
+          "Promo code " + code + " has reached its maximum number of uses");
+    }
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          if (status != STATUS_COMMITTED) {
+            campaign.release();
+          }
+        }
+      });
+    }
+  }
+
+  /**
+   * Rend l'utilisation d'une commande annulée, une fois l'annulation validée
+   */
+  public void release(String code) {
+    PromoCampaign campaign = campaigns.get().get(code);
+    if (campaign == null) {
+      return;
+    }
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          campaign.release();
+        }
+      });
+    } else {
+      campaign.release();
+    }
+  }
+
+  @PostConstruct
+  public void load() {
+    reload();
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onPromoCodesChanged(PromoCodesChangedEvent event) {
+    reload();
+  }
+
+  @Scheduled(fixedDelayString = "${smartshop.promo.refresh-interval-ms:60000}",
+      initialDelayString = "${smartshop.promo.refresh-interval-ms:60000}")
+  public void scheduledReload() {
+    reload();
+  }
+
+  @Scheduled(fixedDelayString = "${smartshop.promo.flush-interval-ms:5000}")
+  public void scheduledFlush() {
+    flush();
+  }
+
+  /**
+   * Recharge l'index depuis la base. Exclusif avec flush : un delta n'est jamais
+   * compté à la fois en base et en mémoire.
+   */
+  public void reload() {
+    lock.lock();
+    try {
+      // Par id : un code renommé garde ses utilisations non reportées
+      Map<Long, PromoCampaign> previousById = new HashMap<>();
+      campaigns.get().values().forEach(campaign -> previousById.put(campaign.getId(), campaign));
+
+      // Transaction en écriture : lecture sur le primaire, jamais en retard sur le dernier flush
+      List<PromoCode> promoCodes = transactionTemplate.execute(status -> promoCodeRepository.findAll());
+      Map<String, PromoCampaign> next = new HashMap<>();
+      for (PromoCode promoCode : promoCodes) {
+        PromoCampaign previous = previousById.get(promoCode.getId());
+        AtomicInteger unflushed = previous != null ? previous.unflushedCounter() : new AtomicInteger();
+        next.put(promoCode.getCode(), new PromoCampaign(promoCode, unflushed));
+      }
+      campaigns.set(Map.copyOf(next));
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Reporte en base les utilisations comptées depuis le dernier flush
+   *
+   * @return nombre d'utilisations reportées
+   */
+  public int flush() {
+    lock.lock();
+    try {
+      int flushed = 0;
+      for (PromoCampaign campaign : campaigns.get().values()) {
+        int delta = campaign.drainUnflushed();
+        if (delta == 0) {
+          continue;
+        }
+        try {
+          transactionTemplate.executeWithoutResult(
+              status -> promoCodeRepository.incrementUsedCount(campaign.getId(), delta));
+          flushed += delta;
+        } catch (RuntimeException e) {
+          campaign.restoreUnflushed(delta);
+          log.warn("Promo code usage flush failed for {} ({} uses kept in memory): {}",
+              campaign.getCode(), delta, e.getMessage());
+        }
+      }
+      return flushed;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    flush();
+  }
+}
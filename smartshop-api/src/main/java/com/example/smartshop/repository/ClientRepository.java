@@ -8,6 +8,4 @@ import java.util.Optional;
 @Repository
 public interface ClientRepository extends JpaRepository<Client, Long> {
   Optional<Client> findByEmail(String email);
-
-  List<Client> findByClient(boolean isActive);
 }
@@ -0,0 +1,29 @@
+package com.example.smartshop.repository;
+
+import com.example.smartshop.entity.JobExecution;
+import com.example.smartshop.entity.JobExecutionStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface JobExecutionRepository extends JpaRepository<JobExecution, Long> {
+
+  List<JobExecution> findByJobNameOrderByStartedAtDesc(String jobName, Pageable pageable);
+
+  /**
+   * Clôt les exécutions restées RUNNING après l'arrêt brutal d'un nœud. Appelé par le
+   * détenteur du verrou du traitement : aucune autre exécution ne peut être en cours.
+   */
+  @Modifying
+  @Query("UPDATE JobExecution e SET e.status = :failed, e.finishedAt = :now, e.error = 'Interrupted' " +
+      "WHERE e.jobName = :jobName AND e.status = :running")
+  int closeInterrupted(@Param("jobName") String jobName, @Param("running") JobExecutionStatus running,
+      @Param("failed") JobExecutionStatus failed, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,95 @@
+package com.example.smartshop.repository;
+
+import com.example.smartshop.entity.Order;
+import com.example.smartshop.entity.OrderStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OrderRepository extends JpaRepository<Order, Long> {
+  List<Order> findByClientIdOrderByCreatedAtDesc(Long clientId);
+
+  List<Order> findByClientId(Long clientId);
+
+  /**
+   * Commande par id, lue dans sa seule partition : created_at est pris dans order_summary
+   * (clé primaire order_id), ce qui permet à PostgreSQL d'écarter les autres mois à
+   * l'exécution. Une commande sans résumé (créée dans la transaction en cours, le résumé
+   * étant écrit avant la validation) est cherchée dans toutes les partitions.
+   */
+  default Optional<Order> findByIdInPartition(Long id) {
+    return findSummarizedById(id).or(() -> findById(id));
+  }
+
+  /**
+   * findByIdInPartition, la commande étant verrouillée jusqu'à la fin de la transaction
+   * (SELECT ... FOR UPDATE) : un paiement attend l'expiration en cours de la même commande
+   * et voit son statut final.
+   */
+  default Optional<Order> findByIdInPartitionForUpdate(Long id) {
+    return findSummarizedByIdForUpdate(id).or(() -> findByIdForUpdate(id));
+  }
+
+  @Query("SELECT o FROM Order o WHERE o.id = :id " +
+      "AND o.createdAt = (SELECT s.createdAt FROM OrderSummary s WHERE s.orderId = :id)")
+  Optional<Order> findSummarizedById(@Param("id") Long id);
+
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT o FROM Order o WHERE o.id = :id " +
+      "AND o.createdAt = (SELECT s.createdAt FROM OrderSummary s WHERE s.orderId = :id)")
+  Optional<Order> findSummarizedByIdForUpdate(@Param("id") Long id);
+
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT o FROM Order o WHERE o.id = :id")
+  Optional<Order> findByIdForUpdate(@Param("id") Long id);
+
+  /**
+   * Réserve les commandes PENDING créées avant cutoff et sans paiement encaissé
+   * (index idx_orders_status_created_at), des plus anciennes aux plus récentes. Les
+   * commandes déjà réservées par un autre nœud sont ignorées (SKIP LOCKED).
+   */
+  @Query(value = "SELECT o.id AS \"id\", o.created_at AS \"createdAt\" FROM orders o " +
+      "WHERE o.status = 'PENDING' AND o.created_at < :cutoff " +
+      "AND NOT EXISTS (SELECT 1 FROM payments p WHERE p.order_id = o.id AND p.order_created_at = o.created_at " +
+      "AND p.status = 'ENCAISSE') " +
+      "ORDER BY o.created_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+  List<ExpiredOrder> lockExpiredPending(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+  /**
+   * Commandes des ids donnés, créées entre from et to inclus (partitions de ces mois seulement)
+   */
+  @Query("SELECT o FROM Order o WHERE o.id IN :ids AND o.createdAt BETWEEN :from AND :to")
+  List<Order> findAllByIdCreatedBetween(@Param("ids") Collection<Long> ids, @Param("from") LocalDateTime from,
+      @Param("to") LocalDateTime to);
+
+  /**
+   * findAllByIdCreatedBetween, commandes verrouillées dans l'ordre des ids (SELECT ... FOR
+   * UPDATE) : même verrou que findByIdInPartitionForUpdate, sans interblocage entre lots
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT o FROM Order o WHERE o.id IN :ids AND o.createdAt BETWEEN :from AND :to ORDER BY o.id")
+  List<Order> findAllByIdCreatedBetweenForUpdate(@Param("ids") Collection<Long> ids,
+      @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+  @Modifying
+  @Query("UPDATE Order o SET o.status = :to WHERE o.id IN :ids AND o.status = :from " +
+      "AND o.createdAt BETWEEN :createdFrom AND :createdTo")
+  int updateStatus(@Param("ids") Collection<Long> ids, @Param("createdFrom") LocalDateTime createdFrom,
+      @Param("createdTo") LocalDateTime createdTo, @Param("from") OrderStatus from, @Param("to") OrderStatus to);
+
+  interface ExpiredOrder {
+    Long getId();
+
+    LocalDateTime getCreatedAt();
+  }
+}
@@ -0,0 +1,54 @@
+package com.example.smartshop.repository;
+
+import com.example.smartshop.entity.OrderSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OrderSummaryRepository extends JpaRepository<OrderSummary, Long> {
+
+  /**
+   * Liste admin, plus récentes d'abord (idx_order_summary_created_at_covering, V14)
+   */
+  List<OrderSummary> findAllByOrderByCreatedAtDesc();
+
+  /**
+   * Commandes d'un client (idx_order_summary_client_covering, V14)
+   */
+  List<OrderSummary> findByClientIdOrderByCreatedAtDesc(Long clientId);
+
+  /**
+   * Supprime les lignes à recalculer ; les modifications en attente sont d'abord
+   * envoyées en base pour que insertFromOrders les voie.
+   */
+  @Modifying(flushAutomatically = true)
+  @Query("DELETE FROM OrderSummary s WHERE s.orderId IN :orderIds")
+  int deleteByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+
+  /**
+   * Recalcule les lignes depuis orders, order_items, payments et clients en une seule requête
+   */
+  @Modifying
+  @Query("INSERT INTO OrderSummary (orderId, clientId, clientName, date, createdAt, status, itemCount, " +
+      "subtotal, discountAmount, total, paidAmount, remainingAmount, updatedAt) " +
+      "SELECT o.id, c.id, c.name, o.date, o.createdAt, o.status, " +
+      "(SELECT COUNT(i) FROM OrderItem i WHERE i.order = o AND i.orderCreatedAt = o.createdAt), " +
+      "o.subtotal, o.discountAmount, o.total, " +
+      "(SELECT COALESCE(SUM(p.amount), 0.0) FROM Payment p WHERE p.order = o AND p.orderCreatedAt = o.createdAt " +
+      "AND p.status = com.example.smartshop.entity.PaymentStatus.ENCAISSE), " +
+      "o.remainingAmount, CURRENT_TIMESTAMP " +
+      "FROM Order o JOIN o.client c WHERE o.id IN :orderIds")
+  int insertFromOrders(@Param("orderIds") Collection<Long> orderIds);
+
+  @Transactional
+  @Modifying
+  @Query("UPDATE OrderSummary s SET s.clientName = :clientName WHERE s.clientId = :clientId")
+  int updateClientName(@Param("clientId") Long clientId, @Param("clientName") String clientName);
+}
@@ -0,0 +1,40 @@
+package com.example.smartshop.repository;
+
+import com.example.smartshop.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+  /**
+   * Réserve un lot d'événements à livrer jusqu'à la fin de la transaction.
+   * Les lignes déjà réservées par un autre relais sont ignorées (SKIP LOCKED).
+   */
+  @Query(value = "SELECT * FROM outbox_events WHERE published_at IS NULL AND available_at <= :now " +
+      "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+  List<OutboxEvent> claimBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+  @Modifying
+  @Query("UPDATE OutboxEvent e SET e.publishedAt = :publishedAt WHERE e.id IN :ids")
+  int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") LocalDateTime publishedAt);
+
+  @Modifying
+  @Query("UPDATE OutboxEvent e SET e.attempts = e.attempts + 1, e.availableAt = :retryAt, " +
+      "e.lastError = :error WHERE e.id IN :ids")
+  int markFailed(@Param("ids") Collection<Long> ids, @Param("retryAt") LocalDateTime retryAt,
+      @Param("error") String error);
+
+  long countByPublishedAtIsNull();
+
+  @Modifying
+  @Query("DELETE FROM OutboxEvent e WHERE e.publishedAt < :cutoff")
+  int deletePublishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
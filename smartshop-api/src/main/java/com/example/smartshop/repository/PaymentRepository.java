@@ -0,0 +1,112 @@
+package com.example.smartshop.repository;
+
+import com.example.smartshop.entity.Payment;
+import com.example.smartshop.entity.PaymentMethod;
+import com.example.smartshop.entity.PaymentStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PaymentRepository extends JpaRepository<Payment, Long> {
+
+  /**
+   * Find all payments for an order. The order's creation date (partition key) limits the
+   * lookup to the order's monthly partition; the same applies to the queries below.
+   */
+  @Query("SELECT p FROM Payment p WHERE p.order.id = :orderId AND p.orderCreatedAt = :orderCreatedAt " +
+      "ORDER BY p.sequenceNumber ASC")
+  List<Payment> findByOrderId(@Param("orderId") Long orderId, @Param("orderCreatedAt") LocalDateTime orderCreatedAt);
+
+  /**
+   * Find all payments for an order with pagination
+   */
+  @Query("SELECT p FROM Payment p WHERE p.order.id = :orderId AND p.orderCreatedAt = :orderCreatedAt " +
+      "ORDER BY p.sequenceNumber ASC")
+  Page<Payment> findByOrderIdPageable(@Param("orderId") Long orderId,
+      @Param("orderCreatedAt") LocalDateTime orderCreatedAt, Pageable pageable);
+
+  /**
+   * Find all payments with specific status
+   */
+  Page<Payment> findByStatus(PaymentStatus status, Pageable pageable);
+
+  /**
+   * Find all payments with specific method
+   */
+  Page<Payment> findByMethod(PaymentMethod method, Pageable pageable);
+
+  /**
+   * Find all encaished payments for an order
+   */
+  @Query("SELECT p FROM Payment p WHERE p.order.id = :orderId AND p.orderCreatedAt = :orderCreatedAt " +
+      "AND p.status = com.example.smartshop.entity.PaymentStatus.ENCAISSE ORDER BY p.sequenceNumber ASC")
+  List<Payment> findEncaishedPaymentsByOrderId(@Param("orderId") Long orderId,
+      @Param("orderCreatedAt") LocalDateTime orderCreatedAt);
+
+  /**
+   * Find the highest sequence number for an order
+   */
+  @Query("SELECT COALESCE(MAX(p.sequenceNumber), 0) FROM Payment p " +
+      "WHERE p.order.id = :orderId AND p.orderCreatedAt = :orderCreatedAt")
+  Integer findMaxSequenceNumberByOrderId(@Param("orderId") Long orderId,
+      @Param("orderCreatedAt") LocalDateTime orderCreatedAt);
+
+  /**
+   * Check if a payment exceeds the legal limit for cash payments
+   * CASH payments cannot exceed 20,000 DH per Article 193 CGI
+   */
+  @Query("SELECT CASE WHEN SUM(p.amount) > 20000 THEN true ELSE false END " +
+      "FROM Payment p WHERE p.order.id = :orderId AND p.method = com.example.smartshop.entity.PaymentMethod.CASH AND p.status = com.example.smartshop.entity.PaymentStatus.ENCAISSE")
+  Boolean isCashLimitExceeded(@Param("orderId") Long orderId);
+
+  /**
+   * Order and partition key of the given payments, without locking (primary key probe in
+   * each monthly partition): lets the queries below read the affected months only
+   */
+  @Query("SELECT p.id AS paymentId, p.order.id AS orderId, p.orderCreatedAt AS orderCreatedAt " +
+      "FROM Payment p WHERE p.id IN :ids")
+  List<PaymentOrderKey> findOrderKeysByIds(@Param("ids") Collection<Long> ids);
+
+  /**
+   * Load payments for a status change, locked until the end of the transaction
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT p FROM Payment p WHERE p.id IN :ids AND p.orderCreatedAt BETWEEN :from AND :to")
+  List<Payment> findAllByIdForUpdate(@Param("ids") Collection<Long> ids, @Param("from") LocalDateTime from,
+      @Param("to") LocalDateTime to);
+
+  /**
+   * Sum of encaished payments per order, in one grouped query (orders without
+   * encaished payments are absent)
+   */
+  @Query("SELECT p.order.id AS orderId, SUM(p.amount) AS paidAmount FROM Payment p " +
+      "WHERE p.order.id IN :orderIds AND p.orderCreatedAt BETWEEN :from AND :to " +
+      "AND p.status = com.example.smartshop.entity.PaymentStatus.ENCAISSE " +
+      "GROUP BY p.order.id")
+  List<OrderPaidAmount> sumEncaishedByOrderIds(@Param("orderIds") Collection<Long> orderIds,
+      @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+  interface PaymentOrderKey {
+    Long getPaymentId();
+
+    Long getOrderId();
+
+    LocalDateTime getOrderCreatedAt();
+  }
+
+  interface OrderPaidAmount {
+    Long getOrderId();
+
+    Double getPaidAmount();
+  }
+}
@@ -10,7 +10,7 @@ import org.springframework.stereotype.Repository;
 import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
   Page<Product> findByDeletedFalse(Pageable pageable);
 
   Page<Product> findByNameContainingIgnoreCaseAndDeletedFalse(String name, Pageable pageable);
@@ -32,5 +32,10 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
       @Param("inStock") Boolean inStock,
       Pageable pageable);
 
-  Optional<Product> findByIdAndDeletedFalse(Long id);
+  /**
+   * Passe par findById pour profiter du cache de second niveau
+   */
+  default Optional<Product> findByIdAndDeletedFalse(Long id) {
+    return findById(id).filter(product -> !Boolean.TRUE.equals(product.getDeleted()));
+  }
 }
@@ -0,0 +1,12 @@
+package com.example.smartshop.repository;
+
+import com.example.smartshop.entity.Product;
+import java.util.List;
+
+public interface ProductRepositoryCustom {
+
+  /**
+   * Charge les produits par identifiants en consultant d'abord le cache de second niveau
+   */
+  List<Product> findAllById(Iterable<Long> ids);
+}
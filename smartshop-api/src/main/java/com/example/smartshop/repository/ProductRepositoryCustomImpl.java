@@ -0,0 +1,44 @@
+package com.example.smartshop.repository;
+
+import com.example.smartshop.entity.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Remplace le findAllById de Spring Data (requête "id IN (...)" qui ignore le cache)
+ * par un multiLoad Hibernate : seuls les identifiants absents du contexte de
+ * persistance et du cache de second niveau sont lus en base.
+ */
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<Product> findAllById(Iterable<Long> ids) {
+    // Identifiants dédoublonnés, comme avec la requête IN
+    Set<Long> distinctIds = new LinkedHashSet<>();
+    ids.forEach(distinctIds::add);
+    if (distinctIds.isEmpty()) {
+      return new ArrayList<>();
+    }
+
+    return entityManager.unwrap(Session.class)
+        .byMultipleIds(Product.class)
+        .enableSessionCheck(true)
+        .multiLoad(new ArrayList<>(distinctIds))
+        .stream()
+        .filter(Objects::nonNull)
+        .collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,24 @@
+package com.example.smartshop.repository;
+
+import com.example.smartshop.entity.PromoCode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface PromoCodeRepository extends JpaRepository<PromoCode, Long> {
+
+  Optional<PromoCode> findByCode(String code);
+
+  /**
+   * Ajoute les utilisations comptées en mémoire depuis le dernier flush (delta négatif
+   * si des commandes ont été annulées)
+   */
+  @Modifying
+  @Query("UPDATE PromoCode p SET p.usedCount = p.usedCount + :delta WHERE p.id = :id")
+  int incrementUsedCount(@Param("id") Long id, @Param("delta") int delta);
+}
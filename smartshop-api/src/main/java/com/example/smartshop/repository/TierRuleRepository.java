@@ -0,0 +1,24 @@
+package com.example.smartshop.repository;
+
+import com.example.smartshop.entity.CustomerTier;
+import com.example.smartshop.entity.TierRule;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TierRuleRepository extends JpaRepository<TierRule, CustomerTier> {
+
+  /**
+   * Toutes les règles, verrouillées jusqu'à la fin de la transaction (SELECT ... FOR UPDATE,
+   * toujours dans le même ordre) : deux modifications concurrentes sont validées l'une après
+   * l'autre sur l'ensemble à jour
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT r FROM TierRule r ORDER BY r.tier")
+  List<TierRule> findAllForUpdate();
+}
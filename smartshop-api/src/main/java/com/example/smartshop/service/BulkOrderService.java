@@ -0,0 +1,256 @@
+package com.example.smartshop.service;
+
+import com.example.smartshop.config.ThreadModeExecutors;
+import com.example.smartshop.dto.BulkOrderResultDTO;
+import com.example.smartshop.dto.OrderItemRequestDTO;
+import com.example.smartshop.dto.OrderRequestDTO;
+import com.example.smartshop.entity.Client;
+import com.example.smartshop.entity.Order;
+import com.example.smartshop.entity.OrderItem;
+import com.example.smartshop.entity.OrderStatus;
+import com.example.smartshop.entity.Product;
+import com.example.smartshop.event.OrderChangedEvent;
+import com.example.smartshop.exception.BusinessException;
+import com.example.smartshop.exception.BusinessRuleViolationException;
+import com.example.smartshop.exception.ErrorCode;
+import com.example.smartshop.repository.ClientRepository;
+import com.example.smartshop.repository.OrderRepository;
+import com.example.smartshop.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Création de commandes en lot pour les intégrations B2B.
+ *
+ * Trois étapes :
+ * 1. clients et produits de tout le lot chargés en deux requêtes ensemblistes ;
+ * 2. validation et tarification de chaque commande en parallèle (smartshop.orders.bulk.parallelism
+ *    tranches, en threads virtuels si spring.threads.virtual.enabled), sans accès base ;
+ * 3. enregistrement par tranches, une transaction par tranche, INSERT groupés en batch.
+ *
+ * Chaque commande reçoit son propre résultat (CREATED ou REJECTED avec le motif).
+ */
+@Slf4j
+@Service
+public class BulkOrderService {
+
+  private final OrderService orderService;
+  private final OrderRepository orderRepository;
+  private final ClientRepository clientRepository;
+  private final ProductRepository productRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final ApplicationEventPublisher eventPublisher;
+  private final ExecutorService pricingPool;
+  private final int parallelism;
+  private final int chunkSize;
+  private final int maxOrders;
+
+  public BulkOrderService(OrderService orderService, OrderRepository orderRepository,
+      ClientRepository clientRepository, ProductRepository productRepository,
+      TransactionTemplate transactionTemplate, ApplicationEventPublisher eventPublisher,
+      ThreadModeExecutors executors,
+      @Value("${smartshop.orders.bulk.parallelism:0}") int parallelism,
+      @Value("${smartshop.orders.bulk.chunk-size:500}") int chunkSize,
+      @Value("${smartshop.orders.bulk.max-orders:5000}") int maxOrders) {
+    this.orderService = orderService;
+    this.orderRepository = orderRepository;
+    this.clientRepository = clientRepository;
+    this.productRepository = productRepository;
+    this.transactionTemplate = transactionTemplate;
+    this.eventPublisher = eventPublisher;
+    this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    this.pricingPool = executors.newExecutor("bulk-pricing", this.parallelism);
+    this.chunkSize = chunkSize;
+    this.maxOrders = maxOrders;
+  }
+
+  public List<BulkOrderResultDTO> createAll(List<OrderRequestDTO> requests) {
+    if (requests == null || requests.isEmpty()) {
+      throw new BusinessRuleViolationException(ErrorCode.INVALID_ORDER, "Bulk request must contain at least one order");
+    }
+    if (requests.size() > maxOrders) {
+      throw new BusinessRuleViolationException(ErrorCode.INVALID_ORDER,
+          "Bulk request cannot contain more than " + maxOrders + " orders");
+    }
+
+    // 1. Chargement ensembliste des clients et des produits référencés
+    Map<Long, Client> clients = clientRepository.findAllById(referencedClientIds(requests)).stream()
+        .collect(Collectors.toMap(Client::getId, Function.identity()));
+    Map<Long, Product> products = productRepository.findAllById(referencedProductIds(requests)).stream()
+        .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+    // 2. Validation et tarification en parallèle
+    BulkOrderResultDTO[] results = new BulkOrderResultDTO[requests.size()];
+    Order[] orders = new Order[requests.size()];
+    int slices = Math.min(parallelism, requests.size());
+    List<Future<?>> pricing = new ArrayList<>(slices);
+    for (int slice = 0; slice < slices; slice++) {
+      int first = slice;
+      pricing.add(pricingPool.submit(() -> {
+        for (int index = first; index < requests.size(); index += slices) {
+          try {
+            orders[index] = price(requests.get(index), clients, products);
+          } catch (BusinessException e) {
+            results[index] = rejected(index, e.getErrorCode(), e.getMessage());
+          }
+        }
+      }));
+    }
+    pricing.forEach(BulkOrderService::await);
+
+    // 3. Enregistrement par tranches
+    List<Integer> accepted = IntStream.range(0, requests.size())
+        .filter(index -> orders[index] != null)
+        .boxed()
+        .collect(Collectors.toList());
+    for (int from = 0; from < accepted.size(); from += chunkSize) {
+      List<Integer> chunk = accepted.subList(from, Math.min(from + chunkSize, accepted.size()));
+      saveChunk(chunk, orders, results);
+    }
+
+    return Arrays.asList(results);
+  }
+
+  private Order price(OrderRequestDTO dto, Map<Long, Client> clients, Map<Long, Product> products) {
+    if (dto == null || dto.getClientId() == null) {
+      throw new BusinessRuleViolationException(ErrorCode.INVALID_ORDER, "Client ID is required");
+    }
+    Client client = clients.get(dto.getClientId());
+    if (client == null) {
+      throw new BusinessRuleViolationException(ErrorCode.CLIENT_NOT_FOUND, "Client not found");
+    }
+    if (dto.getItems() != null) {
+      for (OrderItemRequestDTO item : dto.getItems()) {
+        if (item == null || item.getProductId() == null || item.getQuantity() == null || item.getQuantity() <= 0) {
+          throw new BusinessRuleViolationException(ErrorCode.INVALID_ORDER,
+              "Each item requires a product ID and a positive quantity");
+        }
+      }
+    }
+    return orderService.buildOrder(dto, client, products);
+  }
+
+  /**
+   * Enregistre une tranche dans une seule transaction. En cas d'échec, les commandes
+   * de la tranche sont rejouées une par une pour isoler celle qui pose problème.
+   */
+  private void saveChunk(List<Integer> chunk, Order[] orders, BulkOrderResultDTO[] results) {
+    List<Order> toSave = chunk.stream().map(index -> orders[index]).collect(Collectors.toList());
+    try {
+      transactionTemplate.executeWithoutResult(status -> {
+        toSave.forEach(orderService::redeemPromoCode);
+        orderRepository.saveAll(toSave);
+        eventPublisher.publishEvent(new OrderChangedEvent(toSave.stream().map(Order::getId).toList()));
+      });
+      chunk.forEach(index -> results[index] = saved(index, orders[index]));
+    } catch (RuntimeException chunkFailure) {
+      log.warn("Bulk order chunk of {} orders failed, retrying individually: {}", chunk.size(),
+          chunkFailure.getMessage());
+      for (Integer index : chunk) {
+        Order order = orders[index];
+        resetIdentifiers(order);
+        try {
+          transactionTemplate.executeWithoutResult(status -> {
+            orderService.redeemPromoCode(order);
+            orderRepository.save(order);
+            eventPublisher.publishEvent(OrderChangedEvent.of(order.getId()));
+          });
+          results[index] = saved(index, order);
+        } catch (BusinessException e) {
+          results[index] = rejected(index, e.getErrorCode(), e.getMessage());
+        } catch (RuntimeException e) {
+          // Le détail (contrainte, SQL) reste dans les logs, comme dans GlobalExceptionHandler
+          log.error("Bulk order {} could not be saved", index, e);
+          results[index] = rejected(index, ErrorCode.BUSINESS_RULE_VIOLATION, "Order could not be saved");
+        }
+      }
+    }
+  }
+
+  private static void await(Future<?> pricing) {
+    try {
+      pricing.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Bulk order pricing interrupted", e);
+    } catch (ExecutionException e) {
+      throw e.getCause() instanceof RuntimeException runtime ? runtime : new IllegalStateException(e.getCause());
+    }
+  }
+
+  // Les identifiants attribués pendant la transaction annulée ne sont pas réutilisables
+  private void resetIdentifiers(Order order) {
+    order.setId(null);
+    for (OrderItem item : order.getItems()) {
+      item.setId(null);
+    }
+  }
+
+  private Set<Long> referencedClientIds(List<OrderRequestDTO> requests) {
+    return requests.stream()
+        .filter(Objects::nonNull)
+        .map(OrderRequestDTO::getClientId)
+        .filter(Objects::nonNull)
+        .collect(Collectors.toSet());
+  }
+
+  private Set<Long> referencedProductIds(List<OrderRequestDTO> requests) {
+    return requests.stream()
+        .filter(dto -> dto != null && dto.getItems() != null)
+        .flatMap(dto -> dto.getItems().stream())
+        .filter(item -> item != null && item.getProductId() != null)
+        .map(OrderItemRequestDTO::getProductId)
+        .collect(Collectors.toSet());
+  }
+
+  private BulkOrderResultDTO saved(int index, Order order) {
+    if (order.getStatus() == OrderStatus.REJECTED) {
+      return BulkOrderResultDTO.builder()
+          .index(index)
+          .result(BulkOrderResultDTO.REJECTED)
+          .orderId(order.getId())
+          .orderStatus(order.getStatus().name())
+          .code(ErrorCode.INSUFFICIENT_STOCK.name())
+          .reason("Insufficient stock")
+          .build();
+    }
+    return BulkOrderResultDTO.builder()
+        .index(index)
+        .result(BulkOrderResultDTO.CREATED)
+        .orderId(order.getId())
+        .orderStatus(order.getStatus().name())
+        .total(order.getTotal())
+        .build();
+  }
+
+  private BulkOrderResultDTO rejected(int index, ErrorCode code, String reason) {
+    return BulkOrderResultDTO.builder()
+        .index(index)
+        .result(BulkOrderResultDTO.REJECTED)
+        .code(code.name())
+        .reason(reason)
+        .build();
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    pricingPool.shutdownNow();
+  }
+}
@@ -10,10 +10,14 @@ import com.example.smartshop.dto.ClientResponseDTO;
 import com.example.smartshop.dto.CreateClientDTO;
 import com.example.smartshop.repository.ClientRepository;
 import com.example.smartshop.repository.OrderRepository;
+import com.example.smartshop.repository.OrderSummaryRepository;
 import com.example.smartshop.repository.UserRepository;
 import com.example.smartshop.mapper.ClientMapper;
+import com.example.smartshop.pricing.TierRuleEngine;
 import com.example.smartshop.exception.BusinessRuleViolationException;
+import com.example.smartshop.exception.ErrorCode;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.Base64;
@@ -27,13 +31,18 @@ public class ClientService {
   private final OrderRepository orderRepository;
   private final UserRepository userRepository;
   private final ClientMapper clientMapper;
+  private final OrderSummaryRepository orderSummaryRepository;
+  private final TierRuleEngine tierRuleEngine;
 
   public ClientService(ClientRepository clientRepository, OrderRepository orderRepository,
-      UserRepository userRepository, ClientMapper clientMapper) {
+      UserRepository userRepository, ClientMapper clientMapper, OrderSummaryRepository orderSummaryRepository,
+      TierRuleEngine tierRuleEngine) {
     this.clientRepository = clientRepository;
     this.orderRepository = orderRepository;
     this.userRepository = userRepository;
     this.clientMapper = clientMapper;
+    this.orderSummaryRepository = orderSummaryRepository;
+    this.tierRuleEngine = tierRuleEngine;
   }
 
   public List<ClientDTO> findAll() {
@@ -44,13 +53,13 @@ public class ClientService {
 
   public ClientDTO findById(Long id) {
     Client client = clientRepository.findById(id)
-        .orElseThrow(() -> new BusinessRuleViolationException("Client not found"));
+        .orElseThrow(() -> new BusinessRuleViolationException(ErrorCode.CLIENT_NOT_FOUND, "Client not found"));
     return clientMapper.toDTO(client);
   }
 
   public ClientResponseDTO findByIdWithStats(Long id) {
     Client client = clientRepository.findById(id)
-        .orElseThrow(() -> new BusinessRuleViolationException("Client not found"));
+        .orElseThrow(() -> new BusinessRuleViolationException(ErrorCode.CLIENT_NOT_FOUND, "Client not found"));
 
     ClientResponseDTO response = clientMapper.toResponseDTO(client);
 
@@ -76,7 +85,8 @@ public class ClientService {
   }
 
   /**
-   * Calcule et met à jour automatiquement le tier du client basé sur :
+   * Calcule et met à jour automatiquement le tier du client selon les seuils de
+   * TierRuleEngine (table tier_rules). Par défaut :
    * - BASIC : Client par défaut (0 commandes)
    * - SILVER : À partir de 3 commandes OU 1 000 DH cumulés
    * - GOLD : À partir de 10 commandes OU 5 000 DH cumulés
@@ -98,41 +108,13 @@ public class ClientService {
     totalSpent = roundToTwoDecimals(totalSpent);
 
     // Déterminer le nouveau tier
-    CustomerTier newTier = calculateTier(totalOrders, totalSpent);
+    CustomerTier newTier = tierRuleEngine.current().tierFor(totalOrders, totalSpent);
     client.setTier(newTier);
 
     // Persister la mise à jour
     clientRepository.save(client);
   }
 
-  /**
-   * Détermine le tier client basé sur le nombre de commandes et le montant total
-   * dépensé.
-   *
-   * @param totalOrders nombre de commandes complétées
-   * @param totalSpent  montant total dépensé en DH
-   * @return le tier client déterminé
-   */
-  private CustomerTier calculateTier(int totalOrders, Double totalSpent) {
-    // PLATINUM : À partir de 20 commandes OU 15 000 DH cumulés
-    if (totalOrders >= 20 || totalSpent >= 15000.0) {
-      return CustomerTier.PLATINUM;
-    }
-
-    // GOLD : À partir de 10 commandes OU 5 000 DH cumulés
-    if (totalOrders >= 10 || totalSpent >= 5000.0) {
-      return CustomerTier.GOLD;
-    }
-
-    // SILVER : À partir de 3 commandes OU 1 000 DH cumulés
-    if (totalOrders >= 3 || totalSpent >= 1000.0) {
-      return CustomerTier.SILVER;
-    }
-
-    // Par défaut BASIC
-    return CustomerTier.BASIC;
-  }
-
   private Double roundToTwoDecimals(Double value) {
     if (value == null)
       return 0.0;
@@ -144,7 +126,7 @@ public class ClientService {
   public ClientDTO create(CreateClientDTO dto) {
     boolean emailExists = clientRepository.findByEmail(dto.getEmail()).isPresent();
     if (emailExists) {
-      throw new BusinessRuleViolationException("A client with this email already exists");
+      throw new BusinessRuleViolationException(ErrorCode.DUPLICATE_RESOURCE, "A client with this email already exists");
     }
 
     // Créer un User automatiquement pour le client
@@ -163,26 +145,32 @@ public class ClientService {
     return clientMapper.toDTO(savedClient);
   }
 
+  @Transactional
   public ClientDTO update(Long id, CreateClientDTO dto) {
     Client client = clientRepository.findById(id)
-        .orElseThrow(() -> new BusinessRuleViolationException("Client not found"));
+        .orElseThrow(() -> new BusinessRuleViolationException(ErrorCode.CLIENT_NOT_FOUND, "Client not found"));
 
     boolean emailExists = clientRepository.findByEmail(dto.getEmail())
         .filter(c -> !c.getId().equals(id))
         .isPresent();
     if (emailExists) {
-      throw new BusinessRuleViolationException("A client with this email already exists");
+      throw new BusinessRuleViolationException(ErrorCode.DUPLICATE_RESOURCE, "A client with this email already exists");
     }
 
+    boolean renamed = !dto.getName().equals(client.getName());
     client.setName(dto.getName());
     client.setEmail(dto.getEmail());
     Client updatedClient = clientRepository.save(client);
+    if (renamed) {
+      // Nom du client dénormalisé dans order_summary
+      orderSummaryRepository.updateClientName(id, dto.getName());
+    }
     return clientMapper.toDTO(updatedClient);
   }
 
   public void delete(Long id) {
     Client client = clientRepository.findById(id)
-        .orElseThrow(() -> new BusinessRuleViolationException("Client not found"));
+        .orElseThrow(() -> new BusinessRuleViolationException(ErrorCode.CLIENT_NOT_FOUND, "Client not found"));
     clientRepository.delete(client);
   }
 
@@ -193,12 +181,12 @@ public class ClientService {
 
   public Client getClientByEmail(String email) {
     return clientRepository.findByEmail(email)
-        .orElseThrow(() -> new BusinessRuleViolationException("Client not found"));
+        .orElseThrow(() -> new BusinessRuleViolationException(ErrorCode.CLIENT_NOT_FOUND, "Client not found"));
   }
 
   public Client getClientById(Long id) {
     return clientRepository.findById(id)
-        .orElseThrow(() -> new BusinessRuleViolationException("Client not found"));
+        .orElseThrow(() -> new BusinessRuleViolationException(ErrorCode.CLIENT_NOT_FOUND, "Client not found"));
   }
 
 
@@ -0,0 +1,228 @@
+package com.example.smartshop.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Exports NDJSON (un objet JSON par ligne) du catalogue, des commandes et des paiements.
+ *
+ * Les lignes sont lues par un curseur JDBC en avant seulement (fetch size, dans une
+ * transaction en lecture seule : PostgreSQL ne pagine le curseur qu'hors autocommit)
+ * et écrites au fil de l'eau par un JsonGenerator. La mémoire utilisée ne dépend pas
+ * du nombre de lignes exportées.
+ */
+@Service
+public class ExportService {
+
+  private static final String PRODUCTS_SQL =
+      "SELECT id, sku, name, price, stock, deleted FROM products ORDER BY id";
+
+  private static final String ORDERS_SQL =
+      "SELECT o.id, o.client_id, o.date, o.created_at, o.status, o.subtotal, o.discount_amount, o.tax, " +
+      "o.total, o.promo_code, o.remaining_amount, " +
+      "i.id AS item_id, i.product_id, i.quantity, i.unit_price, i.line_total " +
+      "FROM orders o LEFT JOIN order_items i ON i.order_id = o.id AND i.order_created_at = o.created_at " +
+      "ORDER BY o.id, i.id";
+
+  private static final String PAYMENTS_SQL =
+      "SELECT id, order_id, sequence_number, amount, method, status, payment_date, receipt_number, " +
+      "check_number, check_bank, check_due_date, transfer_reference, transfer_bank, created_at, updated_at " +
+      "FROM payments ORDER BY id";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate readOnlyTransaction;
+  private final ObjectMapper objectMapper;
+
+  public ExportService(DataSource dataSource, PlatformTransactionManager transactionManager,
+      ObjectMapper objectMapper,
+      @Value("${smartshop.export.fetch-size:1000}") int fetchSize) {
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+    this.jdbcTemplate.setFetchSize(fetchSize);
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+    this.objectMapper = objectMapper;
+  }
+
+  public void exportProducts(OutputStream out) {
+    stream(out, PRODUCTS_SQL, (rs, gen) -> {
+      gen.writeStartObject();
+      writeLong(gen, "id", rs, "id");
+      writeString(gen, "sku", rs, "sku");
+      writeString(gen, "name", rs, "name");
+      writeDouble(gen, "price", rs, "price");
+      writeLong(gen, "stock", rs, "stock");
+      gen.writeBooleanField("deleted", rs.getBoolean("deleted"));
+      gen.writeEndObject();
+      gen.writeRaw('\n');
+    });
+  }
+
+  /**
+   * Une ligne par commande, articles imbriqués. La jointure est triée par commande :
+   * les lignes d'une même commande se suivent et l'objet est fermé au changement d'id.
+   */
+  public void exportOrders(OutputStream out) {
+    long[] currentOrderId = { -1L };
+    stream(out, ORDERS_SQL, (rs, gen) -> {
+      long orderId = rs.getLong("id");
+      if (orderId != currentOrderId[0]) {
+        if (currentOrderId[0] != -1L) {
+          endOrder(gen);
+        }
+        currentOrderId[0] = orderId;
+        gen.writeStartObject();
+        gen.writeNumberField("id", orderId);
+        writeLong(gen, "clientId", rs, "client_id");
+        writeDate(gen, "date", rs, "date");
+        writeTimestamp(gen, "createdAt", rs, "created_at");
+        writeString(gen, "status", rs, "status");
+        writeDouble(gen, "subtotal", rs, "subtotal");
+        writeDouble(gen, "discountAmount", rs, "discount_amount");
+        writeDouble(gen, "tax", rs, "tax");
+        writeDouble(gen, "total", rs, "total");
+        writeString(gen, "promoCode", rs, "promo_code");
+        writeDouble(gen, "remainingAmount", rs, "remaining_amount");
+        gen.writeArrayFieldStart("items");
+      }
+
+      rs.getLong("item_id");
+      if (!rs.wasNull()) {
+        gen.writeStartObject();
+        writeLong(gen, "id", rs, "item_id");
+        writeLong(gen, "productId", rs, "product_id");
+        writeLong(gen, "quantity", rs, "quantity");
+        writeDouble(gen, "unitPrice", rs, "unit_price");
+        writeDouble(gen, "lineTotal", rs, "line_total");
+        gen.writeEndObject();
+      }
+    }, gen -> {
+      if (currentOrderId[0] != -1L) {
+        endOrder(gen);
+      }
+    });
+  }
+
+  public void exportPayments(OutputStream out) {
+    stream(out, PAYMENTS_SQL, (rs, gen) -> {
+      gen.writeStartObject();
+      writeLong(gen, "id", rs, "id");
+      writeLong(gen, "orderId", rs, "order_id");
+      writeLong(gen, "sequenceNumber", rs, "sequence_number");
+      writeDouble(gen, "amount", rs, "amount");
+      writeString(gen, "method", rs, "method");
+      writeString(gen, "status", rs, "status");
+      writeTimestamp(gen, "paymentDate", rs, "payment_date");
+      writeString(gen, "receiptNumber", rs, "receipt_number");
+      writeString(gen, "checkNumber", rs, "check_number");
+      writeString(gen, "checkBank", rs, "check_bank");
+      writeDate(gen, "checkDueDate", rs, "check_due_date");
+      writeString(gen, "transferReference", rs, "transfer_reference");
+      writeString(gen, "transferBank", rs, "transfer_bank");
+      writeTimestamp(gen, "createdAt", rs, "created_at");
+      writeTimestamp(gen, "updatedAt", rs, "updated_at");
+      gen.writeEndObject();
+      gen.writeRaw('\n');
+    });
+  }
+
+  private void endOrder(JsonGenerator gen) throws IOException {
+    gen.writeEndArray();
+    gen.writeEndObject();
+    gen.writeRaw('\n');
+  }
+
+  private void stream(OutputStream out, String sql, RowWriter rowWriter) {
+    stream(out, sql, rowWriter, gen -> { });
+  }
+
+  private void stream(OutputStream out, String sql, RowWriter rowWriter, Finisher finisher) {
+    try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+      // Pas de séparateur implicite entre objets racine : chaque ligne se termine par '\n'
+      gen.setRootValueSeparator(null);
+      readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(sql, rs -> {
+        try {
+          rowWriter.write(rs, gen);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }));
+      finisher.finish(gen);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Export interrupted", e);
+    }
+  }
+
+  private void writeString(JsonGenerator gen, String field, ResultSet rs, String column)
+      throws IOException, SQLException {
+    String value = rs.getString(column);
+    if (value == null) {
+      gen.writeNullField(field);
+    } else {
+      gen.writeStringField(field, value);
+    }
+  }
+
+  private void writeLong(JsonGenerator gen, String field, ResultSet rs, String column)
+      throws IOException, SQLException {
+    long value = rs.getLong(column);
+    if (rs.wasNull()) {
+      gen.writeNullField(field);
+    } else {
+      gen.writeNumberField(field, value);
+    }
+  }
+
+  private void writeDouble(JsonGenerator gen, String field, ResultSet rs, String column)
+      throws IOException, SQLException {
+    double value = rs.getDouble(column);
+    if (rs.wasNull()) {
+      gen.writeNullField(field);
+    } else {
+      gen.writeNumberField(field, value);
+    }
+  }
+
+  private void writeDate(JsonGenerator gen, String field, ResultSet rs, String column)
+      throws IOException, SQLException {
+    LocalDate value = rs.getObject(column, LocalDate.class);
+    if (value == null) {
+      gen.writeNullField(field);
+    } else {
+      gen.writeStringField(field, value.toString());
+    }
+  }
+
+  private void writeTimestamp(JsonGenerator gen, String field, ResultSet rs, String column)
+      throws IOException, SQLException {
+    LocalDateTime value = rs.getObject(column, LocalDateTime.class);
+    if (value == null) {
+      gen.writeNullField(field);
+    } else {
+      gen.writeStringField(field, value.toString());
+    }
+  }
+
+  @FunctionalInterface
+  private interface RowWriter {
+    void write(ResultSet rs, JsonGenerator gen) throws IOException, SQLException;
+  }
+
+  @FunctionalInterface
+  private interface Finisher {
+    void finish(JsonGenerator gen) throws IOException;
+  }
+}
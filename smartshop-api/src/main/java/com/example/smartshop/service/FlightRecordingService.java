@@ -0,0 +1,164 @@
+package com.example.smartshop.service;
+
+import com.example.smartshop.exception.BusinessRuleViolationException;
+import com.example.smartshop.exception.ErrorCode;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pilote un enregistrement JDK Flight Recorder borné (durée et taille maximales)
+ * depuis l'application, sans outil externe (jcmd, JMC).
+ *
+ * Un seul enregistrement est actif à la fois. Les dumps sont écrits dans
+ * smartshop.jfr.directory et contiennent les événements SmartShop (jfr package)
+ * en plus des événements JVM du profil choisi.
+ */
+@Service
+public class FlightRecordingService {
+
+  private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Path directory;
+  private final String settings;
+  private final Duration maxAge;
+  private final long maxSizeBytes;
+
+  private Recording recording;
+
+  public FlightRecordingService(
+      @Value("${smartshop.jfr.directory:recordings}") String directory,
+      @Value("${smartshop.jfr.settings:profile}") String settings,
+      @Value("${smartshop.jfr.max-age-minutes:30}") long maxAgeMinutes,
+      @Value("${smartshop.jfr.max-size-mb:100}") long maxSizeMb) {
+    this.directory = Path.of(directory);
+    this.settings = settings;
+    this.maxAge = Duration.ofMinutes(maxAgeMinutes);
+    this.maxSizeBytes = maxSizeMb * 1024 * 1024;
+  }
+
+  public Map<String, Object> start() {
+    lock.lock();
+    try {
+      if (recording != null && recording.getState() == RecordingState.RUNNING) {
+        throw new BusinessRuleViolationException(ErrorCode.RECORDING_STATE_CONFLICT, "A recording is already running");
+      }
+      closeRecording();
+
+      Recording newRecording = new Recording(Configuration.getConfiguration(settings));
+      newRecording.setName("smartshop");
+      newRecording.setToDisk(true);
+      newRecording.setMaxAge(maxAge);
+      newRecording.setMaxSize(maxSizeBytes);
+      newRecording.start();
+      recording = newRecording;
+      return describe();
+    } catch (IOException | ParseException e) {
+      throw new IllegalStateException("Unable to load JFR settings: " + settings, e);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Écrit le contenu courant de l'enregistrement sur disque sans l'arrêter
+   */
+  public Path dump() {
+    lock.lock();
+    try {
+      requireRunning();
+      return dumpTo(recording);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Arrête l'enregistrement et écrit le fichier final
+   */
+  public Path stop() {
+    lock.lock();
+    try {
+      requireRunning();
+      recording.stop();
+      Path file = dumpTo(recording);
+      closeRecording();
+      return file;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public Map<String, Object> status() {
+    lock.lock();
+    try {
+      return describe();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    lock.lock();
+    try {
+      closeRecording();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void requireRunning() {
+    if (recording == null || recording.getState() != RecordingState.RUNNING) {
+      throw new BusinessRuleViolationException(ErrorCode.RECORDING_STATE_CONFLICT, "No recording is running");
+    }
+  }
+
+  private Path dumpTo(Recording source) {
+    try {
+      Files.createDirectories(directory);
+      Path file = directory.resolve("smartshop-" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".jfr").toAbsolutePath();
+      source.dump(file);
+      return file;
+    } catch (IOException e) {
+      throw new UncheckedIOException("Unable to write JFR recording", e);
+    }
+  }
+
+  private void closeRecording() {
+    if (recording != null) {
+      recording.close();
+      recording = null;
+    }
+  }
+
+  private Map<String, Object> describe() {
+    Map<String, Object> status = new LinkedHashMap<>();
+    status.put("state", recording != null ? recording.getState().name() : RecordingState.CLOSED.name());
+    status.put("settings", settings);
+    status.put("maxAgeMinutes", maxAge.toMinutes());
+    status.put("maxSizeBytes", maxSizeBytes);
+    status.put("directory", directory.toAbsolutePath().toString());
+    if (recording != null) {
+      status.put("startTime", recording.getStartTime());
+      status.put("recordedBytes", recording.getSize());
+    }
+    return status;
+  }
+}
@@ -0,0 +1,462 @@
+package com.example.smartshop.service;
+
+import com.example.smartshop.entity.Order;
+import com.example.smartshop.entity.OrderItem;
+import com.example.smartshop.entity.Client;
+import com.example.smartshop.entity.Product;
+import com.example.smartshop.entity.OrderStatus;
+import com.example.smartshop.entity.OutboxEventType;
+import com.example.smartshop.dto.OrderRequestDTO;
+import com.example.smartshop.dto.OrderResponseDTO;
+import com.example.smartshop.dto.OrderItemRequestDTO;
+import com.example.smartshop.dto.OrderHistoryDTO;
+import com.example.smartshop.dto.OrderSummaryDTO;
+import com.example.smartshop.event.OrderChangedEvent;
+import com.example.smartshop.event.OrderStatusChangedEvent;
+import com.example.smartshop.repository.OrderRepository;
+import com.example.smartshop.repository.OrderSummaryRepository;
+import com.example.smartshop.repository.ClientRepository;
+import com.example.smartshop.repository.ProductRepository;
+import com.example.smartshop.mapper.OrderMapper;
+import com.example.smartshop.exception.BusinessRuleViolationException;
+import com.example.smartshop.exception.ErrorCode;
+import com.example.smartshop.jfr.OrderOperationEvent;
+import com.example.smartshop.pricing.TierRuleEngine;
+import com.example.smartshop.promo.PromoCampaign;
+import com.example.smartshop.promo.PromoCodeRegistry;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.regex.Pattern;
+
+@Service
+@Transactional
+public class OrderService {
+
+  private final OrderRepository orderRepository;
+  private final ClientRepository clientRepository;
+  private final ProductRepository productRepository;
+  private final ProductService productService;
+  private final ClientService clientService;
+  private final OrderMapper orderMapper;
+  private final OrderSummaryRepository orderSummaryRepository;
+  private final ApplicationEventPublisher eventPublisher;
+  private final OutboxService outboxService;
+  private final PromoCodeRegistry promoCodeRegistry;
+  private final TierRuleEngine tierRuleEngine;
+  private static final Pattern PROMO_CODE_PATTERN = Pattern.compile("^PROMO-[A-Z0-9]{4}$");
+
+  public OrderService(OrderRepository orderRepository, ClientRepository clientRepository,
+      ProductRepository productRepository, ProductService productService, ClientService clientService,
+      OrderMapper orderMapper, OrderSummaryRepository orderSummaryRepository,
+      ApplicationEventPublisher eventPublisher, OutboxService outboxService,
+      PromoCodeRegistry promoCodeRegistry, TierRuleEngine tierRuleEngine) {
+    this.orderRepository = orderRepository;
+    this.clientRepository = clientRepository;
+    this.productRepository = productRepository;
+    this.productService = productService;
+    this.clientService = clientService;
+    this.orderMapper = orderMapper;
+    this.orderSummaryRepository = orderSummaryRepository;
+    this.eventPublisher = eventPublisher;
+    this.outboxService = outboxService;
+    this.promoCodeRegistry = promoCodeRegistry;
+    this.tierRuleEngine = tierRuleEngine;
+  }
+
+  public OrderResponseDTO create(OrderRequestDTO dto) {
+    OrderOperationEvent event = new OrderOperationEvent(OrderOperationEvent.CREATE);
+    event.setClientId(dto.getClientId());
+    event.setLineCount(dto.getItems() != null ? dto.getItems().size() : 0);
+    event.begin();
+    try {
+      OrderResponseDTO order = createOrder(dto);
+      event.succeeded(order);
+      return order;
+    } finally {
+      event.commit();
+    }
+  }
+
+  private OrderResponseDTO createOrder(OrderRequestDTO dto) {
+    // Validation du client
+    if (dto.getClientId() == null) {
+      throw new BusinessRuleViolationException(ErrorCode.INVALID_ORDER, "Client ID is required");
+    }
+    Client client = clientRepository.findById(dto.getClientId())
+        .orElseThrow(() -> new BusinessRuleViolationException(ErrorCode.CLIENT_NOT_FOUND, "Client not found"));
+
+    // Validation des articles
+    if (dto.getItems() == null || dto.getItems().isEmpty()) {
+      throw new BusinessRuleViolationException(ErrorCode.INVALID_ORDER, "Order must contain at least one item");
+    }
+
+    List<Long> productIds = dto.getItems().stream()
+        .map(OrderItemRequestDTO::getProductId)
+        .collect(Collectors.toList());
+
+    Map<Long, Product> products = productRepository.findAllById(productIds).stream()
+        .collect(Collectors.toMap(Product::getId, Function.identity(), (first, second) -> first));
+
+    Order order = buildOrder(dto, client, products);
+    redeemPromoCode(order);
+
+    // Sauvegarde
+    order = orderRepository.save(order);
+    eventPublisher.publishEvent(OrderChangedEvent.of(order.getId()));
+    return orderMapper.toResponseDTO(order);
+  }
+
+  /**
+   * Construit et tarifie une commande sans accès à la base.
+   *
+   * Les produits sont fournis déjà chargés (indexés par id) : la méthode peut être
+   * appelée en parallèle pour plusieurs commandes (voir BulkOrderService).
+   * Une commande en rupture de stock est renvoyée avec le statut REJECTED.
+   */
+  @Transactional(propagation = Propagation.SUPPORTS)
+  Order buildOrder(OrderRequestDTO dto, Client client, Map<Long, Product> products) {
+    if (dto.getItems() == null || dto.getItems().isEmpty()) {
+      throw new BusinessRuleViolationException(ErrorCode.INVALID_ORDER, "Order must contain at least one item");
+    }
+
+    // Validation des produits (un même produit ne peut apparaître qu'une fois)
+    long foundProducts = dto.getItems().stream()
+        .map(OrderItemRequestDTO::getProductId)
+        .distinct()
+        .filter(products::containsKey)
+        .count();
+    if (foundProducts != dto.getItems().size()) {
+      throw new BusinessRuleViolationException(ErrorCode.PRODUCT_NOT_FOUND, "One or more products not found");
+    }
+
+    // Vérifier le stock pour tous les articles
+    boolean insufficientStock = false;
+    for (OrderItemRequestDTO itemDTO : dto.getItems()) {
+      Product product = products.get(itemDTO.getProductId());
+
+      if (product.getStock() < itemDTO.getQuantity()) {
+        insufficientStock = true;
+        break;
+      }
+    }
+
+    //  la commande
+    Order order = orderMapper.toEntity(dto, client);
+
+    //  items
+    List<OrderItem> orderItems = new java.util.ArrayList<>();
+    for (OrderItemRequestDTO itemDTO : dto.getItems()) {
+      Product product = products.get(itemDTO.getProductId());
+
+      //  unitPrice de la requête si fourni sinon use le prix du produit
+      Double unitPrice = itemDTO.getUnitPrice() != null ? itemDTO.getUnitPrice() : product.getPrice();
+
+      OrderItem item = OrderItem.builder()
+          .order(order)
+          .product(product)
+          .quantity(itemDTO.getQuantity())
+          .unitPrice(unitPrice)
+          .lineTotal(itemDTO.getQuantity() * unitPrice)
+          .build();
+      orderItems.add(item);
+    }
+
+    order.setItems(orderItems);
+
+    // Si stock insuffisant REJECTED
+    if (insufficientStock) {
+      order.setStatus(OrderStatus.REJECTED);
+      order.setSubtotal(0.0);
+      order.setDiscountAmount(0.0);
+      order.setTotal(0.0);
+      order.setRemainingAmount(0.0);
+      return order;
+    }
+
+    // Calcul du subtotal
+    Double subTotal = orderItems.stream()
+        .mapToDouble(OrderItem::getLineTotal)
+        .sum();
+    order.setSubtotal(roundToTwoDecimals(subTotal));
+
+    // Remise basée sur le tier (règles compilées, sans requête)
+    Double totalDiscountPercentage = tierRuleEngine.current().discountPercentage(client.getTier(), subTotal);
+
+    // Code promo (campagne lue dans l'index en mémoire, sans requête)
+    if (dto.getPromoCode() != null && !dto.getPromoCode().isEmpty()) {
+      totalDiscountPercentage += resolvePromoCampaign(dto.getPromoCode()).getDiscountPercentage();
+    }
+
+    // Calcul de la remise
+    Double discountAmount = roundToTwoDecimals(subTotal * (totalDiscountPercentage / 100));
+    order.setDiscountAmount(discountAmount);
+
+    // Calcul du montant soumis à taxe
+    Double amountSubjectToTax = roundToTwoDecimals(subTotal - discountAmount);
+
+    // Calcul de la taxe (TVA de la commande)
+    Double taxValue = roundToTwoDecimals(amountSubjectToTax * (order.getTax() / 100));
+
+    // Calcul du total
+    Double total = roundToTwoDecimals(amountSubjectToTax + taxValue);
+    order.setTotal(total);
+    order.setRemainingAmount(total);
+
+    return order;
+  }
+
+  private PromoCampaign resolvePromoCampaign(String promoCode) {
+    if (!isValidPromoCode(promoCode)) {
+      throw new BusinessRuleViolationException(ErrorCode.INVALID_PROMO_CODE, "Invalid promo code format. Expected PROMO-XXXX");
+    }
+    PromoCampaign campaign = promoCodeRegistry.find(promoCode)
+        .orElseThrow(() -> new BusinessRuleViolationException(ErrorCode.INVALID_PROMO_CODE, "Unknown promo code: " + promoCode));
+    if (campaign.getMaxUses() != null && campaign.getUsed() >= campaign.getMaxUses()) {
+      throw new BusinessRuleViolationException(ErrorCode.PROMO_CODE_EXHAUSTED,
+          "Promo code " + promoCode + " has reached its maximum number of uses");
+    }
+    if (!campaign.isRedeemableAt(LocalDateTime.now())) {
+      throw new BusinessRuleViolationException(ErrorCode.INVALID_PROMO_CODE,
+          "Promo code " + promoCode + " is inactive or outside its validity period");
+    }
+    return campaign;
+  }
+
+  /**
+   * Réserve l'utilisation du code promo dans la transaction courante (rendue si elle est
+   * annulée). Les commandes rejetées pour stock insuffisant ne consomment pas de code.
+   */
+  void redeemPromoCode(Order order) {
+    if (order.getStatus() != OrderStatus.REJECTED && order.getPromoCode() != null && !order.getPromoCode().isEmpty()) {
+      promoCodeRegistry.redeem(order.getPromoCode());
+    }
+  }
+
+  public OrderResponseDTO findById(Long id) {
+    Order order = orderRepository.findByIdInPartition(id)
+        .orElseThrow(() -> new BusinessRuleViolationException(ErrorCode.ORDER_NOT_FOUND, "Order not found"));
+    return orderMapper.toResponseDTO(order);
+  }
+
+  // Listes servies par le modèle de lecture order_summary (voir OrderSummaryProjector)
+
+  @Transactional(readOnly = true)
+  public List<OrderSummaryDTO> findAll() {
+    return orderSummaryRepository.findAllByOrderByCreatedAtDesc().stream()
+        .map(orderMapper::toSummaryDTO)
+        .collect(Collectors.toList());
+  }
+
+  @Transactional(readOnly = true)
+  public List<OrderSummaryDTO> findAllByClientId(Long clientId) {
+    return orderSummaryRepository.findByClientIdOrderByCreatedAtDesc(clientId).stream()
+        .map(orderMapper::toSummaryDTO)
+        .collect(Collectors.toList());
+  }
+
+  @Transactional(readOnly = true)
+  public List<OrderHistoryDTO> getClientOrderHistory(Long clientId) {
+    return orderSummaryRepository.findByClientIdOrderByCreatedAtDesc(clientId).stream()
+        .map(summary -> OrderHistoryDTO.builder()
+            .id(summary.getOrderId())
+            .date(summary.getDate())
+            .totalAmount(summary.getTotal())
+            .status(summary.getStatus() != null ? summary.getStatus().name() : "PENDING")
+            .build())
+        .collect(Collectors.toList());
+  }
+
+  public OrderResponseDTO updateOrderStatus(Long id, OrderStatus newStatus) {
+    Order order = orderRepository.findByIdInPartition(id)
+        .orElseThrow(() -> new BusinessRuleViolationException(ErrorCode.ORDER_NOT_FOUND, "Order not found"));
+
+    // Valider les transitions de statut
+    OrderStatus previousStatus = order.getStatus();
+    validateStatusTransition(previousStatus, newStatus);
+
+    order.setStatus(newStatus);
+    order = orderRepository.save(order);
+    eventPublisher.publishEvent(OrderChangedEvent.of(order.getId()));
+    eventPublisher.publishEvent(new OrderStatusChangedEvent(order.getId(), order.getClient().getId(),
+        previousStatus, newStatus));
+    return orderMapper.toResponseDTO(order);
+  }
+
+  public OrderResponseDTO confirmOrder(Long id) {
+    OrderOperationEvent event = new OrderOperationEvent(OrderOperationEvent.CONFIRM);
+    event.setOrderId(id);
+    event.begin();
+    try {
+      OrderResponseDTO order = doConfirmOrder(id);
+      event.succeeded(order);
+      return order;
+    } finally {
+      event.commit();
+    }
+  }
+
+  private OrderResponseDTO doConfirmOrder(Long id) {
+    Order order = orderRepository.findByIdInPartition(id)
+        .orElseThrow(() -> new BusinessRuleViolationException(ErrorCode.ORDER_NOT_FOUND, "Order not found"));
+
+    // Vérifier que la commande est entièrement payée
+    if (order.getRemainingAmount() > 0.01) {
+      throw new BusinessRuleViolationException(ErrorCode.ORDER_NOT_FULLY_PAID,
+          "Order is not fully paid. Remaining amount: " + order.getRemainingAmount());
+    }
+
+    // Vérifier le statut initial
+    if (order.getStatus() != OrderStatus.PENDING) {
+      throw new BusinessRuleViolationException(ErrorCode.INVALID_STATUS_TRANSITION, "Only PENDING orders can be confirmed");
+    }
+
+    order.setStatus(OrderStatus.CONFIRMED);
+
+    for (OrderItem item : order.getItems()) {
+      productService.decrementStock(item.getProduct().getId(), item.getQuantity());
+    }
+
+    order = orderRepository.save(order);
+
+    Client client = order.getClient();
+
+    client.setTotalOrders(client.getTotalOrders() + 1);
+
+    Double newTotalSpent = roundToTwoDecimals(client.getTotalSpent() + order.getTotal());
+    client.setTotalSpent(newTotalSpent);
+
+    if (client.getFirstOrderDate() == null) {
+      client.setFirstOrderDate(order.getCreatedAt());
+    }
+    client.setLastOrderDate(order.getCreatedAt());
+
+    clientService.calculateAndUpdateTier(client);
+
+    eventPublisher.publishEvent(OrderChangedEvent.of(order.getId()));
+    eventPublisher.publishEvent(new OrderStatusChangedEvent(order.getId(), client.getId(),
+        OrderStatus.PENDING, OrderStatus.CONFIRMED));
+    OrderResponseDTO response = orderMapper.toResponseDTO(order);
+    outboxService.append(OutboxEventType.ORDER_CONFIRMED, OutboxService.AGGREGATE_ORDER, order.getId(), response);
+    return response;
+  }
+
+  public OrderResponseDTO cancelOrder(Long id) {
+    OrderOperationEvent event = new OrderOperationEvent(OrderOperationEvent.CANCEL);
+    event.setOrderId(id);
+    event.begin();
+    try {
+      OrderResponseDTO order = doCancelOrder(id);
+      event.succeeded(order);
+      return order;
+    } finally {
+      event.commit();
+    }
+  }
+
+  private OrderResponseDTO doCancelOrder(Long id) {
+    Order order = orderRepository.findByIdInPartition(id)
+        .orElseThrow(() -> new BusinessRuleViolationException(ErrorCode.ORDER_NOT_FOUND, "Order not found"));
+
+    
+    if (order.getStatus() != OrderStatus.PENDING) {
+      throw new BusinessRuleViolationException(ErrorCode.INVALID_STATUS_TRANSITION, "Only PENDING orders can be canceled");
+    }
+
+    order.setStatus(OrderStatus.CANCELED);
+    order = orderRepository.save(order);
+    if (order.getPromoCode() != null && !order.getPromoCode().isEmpty()) {
+      promoCodeRegistry.release(order.getPromoCode());
+    }
+    eventPublisher.publishEvent(OrderChangedEvent.of(order.getId()));
+    eventPublisher.publishEvent(new OrderStatusChangedEvent(order.getId(), order.getClient().getId(),
+        OrderStatus.PENDING, OrderStatus.CANCELED));
+    OrderResponseDTO response = orderMapper.toResponseDTO(order);
+    outboxService.append(OutboxEventType.ORDER_CANCELED, OutboxService.AGGREGATE_ORDER, order.getId(), response);
+    return response;
+  }
+
+  /**
+   * Annule les commandes PENDING expirées (voir PendingOrderReaper) : même transition et
+   * mêmes effets que cancelOrder, avec une seule mise à jour ensembliste par lot.
+   *
+   * @return ids des commandes annulées
+   */
+  public List<Long> cancelExpiredOrders(LocalDateTime cutoff, int limit) {
+    List<OrderRepository.ExpiredOrder> expired = orderRepository.lockExpiredPending(cutoff, limit);
+    if (expired.isEmpty()) {
+      return List.of();
+    }
+    List<Long> ids = expired.stream().map(OrderRepository.ExpiredOrder::getId).toList();
+    // Lot trié par date de création : seules les partitions de ces mois sont lues
+    LocalDateTime createdFrom = expired.get(0).getCreatedAt();
+    LocalDateTime createdTo = expired.get(expired.size() - 1).getCreatedAt();
+
+    List<Order> orders = orderRepository.findAllByIdCreatedBetween(ids, createdFrom, createdTo);
+    for (Order order : orders) {
+      validateStatusTransition(order.getStatus(), OrderStatus.CANCELED);
+    }
+    orderRepository.updateStatus(ids, createdFrom, createdTo, OrderStatus.PENDING, OrderStatus.CANCELED);
+
+    // Entités non modifiées (déjà à jour en base) : aucun UPDATE ligne à ligne au flush
+    for (Order order : orders) {
+      if (order.getPromoCode() != null && !order.getPromoCode().isEmpty()) {
+        promoCodeRegistry.release(order.getPromoCode());
+      }
+      eventPublisher.publishEvent(new OrderStatusChangedEvent(order.getId(), order.getClient().getId(),
+          OrderStatus.PENDING, OrderStatus.CANCELED));
+      OrderResponseDTO response = orderMapper.toResponseDTO(order);
+      response.setStatus(OrderStatus.CANCELED.name());
+      outboxService.append(OutboxEventType.ORDER_CANCELED, OutboxService.AGGREGATE_ORDER, order.getId(), response);
+    }
+    eventPublisher.publishEvent(new OrderChangedEvent(ids));
+    return ids;
+  }
+
+  private void validateStatusTransition(OrderStatus currentStatus, OrderStatus newStatus) {
+    if (currentStatus == null) {
+      throw new BusinessRuleViolationException(ErrorCode.INVALID_STATUS_TRANSITION, "Current status is null");
+    }
+
+    // Matrice de transitions valides
+    boolean validTransition = false;
+
+    if (currentStatus == OrderStatus.PENDING) {
+      validTransition = (newStatus == OrderStatus.CONFIRMED || newStatus == OrderStatus.CANCELED
+          || newStatus == OrderStatus.REJECTED);
+    } else if (currentStatus == OrderStatus.CONFIRMED || currentStatus == OrderStatus.CANCELED
+        || currentStatus == OrderStatus.REJECTED) {
+      validTransition = false; 
+    }
+
+    if (!validTransition) {
+      throw new BusinessRuleViolationException(ErrorCode.INVALID_STATUS_TRANSITION, "Invalid status transition from " + currentStatus + " to " + newStatus);
+    }
+  }
+
+  private boolean isValidPromoCode(String promoCode) {
+    return PROMO_CODE_PATTERN.matcher(promoCode).matches();
+  }
+
+  private Double roundToTwoDecimals(Double value) {
+    if (value == null)
+      return 0.0;
+    return new BigDecimal(value)
+        .setScale(2, RoundingMode.HALF_UP)
+        .doubleValue();
+  }
+
+  public Order getOrderById(Long id) {
+    return orderRepository.findByIdInPartition(id)
+        .orElseThrow(() -> new BusinessRuleViolationException(ErrorCode.ORDER_NOT_FOUND, "Order not found"));
+  }
+}
@@ -0,0 +1,55 @@
+package com.example.smartshop.service;
+
+import com.example.smartshop.event.OrderChangedEvent;
+import com.example.smartshop.repository.OrderSummaryRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Tient à jour le modèle de lecture order_summary.
+ *
+ * Les lignes sont recalculées dans la transaction qui a modifié les commandes, juste
+ * avant sa validation : la commande et son résumé sont validés (ou annulés) ensemble.
+ * Le recalcul est ensembliste (DELETE puis INSERT ... SELECT), quel que soit le nombre
+ * de commandes concernées (commandes en lot).
+ */
+@Component
+public class OrderSummaryProjector {
+
+  // Borne la taille des listes IN (...)
+  private static final int CHUNK_SIZE = 1000;
+
+  private final OrderSummaryRepository orderSummaryRepository;
+  private final TransactionTemplate transactionTemplate;
+
+  public OrderSummaryProjector(OrderSummaryRepository orderSummaryRepository,
+      TransactionTemplate transactionTemplate) {
+    this.orderSummaryRepository = orderSummaryRepository;
+    this.transactionTemplate = transactionTemplate;
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+  public void onOrderChanged(OrderChangedEvent event) {
+    refresh(event.getOrderIds());
+  }
+
+  /**
+   * Recalcule les résumés des commandes données (rejoint la transaction en cours s'il y en a une)
+   */
+  public void refresh(List<Long> orderIds) {
+    if (orderIds.isEmpty()) {
+      return;
+    }
+    transactionTemplate.executeWithoutResult(status -> {
+      for (int from = 0; from < orderIds.size(); from += CHUNK_SIZE) {
+        List<Long> chunk = orderIds.subList(from, Math.min(from + CHUNK_SIZE, orderIds.size()));
+        orderSummaryRepository.deleteByOrderIds(chunk);
+        orderSummaryRepository.insertFromOrders(chunk);
+      }
+    });
+  }
+}
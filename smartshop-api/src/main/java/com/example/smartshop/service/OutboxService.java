@@ -0,0 +1,53 @@
+package com.example.smartshop.service;
+
+import com.example.smartshop.entity.OutboxEvent;
+import com.example.smartshop.entity.OutboxEventType;
+import com.example.smartshop.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Écrit les événements destinés aux systèmes aval dans la table outbox_events.
+ *
+ * L'écriture se fait obligatoirement dans la transaction métier appelante : l'événement
+ * n'existe que si la modification est validée. La livraison est assurée par OutboxRelay.
+ */
+@Service
+public class OutboxService {
+
+  public static final String AGGREGATE_ORDER = "ORDER";
+  public static final String AGGREGATE_PAYMENT = "PAYMENT";
+
+  private final OutboxEventRepository outboxEventRepository;
+  private final ObjectMapper objectMapper;
+
+  public OutboxService(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+    this.outboxEventRepository = outboxEventRepository;
+    this.objectMapper = objectMapper;
+  }
+
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void append(OutboxEventType type, String aggregateType, Long aggregateId, Object payload) {
+    String json;
+    try {
+      json = objectMapper.writeValueAsString(payload);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Unable to serialize outbox payload for " + type, e);
+    }
+
+    LocalDateTime now = LocalDateTime.now();
+    outboxEventRepository.save(OutboxEvent.builder()
+        .eventType(type)
+        .aggregateType(aggregateType)
+        .aggregateId(aggregateId)
+        .payload(json)
+        .createdAt(now)
+        .availableAt(now)
+        .build());
+  }
+}
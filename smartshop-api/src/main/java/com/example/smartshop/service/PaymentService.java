@@ -0,0 +1,501 @@
+package com.example.smartshop.service;
+
+import com.example.smartshop.dto.BulkPaymentStatusResultDTO;
+import com.example.smartshop.dto.PaymentRequestDTO;
+import com.example.smartshop.dto.PaymentResponseDTO;
+import com.example.smartshop.dto.PaymentStatusUpdateDTO;
+import com.example.smartshop.entity.*;
+import com.example.smartshop.event.OrderChangedEvent;
+import com.example.smartshop.event.PaymentStatusChangedEvent;
+import com.example.smartshop.repository.OrderRepository;
+import com.example.smartshop.repository.PaymentRepository;
+import com.example.smartshop.mapper.PaymentMapper;
+import com.example.smartshop.exception.BusinessRuleViolationException;
+import com.example.smartshop.exception.ErrorCode;
+import com.example.smartshop.jfr.PaymentOperationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Multi-method payment service for SmartShop
+ * 
+ * Supports:
+ * - CASH payments: max 20,000 DH per payment (Article 193 CGI)
+ * - CHEQUE payments: can be deferred with due date
+ * - TRANSFER payments: immediate or deferred
+ * 
+ * Fractional payments: orders can be paid in multiple installments
+ * Sequential numbering: each payment has a sequence number for invoicing
+ */
+@Service
+@Transactional
+public class PaymentService {
+
+  private static final Double CASH_LEGAL_LIMIT = 20000.0; // Article 193 CGI
+  private static final Double EPSILON = 0.01; // For double comparison
+
+  private final PaymentRepository paymentRepository;
+  private final OrderRepository orderRepository;
+  private final PaymentMapper paymentMapper;
+  private final ApplicationEventPublisher eventPublisher;
+  private final OutboxService outboxService;
+
+  public PaymentService(PaymentRepository paymentRepository, OrderRepository orderRepository,
+      PaymentMapper paymentMapper, ApplicationEventPublisher eventPublisher, OutboxService outboxService) {
+    this.paymentRepository = paymentRepository;
+    this.orderRepository = orderRepository;
+    this.paymentMapper = paymentMapper;
+    this.eventPublisher = eventPublisher;
+    this.outboxService = outboxService;
+  }
+
+  /**
+   * Add a new payment to an order
+   * 
+   * Validations:
+   * - Order must exist and not be finalized (CONFIRMED/REJECTED/CANCELED)
+   * - Payment method specific validations
+   * - CASH limit: max 20,000 DH per payment (Article 193 CGI)
+   * - Cannot exceed remaining amount
+   * - Required fields must be provided based on payment method
+   * 
+   * @param dto Payment request DTO
+   * @return PaymentResponseDTO with updated remaining amount
+   */
+  public PaymentResponseDTO addPayment(PaymentRequestDTO dto) {
+    PaymentOperationEvent event = new PaymentOperationEvent(PaymentOperationEvent.ADD);
+    event.setOrderId(dto.getOrderId());
+    event.begin();
+    try {
+      PaymentResponseDTO payment = doAddPayment(dto);
+      event.succeeded(payment);
+      return payment;
+    } finally {
+      event.commit();
+    }
+  }
+
+  private PaymentResponseDTO doAddPayment(PaymentRequestDTO dto) {
+    // Locked like the reaper's FOR UPDATE SKIP LOCKED: an order is never paid and expired at once
+    Order order = orderRepository.findByIdInPartitionForUpdate(dto.getOrderId())
+        .orElseThrow(() -> new BusinessRuleViolationException(ErrorCode.ORDER_NOT_FOUND, "Order not found"));
+
+
+    if (order.getStatus() != OrderStatus.PENDING && order.getStatus() != OrderStatus.REJECTED) {
+      throw new BusinessRuleViolationException(ErrorCode.ORDER_NOT_PAYABLE, "Cannot add payment to order with status: " + order.getStatus());
+    }
+
+  
+    Double remainingAmount = calculateRemainingAmount(order);
+
+  
+    if (dto.getAmount() > remainingAmount + EPSILON) {
+      throw new BusinessRuleViolationException(ErrorCode.PAYMENT_EXCEEDS_REMAINING,
+          "Payment amount (" + dto.getAmount() + ") exceeds remaining amount (" + remainingAmount + ")");
+    }
+
+ 
+    validatePaymentMethodRequirements(dto);
+
+    //  CASH exceed legal limit
+    if (dto.getPaymentMethod() == PaymentMethod.CASH) {
+      if (dto.getAmount() > CASH_LEGAL_LIMIT) {
+        throw new BusinessRuleViolationException(ErrorCode.CASH_LIMIT_EXCEEDED,
+            "Cash payment (" + dto.getAmount() + ") exceeds legal limit of " + CASH_LEGAL_LIMIT
+                + " DH (Article 193 CGI)");
+      }
+    }
+
+  
+    Payment payment = paymentMapper.toEntity(dto, order);
+
+  
+    if (dto.getPaymentMethod() == PaymentMethod.CASH) {
+      payment.setStatus(PaymentStatus.ENCAISSE);
+    } else {
+      payment.setStatus(PaymentStatus.EN_ATTENTE);
+    }
+
+    payment.setSequenceNumber(generateSequenceNumber(order));
+
+    // Save payment
+    payment = paymentRepository.save(payment);
+
+  
+    Double newRemainingAmount = calculateRemainingAmount(order);
+
+  
+    order.setRemainingAmount(newRemainingAmount);
+    orderRepository.save(order);
+    eventPublisher.publishEvent(OrderChangedEvent.of(order.getId()));
+    eventPublisher.publishEvent(new PaymentStatusChangedEvent(payment.getId(), order.getId(),
+        order.getClient().getId(), null, payment.getStatus(), newRemainingAmount));
+
+    PaymentResponseDTO response = paymentMapper.toResponseDTO(payment, newRemainingAmount);
+    outboxService.append(OutboxEventType.PAYMENT_ADDED, OutboxService.AGGREGATE_PAYMENT, payment.getId(), response);
+    return response;
+  }
+
+  /**
+   * Update payment status (EN_ATTENTE → ENCAISSE / REJETÉ)
+   * 
+   * When a payment is marked as ENCAISSE, the order's remainingAmount is
+   * recalculated
+   * If remainingAmount becomes 0, the order can be confirmed
+   * 
+   * @param paymentId Payment ID
+   * @param newStatus New status
+   * @return Updated PaymentResponseDTO
+   */
+  public PaymentResponseDTO updatePaymentStatus(Long paymentId, PaymentStatus newStatus) {
+    PaymentOperationEvent event = new PaymentOperationEvent(PaymentOperationEvent.UPDATE_STATUS);
+    event.setPaymentId(paymentId);
+    event.begin();
+    try {
+      PaymentResponseDTO payment = doUpdatePaymentStatus(paymentId, newStatus);
+      event.succeeded(payment);
+      return payment;
+    } finally {
+      event.commit();
+    }
+  }
+
+  private PaymentResponseDTO doUpdatePaymentStatus(Long paymentId, PaymentStatus newStatus) {
+    Payment payment = paymentRepository.findById(paymentId)
+        .orElseThrow(() -> new BusinessRuleViolationException(ErrorCode.PAYMENT_NOT_FOUND, "Payment not found"));
+
+    // Validate status transition
+    PaymentStatus previousStatus = payment.getStatus();
+    validateStatusTransition(previousStatus, newStatus);
+
+    payment.setStatus(newStatus);
+    payment = paymentRepository.save(payment);
+
+    Order order = payment.getOrder();
+    Double remainingAmount = calculateRemainingAmount(order);
+    eventPublisher.publishEvent(OrderChangedEvent.of(order.getId()));
+    eventPublisher.publishEvent(new PaymentStatusChangedEvent(payment.getId(), order.getId(),
+        order.getClient().getId(), previousStatus, newStatus, remainingAmount));
+
+    PaymentResponseDTO response = paymentMapper.toResponseDTO(payment, remainingAmount);
+    outboxService.append(OutboxEventType.PAYMENT_STATUS_CHANGED, OutboxService.AGGREGATE_PAYMENT, payment.getId(),
+        response);
+    return response;
+  }
+
+  /**
+   * Update the status of several payments (cheques collected, transfers rejected...)
+   * 
+   * Each change is validated like updatePaymentStatus; an invalid change is reported in
+   * its result without blocking the others. The affected orders are locked first, in id
+   * order, like addPayment does; valid changes are written as one JDBC batch, then the
+   * remaining amount of every affected order is recomputed with one grouped query.
+   * 
+   * @param updates Status changes, in request order
+   * @return One result per change (UPDATED or REJECTED), in request order
+   */
+  public List<BulkPaymentStatusResultDTO> updatePaymentStatuses(List<PaymentStatusUpdateDTO> updates) {
+    Set<Long> paymentIds = updates.stream()
+        .map(PaymentStatusUpdateDTO::getPaymentId)
+        .collect(Collectors.toSet());
+    List<PaymentRepository.PaymentOrderKey> keys = paymentRepository.findOrderKeysByIds(paymentIds);
+    Map<Long, Payment> payments = new HashMap<>();
+    LocalDateTime createdFrom = null;
+    LocalDateTime createdTo = null;
+    if (!keys.isEmpty()) {
+      // Partitions des mois concernés seulement
+      createdFrom = keys.stream().map(PaymentRepository.PaymentOrderKey::getOrderCreatedAt)
+          .min(Comparator.naturalOrder()).orElseThrow();
+      createdTo = keys.stream().map(PaymentRepository.PaymentOrderKey::getOrderCreatedAt)
+          .max(Comparator.naturalOrder()).orElseThrow();
+      // Commandes verrouillées avant leurs paiements, comme addPayment : un paiement ajouté
+      // en parallèle est validé avant le recalcul des montants restants
+      orderRepository.findAllByIdCreatedBetweenForUpdate(keys.stream()
+          .map(PaymentRepository.PaymentOrderKey::getOrderId)
+          .collect(Collectors.toSet()), createdFrom, createdTo);
+      paymentRepository.findAllByIdForUpdate(paymentIds, createdFrom, createdTo)
+          .forEach(payment -> payments.put(payment.getId(), payment));
+    }
+
+    BulkPaymentStatusResultDTO[] results = new BulkPaymentStatusResultDTO[updates.size()];
+    List<AcceptedStatusChange> accepted = new ArrayList<>();
+    Set<Long> seen = new HashSet<>();
+    for (int i = 0; i < updates.size(); i++) {
+      PaymentStatusUpdateDTO update = updates.get(i);
+      Payment payment = payments.get(update.getPaymentId());
+      try {
+        if (payment == null) {
+          throw new BusinessRuleViolationException(ErrorCode.PAYMENT_NOT_FOUND, "Payment not found");
+        }
+        if (!seen.add(payment.getId())) {
+          throw new BusinessRuleViolationException(ErrorCode.INVALID_STATUS_TRANSITION,
+              "Payment appears more than once in the batch");
+        }
+        validateStatusTransition(payment.getStatus(), update.getStatus());
+      } catch (BusinessRuleViolationException e) {
+        results[i] = BulkPaymentStatusResultDTO.builder()
+            .index(i)
+            .paymentId(update.getPaymentId())
+            .result(BulkPaymentStatusResultDTO.REJECTED)
+            .code(e.getErrorCode().name())
+            .reason(e.getMessage())
+            .build();
+        continue;
+      }
+      accepted.add(new AcceptedStatusChange(i, payment, payment.getStatus()));
+      payment.setStatus(update.getStatus());
+    }
+    if (accepted.isEmpty()) {
+      return Arrays.asList(results);
+    }
+
+    // Un seul UPDATE payments, exécuté en batch JDBC (hibernate.jdbc.batch_size)
+    paymentRepository.flush();
+
+    Map<Long, Order> orders = new LinkedHashMap<>();
+    accepted.forEach(change -> orders.putIfAbsent(change.payment().getOrder().getId(), change.payment().getOrder()));
+    Map<Long, Double> paidByOrder = paymentRepository.sumEncaishedByOrderIds(orders.keySet(), createdFrom, createdTo)
+        .stream()
+        .collect(Collectors.toMap(PaymentRepository.OrderPaidAmount::getOrderId,
+            PaymentRepository.OrderPaidAmount::getPaidAmount));
+    orders.forEach((orderId, order) ->
+        order.setRemainingAmount(roundToTwoDecimals(order.getTotal() - paidByOrder.getOrDefault(orderId, 0.0))));
+    eventPublisher.publishEvent(new OrderChangedEvent(orders.keySet()));
+
+    for (AcceptedStatusChange change : accepted) {
+      Payment payment = change.payment();
+      Order order = payment.getOrder();
+      Double remainingAmount = order.getRemainingAmount();
+      eventPublisher.publishEvent(new PaymentStatusChangedEvent(payment.getId(), order.getId(),
+          order.getClient().getId(), change.previousStatus(), payment.getStatus(), remainingAmount));
+      outboxService.append(OutboxEventType.PAYMENT_STATUS_CHANGED, OutboxService.AGGREGATE_PAYMENT, payment.getId(),
+          paymentMapper.toResponseDTO(payment, remainingAmount));
+      results[change.index()] = BulkPaymentStatusResultDTO.builder()
+          .index(change.index())
+          .paymentId(payment.getId())
+          .result(BulkPaymentStatusResultDTO.UPDATED)
+          .orderId(order.getId())
+          .previousStatus(change.previousStatus())
+          .status(payment.getStatus())
+          .remainingAmount(remainingAmount)
+          .build();
+    }
+    return Arrays.asList(results);
+  }
+
+  /**
+   * Get payment details by payment ID
+   * 
+   * @param paymentId Payment ID
+   * @return PaymentResponseDTO
+   */
+  @Transactional(readOnly = true)
+  public PaymentResponseDTO getPaymentById(Long paymentId) {
+    Payment payment = paymentRepository.findById(paymentId)
+        .orElseThrow(() -> new BusinessRuleViolationException(ErrorCode.PAYMENT_NOT_FOUND, "Payment not found"));
+
+    Double remainingAmount = calculateRemainingAmount(payment.getOrder());
+    return paymentMapper.toResponseDTO(payment, remainingAmount);
+  }
+
+  /**
+   * Get all payments for an order
+   * 
+   * @param orderId Order ID
+   * @return List of PaymentResponseDTO
+   */
+  @Transactional(readOnly = true)
+  public List<PaymentResponseDTO> getPaymentsByOrderId(Long orderId) {
+    Order order = orderRepository.findByIdInPartition(orderId)
+        .orElseThrow(() -> new BusinessRuleViolationException(ErrorCode.ORDER_NOT_FOUND, "Order not found"));
+
+    List<Payment> payments = paymentRepository.findByOrderId(orderId, order.getCreatedAt());
+    Double remainingAmount = calculateRemainingAmount(order);
+
+    return payments.stream()
+        .map(p -> paymentMapper.toResponseDTO(p, remainingAmount))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Get all payments for an order with pagination
+   * 
+   * @param orderId  Order ID
+   * @param pageable Pagination info
+   * @return Page of PaymentResponseDTO
+   */
+  @Transactional(readOnly = true)
+  public Page<PaymentResponseDTO> getPaymentsByOrderIdPaginated(Long orderId, Pageable pageable) {
+    Order order = orderRepository.findByIdInPartition(orderId)
+        .orElseThrow(() -> new BusinessRuleViolationException(ErrorCode.ORDER_NOT_FOUND, "Order not found"));
+
+    Page<Payment> payments = paymentRepository.findByOrderIdPageable(orderId, order.getCreatedAt(), pageable);
+    Double remainingAmount = calculateRemainingAmount(order);
+
+    return payments.map(p -> paymentMapper.toResponseDTO(p, remainingAmount));
+  }
+
+  /**
+   * Get payments by status
+   * 
+   * @param status   Payment status
+   * @param pageable Pagination info
+   * @return Page of PaymentResponseDTO
+   */
+  @Transactional(readOnly = true)
+  public Page<PaymentResponseDTO> getPaymentsByStatus(PaymentStatus status, Pageable pageable) {
+    Page<Payment> payments = paymentRepository.findByStatus(status, pageable);
+    return payments.map(p -> paymentMapper.toResponseDTO(p, calculateRemainingAmount(p.getOrder())));
+  }
+
+  /**
+   * Get payments by method
+   * 
+   * @param method   Payment method
+   * @param pageable Pagination info
+   * @return Page of PaymentResponseDTO
+   */
+  @Transactional(readOnly = true)
+  public Page<PaymentResponseDTO> getPaymentsByMethod(PaymentMethod method, Pageable pageable) {
+    Page<Payment> payments = paymentRepository.findByMethod(method, pageable);
+    return payments.map(p -> paymentMapper.toResponseDTO(p, calculateRemainingAmount(p.getOrder())));
+  }
+
+  /**
+   * Calculate the remaining amount for an order
+   * 
+   * Formula: remainingAmount = order.total - sum(ENCAISSÉ payments)
+   * 
+   * @param order The order
+   * @return Remaining amount to be paid
+   */
+  public Double calculateRemainingAmount(Order order) {
+    List<Payment> encaishedPayments = paymentRepository.findEncaishedPaymentsByOrderId(order.getId(), order.getCreatedAt());
+    Double totalPaid = encaishedPayments.stream()
+        .mapToDouble(Payment::getAmount)
+        .sum();
+    return roundToTwoDecimals(order.getTotal() - totalPaid);
+  }
+
+  /**
+   * Check if an order is fully paid
+   * 
+   * @param orderId Order ID
+   * @return true if remainingAmount ≈ 0
+   */
+  @Transactional(readOnly = true)
+  public Boolean isFullyPaid(Long orderId) {
+    Order order = orderRepository.findByIdInPartition(orderId)
+        .orElseThrow(() -> new BusinessRuleViolationException(ErrorCode.ORDER_NOT_FOUND, "Order not found"));
+    Double remaining = calculateRemainingAmount(order);
+    return remaining < EPSILON;
+  }
+
+  /**
+   * Generate the next sequence number for a payment within an order
+   * 
+   * @param order Order
+   * @return Next sequence number (1-based)
+   */
+  private Integer generateSequenceNumber(Order order) {
+    Integer maxSeq = paymentRepository.findMaxSequenceNumberByOrderId(order.getId(), order.getCreatedAt());
+    return maxSeq + 1;
+  }
+
+  /**
+   * Validate payment method specific requirements
+   * 
+   * - CASH: no required fields (receiptNumber optional)
+   * - CHEQUE: requires checkNumber, checkBank, checkDueDate
+   * - TRANSFER: requires transferReference, transferBank
+   * 
+   * @param dto Payment request DTO
+   */
+  private void validatePaymentMethodRequirements(PaymentRequestDTO dto) {
+    switch (dto.getPaymentMethod()) {
+      case CASH:
+        // CASH: receiptNumber is optional
+        break;
+
+      case CHEQUE:
+        if (dto.getCheckNumber() == null || dto.getCheckNumber().isEmpty()) {
+          throw new BusinessRuleViolationException(ErrorCode.MISSING_PAYMENT_DETAILS, "Check number is required for CHEQUE payment");
+        }
+        if (dto.getCheckBank() == null || dto.getCheckBank().isEmpty()) {
+          throw new BusinessRuleViolationException(ErrorCode.MISSING_PAYMENT_DETAILS, "Check bank is required for CHEQUE payment");
+        }
+        if (dto.getCheckDueDate() == null) {
+          throw new BusinessRuleViolationException(ErrorCode.MISSING_PAYMENT_DETAILS, "Check due date is required for CHEQUE payment");
+        }
+        break;
+
+      case TRANSFER:
+        if (dto.getTransferReference() == null || dto.getTransferReference().isEmpty()) {
+          throw new BusinessRuleViolationException(ErrorCode.MISSING_PAYMENT_DETAILS, "Transfer reference is required for TRANSFER payment");
+        }
+        if (dto.getTransferBank() == null || dto.getTransferBank().isEmpty()) {
+          throw new BusinessRuleViolationException(ErrorCode.MISSING_PAYMENT_DETAILS, "Transfer bank is required for TRANSFER payment");
+        }
+        break;
+
+      default:
+        throw new BusinessRuleViolationException(ErrorCode.MISSING_PAYMENT_DETAILS, "Unknown payment method: " + dto.getPaymentMethod());
+    }
+  }
+
+  /**
+   * Validate payment status transitions
+   * 
+   * Valid transitions:
+   * - EN_ATTENTE → ENCAISSÉ (payment collected)
+   * - EN_ATTENTE → REJETÉ (payment rejected)
+   * 
+   * @param currentStatus Current status
+   * @param newStatus     New status
+   */
+  private void validateStatusTransition(PaymentStatus currentStatus, PaymentStatus newStatus) {
+    if (currentStatus == newStatus) {
+      throw new BusinessRuleViolationException(ErrorCode.INVALID_STATUS_TRANSITION, "Payment is already in " + newStatus + " status");
+    }
+
+    if (currentStatus == PaymentStatus.EN_ATTENTE) {
+      if (newStatus == PaymentStatus.ENCAISSE || newStatus == PaymentStatus.REJETÉ) {
+        return; // Valid transition
+      }
+    } else if (currentStatus == PaymentStatus.ENCAISSE || currentStatus == PaymentStatus.REJETÉ) {
+      throw new BusinessRuleViolationException(ErrorCode.INVALID_STATUS_TRANSITION, "Cannot transition from " + currentStatus + " to " + newStatus);
+    }
+
+    throw new BusinessRuleViolationException(ErrorCode.INVALID_STATUS_TRANSITION, "Invalid status transition from " + currentStatus + " to " + newStatus);
+  }
+
+  private record AcceptedStatusChange(int index, Payment payment, PaymentStatus previousStatus) {
+  }
+
+  /**
+   * Round value to 2 decimal places
+   * 
+   * @param value Value to round
+   * @return Rounded value
+   */
+  private Double roundToTwoDecimals(Double value) {
+    if (value == null)
+      return 0.0;
+    return Math.round(value * 100.0) / 100.0;
+  }
+}
@@ -0,0 +1,330 @@
+package com.example.smartshop.service;
+
+import com.example.smartshop.dto.ProductImportErrorDTO;
+import com.example.smartshop.dto.ProductImportReportDTO;
+import com.example.smartshop.entity.Product;
+import com.example.smartshop.exception.BusinessRuleViolationException;
+import com.example.smartshop.exception.ErrorCode;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Import en masse du catalogue depuis les exports ERP (CSV ou NDJSON).
+ *
+ * Le fichier est lu ligne par ligne, jamais chargé entièrement en mémoire. Les lignes
+ * valides sont écrites par lots avec INSERT ... ON CONFLICT (sku) DO UPDATE en batch
+ * JDBC, une transaction par lot. Les lignes invalides sont rapportées avec leur numéro.
+ * Le cache de second niveau des produits est vidé une seule fois, en fin d'import.
+ */
+@Slf4j
+@Service
+public class ProductImportService {
+
+  public enum Format {
+    CSV, NDJSON;
+
+    public static Format fromContentType(String contentType) {
+      if (contentType != null) {
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        if ("csv".equalsIgnoreCase(mediaType.getSubtype())) {
+          return CSV;
+        }
+        if ("x-ndjson".equalsIgnoreCase(mediaType.getSubtype()) || "ndjson".equalsIgnoreCase(mediaType.getSubtype())) {
+          return NDJSON;
+        }
+      }
+      throw new BusinessRuleViolationException(ErrorCode.BUSINESS_RULE_VIOLATION,
+          "Unsupported import format, expected text/csv or application/x-ndjson");
+    }
+  }
+
+  static final String UPSERT_SQL =
+      "INSERT INTO products (sku, name, price, stock, deleted) VALUES (?, ?, ?, ?, false) " +
+      "ON CONFLICT (sku) DO UPDATE SET name = EXCLUDED.name, price = EXCLUDED.price, " +
+      "stock = EXCLUDED.stock, deleted = false";
+
+  private static final List<String> CSV_COLUMNS = List.of("sku", "name", "price", "stock");
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final EntityManagerFactory entityManagerFactory;
+  private final ObjectMapper objectMapper;
+  private final int batchSize;
+  private final int maxReportedErrors;
+
+  public ProductImportService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+      EntityManagerFactory entityManagerFactory, ObjectMapper objectMapper,
+      @Value("${smartshop.products.import.batch-size:1000}") int batchSize,
+      @Value("${smartshop.products.import.max-reported-errors:1000}") int maxReportedErrors) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = transactionTemplate;
+    this.entityManagerFactory = entityManagerFactory;
+    this.objectMapper = objectMapper;
+    this.batchSize = batchSize;
+    this.maxReportedErrors = maxReportedErrors;
+  }
+
+  public ProductImportReportDTO importProducts(InputStream input, Format format) {
+    long start = System.nanoTime();
+    ImportState state = new ImportState();
+
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+      Map<String, Integer> csvHeader = null;
+      String line;
+      long lineNumber = 0;
+      while ((line = reader.readLine()) != null) {
+        lineNumber++;
+        if (lineNumber == 1 && !line.isEmpty() && line.charAt(0) == '\uFEFF') {
+          line = line.substring(1);
+        }
+        if (line.isBlank()) {
+          continue;
+        }
+        if (format == Format.CSV && csvHeader == null) {
+          csvHeader = parseCsvHeader(line);
+          continue;
+        }
+
+        state.processed++;
+        try {
+          ImportRow row = format == Format.CSV
+              ? parseCsvRow(lineNumber, line, csvHeader)
+              : parseJsonRow(lineNumber, line);
+          // ON CONFLICT refuse deux fois la même clé dans un lot : la ligne la plus récente passe après
+          if (state.pending.containsKey(row.sku())) {
+            flush(state);
+          }
+          state.pending.put(row.sku(), row);
+          if (state.pending.size() >= batchSize) {
+            flush(state);
+          }
+        } catch (RowException e) {
+          state.reject(lineNumber, e.sku, e.getMessage());
+        }
+      }
+      flush(state);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Unable to read import file", e);
+    } finally {
+      // Les lignes ont été écrites en SQL direct : les produits en cache sont périmés
+      if (state.upserted > 0) {
+        entityManagerFactory.getCache().evict(Product.class);
+      }
+    }
+
+    long durationMs = (System.nanoTime() - start) / 1_000_000;
+    log.info("Product import ({}) : {} rows, {} upserted, {} rejected in {} ms",
+        format, state.processed, state.upserted, state.rejected, durationMs);
+
+    return ProductImportReportDTO.builder()
+        .format(format.name())
+        .processed(state.processed)
+        .upserted(state.upserted)
+        .rejected(state.rejected)
+        .errors(state.errors)
+        .errorsTruncated(state.rejected > state.errors.size())
+        .durationMs(durationMs)
+        .build();
+  }
+
+  /**
+   * Écrit le lot en cours dans une transaction. Si le lot échoue, ses lignes sont
+   * rejouées une par une pour identifier celles refusées par la base.
+   */
+  private void flush(ImportState state) {
+    if (state.pending.isEmpty()) {
+      return;
+    }
+    List<ImportRow> rows = new ArrayList<>(state.pending.values());
+    state.pending.clear();
+
+    try {
+      transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPSERT_SQL, toArgs(rows)));
+      state.upserted += rows.size();
+    } catch (DataAccessException batchFailure) {
+      log.warn("Product import batch of {} rows failed, retrying row by row: {}", rows.size(),
+          batchFailure.getMessage());
+      for (ImportRow row : rows) {
+        try {
+          transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(UPSERT_SQL, toArgs(row)));
+          state.upserted++;
+        } catch (DataAccessException e) {
+          state.reject(row.line(), row.sku(), "Database error: " + e.getMostSpecificCause().getMessage());
+        }
+      }
+    }
+  }
+
+  private List<Object[]> toArgs(List<ImportRow> rows) {
+    List<Object[]> args = new ArrayList<>(rows.size());
+    for (ImportRow row : rows) {
+      args.add(toArgs(row));
+    }
+    return args;
+  }
+
+  private Object[] toArgs(ImportRow row) {
+    return new Object[] { row.sku(), row.name(), row.price(), row.stock() };
+  }
+
+  private Map<String, Integer> parseCsvHeader(String line) {
+    List<String> columns = splitCsv(line);
+    Map<String, Integer> header = new HashMap<>();
+    for (int i = 0; i < columns.size(); i++) {
+      header.put(columns.get(i).trim().toLowerCase(Locale.ROOT), i);
+    }
+    for (String column : CSV_COLUMNS) {
+      if (!header.containsKey(column)) {
+        throw new BusinessRuleViolationException(ErrorCode.BUSINESS_RULE_VIOLATION,
+            "CSV header must contain the columns " + CSV_COLUMNS);
+      }
+    }
+    return header;
+  }
+
+  private ImportRow parseCsvRow(long lineNumber, String line, Map<String, Integer> header) {
+    List<String> values = splitCsv(line);
+    String sku = column(values, header.get("sku"));
+    return validate(lineNumber, sku, column(values, header.get("name")),
+        column(values, header.get("price")), column(values, header.get("stock")));
+  }
+
+  private ImportRow parseJsonRow(long lineNumber, String line) {
+    JsonNode node;
+    try {
+      node = objectMapper.readTree(line);
+    } catch (JsonProcessingException e) {
+      throw new RowException(null, "Malformed JSON: " + e.getOriginalMessage());
+    }
+    if (!node.isObject()) {
+      throw new RowException(null, "Each line must be a JSON object");
+    }
+    return validate(lineNumber, text(node, "sku"), text(node, "name"), text(node, "price"), text(node, "stock"));
+  }
+
+  private ImportRow validate(long lineNumber, String sku, String name, String price, String stock) {
+    if (sku == null || sku.isBlank()) {
+      throw new RowException(null, "SKU is required");
+    }
+    sku = sku.trim();
+    if (sku.length() > 64) {
+      throw new RowException(sku, "SKU must not exceed 64 characters");
+    }
+    if (name == null || name.trim().length() < 3 || name.trim().length() > 100) {
+      throw new RowException(sku, "Name must be between 3 and 100 characters");
+    }
+
+    if (price == null || stock == null) {
+      throw new RowException(sku, "Price and stock are required");
+    }
+
+    double parsedPrice;
+    int parsedStock;
+    try {
+      parsedPrice = Double.parseDouble(price.trim());
+    } catch (NumberFormatException e) {
+      throw new RowException(sku, "Invalid price: " + price);
+    }
+    try {
+      parsedStock = Integer.parseInt(stock.trim());
+    } catch (NumberFormatException e) {
+      throw new RowException(sku, "Invalid stock: " + stock);
+    }
+    if (!(parsedPrice > 0) || Double.isInfinite(parsedPrice)) {
+      throw new RowException(sku, "Price must be positive");
+    }
+    if (parsedStock < 0) {
+      throw new RowException(sku, "Stock must not be negative");
+    }
+    return new ImportRow(lineNumber, sku, name.trim(), parsedPrice, parsedStock);
+  }
+
+  private String column(List<String> values, Integer index) {
+    return index < values.size() ? values.get(index) : null;
+  }
+
+  private String text(JsonNode node, String field) {
+    JsonNode value = node.get(field);
+    return value == null || value.isNull() ? null : value.asText();
+  }
+
+  /**
+   * Découpe une ligne CSV (séparateur virgule, champs entre guillemets, "" pour un guillemet)
+   */
+  static List<String> splitCsv(String line) {
+    List<String> values = new ArrayList<>();
+    StringBuilder current = new StringBuilder();
+    boolean quoted = false;
+    for (int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (quoted) {
+        if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+          current.append('"');
+          i++;
+        } else if (c == '"') {
+          quoted = false;
+        } else {
+          current.append(c);
+        }
+      } else if (c == '"') {
+        quoted = true;
+      } else if (c == ',') {
+        values.add(current.toString());
+        current.setLength(0);
+      } else {
+        current.append(c);
+      }
+    }
+    values.add(current.toString());
+    return values;
+  }
+
+  private record ImportRow(long line, String sku, String name, double price, int stock) {
+  }
+
+  private final class ImportState {
+    private final Map<String, ImportRow> pending = new LinkedHashMap<>();
+    private final List<ProductImportErrorDTO> errors = new ArrayList<>();
+    private long processed;
+    private long upserted;
+    private long rejected;
+
+    private void reject(long line, String sku, String message) {
+      rejected++;
+      if (errors.size() < maxReportedErrors) {
+        errors.add(ProductImportErrorDTO.builder().line(line).sku(sku).message(message).build());
+      }
+    }
+  }
+
+  private static final class RowException extends RuntimeException {
+    private final String sku;
+
+    private RowException(String sku, String message) {
+      super(message, null, false, false);
+      this.sku = sku;
+    }
+  }
+}
@@ -6,10 +6,13 @@ import com.example.smartshop.dto.ProductResponseDTO;
 import com.example.smartshop.dto.ProductFilterDTO;
 import com.example.smartshop.repository.ProductRepository;
 import com.example.smartshop.exception.BusinessRuleViolationException;
+import com.example.smartshop.exception.ErrorCode;
+import com.example.smartshop.jfr.StockDecrementEvent;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -24,6 +27,7 @@ public class ProductService {
 
   public ProductResponseDTO create(ProductRequestDTO dto) {
     Product product = Product.builder()
+        .sku(dto.getSku())
         .name(dto.getName())
         .price(dto.getPrice())
         .stock(dto.getStock())
@@ -34,18 +38,21 @@ public class ProductService {
     return toResponseDTO(savedProduct);
   }
 
+  @Transactional(readOnly = true)
   public ProductResponseDTO findById(Long id) {
     Product product = productRepository.findByIdAndDeletedFalse(id)
-        .orElseThrow(() -> new BusinessRuleViolationException("Product not found"));
+        .orElseThrow(() -> new BusinessRuleViolationException(ErrorCode.PRODUCT_NOT_FOUND, "Product not found"));
     return toResponseDTO(product);
   }
 
+  @Transactional(readOnly = true)
   public Page<ProductResponseDTO> findAll(int page, int size) {
     Pageable pageable = PageRequest.of(page, size);
     return productRepository.findByDeletedFalse(pageable)
         .map(this::toResponseDTO);
   }
 
+  @Transactional(readOnly = true)
   public Page<ProductResponseDTO> findByFilters(ProductFilterDTO filters) {
     int page = filters.getPage() != null ? filters.getPage() : 0;
     int size = filters.getSize() != null ? filters.getSize() : 10;
@@ -61,8 +68,11 @@ public class ProductService {
 
   public ProductResponseDTO update(Long id, ProductRequestDTO dto) {
     Product product = productRepository.findByIdAndDeletedFalse(id)
-        .orElseThrow(() -> new BusinessRuleViolationException("Product not found"));
+        .orElseThrow(() -> new BusinessRuleViolationException(ErrorCode.PRODUCT_NOT_FOUND, "Product not found"));
 
+    if (dto.getSku() != null) {
+      product.setSku(dto.getSku());
+    }
     product.setName(dto.getName());
     product.setPrice(dto.getPrice());
     product.setStock(dto.getStock());
@@ -73,7 +83,7 @@ public class ProductService {
 
   public void softDelete(Long id) {
     Product product = productRepository.findById(id)
-        .orElseThrow(() -> new BusinessRuleViolationException("Product not found"));
+        .orElseThrow(() -> new BusinessRuleViolationException(ErrorCode.PRODUCT_NOT_FOUND, "Product not found"));
 
     product.setDeleted(true);
     productRepository.save(product);
@@ -81,19 +91,26 @@ public class ProductService {
 
   public Product getProductById(Long id) {
     return productRepository.findById(id)
-        .orElseThrow(() -> new BusinessRuleViolationException("Product not found"));
+        .orElseThrow(() -> new BusinessRuleViolationException(ErrorCode.PRODUCT_NOT_FOUND, "Product not found"));
   }
 
   public void decrementStock(Long productId, Integer quantity) {
-    Product product = productRepository.findById(productId)
-        .orElseThrow(() -> new BusinessRuleViolationException("Product not found"));
-
-    if (product.getStock() < quantity) {
-      throw new BusinessRuleViolationException("Insufficient stock for product: " + product.getName());
+    StockDecrementEvent event = new StockDecrementEvent(productId, quantity);
+    event.begin();
+    try {
+      Product product = productRepository.findById(productId)
+          .orElseThrow(() -> new BusinessRuleViolationException(ErrorCode.PRODUCT_NOT_FOUND, "Product not found"));
+
+      if (product.getStock() < quantity) {
+        throw new BusinessRuleViolationException(ErrorCode.INSUFFICIENT_STOCK, "Insufficient stock for product: " + product.getName());
+      }
+
+      product.setStock(product.getStock() - quantity);
+      productRepository.save(product);
+      event.succeeded(product.getStock());
+    } finally {
+      event.commit();
     }
-
-    product.setStock(product.getStock() - quantity);
-    productRepository.save(product);
   }
 
   private ProductResponseDTO toResponseDTO(Product product) {
@@ -103,6 +120,7 @@ public class ProductService {
 
     return ProductResponseDTO.builder()
         .id(product.getId())
+        .sku(product.getSku())
         .name(product.getName())
         .price(product.getPrice())
         .stock(product.getStock())
@@ -0,0 +1,116 @@
+package com.example.smartshop.service;
+
+import com.example.smartshop.dto.PromoCodeRequestDTO;
+import com.example.smartshop.dto.PromoCodeResponseDTO;
+import com.example.smartshop.entity.PromoCode;
+import com.example.smartshop.event.PromoCodesChangedEvent;
+import com.example.smartshop.exception.BusinessRuleViolationException;
+import com.example.smartshop.exception.ErrorCode;
+import com.example.smartshop.promo.PromoCampaign;
+import com.example.smartshop.promo.PromoCodeRegistry;
+import com.example.smartshop.repository.PromoCodeRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Administration des campagnes de codes promo. Chaque modification validée recharge
+ * l'index en mémoire (PromoCodeRegistry) utilisé par la création de commandes.
+ */
+@Service
+@Transactional
+public class PromoCodeService {
+
+  private final PromoCodeRepository promoCodeRepository;
+  private final PromoCodeRegistry promoCodeRegistry;
+  private final ApplicationEventPublisher eventPublisher;
+
+  public PromoCodeService(PromoCodeRepository promoCodeRepository, PromoCodeRegistry promoCodeRegistry,
+      ApplicationEventPublisher eventPublisher) {
+    this.promoCodeRepository = promoCodeRepository;
+    this.promoCodeRegistry = promoCodeRegistry;
+    this.eventPublisher = eventPublisher;
+  }
+
+  public PromoCodeResponseDTO create(PromoCodeRequestDTO dto) {
+    if (promoCodeRepository.findByCode(dto.getCode()).isPresent()) {
+      throw new BusinessRuleViolationException(ErrorCode.DUPLICATE_RESOURCE, "A promo code with this code already exists");
+    }
+    validateValidityWindow(dto);
+
+    PromoCode promoCode = PromoCode.builder()
+        .code(dto.getCode())
+        .discountPercentage(dto.getDiscountPercentage())
+        .validFrom(dto.getValidFrom())
+        .validUntil(dto.getValidUntil())
+        .maxUses(dto.getMaxUses())
+        .active(dto.getActive() == null || dto.getActive())
+        .build();
+
+    PromoCode saved = promoCodeRepository.save(promoCode);
+    eventPublisher.publishEvent(new PromoCodesChangedEvent());
+    return toResponseDTO(saved);
+  }
+
+  public PromoCodeResponseDTO update(Long id, PromoCodeRequestDTO dto) {
+    PromoCode promoCode = promoCodeRepository.findById(id)
+        .orElseThrow(() -> new BusinessRuleViolationException(ErrorCode.PROMO_CODE_NOT_FOUND, "Promo code not found"));
+
+    boolean codeTaken = promoCodeRepository.findByCode(dto.getCode())
+        .filter(other -> !other.getId().equals(id))
+        .isPresent();
+    if (codeTaken) {
+      throw new BusinessRuleViolationException(ErrorCode.DUPLICATE_RESOURCE, "A promo code with this code already exists");
+    }
+    validateValidityWindow(dto);
+
+    promoCode.setCode(dto.getCode());
+    promoCode.setDiscountPercentage(dto.getDiscountPercentage());
+    promoCode.setValidFrom(dto.getValidFrom());
+    promoCode.setValidUntil(dto.getValidUntil());
+    promoCode.setMaxUses(dto.getMaxUses());
+    if (dto.getActive() != null) {
+      promoCode.setActive(dto.getActive());
+    }
+
+    PromoCode saved = promoCodeRepository.save(promoCode);
+    eventPublisher.publishEvent(new PromoCodesChangedEvent());
+    return toResponseDTO(saved);
+  }
+
+  @Transactional(readOnly = true)
+  public List<PromoCodeResponseDTO> findAll() {
+    return promoCodeRepository.findAll().stream()
+        .sorted(Comparator.comparing(PromoCode::getCode))
+        .map(this::toResponseDTO)
+        .collect(Collectors.toList());
+  }
+
+  private void validateValidityWindow(PromoCodeRequestDTO dto) {
+    if (dto.getValidUntil() != null && !dto.getValidUntil().isAfter(dto.getValidFrom())) {
+      throw new BusinessRuleViolationException(ErrorCode.INVALID_PROMO_CODE, "validUntil must be after validFrom");
+    }
+  }
+
+  // Utilisations en temps réel (index en mémoire) plutôt que la dernière valeur reportée en base
+  private PromoCodeResponseDTO toResponseDTO(PromoCode promoCode) {
+    int usedCount = promoCodeRegistry.find(promoCode.getCode())
+        .filter(campaign -> campaign.getId().equals(promoCode.getId()))
+        .map(PromoCampaign::getUsed)
+        .orElse(promoCode.getUsedCount());
+    return PromoCodeResponseDTO.builder()
+        .id(promoCode.getId())
+        .code(promoCode.getCode())
+        .discountPercentage(promoCode.getDiscountPercentage())
+        .validFrom(promoCode.getValidFrom())
+        .validUntil(promoCode.getValidUntil())
+        .maxUses(promoCode.getMaxUses())
+        .usedCount(usedCount)
+        .active(promoCode.getActive())
+        .build();
+  }
+}
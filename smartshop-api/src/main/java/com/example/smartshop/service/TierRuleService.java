@@ -0,0 +1,83 @@
+package com.example.smartshop.service;
+
+import com.example.smartshop.dto.TierRuleDTO;
+import com.example.smartshop.entity.CustomerTier;
+import com.example.smartshop.entity.TierRule;
+import com.example.smartshop.event.TierRulesChangedEvent;
+import com.example.smartshop.exception.BusinessRuleViolationException;
+import com.example.smartshop.exception.ErrorCode;
+import com.example.smartshop.pricing.TierRuleEngine;
+import com.example.smartshop.pricing.TierRuleTable;
+import com.example.smartshop.repository.TierRuleRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Administration des règles de fidélité. Une modification n'est enregistrée que si
+ * l'ensemble des règles reste cohérent ; TierRuleEngine les recompile après validation.
+ */
+@Service
+@Transactional
+public class TierRuleService {
+
+  private final TierRuleRepository tierRuleRepository;
+  private final TierRuleEngine tierRuleEngine;
+  private final ApplicationEventPublisher eventPublisher;
+
+  public TierRuleService(TierRuleRepository tierRuleRepository, TierRuleEngine tierRuleEngine,
+      ApplicationEventPublisher eventPublisher) {
+    this.tierRuleRepository = tierRuleRepository;
+    this.tierRuleEngine = tierRuleEngine;
+    this.eventPublisher = eventPublisher;
+  }
+
+  // Règles appliquées (table compilée courante)
+  @Transactional(readOnly = true)
+  public List<TierRuleDTO> findAll() {
+    TierRuleTable table = tierRuleEngine.current();
+    return Arrays.stream(CustomerTier.values())
+        .map(tier -> TierRuleDTO.builder()
+            .tier(tier)
+            .minOrders(table.getMinOrders(tier))
+            .minSpent(table.getMinSpent(tier))
+            .minSubtotal(table.getMinSubtotal(tier))
+            .discountPercentage(table.getDiscountPercentage(tier))
+            .build())
+        .collect(Collectors.toList());
+  }
+
+  public TierRuleDTO update(CustomerTier tier, TierRuleDTO dto) {
+    // Cohérence vérifiée sur l'ensemble des règles : une modification concurrente d'un autre
+    // niveau attend la validation de celle-ci
+    Map<CustomerTier, TierRule> rules = tierRuleRepository.findAllForUpdate().stream()
+        .collect(Collectors.toMap(TierRule::getTier, Function.identity()));
+    TierRule rule = rules.computeIfAbsent(tier, key -> TierRule.builder().tier(key).build());
+    rule.setMinOrders(dto.getMinOrders());
+    rule.setMinSpent(dto.getMinSpent());
+    rule.setMinSubtotal(dto.getMinSubtotal());
+    rule.setDiscountPercentage(dto.getDiscountPercentage());
+
+    try {
+      TierRuleTable.compile(rules.values());
+    } catch (IllegalArgumentException e) {
+      throw new BusinessRuleViolationException(ErrorCode.INVALID_TIER_RULE, e.getMessage());
+    }
+
+    TierRule saved = tierRuleRepository.save(rule);
+    eventPublisher.publishEvent(new TierRulesChangedEvent());
+    return TierRuleDTO.builder()
+        .tier(saved.getTier())
+        .minOrders(saved.getMinOrders())
+        .minSpent(saved.getMinSpent())
+        .minSubtotal(saved.getMinSubtotal())
+        .discountPercentage(saved.getDiscountPercentage())
+        .build();
+  }
+}
@@ -6,6 +6,7 @@ import com.example.smartshop.dto.LogInDTO;
 import com.example.smartshop.entity.User;
 import com.example.smartshop.entity.UserRole;
 import com.example.smartshop.exception.BusinessRuleViolationException;
+import com.example.smartshop.exception.ErrorCode;
 import com.example.smartshop.mapper.UserMapper;
 import com.example.smartshop.repository.UserRepository;
 import org.springframework.stereotype.Service;
@@ -25,7 +26,7 @@ public class UserService {
   public User create(CreateUserDTO dto) {
     var existingUser = userRepository.findByUsername(dto.getUsername()).orElse(null);
     if (existingUser != null) {
-      throw new BusinessRuleViolationException("User already exists");
+      throw new BusinessRuleViolationException(ErrorCode.DUPLICATE_RESOURCE, "User already exists");
     }
 
     User user = userMapper.toEntity(dto);
@@ -39,11 +40,11 @@ public class UserService {
   public User logIn(LogInDTO dto) {
     User user = userRepository.findByUsername(dto.getUsername()).orElse(null);
     if (user == null) {
-      throw new BusinessRuleViolationException("Username or password is incorrect");
+      throw new BusinessRuleViolationException(ErrorCode.INVALID_CREDENTIALS, "Username or password is incorrect");
     }
 
     if (!passwordUtil.checkPassword(dto.getPassword(), user.getPassword())) {
-      throw new BusinessRuleViolationException("Username or password is incorrect");
+      throw new BusinessRuleViolationException(ErrorCode.INVALID_CREDENTIALS, "Username or password is incorrect");
     }
 
     return user;
@@ -0,0 +1,228 @@
+package com.example.smartshop.sse;
+
+import com.example.smartshop.config.ThreadModeExecutors;
+import com.example.smartshop.event.OrderStatusChangedEvent;
+import com.example.smartshop.event.PaymentStatusChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Diffuse aux clients connectés (GET /api/client/orders/stream) les changements de statut
+ * de leurs commandes et paiements, une fois la transaction validée.
+ *
+ * Chaque connexion a un tampon borné vidé par un pool d'envoi dédié (un thread virtuel
+ * par vidage si spring.threads.virtual.enabled, sinon smartshop.sse.sender-threads) : le
+ * thread qui valide la transaction ne bloque jamais sur un client lent. Un client dont le tampon déborde est
+ * déconnecté (il se reconnecte et recharge son historique). Un heartbeat périodique garde
+ * la connexion ouverte à travers les proxys et détecte les clients partis. Le nombre de
+ * connexions est plafonné par nœud et par client.
+ */
+@Component
+@Slf4j
+public class ClientEventHub {
+
+  private final Map<Long, Set<SseSubscriber>> subscribers = new ConcurrentHashMap<>();
+  private final AtomicInteger connections = new AtomicInteger();
+  private final ExecutorService senders;
+  private final int maxConnections;
+  private final int maxConnectionsPerClient;
+  private final int bufferSize;
+  private final long timeoutMs;
+
+  private final Counter sent;
+  private final Counter slowConsumers;
+  private final Counter rejected;
+
+  public ClientEventHub(MeterRegistry meterRegistry, ThreadModeExecutors executors,
+      @Value("${smartshop.sse.max-connections:2000}") int maxConnections,
+      @Value("${smartshop.sse.max-connections-per-client:3}") int maxConnectionsPerClient,
+      @Value("${smartshop.sse.buffer-size:64}") int bufferSize,
+      @Value("${smartshop.sse.timeout-ms:1800000}") long timeoutMs,
+      @Value("${smartshop.sse.sender-threads:2}") int senderThreads) {
+    this.maxConnections = maxConnections;
+    this.maxConnectionsPerClient = maxConnectionsPerClient;
+    this.bufferSize = bufferSize;
+    this.timeoutMs = timeoutMs;
+
+    this.senders = executors.newExecutor("sse-sender", senderThreads);
+
+    Gauge.builder("smartshop.sse.connections", connections, AtomicInteger::get)
+        .description("Connexions SSE ouvertes sur ce nœud")
+        .register(meterRegistry);
+    this.sent = Counter.builder("smartshop.sse.events")
+        .description("Événements SSE envoyés (heartbeats compris)")
+        .register(meterRegistry);
+    this.slowConsumers = Counter.builder("smartshop.sse.disconnects")
+        .description("Connexions fermées car le tampon du client était plein")
+        .tag("reason", "slow-consumer")
+        .register(meterRegistry);
+    this.rejected = Counter.builder("smartshop.sse.rejected")
+        .description("Connexions refusées (plafond atteint)")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Ouvre un flux pour le client
+   *
+   * @return vide si le plafond de connexions (nœud ou client) est atteint
+   */
+  public Optional<SseEmitter> subscribe(Long clientId) {
+    if (!reserveConnection()) {
+      rejected.increment();
+      return Optional.empty();
+    }
+
+    SseSubscriber subscriber = new SseSubscriber(clientId, new SseEmitter(timeoutMs), bufferSize);
+    boolean[] added = {false};
+    subscribers.compute(clientId, (id, current) -> {
+      Set<SseSubscriber> set = current != null ? current : ConcurrentHashMap.newKeySet();
+      if (set.size() < maxConnectionsPerClient) {
+        added[0] = set.add(subscriber);
+      }
+      return set.isEmpty() ? null : set;
+    });
+    if (!added[0]) {
+      connections.decrementAndGet();
+      rejected.increment();
+      return Optional.empty();
+    }
+
+    SseEmitter emitter = subscriber.emitter();
+    emitter.onCompletion(() -> unregister(subscriber));
+    emitter.onTimeout(() -> unregister(subscriber));
+    emitter.onError(error -> unregister(subscriber));
+    dispatch(subscriber, SseEmitter.event().comment("connected"));
+    return Optional.of(emitter);
+  }
+
+  public int getConnectionCount() {
+    return connections.get();
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+  public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+    publish(event.getClientId(), () -> SseEmitter.event()
+        .name("order-status")
+        .data(event, MediaType.APPLICATION_JSON));
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+  public void onPaymentStatusChanged(PaymentStatusChangedEvent event) {
+    publish(event.getClientId(), () -> SseEmitter.event()
+        .name("payment-status")
+        .data(event, MediaType.APPLICATION_JSON));
+  }
+
+  @Scheduled(fixedDelayString = "${smartshop.sse.heartbeat-ms:15000}")
+  public void heartbeat() {
+    for (Set<SseSubscriber> set : subscribers.values()) {
+      for (SseSubscriber subscriber : set) {
+        dispatch(subscriber, SseEmitter.event().comment("heartbeat"));
+      }
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    List<SseSubscriber> all = new ArrayList<>();
+    subscribers.values().forEach(all::addAll);
+    for (SseSubscriber subscriber : all) {
+      if (unregister(subscriber)) {
+        subscriber.emitter().complete();
+      }
+    }
+    senders.shutdownNow();
+  }
+
+  // Un SseEventBuilder ne peut être envoyé qu'une fois : un builder par connexion
+  private void publish(Long clientId, Supplier<SseEmitter.SseEventBuilder> event) {
+    Set<SseSubscriber> set = subscribers.get(clientId);
+    if (set == null) {
+      return;
+    }
+    for (SseSubscriber subscriber : set) {
+      dispatch(subscriber, event.get());
+    }
+  }
+
+  private void dispatch(SseSubscriber subscriber, SseEmitter.SseEventBuilder event) {
+    if (subscriber.offer(event)) {
+      scheduleDrain(subscriber);
+    } else if (unregister(subscriber)) {
+      // Tampon plein : le client ne suit pas, il se reconnectera
+      slowConsumers.increment();
+      log.warn("SSE: client {} disconnected, buffer of {} events full", subscriber.clientId(), bufferSize);
+      subscriber.emitter().complete();
+    }
+  }
+
+  private void scheduleDrain(SseSubscriber subscriber) {
+    if (!subscriber.tryStartDrain()) {
+      return;
+    }
+    try {
+      senders.execute(() -> drain(subscriber));
+    } catch (RejectedExecutionException e) {
+      subscriber.endDrain();
+    }
+  }
+
+  private void drain(SseSubscriber subscriber) {
+    try {
+      sent.increment(subscriber.drain());
+    } catch (IOException | IllegalStateException e) {
+      // Connexion fermée par le client : le conteneur notifie aussi onError
+      unregister(subscriber);
+    } finally {
+      subscriber.endDrain();
+    }
+    if (subscriber.hasPending()) {
+      scheduleDrain(subscriber);
+    }
+  }
+
+  private boolean reserveConnection() {
+    int current;
+    do {
+      current = connections.get();
+      if (current >= maxConnections) {
+        return false;
+      }
+    } while (!connections.compareAndSet(current, current + 1));
+    return true;
+  }
+
+  private boolean unregister(SseSubscriber subscriber) {
+    if (!subscriber.close()) {
+      return false;
+    }
+    connections.decrementAndGet();
+    subscribers.computeIfPresent(subscriber.clientId(), (id, set) -> {
+      set.remove(subscriber);
+      return set.isEmpty() ? null : set;
+    });
+    return true;
+  }
+}
@@ -0,0 +1,78 @@
+package com.example.smartshop.sse;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Connexion SSE d'un client : file d'envoi bornée, vidée par un seul thread à la fois
+ * (SseEmitter ne supporte pas les envois concurrents).
+ */
+final class SseSubscriber {
+
+  private final Long clientId;
+  private final SseEmitter emitter;
+  private final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+  private final AtomicBoolean draining = new AtomicBoolean();
+  private final AtomicBoolean closed = new AtomicBoolean();
+
+  SseSubscriber(Long clientId, SseEmitter emitter, int bufferSize) {
+    this.clientId = clientId;
+    this.emitter = emitter;
+    this.queue = new ArrayBlockingQueue<>(bufferSize);
+  }
+
+  Long clientId() {
+    return clientId;
+  }
+
+  SseEmitter emitter() {
+    return emitter;
+  }
+
+  /**
+   * @return false si le tampon est plein (client trop lent) ou la connexion fermée
+   */
+  boolean offer(SseEmitter.SseEventBuilder event) {
+    return !closed.get() && queue.offer(event);
+  }
+
+  boolean tryStartDrain() {
+    return draining.compareAndSet(false, true);
+  }
+
+  void endDrain() {
+    draining.set(false);
+  }
+
+  boolean hasPending() {
+    return !queue.isEmpty() && !closed.get();
+  }
+
+  /**
+   * @return nombre d'événements envoyés
+   */
+  int drain() throws IOException {
+    int count = 0;
+    SseEmitter.SseEventBuilder event;
+    while (!closed.get() && (event = queue.poll()) != null) {
+      emitter.send(event);
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * @return true au premier appel seulement
+   */
+  boolean close() {
+    if (!closed.compareAndSet(false, true)) {
+      return false;
+    }
+    queue.clear();
+    return true;
+  }
+}
@@ -0,0 +1,10 @@
+-- ============================================================================
+-- SmartShop - Index des commandes par statut et date (V10)
+-- ============================================================================
+-- PendingOrderReaper : commandes PENDING plus anciennes que le délai
+-- d'expiration, parcourues par date de création. Créé avec CONCURRENTLY (voir
+-- V10__pending_orders_index.sql.conf).
+-- ============================================================================
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_orders_status_created_at
+    ON orders (status, created_at);
@@ -0,0 +1,26 @@
+-- ============================================================================
+-- SmartShop - Historique des traitements planifiés (V11)
+-- ============================================================================
+-- Une ligne par exécution d'un traitement (JobRunner) : nœud qui a obtenu le
+-- verrou consultatif du traitement, durée, statut et nombre de lignes traitées.
+-- ============================================================================
+
+CREATE SEQUENCE job_executions_seq INCREMENT BY 50;
+
+CREATE TABLE job_executions (
+    id             BIGINT        PRIMARY KEY DEFAULT nextval('job_executions_seq'),
+    job_name       VARCHAR(50)   NOT NULL,
+    node           VARCHAR(255)  NOT NULL,
+    trigger_type   VARCHAR(20)   NOT NULL,
+    status         VARCHAR(20)   NOT NULL,
+    started_at     TIMESTAMP(6)  NOT NULL,
+    finished_at    TIMESTAMP(6),
+    rows_processed BIGINT,
+    error          VARCHAR(1000)
+);
+
+ALTER SEQUENCE job_executions_seq OWNED BY job_executions.id;
+
+-- Dernières exécutions d'un traitement (GET /api/admin/jobs)
+CREATE INDEX idx_job_executions_job_started_at
+    ON job_executions (job_name, started_at DESC);
@@ -0,0 +1,169 @@
+-- ============================================================================
+-- SmartShop - Partitionnement mensuel des commandes et paiements (V12)
+-- ============================================================================
+-- orders est partitionnée par mois de created_at. order_items et payments portent
+-- la date de création de leur commande (order_created_at) et sont partitionnées sur
+-- cette colonne : une commande, ses lignes et ses paiements sont dans le même mois,
+-- ce qui permet d'archiver un mois complet (OrderPartitionJob) en détachant ses
+-- trois partitions.
+--
+-- Les clés primaires incluent la clé de partitionnement (contrainte PostgreSQL) ;
+-- les ids restent uniques par séquence. Une partition DEFAULT par table reçoit les
+-- lignes hors des mois créés ; OrderPartitionJob crée les mois à venir.
+--
+-- Les données existantes sont recopiées dans une seule transaction : sur une base
+-- volumineuse, appliquer cette migration pendant une fenêtre de maintenance.
+-- ============================================================================
+
+-- Crée les partitions des trois tables pour `months` mois à partir de first_month ;
+-- renvoie le nombre de partitions créées (les mois existants sont ignorés)
+CREATE OR REPLACE FUNCTION create_order_partitions(first_month DATE, months INTEGER)
+RETURNS INTEGER
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    month_start DATE;
+    month_end   DATE;
+    suffix      TEXT;
+    parent      TEXT;
+    created     INTEGER := 0;
+BEGIN
+    FOR i IN 0 .. months - 1 LOOP
+        month_start := (date_trunc('month', first_month) + make_interval(months => i))::date;
+        month_end := (month_start + INTERVAL '1 month')::date;
+        suffix := to_char(month_start, '"y"YYYY"m"MM');
+        FOREACH parent IN ARRAY ARRAY['orders', 'order_items', 'payments'] LOOP
+            IF to_regclass(parent || '_' || suffix) IS NULL THEN
+                EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                               parent || '_' || suffix, parent, month_start, month_end);
+                created := created + 1;
+            END IF;
+        END LOOP;
+    END LOOP;
+    RETURN created;
+END;
+$$;
+
+-- 1. Mise de côté des tables actuelles (leurs séquences sont conservées)
+ALTER TABLE order_summary DROP CONSTRAINT fk_order_summary_order;
+
+ALTER TABLE payments RENAME TO payments_legacy;
+ALTER TABLE order_items RENAME TO order_items_legacy;
+ALTER TABLE orders RENAME TO orders_legacy;
+
+ALTER SEQUENCE orders_seq OWNED BY NONE;
+ALTER SEQUENCE order_items_seq OWNED BY NONE;
+ALTER SEQUENCE payments_seq OWNED BY NONE;
+
+-- 2. Tables partitionnées
+CREATE TABLE orders (
+    id               BIGINT           NOT NULL DEFAULT nextval('orders_seq'),
+    client_id        BIGINT           NOT NULL,
+    date             DATE             NOT NULL,
+    created_at       TIMESTAMP(6)     NOT NULL,
+    status           VARCHAR(255)     NOT NULL,
+    subtotal         DOUBLE PRECISION NOT NULL,
+    discount_amount  DOUBLE PRECISION NOT NULL,
+    tax              DOUBLE PRECISION NOT NULL,
+    total            DOUBLE PRECISION NOT NULL,
+    promo_code       VARCHAR(255),
+    remaining_amount DOUBLE PRECISION NOT NULL,
+    CONSTRAINT pk_orders PRIMARY KEY (id, created_at),
+    CONSTRAINT fk_orders_client FOREIGN KEY (client_id) REFERENCES clients (user_id)
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE order_items (
+    id               BIGINT           NOT NULL DEFAULT nextval('order_items_seq'),
+    order_id         BIGINT           NOT NULL,
+    order_created_at TIMESTAMP(6)     NOT NULL,
+    product_id       BIGINT           NOT NULL,
+    quantity         INTEGER          NOT NULL,
+    unit_price       DOUBLE PRECISION NOT NULL,
+    line_total       DOUBLE PRECISION NOT NULL,
+    CONSTRAINT pk_order_items PRIMARY KEY (id, order_created_at),
+    CONSTRAINT fk_order_items_order FOREIGN KEY (order_id, order_created_at) REFERENCES orders (id, created_at),
+    CONSTRAINT fk_order_items_product FOREIGN KEY (product_id) REFERENCES products (id)
+) PARTITION BY RANGE (order_created_at);
+
+CREATE TABLE payments (
+    id                 BIGINT           NOT NULL DEFAULT nextval('payments_seq'),
+    order_id           BIGINT           NOT NULL,
+    order_created_at   TIMESTAMP(6)     NOT NULL,
+    amount             DOUBLE PRECISION NOT NULL,
+    method             VARCHAR(255)     NOT NULL,
+    status             VARCHAR(255)     NOT NULL,
+    payment_date       TIMESTAMP(6)     NOT NULL,
+    sequence_number    INTEGER          NOT NULL,
+    receipt_number     VARCHAR(255),
+    check_number       VARCHAR(255),
+    check_bank         VARCHAR(255),
+    check_due_date     DATE,
+    transfer_reference VARCHAR(255),
+    transfer_bank      VARCHAR(255),
+    created_at         TIMESTAMP(6)     NOT NULL,
+    updated_at         TIMESTAMP(6)     NOT NULL,
+    CONSTRAINT pk_payments PRIMARY KEY (id, order_created_at),
+    CONSTRAINT fk_payments_order FOREIGN KEY (order_id, order_created_at) REFERENCES orders (id, created_at)
+) PARTITION BY RANGE (order_created_at);
+
+CREATE TABLE orders_default PARTITION OF orders DEFAULT;
+CREATE TABLE order_items_default PARTITION OF order_items DEFAULT;
+CREATE TABLE payments_default PARTITION OF payments DEFAULT;
+
+-- Du mois de la plus ancienne commande jusqu'à trois mois après le mois courant
+SELECT create_order_partitions(first_month,
+    ((EXTRACT(YEAR FROM CURRENT_DATE) - EXTRACT(YEAR FROM first_month)) * 12
+     + EXTRACT(MONTH FROM CURRENT_DATE) - EXTRACT(MONTH FROM first_month))::integer + 4)
+FROM (SELECT COALESCE(MIN(created_at)::date, CURRENT_DATE) AS first_month FROM orders_legacy) bounds;
+
+-- 3. Recopie des données
+INSERT INTO orders (id, client_id, date, created_at, status, subtotal, discount_amount, tax, total,
+                    promo_code, remaining_amount)
+SELECT id, client_id, date, created_at, status, subtotal, discount_amount, tax, total,
+       promo_code, remaining_amount
+FROM orders_legacy;
+
+INSERT INTO order_items (id, order_id, order_created_at, product_id, quantity, unit_price, line_total)
+SELECT i.id, i.order_id, o.created_at, i.product_id, i.quantity, i.unit_price, i.line_total
+FROM order_items_legacy i
+JOIN orders_legacy o ON o.id = i.order_id;
+
+INSERT INTO payments (id, order_id, order_created_at, amount, method, status, payment_date, sequence_number,
+                      receipt_number, check_number, check_bank, check_due_date, transfer_reference,
+                      transfer_bank, created_at, updated_at)
+SELECT p.id, p.order_id, o.created_at, p.amount, p.method, p.status, p.payment_date, p.sequence_number,
+       p.receipt_number, p.check_number, p.check_bank, p.check_due_date, p.transfer_reference,
+       p.transfer_bank, p.created_at, p.updated_at
+FROM payments_legacy p
+JOIN orders_legacy o ON o.id = p.order_id;
+
+DROP TABLE payments_legacy;
+DROP TABLE order_items_legacy;
+DROP TABLE orders_legacy;
+
+ALTER SEQUENCE orders_seq OWNED BY orders.id;
+ALTER SEQUENCE order_items_seq OWNED BY order_items.id;
+ALTER SEQUENCE payments_seq OWNED BY payments.id;
+
+-- 4. Résumés : référence (commande, mois) ; les résumés d'un mois archivé sont supprimés avec lui
+ALTER TABLE order_summary
+    ADD CONSTRAINT fk_order_summary_order FOREIGN KEY (order_id, created_at)
+        REFERENCES orders (id, created_at) ON DELETE CASCADE;
+
+-- 5. Index (V2, V10), créés sur chaque partition. CONCURRENTLY n'existe pas pour
+-- les tables partitionnées ; les tables viennent d'être remplies, sans trafic.
+CREATE INDEX idx_orders_client_created_at ON orders (client_id, created_at DESC);
+CREATE INDEX idx_orders_created_at ON orders (created_at);
+CREATE INDEX idx_orders_status_created_at ON orders (status, created_at);
+
+CREATE INDEX idx_order_items_order ON order_items (order_id);
+CREATE INDEX idx_order_items_product ON order_items (product_id);
+
+CREATE INDEX idx_payments_order_sequence ON payments (order_id, sequence_number);
+CREATE INDEX idx_payments_status ON payments (status);
+CREATE INDEX idx_payments_method ON payments (method);
+CREATE INDEX idx_payments_check_due_date ON payments (check_due_date) WHERE check_due_date IS NOT NULL;
+
+ANALYZE orders;
+ANALYZE order_items;
+ANALYZE payments;
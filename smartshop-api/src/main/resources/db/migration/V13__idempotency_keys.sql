@@ -0,0 +1,29 @@
+-- ============================================================================
+-- SmartShop - Clés d'idempotence (V13)
+-- ============================================================================
+-- Une ligne par requête de création (commande, paiement) envoyée avec un en-tête
+-- Idempotency-Key : empreinte de la requête et réponse renvoyée. La ligne est
+-- écrite dans la transaction de la création ; une seconde requête avec la même clé
+-- attend la fin de la première sur l'index unique, puis reçoit la réponse enregistrée.
+-- Les lignes expirées sont supprimées par le traitement idempotency-purge.
+-- ============================================================================
+
+CREATE SEQUENCE idempotency_keys_seq INCREMENT BY 50;
+
+CREATE TABLE idempotency_keys (
+    id              BIGINT        PRIMARY KEY DEFAULT nextval('idempotency_keys_seq'),
+    scope           VARCHAR(50)   NOT NULL,
+    idempotency_key VARCHAR(255)  NOT NULL,
+    request_hash    VARCHAR(64)   NOT NULL,
+    -- Renseignées en fin de transaction : la ligne est insérée avant la création
+    response_status INTEGER,
+    response_body   TEXT,
+    created_at      TIMESTAMP(6)  NOT NULL,
+    expires_at      TIMESTAMP(6)  NOT NULL,
+    CONSTRAINT uk_idempotency_keys_scope_key UNIQUE (scope, idempotency_key)
+);
+
+ALTER SEQUENCE idempotency_keys_seq OWNED BY idempotency_keys.id;
+
+-- Purge des clés expirées
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
@@ -0,0 +1,28 @@
+-- ============================================================================
+-- SmartShop - Index couvrants des listes de commandes (V14)
+-- ============================================================================
+-- Les listes (OrderSummaryRepository) chargent l'entité OrderSummary entière.
+-- L'index client de V5 n'incluait ni client_name, ni subtotal, ni
+-- discount_amount, ni updated_at, et l'index de la liste admin n'incluait
+-- aucune colonne : chaque ligne lue repassait par la table, contrairement à ce
+-- qu'annonçait le commentaire de V5. Les deux index sont remplacés par des index
+-- incluant toutes les colonnes lues, pour un parcours d'index seul (index-only
+-- scan) sur les pages marquées visibles par VACUUM.
+--
+-- Créés puis supprimés avec CONCURRENTLY (voir V14__order_summary_covering_indexes.sql.conf).
+-- ============================================================================
+
+-- Historique client et liste par client
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_order_summary_client_covering
+    ON order_summary (client_id, created_at DESC)
+    INCLUDE (order_id, client_name, date, status, item_count, subtotal, discount_amount, total,
+             paid_amount, remaining_amount, updated_at);
+
+-- Liste admin, plus récentes d'abord
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_order_summary_created_at_covering
+    ON order_summary (created_at DESC)
+    INCLUDE (order_id, client_id, client_name, date, status, item_count, subtotal, discount_amount,
+             total, paid_amount, remaining_amount, updated_at);
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_order_summary_client_created_at;
+DROP INDEX CONCURRENTLY IF EXISTS idx_order_summary_created_at;
@@ -0,0 +1,17 @@
+-- ============================================================================
+-- SmartShop - Totaux des commandes archivées par client (V15)
+-- ============================================================================
+-- OrderPartitionJob supprime les mois archivés des tables orders, order_items et
+-- payments. Avant de supprimer un mois, il ajoute ici, dans la même transaction, le
+-- nombre et le montant des commandes CONFIRMED de chaque client. Le recalcul des
+-- niveaux (TierRecomputationJob) additionne ces totaux aux commandes encore en base :
+-- l'archivage ne fait pas perdre son historique, ni son niveau, à un client.
+-- ============================================================================
+
+CREATE TABLE client_archived_totals (
+    client_id       BIGINT           PRIMARY KEY,
+    archived_orders INTEGER          NOT NULL,
+    archived_spent  DOUBLE PRECISION NOT NULL,
+    updated_at      TIMESTAMP(6)     NOT NULL,
+    CONSTRAINT fk_client_archived_totals_client FOREIGN KEY (client_id) REFERENCES clients (user_id)
+);
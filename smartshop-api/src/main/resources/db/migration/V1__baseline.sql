@@ -0,0 +1,81 @@
+-- ============================================================================
+-- SmartShop - Schéma de référence (V1)
+-- ============================================================================
+-- Reproduit le schéma généré jusqu'ici par ddl-auto=update à partir des entités.
+-- Sur une base existante sans historique Flyway, cette version est marquée
+-- comme appliquée (spring.flyway.baseline-on-migrate) et n'est pas rejouée.
+-- ============================================================================
+
+CREATE TABLE users (
+    id       BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    role     VARCHAR(255) NOT NULL,
+    CONSTRAINT uk_users_username UNIQUE (username)
+);
+
+CREATE TABLE clients (
+    user_id          BIGINT PRIMARY KEY,
+    name             VARCHAR(255)     NOT NULL,
+    email            VARCHAR(255)     NOT NULL,
+    tier             VARCHAR(255)     NOT NULL,
+    total_orders     INTEGER          NOT NULL,
+    total_spent      DOUBLE PRECISION NOT NULL,
+    first_order_date TIMESTAMP(6),
+    last_order_date  TIMESTAMP(6),
+    CONSTRAINT uk_clients_email UNIQUE (email),
+    CONSTRAINT fk_clients_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE products (
+    id      BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name    VARCHAR(255)     NOT NULL,
+    price   DOUBLE PRECISION NOT NULL,
+    stock   INTEGER          NOT NULL,
+    deleted BOOLEAN          NOT NULL
+);
+
+CREATE TABLE orders (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    client_id        BIGINT           NOT NULL,
+    date             DATE             NOT NULL,
+    created_at       TIMESTAMP(6)     NOT NULL,
+    status           VARCHAR(255)     NOT NULL,
+    subtotal         DOUBLE PRECISION NOT NULL,
+    discount_amount  DOUBLE PRECISION NOT NULL,
+    tax              DOUBLE PRECISION NOT NULL,
+    total            DOUBLE PRECISION NOT NULL,
+    promo_code       VARCHAR(255),
+    remaining_amount DOUBLE PRECISION NOT NULL,
+    CONSTRAINT fk_orders_client FOREIGN KEY (client_id) REFERENCES clients (user_id)
+);
+
+CREATE TABLE order_items (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    order_id   BIGINT           NOT NULL,
+    product_id BIGINT           NOT NULL,
+    quantity   INTEGER          NOT NULL,
+    unit_price DOUBLE PRECISION NOT NULL,
+    line_total DOUBLE PRECISION NOT NULL,
+    CONSTRAINT fk_order_items_order FOREIGN KEY (order_id) REFERENCES orders (id),
+    CONSTRAINT fk_order_items_product FOREIGN KEY (product_id) REFERENCES products (id)
+);
+
+CREATE TABLE payments (
+    id                 BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    order_id           BIGINT           NOT NULL,
+    amount             DOUBLE PRECISION NOT NULL,
+    method             VARCHAR(255)     NOT NULL,
+    status             VARCHAR(255)     NOT NULL,
+    payment_date       TIMESTAMP(6)     NOT NULL,
+    sequence_number    INTEGER          NOT NULL,
+    receipt_number     VARCHAR(255),
+    check_number       VARCHAR(255),
+    check_bank         VARCHAR(255),
+    check_due_date     DATE,
+    transfer_reference VARCHAR(255),
+    transfer_bank      VARCHAR(255),
+    created_at         TIMESTAMP(6)     NOT NULL,
+    updated_at         TIMESTAMP(6)     NOT NULL,
+    CONSTRAINT fk_payments_order FOREIGN KEY (order_id) REFERENCES orders (id)
+);
@@ -0,0 +1,64 @@
+-- ============================================================================
+-- SmartShop - Index secondaires (V2)
+-- ============================================================================
+-- Un index par famille de requêtes des repositories. Créés avec CONCURRENTLY pour
+-- ne pas bloquer les écritures sur une base en production (d'où
+-- executeInTransaction=false dans V2__performance_indexes.sql.conf).
+-- clients.email est déjà couvert par la contrainte uk_clients_email.
+-- ============================================================================
+
+-- OrderRepository.findByClientId / findByClientIdOrderByCreatedAtDesc
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_orders_client_created_at
+    ON orders (client_id, created_at DESC);
+
+-- Tri et filtres par date de création (listes admin, historique)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_orders_created_at
+    ON orders (created_at);
+
+-- PaymentRepository.findByOrderId / findEncaishedPaymentsByOrderId /
+-- findMaxSequenceNumberByOrderId / isCashLimitExceeded
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_payments_order_sequence
+    ON payments (order_id, sequence_number);
+
+-- PaymentRepository.findByStatus
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_payments_status
+    ON payments (status);
+
+-- PaymentRepository.findByMethod
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_payments_method
+    ON payments (method);
+
+-- Suivi des chèques à échéance
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_payments_check_due_date
+    ON payments (check_due_date)
+    WHERE check_due_date IS NOT NULL;
+
+-- Clés étrangères des lignes de commande (chargement des articles, suppression de produits)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_order_items_order
+    ON order_items (order_id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_order_items_product
+    ON order_items (product_id);
+
+-- ProductRepository : toutes les requêtes portent sur les produits non supprimés
+-- findByPriceBetweenAndDeletedFalse / findByFilters (minPrice, maxPrice)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_active_price
+    ON products (price)
+    WHERE deleted = false;
+
+-- findActiveInStockProducts
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_active_in_stock
+    ON products (id)
+    WHERE deleted = false AND stock > 0;
+
+-- Recherches LIKE '%...%' : findByFilters (sensible à la casse) et
+-- findByNameContainingIgnoreCaseAndDeletedFalse (lower(name))
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_active_name_trgm
+    ON products USING gin (name gin_trgm_ops)
+    WHERE deleted = false;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_active_lower_name_trgm
+    ON products USING gin (lower(name) gin_trgm_ops)
+    WHERE deleted = false;
@@ -0,0 +1,39 @@
+-- ============================================================================
+-- SmartShop - Identifiants par séquences (V3)
+-- ============================================================================
+-- Les colonnes IDENTITY empêchent Hibernate de regrouper les INSERT en batch.
+-- Chaque table reçoit une séquence incrémentée de 50 (allocationSize des entités,
+-- optimiseur pooled-lo) qui démarre après le plus grand id existant. La valeur par
+-- défaut de la colonne pointe sur cette séquence pour les insertions SQL manuelles.
+-- clients.user_id est dérivé de users.id (@MapsId) et n'a pas de séquence propre.
+-- ============================================================================
+
+CREATE SEQUENCE users_seq INCREMENT BY 50;
+SELECT setval('users_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM users), false);
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_seq');
+ALTER SEQUENCE users_seq OWNED BY users.id;
+
+CREATE SEQUENCE products_seq INCREMENT BY 50;
+SELECT setval('products_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM products), false);
+ALTER TABLE products ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE products ALTER COLUMN id SET DEFAULT nextval('products_seq');
+ALTER SEQUENCE products_seq OWNED BY products.id;
+
+CREATE SEQUENCE orders_seq INCREMENT BY 50;
+SELECT setval('orders_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM orders), false);
+ALTER TABLE orders ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE orders ALTER COLUMN id SET DEFAULT nextval('orders_seq');
+ALTER SEQUENCE orders_seq OWNED BY orders.id;
+
+CREATE SEQUENCE order_items_seq INCREMENT BY 50;
+SELECT setval('order_items_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM order_items), false);
+ALTER TABLE order_items ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE order_items ALTER COLUMN id SET DEFAULT nextval('order_items_seq');
+ALTER SEQUENCE order_items_seq OWNED BY order_items.id;
+
+CREATE SEQUENCE payments_seq INCREMENT BY 50;
+SELECT setval('payments_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM payments), false);
+ALTER TABLE payments ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE payments ALTER COLUMN id SET DEFAULT nextval('payments_seq');
+ALTER SEQUENCE payments_seq OWNED BY payments.id;
@@ -0,0 +1,10 @@
+-- ============================================================================
+-- SmartShop - Référence article (V4)
+-- ============================================================================
+-- Clé naturelle des produits venant de l'ERP, utilisée par l'import en masse
+-- (INSERT ... ON CONFLICT (sku)). Facultative pour les produits saisis à la main.
+-- ============================================================================
+
+ALTER TABLE products ADD COLUMN sku VARCHAR(64);
+
+ALTER TABLE products ADD CONSTRAINT uk_products_sku UNIQUE (sku);
@@ -0,0 +1,44 @@
+-- ============================================================================
+-- SmartShop - Modèle de lecture des listes de commandes (V5)
+-- ============================================================================
+-- Une ligne par commande, dénormalisée (nom du client, nombre d'articles, montant
+-- encaissé) et tenue à jour par OrderSummaryProjector dans la transaction qui
+-- modifie la commande. Les listes admin et l'historique client ne lisent plus
+-- que cette table.
+-- ============================================================================
+
+CREATE TABLE order_summary (
+    order_id         BIGINT           PRIMARY KEY,
+    client_id        BIGINT           NOT NULL,
+    client_name      VARCHAR(255)     NOT NULL,
+    date             DATE             NOT NULL,
+    created_at       TIMESTAMP(6)     NOT NULL,
+    status           VARCHAR(255)     NOT NULL,
+    item_count       BIGINT           NOT NULL,
+    subtotal         DOUBLE PRECISION NOT NULL,
+    discount_amount  DOUBLE PRECISION NOT NULL,
+    total            DOUBLE PRECISION NOT NULL,
+    paid_amount      DOUBLE PRECISION NOT NULL,
+    remaining_amount DOUBLE PRECISION NOT NULL,
+    updated_at       TIMESTAMP(6)     NOT NULL,
+    CONSTRAINT fk_order_summary_order FOREIGN KEY (order_id) REFERENCES orders (id) ON DELETE CASCADE
+);
+
+INSERT INTO order_summary (order_id, client_id, client_name, date, created_at, status, item_count,
+                           subtotal, discount_amount, total, paid_amount, remaining_amount, updated_at)
+SELECT o.id, o.client_id, c.name, o.date, o.created_at, o.status,
+       (SELECT COUNT(*) FROM order_items i WHERE i.order_id = o.id),
+       o.subtotal, o.discount_amount, o.total,
+       (SELECT COALESCE(SUM(p.amount), 0) FROM payments p WHERE p.order_id = o.id AND p.status = 'ENCAISSE'),
+       o.remaining_amount, CURRENT_TIMESTAMP
+FROM orders o
+JOIN clients c ON c.user_id = o.client_id;
+
+-- Historique client et liste par client : parcours d'index seul (index-only scan)
+CREATE INDEX idx_order_summary_client_created_at
+    ON order_summary (client_id, created_at DESC)
+    INCLUDE (order_id, date, status, item_count, total, paid_amount, remaining_amount);
+
+-- Liste admin, plus récentes d'abord
+CREATE INDEX idx_order_summary_created_at
+    ON order_summary (created_at DESC);
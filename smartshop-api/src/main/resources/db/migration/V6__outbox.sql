@@ -0,0 +1,35 @@
+-- ============================================================================
+-- SmartShop - Outbox transactionnelle (V6)
+-- ============================================================================
+-- Les événements destinés aux systèmes aval (entrepôt, comptabilité) sont écrits
+-- dans la même transaction que la modification métier, puis relayés par lots par
+-- OutboxRelay (FOR UPDATE SKIP LOCKED : plusieurs instances se partagent les lignes).
+-- Livraison au moins une fois : les consommateurs dédupliquent sur l'id.
+-- ============================================================================
+
+CREATE SEQUENCE outbox_events_seq INCREMENT BY 50;
+
+CREATE TABLE outbox_events (
+    id             BIGINT        PRIMARY KEY DEFAULT nextval('outbox_events_seq'),
+    event_type     VARCHAR(50)   NOT NULL,
+    aggregate_type VARCHAR(50)   NOT NULL,
+    aggregate_id   BIGINT        NOT NULL,
+    payload        TEXT          NOT NULL,
+    created_at     TIMESTAMP(6)  NOT NULL,
+    available_at   TIMESTAMP(6)  NOT NULL,
+    attempts       INTEGER       NOT NULL DEFAULT 0,
+    last_error     VARCHAR(1000),
+    published_at   TIMESTAMP(6)
+);
+
+ALTER SEQUENCE outbox_events_seq OWNED BY outbox_events.id;
+
+-- File d'attente du relais : seules les lignes non publiées sont indexées
+CREATE INDEX idx_outbox_events_pending
+    ON outbox_events (available_at, id)
+    WHERE published_at IS NULL;
+
+-- Purge des lignes publiées
+CREATE INDEX idx_outbox_events_published_at
+    ON outbox_events (published_at)
+    WHERE published_at IS NOT NULL;
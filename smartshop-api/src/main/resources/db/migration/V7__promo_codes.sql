@@ -0,0 +1,27 @@
+-- ============================================================================
+-- SmartShop - Campagnes de codes promo (V7)
+-- ============================================================================
+-- Un code promo n'est plus accepté sur son seul format : il doit correspondre à
+-- une campagne active (remise, période de validité, nombre d'utilisations max).
+-- used_count est mis à jour par lots depuis les compteurs en mémoire de
+-- PromoCodeRegistry (UPDATE ... SET used_count = used_count + delta).
+-- ============================================================================
+
+CREATE SEQUENCE promo_codes_seq INCREMENT BY 50;
+
+CREATE TABLE promo_codes (
+    id                  BIGINT           PRIMARY KEY DEFAULT nextval('promo_codes_seq'),
+    code                VARCHAR(20)      NOT NULL,
+    discount_percentage DOUBLE PRECISION NOT NULL,
+    valid_from          TIMESTAMP(6)     NOT NULL,
+    valid_until         TIMESTAMP(6),
+    max_uses            INTEGER,
+    used_count          INTEGER          NOT NULL DEFAULT 0,
+    active              BOOLEAN          NOT NULL DEFAULT TRUE,
+    created_at          TIMESTAMP(6)     NOT NULL,
+    updated_at          TIMESTAMP(6)     NOT NULL,
+    CONSTRAINT uk_promo_codes_code UNIQUE (code),
+    CONSTRAINT ck_promo_codes_discount CHECK (discount_percentage > 0 AND discount_percentage <= 100)
+);
+
+ALTER SEQUENCE promo_codes_seq OWNED BY promo_codes.id;
@@ -0,0 +1,26 @@
+-- ============================================================================
+-- SmartShop - Règles de fidélité configurables (V8)
+-- ============================================================================
+-- Seuils d'obtention des niveaux (nombre de commandes OU montant cumulé) et
+-- remise appliquée à partir d'un sous-total minimum, par niveau. Compilés en
+-- table de correspondance par TierRuleEngine et rechargés après modification.
+-- Valeurs initiales : règles historiques codées dans ClientService/OrderService.
+-- ============================================================================
+
+CREATE TABLE tier_rules (
+    tier                VARCHAR(20)      PRIMARY KEY,
+    min_orders          INTEGER          NOT NULL,
+    min_spent           DOUBLE PRECISION NOT NULL,
+    min_subtotal        DOUBLE PRECISION NOT NULL,
+    discount_percentage DOUBLE PRECISION NOT NULL,
+    updated_at          TIMESTAMP(6)     NOT NULL,
+    CONSTRAINT ck_tier_rules_tier CHECK (tier IN ('BASIC', 'SILVER', 'GOLD', 'PLATINUM')),
+    CONSTRAINT ck_tier_rules_thresholds CHECK (min_orders >= 0 AND min_spent >= 0 AND min_subtotal >= 0),
+    CONSTRAINT ck_tier_rules_discount CHECK (discount_percentage >= 0 AND discount_percentage <= 100)
+);
+
+INSERT INTO tier_rules (tier, min_orders, min_spent, min_subtotal, discount_percentage, updated_at) VALUES
+('BASIC',     0,     0.0,    0.0,  0.0, CURRENT_TIMESTAMP),
+('SILVER',    3,  1000.0,  500.0,  5.0, CURRENT_TIMESTAMP),
+('GOLD',     10,  5000.0,  800.0, 10.0, CURRENT_TIMESTAMP),
+('PLATINUM', 20, 15000.0, 1200.0, 15.0, CURRENT_TIMESTAMP);
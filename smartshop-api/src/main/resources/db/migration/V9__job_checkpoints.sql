@@ -0,0 +1,18 @@
+-- ============================================================================
+-- SmartShop - Points de reprise des traitements par lots (V9)
+-- ============================================================================
+-- Une ligne par traitement : position atteinte (premier id non traité) et
+-- compteurs de progression. Un traitement interrompu (completed_at NULL)
+-- reprend à next_id au lancement suivant.
+-- ============================================================================
+
+CREATE TABLE job_checkpoints (
+    job_name     VARCHAR(50)  PRIMARY KEY,
+    started_at   TIMESTAMP(6) NOT NULL,
+    completed_at TIMESTAMP(6),
+    next_id      BIGINT       NOT NULL,
+    upper_bound  BIGINT       NOT NULL,
+    processed    BIGINT       NOT NULL DEFAULT 0,
+    changed      BIGINT       NOT NULL DEFAULT 0,
+    updated_at   TIMESTAMP(6) NOT NULL
+);
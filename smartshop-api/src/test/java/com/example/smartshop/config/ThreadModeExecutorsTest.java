@@ -0,0 +1,54 @@
+package com.example.smartshop.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Threads virtuels (Java 21) : un thread neuf par tâche, sans ThreadLocal laissé par la
+ * précédente ; threads plateforme : pool réutilisé.
+ */
+class ThreadModeExecutorsTest {
+
+  private static final ThreadLocal<String> LEFTOVER = new ThreadLocal<>();
+
+  @Test
+  @EnabledForJreRange(min = JRE.JAVA_21)
+  void virtualExecutorRunsEachTaskOnANewThread() throws Exception {
+    ExecutorService executor = new ThreadModeExecutors(true).newExecutor("test-virtual", 1);
+    try {
+      Thread first = executor.submit(() -> {
+        LEFTOVER.set("first");
+        return Thread.currentThread();
+      }).get(5, TimeUnit.SECONDS);
+      Thread second = executor.submit(Thread::currentThread).get(5, TimeUnit.SECONDS);
+      String inherited = executor.submit(LEFTOVER::get).get(5, TimeUnit.SECONDS);
+
+      assertNotSame(first, second);
+      assertTrue(second.getName().startsWith("test-virtual-"));
+      assertNull(inherited);
+    } finally {
+      executor.shutdown();
+    }
+    assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void platformExecutorReusesItsPool() throws Exception {
+    ExecutorService executor = new ThreadModeExecutors(false).newExecutor("test-platform", 1);
+    try {
+      Thread first = executor.submit(Thread::currentThread).get(5, TimeUnit.SECONDS);
+      Thread second = executor.submit(Thread::currentThread).get(5, TimeUnit.SECONDS);
+
+      assertSame(first, second);
+      assertTrue(first.isDaemon());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
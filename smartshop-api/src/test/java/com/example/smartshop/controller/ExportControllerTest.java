@@ -0,0 +1,127 @@
+package com.example.smartshop.controller;
+
+import com.example.smartshop.entity.Product;
+import com.example.smartshop.entity.User;
+import com.example.smartshop.entity.UserRole;
+import com.example.smartshop.repository.UserRepository;
+import com.example.smartshop.support.AbstractIntegrationTest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Endpoints d'export : réponse NDJSON écrite en flux (traitement asynchrone), en pièce
+ * jointe datée, réservée aux administrateurs.
+ */
+@AutoConfigureMockMvc
+class ExportControllerTest extends AbstractIntegrationTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  private MockHttpSession adminSession;
+
+  @BeforeEach
+  void setUp() {
+    User admin = userRepository.save(User.builder()
+        .username("export-admin")
+        .password("unused")
+        .role(UserRole.ADMIN)
+        .build());
+    adminSession = session(admin.getId());
+  }
+
+  @Test
+  void ordersAreStreamedAsNdjsonAttachment() throws Exception {
+    Long clientId = createClient("Export Client", "export.controller@example.com");
+    Product product = createProduct("Écran", 100.0, 10);
+    Long firstOrder = createOrder(clientId, product, 1);
+    Long secondOrder = createOrder(clientId, product, 2);
+
+    MvcResult result = export("/api/admin/export/orders");
+
+    assertTrue(result.getResponse().getContentType().startsWith("application/x-ndjson"));
+    assertEquals("attachment; filename=\"orders-" + LocalDate.now() + ".ndjson\"",
+        result.getResponse().getHeader(HttpHeaders.CONTENT_DISPOSITION));
+    String[] lines = result.getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n");
+    assertEquals(2, lines.length);
+    JsonNode first = objectMapper.readTree(lines[0]);
+    JsonNode second = objectMapper.readTree(lines[1]);
+    assertEquals(firstOrder, first.get("id").asLong());
+    assertEquals(1, first.get("items").size());
+    assertEquals(secondOrder, second.get("id").asLong());
+    assertEquals(2, second.get("items").get(0).get("quantity").asInt());
+  }
+
+  @Test
+  void emptyExportIsAnEmptyBody() throws Exception {
+    MvcResult result = export("/api/admin/export/payments");
+
+    assertTrue(result.getResponse().getContentType().startsWith("application/x-ndjson"));
+    assertEquals("", result.getResponse().getContentAsString(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void streamedExportIsMeasuredOnce() throws Exception {
+    Timer timer = meterRegistry.find("smartshop.request.duration").tag("handler", "ExportController.exportProducts")
+        .timer();
+    long before = timer != null ? timer.count() : 0;
+
+    export("/api/admin/export/products");
+
+    assertEquals(before + 1, meterRegistry.get("smartshop.request.duration")
+        .tag("handler", "ExportController.exportProducts").timer().count());
+  }
+
+  @Test
+  void exportRequiresAnAdminSession() throws Exception {
+    Long clientId = createClient("Export Client", "export.forbidden@example.com");
+
+    mockMvc.perform(get("/api/admin/export/products"))
+        .andExpect(status().isUnauthorized());
+    mockMvc.perform(get("/api/admin/export/products").session(session(clientId)))
+        .andExpect(status().isForbidden());
+  }
+
+  private MvcResult export(String path) throws Exception {
+    MvcResult started = mockMvc.perform(get(path).session(adminSession))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+    return mockMvc.perform(asyncDispatch(started))
+        .andExpect(status().isOk())
+        .andReturn();
+  }
+
+  private static MockHttpSession session(Long userId) {
+    MockHttpSession session = new MockHttpSession();
+    session.setAttribute("user", userId);
+    return session;
+  }
+}
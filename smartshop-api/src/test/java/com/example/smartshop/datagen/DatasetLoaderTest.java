@@ -0,0 +1,79 @@
+package com.example.smartshop.datagen;
+
+import com.example.smartshop.entity.CustomerTier;
+import com.example.smartshop.entity.Order;
+import com.example.smartshop.entity.Product;
+import com.example.smartshop.pricing.TierRuleTable;
+import com.example.smartshop.support.AbstractIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatasetLoaderTest extends AbstractIntegrationTest {
+
+  @Autowired
+  private DataSource dataSource;
+
+  @Test
+  void loadsConsistentDataset() {
+    DatasetSpec spec = DatasetSpec.builder()
+        .clients(50)
+        .products(30)
+        .orders(500)
+        .referenceDate(LocalDateTime.of(2025, 6, 30, 12, 0))
+        .build();
+
+    DatasetLoadReport report = new DatasetLoader(dataSource).load(spec);
+
+    assertEquals("JdbcBatchRowSink", report.getSink());
+    assertEquals(50L, report.getRows().get("users"));
+    assertEquals(500L, count("orders"));
+    assertEquals(report.getRows().get("order_items"), count("order_items"));
+    assertEquals(report.getRows().get("payments"), count("payments"));
+    assertTrue(report.getRows().get("order_items") >= 500);
+    assertEquals(500L, count("order_summary"));
+
+    // Commandes confirmées entièrement encaissées
+    assertEquals(0L, jdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM orders o WHERE o.status = 'CONFIRMED' AND ABS(o.total - " +
+            "(SELECT COALESCE(SUM(p.amount), 0) FROM payments p WHERE p.order_id = o.id AND p.status = 'ENCAISSE')) > 0.01",
+        Long.class));
+    // Statistiques clients cohérentes avec les commandes confirmées
+    assertEquals(
+        jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders WHERE status = 'CONFIRMED'", Long.class),
+        jdbcTemplate.queryForObject("SELECT SUM(total_orders) FROM clients", Long.class));
+    // Tier des clients selon les règles par défaut
+    jdbcTemplate.query("SELECT tier, total_orders, total_spent FROM clients", rs -> {
+      assertEquals(TierRuleTable.DEFAULT.tierFor(rs.getInt("total_orders"), rs.getDouble("total_spent")),
+          CustomerTier.valueOf(rs.getString("tier")));
+    });
+    // Remises de fidélité sans code promo, TVA et total comme OrderService
+    assertTrue(jdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM orders WHERE promo_code IS NULL AND discount_amount > 0", Long.class) > 0);
+    assertEquals(0L, jdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM orders WHERE tax <> ? OR ABS(total - (subtotal - discount_amount) * (1 + tax / 100)) > 0.02",
+        Long.class, Order.VAT_RATE));
+    // Lignes et paiements dans le mois (partition) de leur commande
+    assertEquals(0L, jdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM order_items i JOIN orders o ON o.id = i.order_id WHERE i.order_created_at <> o.created_at",
+        Long.class));
+    assertEquals(0L, jdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM payments p JOIN orders o ON o.id = p.order_id WHERE p.order_created_at <> o.created_at",
+        Long.class));
+    // Plafond légal des paiements en espèces
+    assertEquals(0L, jdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM payments WHERE method = 'CASH' AND amount > 20000", Long.class));
+
+    // Les séquences sont repositionnées après les ids chargés
+    Product product = productRepository.save(Product.builder().name("Après chargement").price(10.0).stock(1).build());
+    assertTrue(product.getId() > 30);
+  }
+
+  private long count(String table) {
+    return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+  }
+}
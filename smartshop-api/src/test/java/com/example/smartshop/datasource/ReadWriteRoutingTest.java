@@ -0,0 +1,203 @@
+package com.example.smartshop.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Aiguillage primaire / réplique sur deux bases H2 distinctes, chacune marquée par une ligne
+ * de db_marker. Chaque scénario tourne dans un thread neuf : hors requête HTTP, une écriture
+ * marque son thread pendant la fenêtre read-your-writes.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:routing-primary;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+    "smartshop.datasource.replica.url=jdbc:h2:mem:routing-replica;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+    "smartshop.datasource.replica.read-your-writes-ms=60000"})
+@ActiveProfiles("it")
+class ReadWriteRoutingTest {
+
+  private static final String MARKER_SQL = "SELECT name FROM db_marker";
+
+  @Autowired
+  @Qualifier("primaryDataSource")
+  private DataSource primaryDataSource;
+
+  @Autowired
+  @Qualifier("replicaDataSource")
+  private DataSource replicaDataSource;
+
+  @Autowired
+  private DataSource dataSource;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  private JdbcTemplate jdbcTemplate;
+  private TransactionTemplate readOnly;
+  private TransactionTemplate readWrite;
+
+  @BeforeEach
+  void setUp() {
+    mark(primaryDataSource, "primary");
+    mark(replicaDataSource, "replica");
+    jdbcTemplate = new JdbcTemplate(dataSource);
+    readOnly = new TransactionTemplate(transactionManager);
+    readOnly.setReadOnly(true);
+    readWrite = new TransactionTemplate(transactionManager);
+  }
+
+  @Test
+  void readOnlyTransactionReadsReplica() throws Exception {
+    double before = meterRegistry.counter("smartshop.datasource.connections", "route", "replica").count();
+
+    assertEquals("replica", onNewThread(this::readOnlyMarker));
+    assertEquals(before + 1, meterRegistry.counter("smartshop.datasource.connections", "route", "replica").count());
+  }
+
+  @Test
+  void writesAndNonTransactionalAccessUsePrimary() throws Exception {
+    assertEquals("primary", onNewThread(() -> readWrite.execute(status ->
+        jdbcTemplate.queryForObject(MARKER_SQL, String.class))));
+    assertEquals("primary", onNewThread(() -> jdbcTemplate.queryForObject(MARKER_SQL, String.class)));
+  }
+
+  @Test
+  void threadReadsPrimaryAfterItsOwnWrite() throws Exception {
+    assertEquals("primary", onNewThread(() -> {
+      write();
+      return readOnlyMarker();
+    }));
+    assertEquals("replica", onNewThread(this::readOnlyMarker));
+  }
+
+  @Test
+  void sessionReadsPrimaryAfterItsOwnWrite() throws Exception {
+    MockHttpSession writer = new MockHttpSession();
+    onNewThread(() -> inRequest(writer, () -> {
+      write();
+      return null;
+    }));
+
+    assertNotNull(writer.getAttribute(ReadYourWritesGuard.SESSION_ATTRIBUTE));
+    assertEquals("primary", onNewThread(() -> inRequest(writer, this::readOnlyMarker)));
+    assertEquals("replica", onNewThread(() -> inRequest(new MockHttpSession(), this::readOnlyMarker)));
+  }
+
+  @Test
+  void writeAfterReadOnlyReadInSameEntityManagerUsesPrimary() throws Exception {
+    // EntityManager partagé par les transactions de la requête, comme avec open-in-view
+    assertEquals("replica,primary", onNewThread(() -> {
+      EntityManager entityManager = entityManagerFactory.createEntityManager();
+      TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+      try {
+        String read = readOnly.execute(status -> entityMarker(entityManager));
+        String write = readWrite.execute(status -> {
+          entityManager.createNativeQuery("UPDATE db_marker SET name = name").executeUpdate();
+          return entityMarker(entityManager);
+        });
+        return read + "," + write;
+      } finally {
+        TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+        entityManager.close();
+      }
+    }));
+  }
+
+  @Test
+  void requestWriteDoesNotPinOtherSessionsOnSameThread() throws Exception {
+    ExecutorService tomcatThread = Executors.newSingleThreadExecutor();
+    try {
+      tomcatThread.submit(() -> inRequest(new MockHttpSession(), () -> {
+        write();
+        assertEquals("primary", readOnlyMarker());
+        return null;
+      })).get(10, TimeUnit.SECONDS);
+
+      assertEquals("replica", tomcatThread.submit(() -> inRequest(new MockHttpSession(), this::readOnlyMarker))
+          .get(10, TimeUnit.SECONDS));
+    } finally {
+      tomcatThread.shutdownNow();
+    }
+  }
+
+  @Test
+  void rolledBackWriteDoesNotPinSession() throws Exception {
+    MockHttpSession session = new MockHttpSession();
+    onNewThread(() -> inRequest(session, () -> readWrite.execute(status -> {
+      jdbcTemplate.update("UPDATE db_marker SET name = name");
+      status.setRollbackOnly();
+      return null;
+    })));
+
+    assertNull(session.getAttribute(ReadYourWritesGuard.SESSION_ATTRIBUTE));
+    assertEquals("replica", onNewThread(() -> inRequest(session, this::readOnlyMarker)));
+  }
+
+  private String readOnlyMarker() {
+    return readOnly.execute(status -> jdbcTemplate.queryForObject(MARKER_SQL, String.class));
+  }
+
+  private static String entityMarker(EntityManager entityManager) {
+    return (String) entityManager.createNativeQuery(MARKER_SQL).getSingleResult();
+  }
+
+  private void write() {
+    readWrite.executeWithoutResult(status -> jdbcTemplate.update("UPDATE db_marker SET name = name"));
+  }
+
+  private static <T> T inRequest(MockHttpSession session, Supplier<T> action) {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.setSession(session);
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    try {
+      return action.get();
+    } finally {
+      RequestContextHolder.resetRequestAttributes();
+    }
+  }
+
+  private static <T> T onNewThread(Supplier<T> action) throws Exception {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      return executor.submit(action::get).get(10, TimeUnit.SECONDS);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static void mark(DataSource target, String name) {
+    JdbcTemplate template = new JdbcTemplate(target);
+    template.execute("CREATE TABLE IF NOT EXISTS db_marker (name VARCHAR(20))");
+    template.update("DELETE FROM db_marker");
+    template.update("INSERT INTO db_marker (name) VALUES (?)", name);
+  }
+}
@@ -0,0 +1,41 @@
+package com.example.smartshop.exception;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BusinessExceptionTest {
+
+  @AfterEach
+  void resetStackTraces() {
+    BusinessException.setStackTraceEnabled(false);
+  }
+
+  @Test
+  void businessExceptionHasNoStackTraceByDefault() {
+    BusinessRuleViolationException ex =
+        new BusinessRuleViolationException(ErrorCode.INVALID_PROMO_CODE, "Invalid promo code format");
+
+    assertEquals(0, ex.getStackTrace().length);
+    assertEquals(ErrorCode.INVALID_PROMO_CODE, ex.getErrorCode());
+    assertEquals("Invalid promo code format", ex.getMessage());
+  }
+
+  @Test
+  void legacyConstructorUsesDefaultErrorCode() {
+    BusinessRuleViolationException ex = new BusinessRuleViolationException("Rule violated");
+
+    assertEquals(ErrorCode.BUSINESS_RULE_VIOLATION, ex.getErrorCode());
+  }
+
+  @Test
+  void stackTraceCapturedWhenEnabled() {
+    BusinessException.setStackTraceEnabled(true);
+
+    BusinessRuleViolationException ex =
+        new BusinessRuleViolationException(ErrorCode.ORDER_NOT_FOUND, "Order not found");
+
+    assertTrue(ex.getStackTrace().length > 0);
+  }
+}
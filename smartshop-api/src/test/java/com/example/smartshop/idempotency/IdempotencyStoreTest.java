@@ -0,0 +1,168 @@
+package com.example.smartshop.idempotency;
+
+import com.example.smartshop.controller.OrderController;
+import com.example.smartshop.dto.OrderItemRequestDTO;
+import com.example.smartshop.dto.OrderRequestDTO;
+import com.example.smartshop.dto.OrderResponseDTO;
+import com.example.smartshop.entity.IdempotencyRecord;
+import com.example.smartshop.entity.Product;
+import com.example.smartshop.exception.BusinessRuleViolationException;
+import com.example.smartshop.exception.ErrorCode;
+import com.example.smartshop.job.IdempotencyKeyPurgeJob;
+import com.example.smartshop.repository.IdempotencyRecordRepository;
+import com.example.smartshop.repository.OrderRepository;
+import com.example.smartshop.support.AbstractIntegrationTest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Idempotency-Key : une création renvoyée avec la même clé rejoue la première réponse sans
+ * créer de doublon, depuis la mémoire ou depuis la base (autre nœud).
+ */
+class IdempotencyStoreTest extends AbstractIntegrationTest {
+
+  @Autowired
+  private OrderController orderController;
+
+  @Autowired
+  private IdempotencyStore idempotencyStore;
+
+  @Autowired
+  private IdempotencyKeyPurgeJob purgeJob;
+
+  @Autowired
+  private IdempotencyRecordRepository idempotencyRecordRepository;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private OrderRepository orderRepository;
+
+  private OrderRequestDTO request;
+
+  @BeforeEach
+  void setUp() {
+    Long clientId = createClient("POS Client", "pos.client@example.com");
+    Product product = createProduct("Clavier", 50.0, 100);
+    request = OrderRequestDTO.builder()
+        .clientId(clientId)
+        .items(List.of(OrderItemRequestDTO.builder().productId(product.getId()).quantity(2).build()))
+        .build();
+  }
+
+  @Test
+  void retriedOrderCreationReturnsFirstOrder() {
+    ResponseEntity<Map<String, Object>> first = orderController.createOrder(request, "pos-1-0001");
+    ResponseEntity<Map<String, Object>> retry = orderController.createOrder(request, "pos-1-0001");
+
+    assertEquals(1, orderRepository.count());
+    assertEquals(201, retry.getStatusCode().value());
+    assertEquals("true", retry.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+    assertNull(first.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+    Long orderId = ((OrderResponseDTO) first.getBody().get("order")).getId();
+    assertEquals(orderId, ((Number) ((Map<?, ?>) retry.getBody().get("order")).get("id")).longValue());
+    assertEquals("Order created successfully", retry.getBody().get("message"));
+  }
+
+  @Test
+  void replayIsServedFromDatabaseOnAnotherNode() {
+    orderController.createOrder(request, "pos-1-0002");
+    IdempotencyStore otherNode = new IdempotencyStore(idempotencyRecordRepository, transactionTemplate,
+        objectMapper, new SimpleMeterRegistry(), 24, 100);
+
+    ResponseEntity<Map<String, Object>> retry = otherNode.execute(IdempotencyStore.ORDER_CREATE, "pos-1-0002",
+        request, () -> fail("Replay must not execute the creation again"));
+
+    assertEquals(201, retry.getStatusCode().value());
+    assertEquals("true", retry.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+    assertEquals(1, orderRepository.count());
+  }
+
+  @Test
+  void keyReusedForDifferentRequestIsRejected() {
+    orderController.createOrder(request, "pos-1-0003");
+    OrderRequestDTO other = OrderRequestDTO.builder()
+        .clientId(request.getClientId())
+        .items(List.of(OrderItemRequestDTO.builder()
+            .productId(request.getItems().get(0).getProductId())
+            .quantity(5)
+            .build()))
+        .build();
+
+    BusinessRuleViolationException error = assertThrows(BusinessRuleViolationException.class,
+        () -> orderController.createOrder(other, "pos-1-0003"));
+    assertEquals(ErrorCode.INVALID_IDEMPOTENCY_KEY, error.getErrorCode());
+    assertEquals(1, orderRepository.count());
+  }
+
+  @Test
+  void failedRequestDoesNotKeepKey() {
+    AtomicInteger calls = new AtomicInteger();
+
+    assertThrows(BusinessRuleViolationException.class, () -> idempotencyStore.execute(
+        IdempotencyStore.PAYMENT_CREATE, "pos-1-0004", request, () -> {
+          calls.incrementAndGet();
+          throw new BusinessRuleViolationException(ErrorCode.PAYMENT_EXCEEDS_REMAINING, "Amount too high");
+        }));
+    assertTrue(idempotencyRecordRepository.findByScopeAndIdempotencyKey(IdempotencyStore.PAYMENT_CREATE,
+        "pos-1-0004").isEmpty());
+
+    ResponseEntity<Map<String, Object>> response = idempotencyStore.execute(IdempotencyStore.PAYMENT_CREATE,
+        "pos-1-0004", request, () -> {
+          calls.incrementAndGet();
+          return ResponseEntity.status(201).body(Map.of("message", "Payment recorded successfully"));
+        });
+
+    assertEquals(2, calls.get());
+    assertEquals(201, response.getStatusCode().value());
+  }
+
+  @Test
+  void requestsWithoutKeyAreAlwaysExecuted() {
+    orderController.createOrder(request, null);
+    orderController.createOrder(request, null);
+
+    assertEquals(2, orderRepository.count());
+    assertEquals(0, idempotencyRecordRepository.count());
+  }
+
+  @Test
+  void purgeDeletesExpiredKeys() {
+    LocalDateTime now = LocalDateTime.now();
+    idempotencyRecordRepository.save(record("expired", now.minusHours(25), now.minusHours(1)));
+    idempotencyRecordRepository.save(record("valid", now, now.plusHours(24)));
+
+    assertEquals(1, purgeJob.execute());
+    assertEquals(List.of("valid"), idempotencyRecordRepository.findAll().stream()
+        .map(IdempotencyRecord::getIdempotencyKey)
+        .toList());
+  }
+
+  private static IdempotencyRecord record(String key, LocalDateTime createdAt, LocalDateTime expiresAt) {
+    return IdempotencyRecord.builder()
+        .scope(IdempotencyStore.ORDER_CREATE)
+        .idempotencyKey(key)
+        .requestHash("0".repeat(64))
+        .responseStatus(201)
+        .responseBody("{}")
+        .createdAt(createdAt)
+        .expiresAt(expiresAt)
+        .build();
+  }
+}
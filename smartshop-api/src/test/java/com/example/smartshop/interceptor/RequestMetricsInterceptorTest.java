@@ -0,0 +1,123 @@
+package com.example.smartshop.interceptor;
+
+import com.example.smartshop.metrics.QueryCountingStatementInspector;
+import com.example.smartshop.metrics.RequestQueryStats;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Mesure par méthode de controller, réponses synchrones et asynchrones (flux) : le
+ * traitement asynchrone et le redispatch complètent la mesure commencée par la requête.
+ */
+class RequestMetricsInterceptorTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final RequestMetricsInterceptor interceptor = new RequestMetricsInterceptor(meterRegistry, false, 500, 5);
+  private final QueryCountingStatementInspector inspector = new QueryCountingStatementInspector();
+  private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+  @AfterEach
+  void tearDown() {
+    RequestQueryStats.clear();
+  }
+
+  @Test
+  void synchronousRequestIsMeasuredOnce() throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/admin/samples");
+    HandlerMethod handler = handler("list");
+
+    assertTrue(interceptor.preHandle(request, response, handler));
+    inspector.inspect("select * from products");
+    inspector.inspect("select * from clients");
+    interceptor.afterCompletion(request, response, handler, null);
+
+    assertEquals(1, meterRegistry.get("smartshop.request.duration").tag("handler", "SampleController.list")
+        .timer().count());
+    assertEquals(2.0, meterRegistry.get("smartshop.request.sql.statements").tag("handler", "SampleController.list")
+        .summary().totalAmount());
+    assertNull(RequestQueryStats.current());
+  }
+
+  @Test
+  void streamingResponseIsMeasuredAfterTheAsyncDispatch() throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/admin/samples/stream");
+    HandlerMethod handler = handler("stream");
+
+    // Requête initiale : le controller renvoie un flux, le thread est rendu
+    interceptor.preHandle(request, response, handler);
+    inspector.inspect("select * from users");
+    interceptor.afterConcurrentHandlingStarted(request, response, handler);
+    assertNull(RequestQueryStats.current());
+    assertTrue(meterRegistry.find("smartshop.request.duration").timers().isEmpty());
+
+    // Écriture du flux sur un thread du pool asynchrone
+    ServletWebRequest webRequest = new ServletWebRequest(request, response);
+    Callable<Void> task = () -> {
+      inspector.inspect("select * from orders");
+      inspector.inspect("select * from order_items");
+      return null;
+    };
+    ExecutorService asyncPool = Executors.newSingleThreadExecutor();
+    try {
+      asyncPool.submit(() -> {
+        interceptor.preProcess(webRequest, task);
+        Object result = task.call();
+        interceptor.postProcess(webRequest, task, result);
+        assertNull(RequestQueryStats.current());
+        return result;
+      }).get();
+    } finally {
+      asyncPool.shutdown();
+    }
+
+    // Redispatch : la mesure est enregistrée une seule fois, compteurs cumulés
+    request.setDispatcherType(DispatcherType.ASYNC);
+    interceptor.preHandle(request, response, handler);
+    interceptor.afterCompletion(request, response, handler, null);
+
+    assertEquals(1, meterRegistry.get("smartshop.request.duration").tag("handler", "SampleController.stream")
+        .timer().count());
+    assertEquals(3.0, meterRegistry.get("smartshop.request.sql.statements").tag("handler", "SampleController.stream")
+        .summary().totalAmount());
+    assertNull(RequestQueryStats.current());
+  }
+
+  @Test
+  void nonControllerHandlersAreIgnored() throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/static/app.js");
+    Object handler = new Object();
+
+    assertTrue(interceptor.preHandle(request, response, handler));
+    assertNull(RequestQueryStats.current());
+    interceptor.afterCompletion(request, response, handler, null);
+
+    assertTrue(meterRegistry.getMeters().isEmpty());
+  }
+
+  private static HandlerMethod handler(String method) throws NoSuchMethodException {
+    return new HandlerMethod(new SampleController(), SampleController.class.getMethod(method));
+  }
+
+  static class SampleController {
+
+    public String list() {
+      return "list";
+    }
+
+    public String stream() {
+      return "stream";
+    }
+  }
+}
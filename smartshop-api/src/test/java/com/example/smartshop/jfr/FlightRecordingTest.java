@@ -0,0 +1,164 @@
+package com.example.smartshop.jfr;
+
+import com.example.smartshop.dto.PaymentRequestDTO;
+import com.example.smartshop.entity.PaymentMethod;
+import com.example.smartshop.entity.Product;
+import com.example.smartshop.entity.User;
+import com.example.smartshop.entity.UserRole;
+import com.example.smartshop.exception.BusinessRuleViolationException;
+import com.example.smartshop.repository.UserRepository;
+import com.example.smartshop.service.FlightRecordingService;
+import com.example.smartshop.service.PaymentService;
+import com.example.smartshop.support.AbstractIntegrationTest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Enregistrement JFR piloté par les endpoints d'administration : le fichier produit
+ * contient les événements SmartShop des opérations exécutées pendant l'enregistrement.
+ */
+@AutoConfigureMockMvc
+class FlightRecordingTest extends AbstractIntegrationTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private FlightRecordingService flightRecordingService;
+
+  @Autowired
+  private PaymentService paymentService;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  private MockHttpSession adminSession;
+
+  @BeforeEach
+  void setUp() {
+    User admin = userRepository.save(User.builder()
+        .username("jfr-admin")
+        .password("unused")
+        .role(UserRole.ADMIN)
+        .build());
+    adminSession = new MockHttpSession();
+    adminSession.setAttribute("user", admin.getId());
+  }
+
+  @AfterEach
+  void tearDown() {
+    flightRecordingService.shutdown();
+  }
+
+  @Test
+  void recordingContainsOrderPaymentAndStockEvents() throws Exception {
+    mockMvc.perform(post("/api/admin/diagnostics/jfr/start").session(adminSession))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.recording.state").value("RUNNING"))
+        .andExpect(jsonPath("$.recording.settings").value("profile"));
+
+    Long clientId = createClient("Jfr Client", "jfr.client@example.com");
+    Product product = createProduct("Casque", 100.0, 10);
+    Long paidOrder = createOrder(clientId, product, 2);
+    paymentService.addPayment(PaymentRequestDTO.builder()
+        .orderId(paidOrder)
+        .amount(240.0)
+        .paymentMethod(PaymentMethod.CASH)
+        .build());
+    orderService.confirmOrder(paidOrder);
+    Long unpaidOrder = createOrder(clientId, product, 1);
+    assertThrows(BusinessRuleViolationException.class, () -> orderService.confirmOrder(unpaidOrder));
+
+    String body = mockMvc.perform(post("/api/admin/diagnostics/jfr/stop").session(adminSession))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString();
+    Path file = Path.of(objectMapper.readTree(body).get("file").asText());
+    assertTrue(Files.size(file) > 0);
+
+    List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+    RecordedEvent created = single(events, "com.example.smartshop.OrderOperation", "operation",
+        OrderOperationEvent.CREATE, paidOrder);
+    assertTrue(created.getBoolean("succeeded"));
+    assertEquals(clientId, created.getLong("clientId"));
+    assertEquals(1, created.getInt("lineCount"));
+    assertEquals("PENDING", created.getString("status"));
+
+    RecordedEvent confirmed = single(events, "com.example.smartshop.OrderOperation", "operation",
+        OrderOperationEvent.CONFIRM, paidOrder);
+    assertTrue(confirmed.getBoolean("succeeded"));
+    assertEquals("CONFIRMED", confirmed.getString("status"));
+    // Échec enregistré aussi, avec succeeded=false
+    RecordedEvent rejected = single(events, "com.example.smartshop.OrderOperation", "operation",
+        OrderOperationEvent.CONFIRM, unpaidOrder);
+    assertFalse(rejected.getBoolean("succeeded"));
+
+    RecordedEvent payment = events.stream()
+        .filter(event -> event.getEventType().getName().equals("com.example.smartshop.PaymentOperation"))
+        .filter(event -> event.getLong("orderId") == paidOrder)
+        .findFirst().orElseThrow();
+    assertTrue(payment.getBoolean("succeeded"));
+    assertEquals(240.0, payment.getDouble("amount"));
+
+    RecordedEvent stock = events.stream()
+        .filter(event -> event.getEventType().getName().equals("com.example.smartshop.StockDecrement"))
+        .filter(event -> event.getLong("productId") == product.getId())
+        .findFirst().orElseThrow();
+    assertEquals(2, stock.getInt("quantity"));
+    assertEquals(8, stock.getInt("remainingStock"));
+    assertTrue(stock.getBoolean("succeeded"));
+  }
+
+  @Test
+  void recordingStateConflictsAreRejected() throws Exception {
+    mockMvc.perform(post("/api/admin/diagnostics/jfr/dump").session(adminSession))
+        .andExpect(status().isConflict())
+        .andExpect(jsonPath("$.code").value("RECORDING_STATE_CONFLICT"));
+    mockMvc.perform(get("/api/admin/diagnostics/jfr").session(adminSession))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.recording.state").value("CLOSED"));
+
+    mockMvc.perform(post("/api/admin/diagnostics/jfr/start").session(adminSession))
+        .andExpect(status().isOk());
+    mockMvc.perform(post("/api/admin/diagnostics/jfr/start").session(adminSession))
+        .andExpect(status().isConflict())
+        .andExpect(jsonPath("$.code").value("RECORDING_STATE_CONFLICT"));
+
+    String body = mockMvc.perform(post("/api/admin/diagnostics/jfr/dump").session(adminSession))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString();
+    JsonNode dump = objectMapper.readTree(body);
+    assertTrue(Files.exists(Path.of(dump.get("file").asText())));
+  }
+
+  private static RecordedEvent single(List<RecordedEvent> events, String type, String field, String value,
+      Long orderId) {
+    List<RecordedEvent> matching = events.stream()
+        .filter(event -> event.getEventType().getName().equals(type))
+        .filter(event -> value.equals(event.getString(field)) && event.getLong("orderId") == orderId)
+        .toList();
+    assertEquals(1, matching.size(), () -> type + " " + value + " for order " + orderId);
+    return matching.get(0);
+  }
+}
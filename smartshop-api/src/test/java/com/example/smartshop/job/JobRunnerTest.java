@@ -0,0 +1,175 @@
+package com.example.smartshop.job;
+
+import com.example.smartshop.config.ThreadModeExecutors;
+import com.example.smartshop.dto.JobDTO;
+import com.example.smartshop.entity.JobExecution;
+import com.example.smartshop.entity.JobExecutionStatus;
+import com.example.smartshop.exception.BusinessRuleViolationException;
+import com.example.smartshop.exception.ErrorCode;
+import com.example.smartshop.repository.JobExecutionRepository;
+import com.example.smartshop.support.AbstractIntegrationTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exécution des traitements : historique, métriques, saut du déclenchement quand le verrou
+ * est détenu et clôture des exécutions interrompues. Sur H2 le verrou est local au
+ * processus ; le verrou PostgreSQL est couvert par PostgresAdvisoryLockTest.
+ */
+class JobRunnerTest extends AbstractIntegrationTest {
+
+  @Autowired
+  private JobLockManager lockManager;
+
+  @Autowired
+  private JobExecutionRepository executionRepository;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @Autowired
+  private Environment environment;
+
+  @Autowired
+  private ThreadModeExecutors executors;
+
+  private SimpleMeterRegistry meterRegistry;
+  private JobRunner runner;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    runner = new JobRunner(List.of(
+        new TestJob("test-succeeding", () -> 42),
+        new TestJob("test-failing", () -> {
+          throw new IllegalStateException("boom");
+        })), lockManager, executionRepository, transactionTemplate, meterRegistry, environment, executors, true, 2);
+  }
+
+  @AfterEach
+  void tearDown() {
+    runner.shutdown();
+  }
+
+  @Test
+  void successfulRunIsRecordedWithMetrics() {
+    JobExecution execution = runner.runNow("test-succeeding").orElseThrow();
+
+    assertEquals(JobExecutionStatus.SUCCEEDED, execution.getStatus());
+    assertEquals(42L, execution.getRowsProcessed());
+    assertEquals(JobExecution.MANUAL, execution.getTriggerType());
+    assertNotNull(execution.getNode());
+    assertNotNull(execution.getFinishedAt());
+    assertEquals(42.0, meterRegistry.counter("smartshop.jobs.rows", "job", "test-succeeding").count());
+    assertEquals(1L, meterRegistry.timer("smartshop.jobs.duration",
+        "job", "test-succeeding", "outcome", "succeeded").count());
+
+    JobDTO job = runner.jobs().stream().filter(j -> j.getName().equals("test-succeeding")).findFirst().orElseThrow();
+    assertEquals("fixed delay 60000 ms", job.getSchedule());
+    assertEquals(execution.getId(), job.getLastExecution().getId());
+  }
+
+  @Test
+  void failedRunIsRecorded() {
+    JobExecution execution = runner.runNow("test-failing").orElseThrow();
+
+    assertEquals(JobExecutionStatus.FAILED, execution.getStatus());
+    assertTrue(execution.getError().contains("boom"));
+    assertNull(execution.getRowsProcessed());
+    assertEquals(1L, meterRegistry.timer("smartshop.jobs.duration",
+        "job", "test-failing", "outcome", "failed").count());
+    assertEquals(1, runner.executions("test-failing", 20).size());
+  }
+
+  @Test
+  void runIsSkippedWhileAnotherHolderHasTheLock() {
+    try (JobLockManager.Lease lease = lockManager.tryLock("test-succeeding").orElseThrow()) {
+      assertTrue(runner.runNow("test-succeeding").isEmpty());
+      BusinessRuleViolationException exception = assertThrows(BusinessRuleViolationException.class,
+          () -> runner.trigger("test-succeeding"));
+      assertEquals(ErrorCode.JOB_ALREADY_RUNNING, exception.getErrorCode());
+    }
+
+    assertEquals(1.0, meterRegistry.counter("smartshop.jobs.skipped", "job", "test-succeeding").count());
+    assertTrue(executionRepository.findAll().isEmpty());
+    assertTrue(runner.runNow("test-succeeding").isPresent());
+  }
+
+  @Test
+  void executionsLeftRunningByAStoppedNodeAreMarkedFailed() {
+    JobExecution interrupted = executionRepository.save(JobExecution.builder()
+        .jobName("test-succeeding")
+        .node("1234@stopped-node")
+        .triggerType(JobExecution.SCHEDULED)
+        .status(JobExecutionStatus.RUNNING)
+        .startedAt(LocalDateTime.now().minusHours(1))
+        .build());
+
+    runner.runNow("test-succeeding");
+
+    JobExecution closed = executionRepository.findById(interrupted.getId()).orElseThrow();
+    assertEquals(JobExecutionStatus.FAILED, closed.getStatus());
+    assertEquals("Interrupted", closed.getError());
+    assertNotNull(closed.getFinishedAt());
+  }
+
+  @Test
+  void scheduledRunsUseTheJobSchedulerThreads() throws Exception {
+    List<String> threads = new CopyOnWriteArrayList<>();
+    JobRunner scheduled = new JobRunner(List.of(new TestJob("test-scheduled", Duration.ofMillis(50), () -> {
+      threads.add(Thread.currentThread().getName());
+      return 1;
+    })), lockManager, executionRepository, transactionTemplate, meterRegistry, environment, executors, true, 2);
+    try {
+      scheduled.schedule();
+      long deadline = System.currentTimeMillis() + 5_000;
+      // Attente de l'exécution enregistrée : l'arrêt du planificateur ne l'interrompt pas
+      while (executionRepository.findAll().stream().noneMatch(e -> e.getFinishedAt() != null)
+          && System.currentTimeMillis() < deadline) {
+        Thread.sleep(20);
+      }
+    } finally {
+      scheduled.shutdown();
+    }
+
+    assertFalse(threads.isEmpty(), "Le traitement planifié ne s'est pas exécuté");
+    assertTrue(threads.get(0).startsWith("job-scheduler-"), threads.get(0));
+  }
+
+  @Test
+  void unknownJobIsRejected() {
+    BusinessRuleViolationException exception = assertThrows(BusinessRuleViolationException.class,
+        () -> runner.trigger("unknown"));
+    assertEquals(ErrorCode.JOB_NOT_FOUND, exception.getErrorCode());
+  }
+
+  private record TestJob(String name, Duration delay, LongSupplier body) implements ScheduledJob {
+
+    TestJob(String name, LongSupplier body) {
+      this(name, Duration.ofMinutes(1), body);
+    }
+
+    @Override
+    public JobTrigger defaultTrigger() {
+      return JobTrigger.fixedDelay(delay);
+    }
+
+    @Override
+    public long execute() {
+      return body.getAsLong();
+    }
+  }
+}
@@ -0,0 +1,98 @@
+package com.example.smartshop.job;
+
+import com.example.smartshop.dto.CreateClientDTO;
+import com.example.smartshop.entity.Client;
+import com.example.smartshop.entity.CustomerTier;
+import com.example.smartshop.repository.ClientRepository;
+import com.example.smartshop.service.ClientService;
+import com.example.smartshop.support.AbstractPostgresIntegrationTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Archivage d'un mois (OrderPartitionJob) suivi du recalcul des niveaux
+ * (TierRecomputationJob) : les commandes archivées comptent toujours pour le client.
+ */
+@EnabledIfSystemProperty(named = "smartshop.test.postgres-url", matches = ".+")
+class OrderArchiveTierTest extends AbstractPostgresIntegrationTest {
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @Autowired
+  private ClientService clientService;
+
+  @Autowired
+  private ClientRepository clientRepository;
+
+  @Autowired
+  private TierRecomputationJob tierRecomputationJob;
+
+  @TempDir
+  private Path archiveDirectory;
+
+  private Long clientId;
+
+  @AfterEach
+  void tearDown() {
+    if (clientId != null) {
+      jdbcTemplate.update("DELETE FROM client_archived_totals WHERE client_id = ?", clientId);
+      jdbcTemplate.update("DELETE FROM order_summary WHERE client_id = ?", clientId);
+      jdbcTemplate.update("DELETE FROM orders WHERE client_id = ?", clientId);
+      jdbcTemplate.update("DELETE FROM clients WHERE user_id = ?", clientId);
+      jdbcTemplate.update("DELETE FROM users WHERE id = ?", clientId);
+    }
+  }
+
+  @Test
+  void archivedMonthStillCountsAfterRecompute() throws Exception {
+    clientId = clientService.create(CreateClientDTO.builder()
+        .name("Archive Client")
+        .email("archive." + System.nanoTime() + "@example.com")
+        .build()).getId();
+    YearMonth archivedMonth = YearMonth.now().minusMonths(30);
+    jdbcTemplate.queryForObject("SELECT create_order_partitions(?, 1)", Integer.class, archivedMonth.atDay(1));
+    jdbcTemplate.queryForObject("SELECT create_order_partitions(?, 1)", Integer.class, YearMonth.now().atDay(1));
+    for (int i = 0; i < 3; i++) {
+      insertConfirmedOrder(archivedMonth.atDay(10).atStartOfDay().plusHours(i), 400.0);
+    }
+    insertConfirmedOrder(LocalDateTime.now(), 100.0);
+    jdbcTemplate.update("UPDATE clients SET tier = 'SILVER', total_orders = 4, total_spent = 1300 WHERE user_id = ?",
+        clientId);
+
+    OrderPartitionJob partitionJob = new OrderPartitionJob(jdbcTemplate, transactionTemplate,
+        new SimpleMeterRegistry(), archiveDirectory.toString(), 0, 24, 5000);
+    partitionJob.execute();
+
+    assertTrue(Files.exists(archiveDirectory.resolve(archivedMonth.toString()).resolve("orders.csv.gz")));
+    assertEquals(1L, jdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM orders WHERE client_id = ?", Long.class, clientId));
+    assertEquals(3, jdbcTemplate.queryForObject(
+        "SELECT archived_orders FROM client_archived_totals WHERE client_id = ?", Integer.class, clientId));
+
+    tierRecomputationJob.run();
+
+    Client client = clientRepository.findById(clientId).orElseThrow();
+    assertEquals(4, client.getTotalOrders());
+    assertEquals(1300.0, client.getTotalSpent());
+    assertEquals(CustomerTier.SILVER, client.getTier());
+  }
+
+  private void insertConfirmedOrder(LocalDateTime createdAt, double total) {
+    jdbcTemplate.update("INSERT INTO orders (client_id, date, created_at, status, subtotal, discount_amount, tax, "
+            + "total, remaining_amount) VALUES (?, ?, ?, 'CONFIRMED', ?, 0, 20, ?, 0)",
+        clientId, createdAt.toLocalDate(), createdAt, total / 1.2, total);
+  }
+}
@@ -0,0 +1,68 @@
+package com.example.smartshop.job;
+
+import com.example.smartshop.dto.CreateClientDTO;
+import com.example.smartshop.service.ClientService;
+import com.example.smartshop.support.AbstractPostgresIntegrationTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Lignes hors des partitions mensuelles : la passe échoue et la métrique les compte.
+ */
+@EnabledIfSystemProperty(named = "smartshop.test.postgres-url", matches = ".+")
+class OrderPartitionJobTest extends AbstractPostgresIntegrationTest {
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @Autowired
+  private ClientService clientService;
+
+  @TempDir
+  private Path archiveDirectory;
+
+  private Long clientId;
+
+  @AfterEach
+  void tearDown() {
+    if (clientId != null) {
+      jdbcTemplate.update("DELETE FROM orders WHERE client_id = ?", clientId);
+      jdbcTemplate.update("DELETE FROM clients WHERE user_id = ?", clientId);
+      jdbcTemplate.update("DELETE FROM users WHERE id = ?", clientId);
+    }
+  }
+
+  @Test
+  void rowsInDefaultPartitionFailTheRun() {
+    clientId = clientService.create(CreateClientDTO.builder()
+        .name("Default Partition Client")
+        .email("default." + System.nanoTime() + "@example.com")
+        .build()).getId();
+    // Mois jamais créé par create_order_partitions : partition orders_default
+    LocalDateTime farFuture = LocalDateTime.now().plusYears(50);
+    jdbcTemplate.update("INSERT INTO orders (client_id, date, created_at, status, subtotal, discount_amount, tax, "
+        + "total, remaining_amount) VALUES (?, ?, ?, 'PENDING', 100, 0, 20, 120, 120)",
+        clientId, farFuture.toLocalDate(), farFuture);
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    OrderPartitionJob job = new OrderPartitionJob(jdbcTemplate, transactionTemplate, meterRegistry,
+        archiveDirectory.toString(), 0, 24, 5000);
+
+    IllegalStateException failure = assertThrows(IllegalStateException.class, job::execute);
+
+    assertTrue(failure.getMessage().contains("DEFAULT partitions"));
+    assertTrue(meterRegistry.get("smartshop.orders.partitions.default.rows").tag("table", "orders").gauge()
+        .value() >= 1);
+    assertEquals(0.0, meterRegistry.get("smartshop.orders.partitions.default.rows").tag("table", "payments").gauge()
+        .value());
+  }
+}
@@ -0,0 +1,37 @@
+package com.example.smartshop.job;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderPartitionsTest {
+
+  @Test
+  void partitionNamesMatchTheMigrationFunction() {
+    assertEquals("orders_y2025m01", OrderPartitions.name("orders", YearMonth.of(2025, 1)));
+    assertEquals("order_items_y2024m12", OrderPartitions.name("order_items", YearMonth.of(2024, 12)));
+    assertEquals("payments_y2025m03", OrderPartitions.name("payments", YearMonth.of(2025, 3)));
+  }
+
+  @Test
+  void onlyMonthlyOrderPartitionsAreParsed() {
+    assertEquals(Optional.of(YearMonth.of(2025, 1)), OrderPartitions.monthOf("orders_y2025m01"));
+    assertTrue(OrderPartitions.monthOf("orders_default").isEmpty());
+    assertTrue(OrderPartitions.monthOf("payments_y2025m01").isEmpty());
+  }
+
+  @Test
+  void monthsOlderThanTheRetentionWindowAreArchivedOldestFirst() {
+    List<YearMonth> months = List.of(YearMonth.of(2025, 3), YearMonth.of(2023, 1), YearMonth.of(2025, 2),
+        YearMonth.of(2023, 2), YearMonth.of(2025, 6));
+
+    List<YearMonth> archivable = OrderPartitions.archivable(months, YearMonth.of(2025, 6), 4);
+
+    // Rétention de 4 mois avant juin 2025 : février 2025 est le plus ancien mois conservé
+    assertEquals(List.of(YearMonth.of(2023, 1), YearMonth.of(2023, 2)), archivable);
+  }
+}
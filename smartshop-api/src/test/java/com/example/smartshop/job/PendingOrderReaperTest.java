@@ -0,0 +1,143 @@
+package com.example.smartshop.job;
+
+import com.example.smartshop.dto.PaymentRequestDTO;
+import com.example.smartshop.entity.OrderStatus;
+import com.example.smartshop.entity.OutboxEvent;
+import com.example.smartshop.entity.OutboxEventType;
+import com.example.smartshop.entity.PaymentMethod;
+import com.example.smartshop.entity.Product;
+import com.example.smartshop.exception.BusinessRuleViolationException;
+import com.example.smartshop.exception.ErrorCode;
+import com.example.smartshop.repository.OrderRepository;
+import com.example.smartshop.repository.OrderSummaryRepository;
+import com.example.smartshop.repository.OutboxEventRepository;
+import com.example.smartshop.service.PaymentService;
+import com.example.smartshop.support.AbstractIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Expiration des commandes PENDING : seules les commandes anciennes et sans paiement
+ * encaissé sont annulées, par lots, avec les mêmes effets qu'une annulation manuelle.
+ */
+class PendingOrderReaperTest extends AbstractIntegrationTest {
+
+  @Autowired
+  private PaymentService paymentService;
+
+  @Autowired
+  private OutboxEventRepository outboxEventRepository;
+
+  @Autowired
+  private OrderSummaryRepository orderSummaryRepository;
+
+  @Autowired
+  private OrderRepository orderRepository;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  private Long clientId;
+  private Product product;
+
+  @BeforeEach
+  void setUp() {
+    clientId = createClient("Reaper Client", "reaper.client@example.com");
+    product = createProduct("Casque", 100.0, 100);
+  }
+
+  @Test
+  void expiredUnpaidOrdersAreCanceledInBatches() {
+    List<Long> expired = List.of(createOrder(), createOrder(), createOrder());
+    Long paid = createOrder();
+    Long recent = createOrder();
+    expired.forEach(id -> backdate(id, 80));
+    backdate(paid, 80);
+    paymentService.addPayment(PaymentRequestDTO.builder()
+        .orderId(paid)
+        .amount(100.0)
+        .paymentMethod(PaymentMethod.CASH)
+        .build());
+
+    PendingOrderReaper reaper = new PendingOrderReaper(orderService, 72, 2, 10);
+
+    assertEquals(3, reaper.reap());
+    assertEquals(0, reaper.reap());
+
+    expired.forEach(id -> assertEquals(OrderStatus.CANCELED, orderRepository.findById(id).orElseThrow().getStatus()));
+    assertEquals(OrderStatus.PENDING, orderRepository.findById(paid).orElseThrow().getStatus());
+    assertEquals(OrderStatus.PENDING, orderRepository.findById(recent).orElseThrow().getStatus());
+    expired.forEach(id -> assertEquals(OrderStatus.CANCELED, orderSummaryRepository.findById(id).orElseThrow().getStatus()));
+
+    List<OutboxEvent> canceled = outboxEventRepository.findAll().stream()
+        .filter(event -> event.getEventType() == OutboxEventType.ORDER_CANCELED)
+        .toList();
+    assertEquals(3, canceled.size());
+    canceled.forEach(event -> assertTrue(event.getPayload().contains("\"status\":\"CANCELED\"")));
+  }
+
+  @Test
+  void paymentWaitsForAConcurrentExpiryAndIsRejected() throws Exception {
+    Long orderId = createOrder();
+    backdate(orderId, 80);
+    CountDownLatch reserved = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService threads = Executors.newFixedThreadPool(2);
+    try {
+      // Expiration réservée (FOR UPDATE SKIP LOCKED) mais pas encore validée
+      Future<List<Long>> expiry = threads.submit(() -> transactionTemplate.execute(status -> {
+        List<Long> ids = orderService.cancelExpiredOrders(LocalDateTime.now().minusHours(72), 10);
+        reserved.countDown();
+        try {
+          release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return ids;
+      }));
+      assertTrue(reserved.await(5, TimeUnit.SECONDS));
+
+      Future<?> payment = threads.submit(() -> paymentService.addPayment(PaymentRequestDTO.builder()
+          .orderId(orderId)
+          .amount(100.0)
+          .paymentMethod(PaymentMethod.CASH)
+          .build()));
+      Thread.sleep(200);
+      assertFalse(payment.isDone(), "Le paiement doit attendre le verrou de la commande");
+
+      release.countDown();
+      assertEquals(List.of(orderId), expiry.get(5, TimeUnit.SECONDS));
+      ExecutionException failure = assertThrows(ExecutionException.class, () -> payment.get(5, TimeUnit.SECONDS));
+      BusinessRuleViolationException rejected = assertInstanceOf(BusinessRuleViolationException.class,
+          failure.getCause());
+      assertEquals(ErrorCode.ORDER_NOT_PAYABLE, rejected.getErrorCode());
+    } finally {
+      release.countDown();
+      threads.shutdownNow();
+    }
+    assertEquals(OrderStatus.CANCELED, orderRepository.findById(orderId).orElseThrow().getStatus());
+  }
+
+  private Long createOrder() {
+    return createOrder(clientId, product, 1);
+  }
+
+  private void backdate(Long orderId, int hours) {
+    jdbcTemplate.update("UPDATE orders SET created_at = ? WHERE id = ?",
+        Timestamp.valueOf(LocalDateTime.now().minusHours(hours)), orderId);
+  }
+}
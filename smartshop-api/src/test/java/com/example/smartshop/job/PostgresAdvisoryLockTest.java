@@ -0,0 +1,44 @@
+package com.example.smartshop.job;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verrous consultatifs contre une base PostgreSQL locale, deux gestionnaires simulant deux
+ * nœuds :
+ * mvn test -Dtest=PostgresAdvisoryLockTest -Dsmartshop.test.postgres-url=jdbc:postgresql://localhost:5432/smartshop
+ * (identifiants : smartshop.test.postgres-user / smartshop.test.postgres-password)
+ */
+@EnabledIfSystemProperty(named = "smartshop.test.postgres-url", matches = ".+")
+class PostgresAdvisoryLockTest {
+
+  @Test
+  void onlyOneNodeHoldsTheJobLock() {
+    JobLockManager firstNode = new JobLockManager(dataSource());
+    JobLockManager secondNode = new JobLockManager(dataSource());
+
+    try (JobLockManager.Lease lease = firstNode.tryLock("test-advisory").orElseThrow()) {
+      assertTrue(secondNode.tryLock("test-advisory").isEmpty());
+      // Verrous indépendants d'un traitement à l'autre
+      Optional<JobLockManager.Lease> other = secondNode.tryLock("test-advisory-other");
+      assertTrue(other.isPresent());
+      other.get().close();
+    }
+
+    Optional<JobLockManager.Lease> released = secondNode.tryLock("test-advisory");
+    assertTrue(released.isPresent());
+    released.get().close();
+  }
+
+  private static DriverManagerDataSource dataSource() {
+    return new DriverManagerDataSource(
+        System.getProperty("smartshop.test.postgres-url"),
+        System.getProperty("smartshop.test.postgres-user", "postgres"),
+        System.getProperty("smartshop.test.postgres-password", "postgres"));
+  }
+}
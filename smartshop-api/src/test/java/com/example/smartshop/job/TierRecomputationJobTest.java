@@ -0,0 +1,150 @@
+package com.example.smartshop.job;
+
+import com.example.smartshop.config.ThreadModeExecutors;
+import com.example.smartshop.dto.JobProgressDTO;
+import com.example.smartshop.entity.Client;
+import com.example.smartshop.entity.CustomerTier;
+import com.example.smartshop.entity.JobCheckpoint;
+import com.example.smartshop.entity.Product;
+import com.example.smartshop.pricing.TierRuleEngine;
+import com.example.smartshop.repository.ClientRepository;
+import com.example.smartshop.repository.JobCheckpointRepository;
+import com.example.smartshop.support.AbstractIntegrationTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Recalcul des niveaux : statistiques dérivées des commandes CONFIRMED, plages traitées
+ * en parallèle (plages de 2 ids, 2 à la fois) et reprise au point enregistré.
+ */
+class TierRecomputationJobTest extends AbstractIntegrationTest {
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @Autowired
+  private JobCheckpointRepository checkpointRepository;
+
+  @Autowired
+  private TierRuleEngine tierRuleEngine;
+
+  @Autowired
+  private ClientRepository clientRepository;
+
+  @Autowired
+  private ThreadModeExecutors executors;
+
+  private TierRecomputationJob job;
+  private Product product;
+
+  @BeforeEach
+  void setUp() {
+    job = new TierRecomputationJob(jdbcTemplate, transactionTemplate, entityManagerFactory, checkpointRepository,
+        tierRuleEngine, executors, 2, 2);
+    product = createProduct("Écran", 100.0, 100);
+  }
+
+  @AfterEach
+  void tearDown() {
+    job.shutdown();
+  }
+
+  @Test
+  void statisticsAndTiersAreRecomputedFromConfirmedOrders() {
+    Long silverId = createClient("recompute.silver@example.com");
+    Long driftedId = createClient("recompute.drifted@example.com");
+    Long untouchedId = createClient("recompute.untouched@example.com");
+    for (int i = 0; i < 3; i++) {
+      confirmDirectly(createOrder(silverId));
+    }
+    createOrder(untouchedId);
+    jdbcTemplate.update("UPDATE clients SET tier = 'GOLD', total_orders = 12, total_spent = 6000 WHERE user_id = ?",
+        driftedId);
+    // Lecture avant le recalcul : le client est en cache de second niveau
+    assertEquals(CustomerTier.BASIC, clientRepository.findById(silverId).orElseThrow().getTier());
+
+    JobProgressDTO progress = job.run();
+
+    assertEquals(3L, progress.getProcessed());
+    assertEquals(2L, progress.getChanged());
+    assertNotNull(progress.getCompletedAt());
+    assertEquals(100.0, progress.getProgress());
+
+    Client silver = clientRepository.findById(silverId).orElseThrow();
+    assertEquals(CustomerTier.SILVER, silver.getTier());
+    assertEquals(3, silver.getTotalOrders());
+    assertEquals(720.0, silver.getTotalSpent());
+    Client drifted = clientRepository.findById(driftedId).orElseThrow();
+    assertEquals(CustomerTier.BASIC, drifted.getTier());
+    assertEquals(0, drifted.getTotalOrders());
+    assertEquals(0.0, drifted.getTotalSpent());
+    assertEquals(CustomerTier.BASIC, clientRepository.findById(untouchedId).orElseThrow().getTier());
+  }
+
+  @Test
+  void archivedOrdersStillCountTowardsTheTier() {
+    Long clientId = createClient("recompute.archived@example.com");
+    confirmDirectly(createOrder(clientId));
+    // Deux commandes confirmées d'un mois archivé (OrderPartitionJob)
+    jdbcTemplate.update("INSERT INTO client_archived_totals (client_id, archived_orders, archived_spent, updated_at) "
+        + "VALUES (?, 2, 900.0, CURRENT_TIMESTAMP)", clientId);
+
+    job.run();
+
+    Client client = clientRepository.findById(clientId).orElseThrow();
+    assertEquals(3, client.getTotalOrders());
+    assertEquals(1140.0, client.getTotalSpent());
+    assertEquals(CustomerTier.SILVER, client.getTier());
+  }
+
+  @Test
+  void interruptedRunResumesFromItsCheckpoint() {
+    Long firstId = createClient("recompute.first@example.com");
+    Long secondId = createClient("recompute.second@example.com");
+    jdbcTemplate.update("UPDATE clients SET tier = 'PLATINUM', total_orders = 25 WHERE user_id IN (?, ?)",
+        firstId, secondId);
+    // Parcours interrompu après les ids inférieurs à secondId
+    checkpointRepository.save(JobCheckpoint.builder()
+        .jobName(TierRecomputationJob.NAME)
+        .startedAt(LocalDateTime.now().minusHours(1))
+        .nextId(secondId)
+        .upperBound(secondId)
+        .processed(1L)
+        .changed(0L)
+        .build());
+
+    JobProgressDTO resumed = job.run();
+
+    assertEquals(2L, resumed.getProcessed());
+    assertEquals(1L, resumed.getChanged());
+    assertEquals(CustomerTier.PLATINUM, clientRepository.findById(firstId).orElseThrow().getTier());
+    assertEquals(CustomerTier.BASIC, clientRepository.findById(secondId).orElseThrow().getTier());
+
+    // Parcours terminé : le lancement suivant repart du début
+    JobProgressDTO next = job.run();
+
+    assertEquals(2L, next.getProcessed());
+    assertEquals(1L, next.getChanged());
+    assertEquals(CustomerTier.BASIC, clientRepository.findById(firstId).orElseThrow().getTier());
+  }
+
+  private Long createClient(String email) {
+    return createClient("Recompute Client", email);
+  }
+
+  private Long createOrder(Long clientId) {
+    return createOrder(clientId, product, 2);
+  }
+
+  // Correction de données hors du parcours normal : les statistiques du client ne suivent pas
+  private void confirmDirectly(Long orderId) {
+    jdbcTemplate.update("UPDATE orders SET status = 'CONFIRMED', remaining_amount = 0 WHERE id = ?", orderId);
+  }
+}
@@ -0,0 +1,175 @@
+package com.example.smartshop.load;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test de charge comparant les modes "platform" et "virtual" threads.
+ *
+ * Cible une instance SmartShop déjà démarrée ; le test est ignoré tant que
+ * smartshop.loadtest.base-url n'est pas fourni. Lancer l'application une fois par mode
+ * (spring.threads.virtual.enabled=false puis true) et exécuter :
+ *
+ * mvn test -Dtest=ThreadModeLoadTest -Dsmartshop.loadtest.base-url=http://localhost:8080
+ *     -Dsmartshop.loadtest.label=virtual
+ *
+ * Chaque exécution ajoute une ligne par scénario dans target/loadtest-results.csv.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "smartshop.loadtest.base-url", matches = ".+")
+class ThreadModeLoadTest {
+
+  private static final Path RESULTS_FILE = Path.of("target", "loadtest-results.csv");
+
+  private static String baseUrl;
+  private static String label;
+  private static int concurrency;
+  private static Duration duration;
+  private static HttpClient client;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    baseUrl = System.getProperty("smartshop.loadtest.base-url");
+    label = System.getProperty("smartshop.loadtest.label", "unlabeled");
+    concurrency = Integer.getInteger("smartshop.loadtest.concurrency", 200);
+    duration = Duration.ofSeconds(Long.getLong("smartshop.loadtest.duration-seconds", 30L));
+
+    client = HttpClient.newBuilder()
+        .cookieHandler(new CookieManager())
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+
+    String credentials = String.format("{\"username\":\"%s\",\"password\":\"%s\"}",
+        System.getProperty("smartshop.loadtest.username", "admin"),
+        System.getProperty("smartshop.loadtest.password", "admin123"));
+    HttpResponse<String> login = client.send(post("/api/auth/login", credentials),
+        HttpResponse.BodyHandlers.ofString());
+    assertEquals(200, login.statusCode(), "Login admin impossible : " + login.body());
+  }
+
+  @Test
+  void listProducts() throws Exception {
+    Result result = run(() -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/products?page=0&size=10"))
+        .GET()
+        .build());
+    record("GET /api/products", result);
+  }
+
+  @Test
+  void createOrders() throws Exception {
+    String body = String.format("{\"clientId\":%d,\"items\":[{\"productId\":%d,\"quantity\":1}]}",
+        Long.getLong("smartshop.loadtest.client-id", 2L),
+        Long.getLong("smartshop.loadtest.product-id", 1L));
+    Result result = run(() -> post("/api/admin/orders", body));
+    record("POST /api/admin/orders", result);
+  }
+
+  private Result run(RequestFactory factory) throws InterruptedException {
+    long deadline = System.nanoTime() + duration.toNanos();
+    AtomicLong errors = new AtomicLong();
+    List<List<Long>> latencies = new ArrayList<>();
+
+    ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+    for (int i = 0; i < concurrency; i++) {
+      List<Long> workerLatencies = new ArrayList<>();
+      latencies.add(workerLatencies);
+      workers.submit(() -> {
+        while (System.nanoTime() < deadline) {
+          long start = System.nanoTime();
+          try {
+            HttpResponse<Void> response = client.send(factory.create(), HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() >= 400) {
+              errors.incrementAndGet();
+            }
+          } catch (IOException e) {
+            errors.incrementAndGet();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+          }
+          workerLatencies.add(System.nanoTime() - start);
+        }
+      });
+    }
+    workers.shutdown();
+    assertTrue(workers.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS));
+
+    List<Long> all = new ArrayList<>();
+    latencies.forEach(all::addAll);
+    Collections.sort(all);
+    return new Result(all, errors.get());
+  }
+
+  private void record(String scenario, Result result) throws IOException {
+    double throughput = result.latencies.size() / (double) duration.toSeconds();
+    String line = String.format(Locale.ROOT, "%s,%s,%d,%.1f,%.2f,%.2f,%d%n",
+        label, scenario, concurrency, throughput,
+        result.percentileMillis(0.50), result.percentileMillis(0.99), result.errors);
+
+    log.info("[{}] {}: {} req/s, p50={} ms, p99={} ms, errors={}", label, scenario,
+        String.format(Locale.ROOT, "%.1f", throughput),
+        String.format(Locale.ROOT, "%.2f", result.percentileMillis(0.50)),
+        String.format(Locale.ROOT, "%.2f", result.percentileMillis(0.99)), result.errors);
+
+    Files.createDirectories(RESULTS_FILE.getParent());
+    if (Files.notExists(RESULTS_FILE)) {
+      Files.writeString(RESULTS_FILE, "label,scenario,concurrency,throughput_rps,p50_ms,p99_ms,errors\n");
+    }
+    Files.writeString(RESULTS_FILE, line, StandardOpenOption.APPEND);
+  }
+
+  private static HttpRequest post(String path, String json) {
+    return HttpRequest.newBuilder(URI.create(baseUrl + path))
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(json, StandardCharsets.UTF_8))
+        .build();
+  }
+
+  @FunctionalInterface
+  private interface RequestFactory {
+    HttpRequest create();
+  }
+
+  private static final class Result {
+    private final List<Long> latencies;
+    private final long errors;
+
+    private Result(List<Long> latencies, long errors) {
+      this.latencies = latencies;
+      this.errors = errors;
+    }
+
+    private double percentileMillis(double percentile) {
+      if (latencies.isEmpty()) {
+        return 0.0;
+      }
+      int index = (int) Math.min(latencies.size() - 1, Math.ceil(percentile * latencies.size()) - 1);
+      return latencies.get(Math.max(index, 0)) / 1_000_000.0;
+    }
+  }
+}
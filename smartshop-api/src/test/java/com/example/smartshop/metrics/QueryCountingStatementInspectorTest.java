@@ -0,0 +1,35 @@
+package com.example.smartshop.metrics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryCountingStatementInspectorTest {
+
+  private final QueryCountingStatementInspector inspector = new QueryCountingStatementInspector();
+
+  @AfterEach
+  void tearDown() {
+    RequestQueryStats.clear();
+  }
+
+  @Test
+  void statementsAreCountedForTheCurrentRequestAndLeftUnchanged() {
+    RequestQueryStats stats = RequestQueryStats.start(true);
+
+    assertEquals("select * from orders where id=?", inspector.inspect("select * from orders where id=?"));
+    inspector.inspect("select * from orders where id=?");
+    inspector.inspect("select * from clients where user_id=?");
+
+    assertEquals(3, stats.getStatements());
+    assertEquals("select * from orders where id=?", stats.topStatements(1).get(0).getKey());
+    assertEquals(2, stats.topStatements(1).get(0).getValue());
+  }
+
+  @Test
+  void statementsOutsideARequestAreIgnored() {
+    assertEquals("select 1", inspector.inspect("select 1"));
+    assertNull(RequestQueryStats.current());
+  }
+}
@@ -0,0 +1,77 @@
+package com.example.smartshop.metrics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compteurs rattachés au thread : démarrage, rattachement à un autre thread, requêtes les plus fréquentes.
+ */
+class RequestQueryStatsTest {
+
+  @AfterEach
+  void tearDown() {
+    RequestQueryStats.clear();
+  }
+
+  @Test
+  void countersBelongToTheStartingThread() throws Exception {
+    RequestQueryStats stats = RequestQueryStats.start(false);
+    stats.recordStatement("select 1");
+    stats.recordEntityLoad();
+    stats.recordCollectionFetch();
+    stats.recordCollectionFetch();
+
+    assertSame(stats, RequestQueryStats.current());
+    assertEquals(1, stats.getStatements());
+    assertEquals(1, stats.getEntityLoads());
+    assertEquals(2, stats.getCollectionFetches());
+    // Sans capture, le texte SQL n'est pas conservé
+    assertEquals(List.of(), stats.topStatements(5));
+
+    RequestQueryStats[] seen = new RequestQueryStats[1];
+    Thread other = new Thread(() -> seen[0] = RequestQueryStats.current());
+    other.start();
+    other.join();
+    assertNull(seen[0]);
+
+    RequestQueryStats.clear();
+    assertNull(RequestQueryStats.current());
+  }
+
+  @Test
+  void boundStatsKeepCountingOnAnotherThread() throws Exception {
+    RequestQueryStats stats = RequestQueryStats.start(false);
+    stats.recordStatement("select 1");
+
+    Thread worker = new Thread(() -> {
+      RequestQueryStats.bind(stats);
+      RequestQueryStats.current().recordStatement("select 2");
+      RequestQueryStats.clear();
+    });
+    worker.start();
+    worker.join();
+
+    assertEquals(2, stats.getStatements());
+  }
+
+  @Test
+  void topStatementsAreSortedByExecutions() {
+    RequestQueryStats stats = RequestQueryStats.start(true);
+    stats.recordStatement("select a");
+    stats.recordStatement("select b");
+    stats.recordStatement("select b");
+    stats.recordStatement("select c");
+    stats.recordStatement("select b");
+    stats.recordStatement("select c");
+
+    List<Map.Entry<String, Integer>> top = stats.topStatements(2);
+
+    assertEquals(List.of(Map.entry("select b", 3), Map.entry("select c", 2)), top);
+    assertEquals(6, stats.getStatements());
+  }
+}
@@ -0,0 +1,164 @@
+package com.example.smartshop.outbox;
+
+import com.example.smartshop.dto.PaymentRequestDTO;
+import com.example.smartshop.entity.OutboxEvent;
+import com.example.smartshop.entity.OutboxEventType;
+import com.example.smartshop.entity.PaymentMethod;
+import com.example.smartshop.entity.Product;
+import com.example.smartshop.exception.BusinessRuleViolationException;
+import com.example.smartshop.repository.OutboxEventRepository;
+import com.example.smartshop.service.OutboxService;
+import com.example.smartshop.service.PaymentService;
+import com.example.smartshop.support.AbstractIntegrationTest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Outbox : écriture dans la transaction métier, relais vers le fichier local et vers
+ * un webhook (serveur HTTP local de test), reprise après échec.
+ */
+class OutboxRelayTest extends AbstractIntegrationTest {
+
+  private static final Path OUTBOX_FILE = Path.of("target", "outbox", "events.ndjson");
+
+  @Autowired
+  private OutboxRelay outboxRelay;
+
+  @Autowired
+  private OutboxService outboxService;
+
+  @Autowired
+  private OutboxEventRepository outboxEventRepository;
+
+  @Autowired
+  private PaymentService paymentService;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  private HttpServer webhookStub;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    outboxEventRepository.deleteAll();
+    Files.deleteIfExists(OUTBOX_FILE);
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (webhookStub != null) {
+      webhookStub.stop(0);
+    }
+  }
+
+  @Test
+  void paymentAndConfirmationAreWrittenWithTheirTransaction() {
+    Long clientId = createClient("Outbox Client", "outbox.client@example.com");
+    Product product = createProduct("Clavier", 100.0, 10);
+    Long orderId = createOrder(clientId, product, 2);
+
+    // Confirmation refusée (commande non payée) : aucun événement
+    assertThrows(BusinessRuleViolationException.class, () -> orderService.confirmOrder(orderId));
+    assertEquals(0, outboxEventRepository.count());
+
+    Long paymentId = paymentService.addPayment(PaymentRequestDTO.builder()
+        .orderId(orderId)
+        .amount(240.0)
+        .paymentMethod(PaymentMethod.CASH)
+        .build()).getId();
+    orderService.confirmOrder(orderId);
+
+    List<OutboxEvent> events = outboxEventRepository.findAll().stream()
+        .sorted(Comparator.comparing(OutboxEvent::getId))
+        .toList();
+    assertEquals(List.of(OutboxEventType.PAYMENT_ADDED, OutboxEventType.ORDER_CONFIRMED),
+        events.stream().map(OutboxEvent::getEventType).toList());
+    assertEquals(paymentId, events.get(0).getAggregateId());
+    assertEquals(orderId, events.get(1).getAggregateId());
+    assertTrue(events.get(1).getPayload().contains("\"status\":\"CONFIRMED\""));
+  }
+
+  @Test
+  void relayDeliversToFileSinkAndMarksEventsPublished() throws Exception {
+    appendEvents(7);
+
+    assertEquals(7, outboxRelay.relayPending());
+    assertEquals(0, outboxRelay.relayPending());
+
+    List<String> lines = Files.readAllLines(OUTBOX_FILE);
+    assertEquals(7, lines.size());
+    JsonNode first = objectMapper.readTree(lines.get(0));
+    assertEquals("ORDER_CANCELED", first.get("type").asText());
+    assertEquals(0, first.get("payload").get("orderId").asInt());
+    assertEquals(0, outboxEventRepository.countByPublishedAtIsNull());
+  }
+
+  @Test
+  void failedWebhookDeliveryIsRetriedAsAWholeBatch() throws Exception {
+    AtomicInteger status = new AtomicInteger(503);
+    List<JsonNode> received = new CopyOnWriteArrayList<>();
+    webhookStub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    webhookStub.createContext("/outbox", exchange -> {
+      JsonNode body = objectMapper.readTree(exchange.getRequestBody());
+      if (status.get() == 204) {
+        body.forEach(received::add);
+      }
+      exchange.sendResponseHeaders(status.get(), -1);
+      exchange.close();
+    });
+    webhookStub.start();
+
+    String url = "http://localhost:" + webhookStub.getAddress().getPort() + "/outbox";
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    // Délai de reprise nul : les événements en échec sont immédiatement disponibles
+    OutboxRelay relay = new OutboxRelay(outboxEventRepository, new WebhookOutboxSink(objectMapper, url, 2000),
+        transactionTemplate, meterRegistry, false, 3, 10, 0, 0, 168);
+    appendEvents(5);
+
+    // Premier lot en échec : le relais s'arrête et reprogramme les 3 événements réservés
+    assertEquals(0, relay.relayPending());
+    List<OutboxEvent> failed = outboxEventRepository.findAll().stream()
+        .filter(event -> event.getAttempts() == 1)
+        .toList();
+    assertEquals(3, failed.size());
+    failed.forEach(event -> assertTrue(event.getLastError().contains("503")));
+    assertEquals(5, outboxEventRepository.countByPublishedAtIsNull());
+
+    status.set(204);
+    assertEquals(5, relay.relayPending());
+    assertEquals(5, received.size());
+    assertEquals(0, outboxEventRepository.countByPublishedAtIsNull());
+    assertEquals(3.0, meterRegistry.counter("smartshop.outbox.events", "sink", "webhook", "outcome", "failed").count());
+    assertEquals(5.0, meterRegistry.counter("smartshop.outbox.events", "sink", "webhook", "outcome", "delivered").count());
+  }
+
+  private void appendEvents(int count) {
+    transactionTemplate.executeWithoutResult(status -> {
+      for (int i = 0; i < count; i++) {
+        outboxService.append(OutboxEventType.ORDER_CANCELED, OutboxService.AGGREGATE_ORDER, (long) i,
+            Map.of("orderId", i));
+      }
+    });
+  }
+}
@@ -0,0 +1,501 @@
+package com.example.smartshop.perf;
+
+import com.example.smartshop.config.PasswordUtil;
+import com.example.smartshop.datagen.DatasetLoadReport;
+import com.example.smartshop.datagen.DatasetLoader;
+import com.example.smartshop.datagen.DatasetSpec;
+import com.example.smartshop.dto.ClientDTO;
+import com.example.smartshop.dto.CreateClientDTO;
+import com.example.smartshop.dto.OrderItemRequestDTO;
+import com.example.smartshop.dto.OrderRequestDTO;
+import com.example.smartshop.dto.OrderResponseDTO;
+import com.example.smartshop.dto.PaymentRequestDTO;
+import com.example.smartshop.dto.ProductRequestDTO;
+import com.example.smartshop.entity.PaymentMethod;
+import com.example.smartshop.entity.User;
+import com.example.smartshop.entity.UserRole;
+import com.example.smartshop.repository.UserRepository;
+import com.example.smartshop.service.ClientService;
+import com.example.smartshop.service.OrderService;
+import com.example.smartshop.service.PaymentService;
+import com.example.smartshop.service.ProductService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * Suite de performance : chaque endpoint des controllers est appelé sur un jeu de données
+ * synthétique (DatasetLoader) et doit respecter son budget de requêtes SQL et sa latence p95.
+ *
+ * Exclue du build par défaut (tag "perf") ; lancement :
+ *
+ * mvn test -Pperf -Dsmartshop.perf.orders=500000 -Dsmartshop.perf.clients=50000
+ *
+ * Base H2 du profil "it" par défaut ; pour mesurer sur PostgreSQL, passer une base vide avec
+ * -Dspring.datasource.url=... -Dspring.datasource.driver-class-name=org.postgresql.Driver
+ * -Dspring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect -Dspring.flyway.enabled=true
+ * -Dspring.jpa.hibernate.ddl-auto=validate
+ *
+ * Les requêtes SQL sont celles comptées par RequestMetricsInterceptor
+ * (smartshop.request.sql.statements) : requêtes préparées par Hibernate pendant la requête HTTP,
+ * hors JdbcTemplate (exports, import). Les budgets de latence sont multipliés par
+ * smartshop.perf.latency-factor pour les machines plus lentes. Chaque exécution ajoute une ligne
+ * par endpoint dans target/perf-results.csv.
+ */
+@Slf4j
+@Tag("perf")
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("it")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class EndpointPerformanceTest {
+
+  private static final Path RESULTS_FILE = Path.of("target", "perf-results.csv");
+  private static final String SQL_STATEMENTS_METRIC = "smartshop.request.sql.statements";
+  private static final int PAGE_SIZE = 20;
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Autowired
+  private DataSource dataSource;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private PasswordUtil passwordUtil;
+
+  @Autowired
+  private ClientService clientService;
+
+  @Autowired
+  private ProductService productService;
+
+  @Autowired
+  private OrderService orderService;
+
+  @Autowired
+  private PaymentService paymentService;
+
+  private final AtomicInteger calls = new AtomicInteger();
+
+  private DatasetSpec spec;
+  private int warmup;
+  private int iterations;
+  private double latencyFactor;
+  private boolean postgres;
+
+  private MockHttpSession adminSession;
+  private MockHttpSession clientSession;
+  private long heavyClientId;
+  private long sampleOrderId;
+  private long samplePaymentId;
+  private List<Long> cheapProductIds;
+  private List<Long> activeProductIds;
+
+  @BeforeAll
+  void loadDataset() throws SQLException {
+    spec = DatasetSpec.builder()
+        .clients(Integer.getInteger("smartshop.perf.clients", 10_000))
+        .products(Integer.getInteger("smartshop.perf.products", 5_000))
+        .orders(Long.getLong("smartshop.perf.orders", 100_000L))
+        .seed(Long.getLong("smartshop.perf.seed", 42L))
+        .referenceDate(LocalDateTime.of(2025, 6, 30, 12, 0))
+        .build();
+    warmup = Integer.getInteger("smartshop.perf.warmup", 3);
+    iterations = Integer.getInteger("smartshop.perf.iterations", 20);
+    latencyFactor = Double.parseDouble(System.getProperty("smartshop.perf.latency-factor", "1.0"));
+    try (Connection connection = dataSource.getConnection()) {
+      postgres = connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).contains("postgres");
+    }
+
+    DatasetLoadReport report = new DatasetLoader(dataSource).load(spec);
+    log.info("Jeu de données : {} lignes en {} ms ({})", report.getTotalRows(),
+        report.getTotalDurationMs(), report.getSink());
+
+    User admin = userRepository.save(User.builder()
+        .username("perf-admin")
+        .password(passwordUtil.passwordHash("admin123"))
+        .role(UserRole.ADMIN)
+        .build());
+    adminSession = session(admin.getId());
+
+    // Le premier client concentre le plus de commandes (distribution biaisée du générateur)
+    heavyClientId = jdbcTemplate.queryForObject(
+        "SELECT client_id FROM orders GROUP BY client_id ORDER BY COUNT(*) DESC LIMIT 1", Long.class);
+    clientSession = session(heavyClientId);
+    sampleOrderId = jdbcTemplate.queryForObject(
+        "SELECT MAX(o.id) FROM orders o JOIN payments p ON p.order_id = o.id WHERE o.client_id = ?",
+        Long.class, heavyClientId);
+    samplePaymentId = jdbcTemplate.queryForObject(
+        "SELECT MIN(id) FROM payments WHERE order_id = ?", Long.class, sampleOrderId);
+
+    // Produits peu chers et en stock illimité : commandes payables en une fois en espèces
+    cheapProductIds = jdbcTemplate.queryForList(
+        "SELECT id FROM products WHERE deleted = false ORDER BY price LIMIT 3", Long.class);
+    for (Long id : cheapProductIds) {
+      jdbcTemplate.update("UPDATE products SET stock = 1000000 WHERE id = ?", id);
+    }
+    activeProductIds = jdbcTemplate.queryForList(
+        "SELECT id FROM products WHERE deleted = false AND price > 100 ORDER BY id LIMIT 500", Long.class);
+  }
+
+  @TestFactory
+  Stream<DynamicTest> endpointsStayWithinBudgets() {
+    return scenarios().stream()
+        .map(scenario -> DynamicTest.dynamicTest(scenario.name(), () -> run(scenario)));
+  }
+
+  /**
+   * Budgets par endpoint. Les lectures passent avant les écritures pour que les budgets
+   * dépendant du volume (listes complètes) portent sur le jeu de données chargé.
+   */
+  private List<Scenario> scenarios() {
+    List<Scenario> scenarios = new ArrayList<>();
+
+    // ===== Catalogue public =====
+    scenarios.add(read("GET /api/products", 2, 200,
+        i -> get("/api/products").param("page", String.valueOf(i % 50)).param("size", String.valueOf(PAGE_SIZE))));
+    scenarios.add(read("GET /api/products/search", 2, 500,
+        i -> get("/api/products/search").param("name", "a").param("minPrice", "50").param("maxPrice", "5000")
+            .param("inStock", "true").param("size", String.valueOf(PAGE_SIZE))));
+    scenarios.add(read("GET /api/products/{id}", 1, 50,
+        i -> get("/api/products/{id}", cheapProductIds.get(i % cheapProductIds.size()))));
+
+    // ===== Authentification =====
+    scenarios.add(read("POST /api/auth/login", 1, 100,
+        i -> post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+            .content(json(Map.of("username", "client" + heavyClientId, "password", "client123")))));
+    scenarios.add(read("GET /api/auth/logout", 0, 50, i -> get("/api/auth/logout").session(new MockHttpSession())));
+    scenarios.add(write("POST /api/auth/create", 3, 100, 200,
+        i -> post("/api/auth/create").contentType(MediaType.APPLICATION_JSON)
+            .content(json(Map.of("username", "perf-user-" + i, "password", "secret123",
+                "email", "perf-user-" + i + "@example.com", "role", "CLIENT")))));
+
+    // ===== Historique client =====
+    scenarios.add(read("GET /api/client/orders/history", 1, 500,
+        i -> get("/api/client/orders/history").session(clientSession)));
+
+    // ===== Administration : clients =====
+    scenarios.add(read("GET /api/admin/clients", 2, 3_000, 5,
+        i -> get("/api/admin/clients").session(adminSession)));
+    scenarios.add(read("GET /api/admin/clients/{id}", 2, 50,
+        i -> get("/api/admin/clients/{id}", clientId(i)).session(adminSession)));
+
+    // ===== Administration : commandes (listes servies par order_summary) =====
+    scenarios.add(read("GET /api/admin/orders", 2, 10_000, 3,
+        i -> get("/api/admin/orders").session(adminSession)));
+    scenarios.add(read("GET /api/admin/orders/{id}", 3, 50,
+        i -> get("/api/admin/orders/{id}", sampleOrderId).session(adminSession)));
+    scenarios.add(read("GET /api/admin/orders/client/{clientId}", 2, 500,
+        i -> get("/api/admin/orders/client/{clientId}", heavyClientId).session(adminSession)));
+
+    // ===== Administration : paiements =====
+    scenarios.add(read("GET /api/admin/payments/{id}", 4, 50,
+        i -> get("/api/admin/payments/{id}", samplePaymentId).session(adminSession)));
+    scenarios.add(read("GET /api/admin/payments/orders/{orderId}", 4, 50,
+        i -> get("/api/admin/payments/orders/{orderId}", sampleOrderId).session(adminSession)));
+    scenarios.add(read("GET /api/admin/payments/orders/{orderId}/paginated", 5, 50,
+        i -> get("/api/admin/payments/orders/{orderId}/paginated", sampleOrderId)
+            .param("size", String.valueOf(PAGE_SIZE)).session(adminSession)));
+    // Montant restant recalculé pour chaque paiement de la page : budget proportionnel à la page
+    scenarios.add(read("GET /api/admin/payments/statuses/{status}", 4 + PAGE_SIZE, 300,
+        i -> get("/api/admin/payments/statuses/{status}", "ENCAISSE").param("page", String.valueOf(i % 50))
+            .param("size", String.valueOf(PAGE_SIZE)).session(adminSession)));
+    scenarios.add(read("GET /api/admin/payments/methods/{method}", 4 + PAGE_SIZE, 300,
+        i -> get("/api/admin/payments/methods/{method}", "CASH").param("page", String.valueOf(i % 50))
+            .param("size", String.valueOf(PAGE_SIZE)).session(adminSession)));
+    scenarios.add(read("GET /api/admin/payments/orders/{orderId}/is-fully-paid", 3, 50,
+        i -> get("/api/admin/payments/orders/{orderId}/is-fully-paid", sampleOrderId).session(adminSession)));
+
+    // ===== Exports NDJSON (JdbcTemplate en flux, hors compteur Hibernate) =====
+    scenarios.add(read("GET /api/admin/export/products", 1, 5_000, 3,
+        i -> get("/api/admin/export/products").session(adminSession)));
+    scenarios.add(read("GET /api/admin/export/orders", 1, 60_000, 3,
+        i -> get("/api/admin/export/orders").session(adminSession)));
+    scenarios.add(read("GET /api/admin/export/payments", 1, 30_000, 3,
+        i -> get("/api/admin/export/payments").session(adminSession)));
+
+    // ===== Diagnostics (start/dump/stop pilotent l'enregistreur JFR, hors chemin de données) =====
+    scenarios.add(read("GET /api/admin/diagnostics/jfr", 1, 50,
+        i -> get("/api/admin/diagnostics/jfr").session(adminSession)));
+
+    // ===== Écritures =====
+    scenarios.add(write("POST /api/admin/clients", 5, 100, 201,
+        i -> post("/api/admin/clients").session(adminSession).contentType(MediaType.APPLICATION_JSON)
+            .content(json(Map.of("name", "Perf Client " + i, "email", "perf-create-" + i + "@example.com")))));
+    scenarios.add(write("PUT /api/admin/clients/{id}", 5, 100, 200,
+        i -> put("/api/admin/clients/{id}", clientId(i)).session(adminSession).contentType(MediaType.APPLICATION_JSON)
+            .content(json(Map.of("name", "Perf Update " + i, "email", "perf-update-" + i + "@example.com")))));
+    scenarios.add(write("DELETE /api/admin/clients/{id}", 4, 100, 200, i -> {
+      ClientDTO client = clientService.create(CreateClientDTO.builder()
+          .name("Perf Delete " + i)
+          .email("perf-delete-" + i + "@example.com")
+          .build());
+      return delete("/api/admin/clients/{id}", client.getId()).session(adminSession);
+    }));
+
+    scenarios.add(write("POST /api/admin/products", 4, 100, 201,
+        i -> post("/api/admin/products").session(adminSession).contentType(MediaType.APPLICATION_JSON)
+            .content(json(Map.of("sku", "PERF-" + i, "name", "Produit perf " + i, "price", 99.0, "stock", 10)))));
+    scenarios.add(write("PUT /api/admin/products/{id}", 4, 100, 200,
+        i -> put("/api/admin/products/{id}", activeProductIds.get(i % activeProductIds.size())).session(adminSession)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(json(Map.of("name", "Produit modifié " + i, "price", 120.0, "stock", 50)))));
+    scenarios.add(write("DELETE /api/admin/products/{id}", 4, 100, 200, i -> {
+      long id = productService.create(ProductRequestDTO.builder()
+          .name("Produit à supprimer " + i)
+          .price(10.0)
+          .stock(1)
+          .build()).getId();
+      return delete("/api/admin/products/{id}", id).session(adminSession);
+    }));
+    scenarios.add(new Scenario("POST /api/admin/products/import", 2, 2_000, 5, 200, true,
+        i -> post("/api/admin/products/import").session(adminSession).contentType("text/csv")
+            .content(importCsv(i, 1_000))));
+
+    scenarios.add(write("POST /api/admin/orders", 12, 200, 201,
+        i -> post("/api/admin/orders").session(adminSession).contentType(MediaType.APPLICATION_JSON)
+            .content(json(orderRequest(i)))));
+    scenarios.add(write("POST /api/admin/orders/bulk", 17, 2_000, 200,
+        i -> post("/api/admin/orders/bulk").session(adminSession).contentType(MediaType.APPLICATION_JSON)
+            .content(json(Map.of("orders", Stream.iterate(i * 50, n -> n + 1).limit(50)
+                .map(this::orderRequest).toList())))));
+    scenarios.add(write("PUT /api/admin/orders/{id}/confirm", 16, 200, 200, i -> {
+      OrderResponseDTO order = orderService.create(orderRequest(i));
+      paymentService.addPayment(PaymentRequestDTO.builder()
+          .orderId(order.getId())
+          .amount(order.getTotal())
+          .paymentMethod(PaymentMethod.CASH)
+          .build());
+      return put("/api/admin/orders/{id}/confirm", order.getId()).session(adminSession);
+    }));
+    scenarios.add(write("PUT /api/admin/orders/{id}/cancel", 9, 100, 200,
+        i -> put("/api/admin/orders/{id}/cancel", orderService.create(orderRequest(i)).getId()).session(adminSession)));
+
+    scenarios.add(write("POST /api/admin/payments", 13, 200, 201, i -> {
+      long orderId = orderService.create(orderRequest(i)).getId();
+      return post("/api/admin/payments").session(adminSession).contentType(MediaType.APPLICATION_JSON)
+          .content(json(Map.of("orderId", orderId, "amount", 1.0, "paymentMethod", "CASH")));
+    }));
+    scenarios.add(write("PUT /api/admin/payments/{paymentId}/status", 10, 100, 200, i -> {
+      long orderId = orderService.create(orderRequest(i)).getId();
+      long paymentId = paymentService.addPayment(PaymentRequestDTO.builder()
+          .orderId(orderId)
+          .amount(1.0)
+          .paymentMethod(PaymentMethod.TRANSFER)
+          .transferReference("VIR-PERF-" + i)
+          .transferBank("CIH")
+          .build()).getId();
+      return put("/api/admin/payments/{paymentId}/status", paymentId).param("status", "ENCAISSE")
+          .session(adminSession);
+    }));
+
+    return scenarios;
+  }
+
+  private void run(Scenario scenario) throws Exception {
+    assumeTrue(postgres || !scenario.postgresOnly(), "Endpoint spécifique PostgreSQL (INSERT ... ON CONFLICT)");
+
+    for (int i = 0; i < warmup; i++) {
+      execute(scenario);
+    }
+    List<Long> latencies = new ArrayList<>();
+    long maxStatements = 0;
+    for (int i = 0; i < scenario.iterations(); i++) {
+      Measure measure = execute(scenario);
+      latencies.add(measure.nanos());
+      maxStatements = Math.max(maxStatements, measure.statements());
+    }
+    Collections.sort(latencies);
+
+    double p50 = percentileMillis(latencies, 0.50);
+    double p95 = percentileMillis(latencies, 0.95);
+    double p95Budget = scenario.p95BudgetMs() * latencyFactor;
+    record(scenario, p50, p95, maxStatements);
+
+    long statements = maxStatements;
+    assertAll(
+        () -> assertTrue(statements <= scenario.statementBudget(), String.format(
+            "%s : %d requêtes SQL pour un budget de %d", scenario.name(), statements, scenario.statementBudget())),
+        () -> assertTrue(p95 <= p95Budget, String.format(Locale.ROOT,
+            "%s : p95 = %.2f ms pour un budget de %.0f ms", scenario.name(), p95, p95Budget)));
+  }
+
+  private Measure execute(Scenario scenario) throws Exception {
+    int call = calls.incrementAndGet();
+    // Préparation (création de la commande à confirmer, etc.) hors mesure
+    MockHttpServletRequestBuilder request = scenario.request().apply(call);
+
+    double[] before = sqlStatements();
+    long start = System.nanoTime();
+    MvcResult started = mockMvc.perform(request).andReturn();
+    MvcResult result = started.getRequest().isAsyncStarted()
+        ? mockMvc.perform(asyncDispatch(started)).andReturn()
+        : started;
+    long nanos = System.nanoTime() - start;
+    double[] after = sqlStatements();
+
+    assertEquals(scenario.expectedStatus(), result.getResponse().getStatus(),
+        () -> scenario.name() + " : " + contentOf(result));
+    return new Measure(nanos, Math.round(after[1] - before[1]));
+  }
+
+  /**
+   * Nombre de requêtes mesurées et total des requêtes SQL, tous handlers confondus
+   */
+  private double[] sqlStatements() {
+    double count = 0;
+    double total = 0;
+    for (DistributionSummary summary : meterRegistry.find(SQL_STATEMENTS_METRIC).summaries()) {
+      count += summary.count();
+      total += summary.totalAmount();
+    }
+    return new double[] { count, total };
+  }
+
+  private void record(Scenario scenario, double p50, double p95, long statements) throws IOException {
+    String line = String.format(Locale.ROOT, "%s,%d,%d,%.2f,%.2f,%.0f,%d,%d%n",
+        scenario.name(), spec.getOrders(), scenario.iterations(), p50, p95, scenario.p95BudgetMs() * latencyFactor,
+        statements, scenario.statementBudget());
+
+    log.info(String.format(Locale.ROOT, "%s : p50=%.2f ms, p95=%.2f ms, %d requêtes SQL (budget %d)",
+        scenario.name(), p50, p95, statements, scenario.statementBudget()));
+
+    Files.createDirectories(RESULTS_FILE.getParent());
+    if (Files.notExists(RESULTS_FILE)) {
+      Files.writeString(RESULTS_FILE,
+          "scenario,orders,iterations,p50_ms,p95_ms,p95_budget_ms,sql_statements,sql_budget\n");
+    }
+    Files.writeString(RESULTS_FILE, line, StandardOpenOption.APPEND);
+  }
+
+  private Scenario read(String name, long statementBudget, long p95BudgetMs,
+      IntFunction<MockHttpServletRequestBuilder> request) {
+    return read(name, statementBudget, p95BudgetMs, iterations, request);
+  }
+
+  private Scenario read(String name, long statementBudget, long p95BudgetMs, int scenarioIterations,
+      IntFunction<MockHttpServletRequestBuilder> request) {
+    return new Scenario(name, statementBudget, p95BudgetMs, scenarioIterations, 200, false, request);
+  }
+
+  private Scenario write(String name, long statementBudget, long p95BudgetMs, int expectedStatus,
+      IntFunction<MockHttpServletRequestBuilder> request) {
+    return new Scenario(name, statementBudget, p95BudgetMs, iterations, expectedStatus, false, request);
+  }
+
+  private OrderRequestDTO orderRequest(int call) {
+    return OrderRequestDTO.builder()
+        .clientId(clientId(call))
+        .items(cheapProductIds.stream()
+            .map(productId -> OrderItemRequestDTO.builder().productId(productId).quantity(1).build())
+            .toList())
+        .build();
+  }
+
+  private long clientId(int call) {
+    return 1 + call % spec.getClients();
+  }
+
+  private String importCsv(int call, int rows) {
+    StringBuilder csv = new StringBuilder("sku,name,price,stock\n");
+    for (int row = 0; row < rows; row++) {
+      // La moitié des lignes met à jour les produits de l'appel précédent
+      int sku = call * rows / 2 + row;
+      csv.append("IMP-").append(sku).append(",Produit importé ").append(sku).append(",49.90,100\n");
+    }
+    return csv.toString();
+  }
+
+  private String json(Object body) {
+    try {
+      return objectMapper.writeValueAsString(body);
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static String contentOf(MvcResult result) {
+    try {
+      return result.getResponse().getContentAsString();
+    } catch (IOException e) {
+      return e.getMessage();
+    }
+  }
+
+  private static MockHttpSession session(long userId) {
+    MockHttpSession session = new MockHttpSession();
+    session.setAttribute("user", userId);
+    return session;
+  }
+
+  private static double percentileMillis(List<Long> sortedNanos, double percentile) {
+    if (sortedNanos.isEmpty()) {
+      return 0.0;
+    }
+    int index = (int) Math.min(sortedNanos.size() - 1, Math.ceil(percentile * sortedNanos.size()) - 1);
+    return sortedNanos.get(Math.max(index, 0)) / 1_000_000.0;
+  }
+
+  private record Scenario(String name, long statementBudget, long p95BudgetMs, int iterations, int expectedStatus,
+      boolean postgresOnly, IntFunction<MockHttpServletRequestBuilder> request) {
+  }
+
+  private record Measure(long nanos, long statements) {
+  }
+}
@@ -0,0 +1,68 @@
+package com.example.smartshop.pricing;
+
+import com.example.smartshop.entity.CustomerTier;
+import com.example.smartshop.entity.TierRule;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TierRuleTableTest {
+
+  @Test
+  void defaultRulesMatchHistoricalThresholds() {
+    TierRuleTable table = TierRuleTable.DEFAULT;
+
+    assertEquals(CustomerTier.BASIC, table.tierFor(0, 0.0));
+    assertEquals(CustomerTier.BASIC, table.tierFor(2, 999.99));
+    assertEquals(CustomerTier.SILVER, table.tierFor(3, 0.0));
+    assertEquals(CustomerTier.SILVER, table.tierFor(0, 1000.0));
+    assertEquals(CustomerTier.GOLD, table.tierFor(10, 0.0));
+    assertEquals(CustomerTier.GOLD, table.tierFor(1, 5000.0));
+    assertEquals(CustomerTier.PLATINUM, table.tierFor(20, 0.0));
+    assertEquals(CustomerTier.PLATINUM, table.tierFor(0, 15000.0));
+  }
+
+  @Test
+  void discountAppliesOnlyFromTheTierMinimumSubtotal() {
+    TierRuleTable table = TierRuleTable.DEFAULT;
+
+    assertEquals(0.0, table.discountPercentage(CustomerTier.BASIC, 5000.0));
+    assertEquals(0.0, table.discountPercentage(CustomerTier.SILVER, 499.99));
+    assertEquals(5.0, table.discountPercentage(CustomerTier.SILVER, 500.0));
+    assertEquals(10.0, table.discountPercentage(CustomerTier.GOLD, 800.0));
+    assertEquals(0.0, table.discountPercentage(CustomerTier.PLATINUM, 1199.0));
+    assertEquals(15.0, table.discountPercentage(CustomerTier.PLATINUM, 1200.0));
+    assertEquals(0.0, table.discountPercentage(null, 1200.0));
+  }
+
+  @Test
+  void persistedRulesOverrideDefaultsPerTier() {
+    TierRuleTable table = TierRuleTable.compile(List.of(TierRule.builder()
+        .tier(CustomerTier.GOLD)
+        .minOrders(8)
+        .minSpent(4000.0)
+        .minSubtotal(600.0)
+        .discountPercentage(12.0)
+        .build()));
+
+    assertEquals(CustomerTier.GOLD, table.tierFor(8, 0.0));
+    assertEquals(12.0, table.discountPercentage(CustomerTier.GOLD, 600.0));
+    assertEquals(5.0, table.discountPercentage(CustomerTier.SILVER, 500.0));
+    assertEquals(CustomerTier.PLATINUM, table.tierFor(20, 0.0));
+  }
+
+  @Test
+  void thresholdsLowerThanThePreviousTierAreRejected() {
+    List<TierRule> rules = List.of(TierRule.builder()
+        .tier(CustomerTier.PLATINUM)
+        .minOrders(5)
+        .minSpent(15000.0)
+        .minSubtotal(1200.0)
+        .discountPercentage(15.0)
+        .build());
+
+    assertThrows(IllegalArgumentException.class, () -> TierRuleTable.compile(rules));
+  }
+}
@@ -0,0 +1,154 @@
+package com.example.smartshop.promo;
+
+import com.example.smartshop.entity.PromoCode;
+import com.example.smartshop.exception.BusinessRuleViolationException;
+import com.example.smartshop.exception.ErrorCode;
+import com.example.smartshop.repository.PromoCodeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PromoCodeRegistryTest {
+
+  @Mock
+  private PromoCodeRepository promoCodeRepository;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  private PromoCodeRegistry registry;
+
+  @BeforeEach
+  void setUp() {
+    registry = new PromoCodeRegistry(promoCodeRepository, new TransactionTemplate(transactionManager));
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  void concurrentRedemptionsNeverExceedMaxUses() throws Exception {
+    when(promoCodeRepository.findAll()).thenReturn(List.of(campaign(1L, "PROMO-ABC1", 50, 0)));
+    registry.reload();
+
+    int threads = 8;
+    AtomicInteger accepted = new AtomicInteger();
+    AtomicInteger exhausted = new AtomicInteger();
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    for (int t = 0; t < threads; t++) {
+      executor.execute(() -> {
+        try {
+          start.await();
+          for (int i = 0; i < 20; i++) {
+            try {
+              registry.redeem("PROMO-ABC1");
+              accepted.incrementAndGet();
+            } catch (BusinessRuleViolationException e) {
+              exhausted.incrementAndGet();
+            }
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      });
+    }
+    start.countDown();
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+    assertEquals(50, accepted.get());
+    assertEquals(110, exhausted.get());
+    assertEquals(50, registry.find("PROMO-ABC1").orElseThrow().getUsed());
+  }
+
+  @Test
+  void flushWritesOnlyTheDeltaSinceLastFlush() {
+    when(promoCodeRepository.findAll()).thenReturn(List.of(campaign(1L, "PROMO-ABC1", null, 10)));
+    registry.reload();
+
+    registry.redeem("PROMO-ABC1");
+    registry.redeem("PROMO-ABC1");
+    registry.redeem("PROMO-ABC1");
+
+    assertEquals(3, registry.flush());
+    verify(promoCodeRepository).incrementUsedCount(1L, 3);
+    assertEquals(0, registry.flush());
+    assertEquals(13, registry.find("PROMO-ABC1").orElseThrow().getUsed());
+  }
+
+  @Test
+  void rolledBackRedemptionIsReleased() {
+    when(promoCodeRepository.findAll()).thenReturn(List.of(campaign(1L, "PROMO-ABC1", 1, 0)));
+    registry.reload();
+
+    TransactionSynchronizationManager.initSynchronization();
+    registry.redeem("PROMO-ABC1");
+    BusinessRuleViolationException exception =
+        assertThrows(BusinessRuleViolationException.class, () -> registry.redeem("PROMO-ABC1"));
+    assertEquals(ErrorCode.PROMO_CODE_EXHAUSTED, exception.getErrorCode());
+
+    List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+    TransactionSynchronizationManager.clearSynchronization();
+    synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+    assertEquals(0, registry.find("PROMO-ABC1").orElseThrow().getUsed());
+    assertEquals(0, registry.flush());
+    verify(promoCodeRepository, never()).incrementUsedCount(anyLong(), anyInt());
+  }
+
+  @Test
+  void reloadKeepsUsesNotYetFlushed() {
+    when(promoCodeRepository.findAll()).thenReturn(List.of(campaign(1L, "PROMO-ABC1", null, 4)));
+    registry.reload();
+    registry.redeem("PROMO-ABC1");
+    registry.redeem("PROMO-ABC1");
+
+    // Code renommé par l'administration : les utilisations suivent la campagne (même id)
+    when(promoCodeRepository.findAll()).thenReturn(List.of(campaign(1L, "PROMO-NEW1", null, 4)));
+    registry.reload();
+
+    assertTrue(registry.find("PROMO-ABC1").isEmpty());
+    assertEquals(6, registry.find("PROMO-NEW1").orElseThrow().getUsed());
+    assertEquals(2, registry.flush());
+    verify(promoCodeRepository).incrementUsedCount(1L, 2);
+  }
+
+  private static PromoCode campaign(Long id, String code, Integer maxUses, int usedCount) {
+    return PromoCode.builder()
+        .id(id)
+        .code(code)
+        .discountPercentage(5.0)
+        .validFrom(LocalDateTime.now().minusDays(1))
+        .maxUses(maxUses)
+        .usedCount(usedCount)
+        .build();
+  }
+}
@@ -0,0 +1,113 @@
+package com.example.smartshop.repository;
+
+import com.example.smartshop.entity.Client;
+import com.example.smartshop.entity.Order;
+import com.example.smartshop.entity.OrderItem;
+import com.example.smartshop.entity.Product;
+import com.example.smartshop.support.AbstractIntegrationTest;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.SessionEventListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Mesure le nombre d'allers-retours JDBC pour persister une commande de 50 lignes.
+ *
+ * "Avant" est simulé avec un batch de taille 1 (une requête par INSERT, comme avec
+ * IDENTITY) ; "après" utilise la configuration de l'application (séquences pooled-lo
+ * et hibernate.jdbc.batch_size).
+ */
+@Slf4j
+class OrderInsertBatchingTest extends AbstractIntegrationTest {
+
+  private static final int LINES = 50;
+
+  @Autowired
+  private EntityManager entityManager;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  private Long clientId;
+  private Product product;
+
+  @BeforeEach
+  void setUp() {
+    clientId = createClient("Batch Client", "batch.client@example.com");
+    product = createProduct("Câble", 10.0, 1000);
+  }
+
+  @Test
+  void orderCreationRoundTrips() {
+    RoundTripCounter unbatched = persistOrder(1);
+    RoundTripCounter batched = persistOrder(null);
+
+    log.info("Commande de {} lignes : sans batch = {} allers-retours, avec batch = {} (dont {} batchs)",
+        LINES, unbatched.total(), batched.total(), batched.batches);
+
+    assertTrue(unbatched.total() >= LINES + 1, "Un INSERT par ligne attendu sans batch");
+    assertTrue(batched.total() <= 4, "Commande et lignes attendues en deux batchs (plus les séquences)");
+    assertEquals(2, batched.batches);
+  }
+
+  /**
+   * Persiste une commande dans sa propre transaction et compte les exécutions JDBC
+   *
+   * @param jdbcBatchSize taille de batch de la session, null pour la valeur configurée
+   */
+  private RoundTripCounter persistOrder(Integer jdbcBatchSize) {
+    RoundTripCounter counter = new RoundTripCounter();
+    transactionTemplate.executeWithoutResult(status -> {
+      Session session = entityManager.unwrap(Session.class);
+      session.addEventListeners(counter);
+      session.setJdbcBatchSize(jdbcBatchSize);
+
+      Order order = Order.builder()
+          .client(entityManager.getReference(Client.class, clientId))
+          .subtotal(LINES * product.getPrice())
+          .total(LINES * product.getPrice() * 1.2)
+          .build();
+      Product productRef = entityManager.getReference(Product.class, product.getId());
+      for (int i = 0; i < LINES; i++) {
+        order.getItems().add(OrderItem.builder()
+            .order(order)
+            .product(productRef)
+            .quantity(1)
+            .unitPrice(product.getPrice())
+            .lineTotal(product.getPrice())
+            .build());
+      }
+      session.persist(order);
+      session.flush();
+    });
+    return counter;
+  }
+
+  /**
+   * Compte les requêtes exécutées une à une et les batchs envoyés au serveur
+   */
+  private static final class RoundTripCounter implements SessionEventListener {
+    private int statements;
+    private int batches;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+      statements++;
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+      batches++;
+    }
+
+    int total() {
+      return statements + batches;
+    }
+  }
+}
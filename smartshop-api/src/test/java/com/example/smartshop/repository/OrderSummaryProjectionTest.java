@@ -0,0 +1,92 @@
+package com.example.smartshop.repository;
+
+import com.example.smartshop.dto.CreateClientDTO;
+import com.example.smartshop.dto.PaymentRequestDTO;
+import com.example.smartshop.entity.OrderStatus;
+import com.example.smartshop.entity.OrderSummary;
+import com.example.smartshop.entity.PaymentMethod;
+import com.example.smartshop.entity.Product;
+import com.example.smartshop.service.PaymentService;
+import com.example.smartshop.support.AbstractIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Vérifie que order_summary suit chaque étape du cycle de vie d'une commande
+ * (création, paiement, confirmation, annulation, renommage du client).
+ */
+class OrderSummaryProjectionTest extends AbstractIntegrationTest {
+
+  @Autowired
+  private PaymentService paymentService;
+
+  @Autowired
+  private OrderSummaryRepository orderSummaryRepository;
+
+  private Long clientId;
+  private Product product;
+
+  @BeforeEach
+  void setUp() {
+    clientId = createClient("Summary Client", "summary.client@example.com");
+    product = createProduct("Écran", 100.0, 50);
+  }
+
+  @Test
+  void summaryFollowsOrderLifecycle() {
+    Long orderId = createOrder(clientId, product, 2);
+
+    OrderSummary created = orderSummaryRepository.findById(orderId).orElseThrow();
+    assertEquals("Summary Client", created.getClientName());
+    assertEquals(OrderStatus.PENDING, created.getStatus());
+    assertEquals(1L, created.getItemCount());
+    assertEquals(240.0, created.getTotal());
+    assertEquals(0.0, created.getPaidAmount());
+
+    paymentService.addPayment(PaymentRequestDTO.builder()
+        .orderId(orderId)
+        .amount(240.0)
+        .paymentMethod(PaymentMethod.CASH)
+        .build());
+    OrderSummary paid = orderSummaryRepository.findById(orderId).orElseThrow();
+    assertEquals(240.0, paid.getPaidAmount());
+    assertEquals(0.0, paid.getRemainingAmount());
+
+    orderService.confirmOrder(orderId);
+    assertEquals(OrderStatus.CONFIRMED, orderSummaryRepository.findById(orderId).orElseThrow().getStatus());
+
+    clientService.update(clientId, CreateClientDTO.builder()
+        .name("Renamed Client")
+        .email("summary.client@example.com")
+        .build());
+    assertEquals("Renamed Client", orderSummaryRepository.findById(orderId).orElseThrow().getClientName());
+  }
+
+  @Test
+  void listingsAreServedFromSummary() {
+    Long first = createOrder(clientId, product, 1);
+    Long second = createOrder(clientId, product, 3);
+    orderService.cancelOrder(first);
+
+    List<Long> ids = orderService.findAllByClientId(clientId).stream().map(o -> o.getId()).toList();
+    assertEquals(2, ids.size());
+    assertTrue(ids.containsAll(List.of(first, second)));
+    assertEquals("CANCELED", orderService.findAll().stream()
+        .filter(o -> o.getId().equals(first)).findFirst().orElseThrow().getStatus());
+    assertEquals(2, orderService.getClientOrderHistory(clientId).size());
+  }
+
+  @Test
+  void failedOperationLeavesSummaryUnchanged() {
+    Long orderId = createOrder(clientId, product, 1);
+
+    // Commande non payée : la confirmation échoue et la transaction est annulée
+    assertThrows(RuntimeException.class, () -> orderService.confirmOrder(orderId));
+    assertEquals(OrderStatus.PENDING, orderSummaryRepository.findById(orderId).orElseThrow().getStatus());
+  }
+}
@@ -0,0 +1,172 @@
+package com.example.smartshop.repository;
+
+import com.example.smartshop.entity.Client;
+import com.example.smartshop.entity.Product;
+import com.example.smartshop.entity.User;
+import com.example.smartshop.entity.UserRole;
+import com.example.smartshop.support.AbstractIntegrationTest;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Vérifie que les lectures par identifiant sont servies par le cache de second niveau
+ * et que les mises à jour ne laissent pas de données périmées.
+ */
+class SecondLevelCacheTest extends AbstractIntegrationTest {
+
+  @Autowired
+  private ClientRepository clientRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  private Statistics statistics;
+
+  @BeforeEach
+  void setUp() {
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+  }
+
+  @Test
+  void productFindByIdHitsCacheOnSecondRead() {
+    Long id = productRepository.save(product("Clavier", 49.90, 10)).getId();
+    resetCache();
+
+    productRepository.findById(id);
+    long statementsAfterFirstRead = statistics.getPrepareStatementCount();
+    productRepository.findById(id);
+
+    CacheRegionStatistics region = statistics.getDomainDataRegionStatistics("products");
+    assertEquals(1, region.getMissCount());
+    assertEquals(1, region.getHitCount());
+    assertEquals(statementsAfterFirstRead, statistics.getPrepareStatementCount());
+  }
+
+  @Test
+  void productUpdateIsVisibleThroughCache() {
+    Long id = productRepository.save(product("Souris", 19.90, 5)).getId();
+    resetCache();
+    productRepository.findById(id);
+
+    Product product = productRepository.findById(id).orElseThrow();
+    product.setPrice(24.90);
+    product.setStock(4);
+    productRepository.save(product);
+
+    statistics.clear();
+    Product reloaded = productRepository.findById(id).orElseThrow();
+
+    assertEquals(24.90, reloaded.getPrice());
+    assertEquals(4, reloaded.getStock());
+    assertEquals(1, statistics.getDomainDataRegionStatistics("products").getHitCount());
+    assertEquals(0, statistics.getPrepareStatementCount());
+  }
+
+  @Test
+  void deletedProductIsFilteredFromCachedLookup() {
+    Long id = productRepository.save(product("Écran", 199.0, 3)).getId();
+    resetCache();
+    assertTrue(productRepository.findByIdAndDeletedFalse(id).isPresent());
+
+    Product product = productRepository.findById(id).orElseThrow();
+    product.setDeleted(true);
+    productRepository.save(product);
+
+    assertTrue(productRepository.findByIdAndDeletedFalse(id).isEmpty());
+  }
+
+  @Test
+  void productFindAllByIdUsesCache() {
+    Long first = productRepository.save(product("Casque", 89.0, 7)).getId();
+    Long second = productRepository.save(product("Webcam", 59.0, 2)).getId();
+    resetCache();
+
+    List<Product> loaded = productRepository.findAllById(List.of(first, second, first));
+    assertEquals(2, loaded.size());
+
+    statistics.clear();
+    List<Product> cached = productRepository.findAllById(List.of(first, second));
+
+    assertEquals(2, cached.size());
+    assertEquals(2, statistics.getDomainDataRegionStatistics("products").getHitCount());
+    assertEquals(0, statistics.getPrepareStatementCount());
+  }
+
+  @Test
+  void productFindAllByIdIgnoresUnknownIds() {
+    Long id = productRepository.save(product("Micro", 39.0, 8)).getId();
+
+    List<Product> loaded = productRepository.findAllById(List.of(id, -1L));
+
+    assertEquals(1, loaded.size());
+    assertEquals(id, loaded.get(0).getId());
+  }
+
+  @Test
+  void userAndClientFindByIdHitCache() {
+    User user = userRepository.save(User.builder()
+        .username("client.cache")
+        .password("secret")
+        .role(UserRole.CLIENT)
+        .build());
+    Long clientId = clientRepository.save(Client.builder()
+        .user(user)
+        .name("Client Cache")
+        .email("client.cache@example.com")
+        .build()).getId();
+    resetCache();
+
+    userRepository.findById(user.getId());
+    userRepository.findById(user.getId());
+    clientRepository.findById(clientId);
+    clientRepository.findById(clientId);
+
+    assertEquals(1, statistics.getDomainDataRegionStatistics("users").getHitCount());
+    assertEquals(1, statistics.getDomainDataRegionStatistics("clients").getHitCount());
+  }
+
+  @Test
+  void clientUpdateIsVisibleThroughCache() {
+    User user = userRepository.save(User.builder()
+        .username("client.update")
+        .password("secret")
+        .role(UserRole.CLIENT)
+        .build());
+    Long clientId = clientRepository.save(Client.builder()
+        .user(user)
+        .name("Avant")
+        .email("client.update@example.com")
+        .build()).getId();
+    clientRepository.findById(clientId);
+
+    Client client = clientRepository.findById(clientId).orElseThrow();
+    client.setName("Après");
+    client.setTotalOrders(3);
+    clientRepository.save(client);
+
+    Client reloaded = clientRepository.findById(clientId).orElseThrow();
+    assertEquals("Après", reloaded.getName());
+    assertEquals(3, reloaded.getTotalOrders());
+  }
+
+  private void resetCache() {
+    entityManagerFactory.getCache().evictAll();
+    statistics.clear();
+  }
+
+  private Product product(String name, Double price, Integer stock) {
+    return Product.builder()
+        .name(name)
+        .price(price)
+        .stock(stock)
+        .build();
+  }
+}
@@ -0,0 +1,93 @@
+package com.example.smartshop.repository;
+
+import com.example.smartshop.entity.Product;
+import com.example.smartshop.support.AbstractPostgresIntegrationTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Séquences de la migration V3 (et suivantes) appliquées par Flyway : incrément de 50
+ * aligné sur allocationSize, et identifiants attribués par blocs par l'optimiseur
+ * pooled-lo (un seul nextval pour 50 entités, le bloc commençant à la valeur lue).
+ */
+@EnabledIfSystemProperty(named = "smartshop.test.postgres-url", matches = ".+")
+class SequenceAllocationTest extends AbstractPostgresIntegrationTest {
+
+  private static final int ALLOCATION_SIZE = 50;
+  private static final List<String> SEQUENCES = List.of("users_seq", "products_seq", "orders_seq",
+      "order_items_seq", "payments_seq", "outbox_events_seq", "promo_codes_seq", "job_executions_seq",
+      "idempotency_keys_seq");
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  private final List<Long> productIds = new ArrayList<>();
+
+  @AfterEach
+  void tearDown() {
+    productIds.forEach(id -> jdbcTemplate.update("DELETE FROM products WHERE id = ?", id));
+  }
+
+  @Test
+  void flywayAppliedEveryMigration() {
+    int failed = jdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM flyway_schema_history WHERE NOT success", Integer.class);
+    List<String> versions = jdbcTemplate.queryForList(
+        "SELECT version FROM flyway_schema_history WHERE success AND version IS NOT NULL", String.class);
+
+    assertEquals(0, failed);
+    assertTrue(versions.contains("3"), "V3__sequence_identifiers non appliquée : " + versions);
+    assertTrue(versions.contains("15"), "Dernière migration non appliquée : " + versions);
+  }
+
+  @Test
+  void sequencesIncrementByAllocationSize() {
+    for (String sequence : SEQUENCES) {
+      long increment = jdbcTemplate.queryForObject(
+          "SELECT increment_by FROM pg_sequences WHERE schemaname = current_schema() AND sequencename = ?",
+          Long.class, sequence);
+      assertEquals(ALLOCATION_SIZE, increment, sequence);
+    }
+  }
+
+  @Test
+  void productIdsAreAllocatedByPooledLoBlocks() {
+    long before = lastValue("products_seq");
+
+    // Plus d'un bloc : au moins un nextval pendant le test, au plus deux
+    productRepository.saveAll(IntStream.range(0, ALLOCATION_SIZE + 10)
+            .mapToObj(i -> Product.builder()
+                .name("Sequence Product " + i)
+                .price(10.0)
+                .stock(1)
+                .build())
+            .toList())
+        .forEach(product -> productIds.add(product.getId()));
+
+    long after = lastValue("products_seq");
+    List<Long> sorted = productIds.stream().sorted().toList();
+    long gaps = IntStream.range(1, sorted.size())
+        .filter(i -> sorted.get(i) != sorted.get(i - 1) + 1)
+        .count();
+
+    assertEquals(ALLOCATION_SIZE + 10, sorted.stream().distinct().count());
+    assertTrue(after - before <= 2L * ALLOCATION_SIZE, "Trop d'appels à nextval : " + before + " -> " + after);
+    // pooled-lo : le dernier bloc lu commence à la valeur renvoyée par nextval
+    assertTrue(sorted.contains(after), "Bloc pooled-lo attendu à partir de " + after + " : " + sorted);
+    assertTrue(sorted.get(sorted.size() - 1) < after + ALLOCATION_SIZE);
+    // Blocs successifs contigus ; au plus un saut entre le reliquat d'un bloc précédent et le nouveau
+    assertTrue(gaps <= 1, "Identifiants non contigus : " + sorted);
+  }
+
+  private long lastValue(String sequence) {
+    return jdbcTemplate.queryForObject("SELECT last_value FROM " + sequence, Long.class);
+  }
+}
@@ -0,0 +1,175 @@
+package com.example.smartshop.service;
+
+import com.example.smartshop.config.ThreadModeExecutors;
+import com.example.smartshop.dto.BulkOrderResultDTO;
+import com.example.smartshop.dto.OrderItemRequestDTO;
+import com.example.smartshop.dto.OrderRequestDTO;
+import com.example.smartshop.entity.Client;
+import com.example.smartshop.entity.CustomerTier;
+import com.example.smartshop.entity.Order;
+import com.example.smartshop.entity.Product;
+import com.example.smartshop.event.OrderChangedEvent;
+import com.example.smartshop.mapper.OrderMapper;
+import com.example.smartshop.pricing.TierRuleEngine;
+import com.example.smartshop.pricing.TierRuleTable;
+import com.example.smartshop.promo.PromoCodeRegistry;
+import com.example.smartshop.repository.ClientRepository;
+import com.example.smartshop.repository.OrderRepository;
+import com.example.smartshop.repository.OrderSummaryRepository;
+import com.example.smartshop.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BulkOrderServiceTest {
+
+  @Mock
+  private OrderRepository orderRepository;
+
+  @Mock
+  private ClientRepository clientRepository;
+
+  @Mock
+  private ProductRepository productRepository;
+
+  @Mock
+  private ProductService productService;
+
+  @Mock
+  private ClientService clientService;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  @Mock
+  private OrderSummaryRepository orderSummaryRepository;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  @Mock
+  private OutboxService outboxService;
+
+  @Mock
+  private PromoCodeRegistry promoCodeRegistry;
+
+  @Mock
+  private TierRuleEngine tierRuleEngine;
+
+  private BulkOrderService bulkOrderService;
+
+  @BeforeEach
+  void setUp() {
+    lenient().when(tierRuleEngine.current()).thenReturn(TierRuleTable.DEFAULT);
+    OrderService orderService = new OrderService(orderRepository, clientRepository, productRepository,
+        productService, clientService, new OrderMapper(), orderSummaryRepository, eventPublisher, outboxService,
+        promoCodeRegistry, tierRuleEngine);
+    bulkOrderService = new BulkOrderService(orderService, orderRepository, clientRepository, productRepository,
+        new TransactionTemplate(transactionManager), eventPublisher, new ThreadModeExecutors(false), 2, 2, 100);
+  }
+
+  @AfterEach
+  void tearDown() {
+    bulkOrderService.shutdown();
+  }
+
+  @Test
+  void createAllReturnsOneResultPerOrder() {
+    Client client = new Client();
+    client.setId(1L);
+    client.setName("John Doe");
+    client.setTier(CustomerTier.BASIC);
+
+    Product product = new Product();
+    product.setId(10L);
+    product.setName("Laptop");
+    product.setPrice(100.0);
+    product.setStock(5);
+
+    when(clientRepository.findAllById(anyIterable())).thenReturn(List.of(client));
+    when(productRepository.findAllById(anyIterable())).thenReturn(List.of(product));
+    AtomicLong ids = new AtomicLong();
+    when(orderRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+      Iterable<Order> orders = invocation.getArgument(0);
+      orders.forEach(order -> order.setId(ids.incrementAndGet()));
+      return orders;
+    });
+
+    List<BulkOrderResultDTO> results = bulkOrderService.createAll(List.of(
+        order(1L, 10L, 2),
+        order(99L, 10L, 1),
+        order(1L, 10L, 50),
+        order(1L, 404L, 1),
+        order(1L, 10L, 1)));
+
+    assertEquals(5, results.size());
+    assertEquals(BulkOrderResultDTO.CREATED, results.get(0).getResult());
+    assertEquals(240.0, results.get(0).getTotal());
+    assertEquals("CLIENT_NOT_FOUND", results.get(1).getCode());
+    assertEquals(BulkOrderResultDTO.REJECTED, results.get(2).getResult());
+    assertEquals("INSUFFICIENT_STOCK", results.get(2).getCode());
+    assertNotNull(results.get(2).getOrderId());
+    assertEquals("PRODUCT_NOT_FOUND", results.get(3).getCode());
+    assertEquals(BulkOrderResultDTO.CREATED, results.get(4).getResult());
+
+    // Une seule requête par type de référence, enregistrement par tranches de 2
+    verify(clientRepository, times(1)).findAllById(anyIterable());
+    verify(productRepository, times(1)).findAllById(anyIterable());
+    verify(orderRepository, times(2)).saveAll(anyIterable());
+    // Un événement par tranche pour le modèle de lecture order_summary
+    verify(eventPublisher, times(2)).publishEvent(any(OrderChangedEvent.class));
+  }
+
+  @Test
+  void persistenceFailureIsReportedWithoutItsDetails() {
+    Client client = new Client();
+    client.setId(1L);
+    client.setName("John Doe");
+    client.setTier(CustomerTier.BASIC);
+
+    Product product = new Product();
+    product.setId(10L);
+    product.setName("Laptop");
+    product.setPrice(100.0);
+    product.setStock(5);
+
+    when(clientRepository.findAllById(anyIterable())).thenReturn(List.of(client));
+    when(productRepository.findAllById(anyIterable())).thenReturn(List.of(product));
+    DataIntegrityViolationException failure = new DataIntegrityViolationException(
+        "could not execute statement [ERROR: duplicate key value violates unique constraint \"orders_pkey\"]");
+    when(orderRepository.saveAll(anyIterable())).thenThrow(failure);
+    when(orderRepository.save(any(Order.class))).thenThrow(failure);
+
+    List<BulkOrderResultDTO> results = bulkOrderService.createAll(List.of(order(1L, 10L, 1)));
+
+    assertEquals(BulkOrderResultDTO.REJECTED, results.get(0).getResult());
+    assertEquals("BUSINESS_RULE_VIOLATION", results.get(0).getCode());
+    assertEquals("Order could not be saved", results.get(0).getReason());
+  }
+
+  private OrderRequestDTO order(Long clientId, Long productId, int quantity) {
+    return OrderRequestDTO.builder()
+        .clientId(clientId)
+        .items(List.of(OrderItemRequestDTO.builder().productId(productId).quantity(quantity).build()))
+        .build();
+  }
+}
@@ -0,0 +1,196 @@
+package com.example.smartshop.service;
+
+import com.example.smartshop.dto.BulkPaymentStatusResultDTO;
+import com.example.smartshop.dto.PaymentRequestDTO;
+import com.example.smartshop.dto.PaymentStatusUpdateDTO;
+import com.example.smartshop.entity.OutboxEventType;
+import com.example.smartshop.entity.PaymentMethod;
+import com.example.smartshop.entity.PaymentStatus;
+import com.example.smartshop.entity.Product;
+import com.example.smartshop.exception.ErrorCode;
+import com.example.smartshop.repository.OrderRepository;
+import com.example.smartshop.repository.OrderSummaryRepository;
+import com.example.smartshop.repository.OutboxEventRepository;
+import com.example.smartshop.repository.PaymentRepository;
+import com.example.smartshop.support.AbstractIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Changements de statut de paiements en lot : résultat par paiement, changements
+ * invalides ignorés, soldes des commandes et résumés recalculés.
+ */
+class BulkPaymentStatusTest extends AbstractIntegrationTest {
+
+  @Autowired
+  private PaymentService paymentService;
+
+  @Autowired
+  private OutboxEventRepository outboxEventRepository;
+
+  @Autowired
+  private OrderSummaryRepository orderSummaryRepository;
+
+  @Autowired
+  private OrderRepository orderRepository;
+
+  @Autowired
+  private PaymentRepository paymentRepository;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  private Long clientId;
+  private Product product;
+
+  @BeforeEach
+  void setUp() {
+    clientId = createClient("Bulk Payment Client", "bulk.payment@example.com");
+    product = createProduct("Imprimante", 100.0, 50);
+  }
+
+  @Test
+  void validChangesAreAppliedAndBalancesRecomputed() {
+    // Commandes de 120 (100 + TVA 20 %)
+    Long first = createOrder();
+    Long second = createOrder();
+    Long firstCheque = cheque(first, 60.0);
+    Long firstTransfer = transfer(first, 60.0);
+    Long secondCheque = cheque(second, 120.0);
+
+    List<BulkPaymentStatusResultDTO> results = paymentService.updatePaymentStatuses(List.of(
+        update(firstCheque, PaymentStatus.ENCAISSE),
+        update(firstTransfer, PaymentStatus.REJETÉ),
+        update(secondCheque, PaymentStatus.ENCAISSE),
+        update(999_999L, PaymentStatus.ENCAISSE),
+        update(firstCheque, PaymentStatus.ENCAISSE)));
+
+    assertEquals(5, results.size());
+    assertUpdated(results.get(0), first, PaymentStatus.ENCAISSE, 60.0);
+    assertUpdated(results.get(1), first, PaymentStatus.REJETÉ, 60.0);
+    assertUpdated(results.get(2), second, PaymentStatus.ENCAISSE, 0.0);
+    assertRejected(results.get(3), ErrorCode.PAYMENT_NOT_FOUND);
+    assertRejected(results.get(4), ErrorCode.INVALID_STATUS_TRANSITION);
+
+    assertEquals(PaymentStatus.ENCAISSE, paymentRepository.findById(firstCheque).orElseThrow().getStatus());
+    assertEquals(PaymentStatus.REJETÉ, paymentRepository.findById(firstTransfer).orElseThrow().getStatus());
+    assertEquals(60.0, orderRepository.findById(first).orElseThrow().getRemainingAmount());
+    assertEquals(0.0, orderRepository.findById(second).orElseThrow().getRemainingAmount());
+    assertEquals(60.0, orderSummaryRepository.findById(first).orElseThrow().getPaidAmount());
+    assertEquals(0.0, orderSummaryRepository.findById(second).orElseThrow().getRemainingAmount());
+    assertEquals(3, outboxEventRepository.findAll().stream()
+        .filter(event -> event.getEventType() == OutboxEventType.PAYMENT_STATUS_CHANGED)
+        .count());
+  }
+
+  @Test
+  void invalidTransitionsLeavePaymentsUnchanged() {
+    Long orderId = createOrder();
+    Long payment = cheque(orderId, 120.0);
+    paymentService.updatePaymentStatus(payment, PaymentStatus.ENCAISSE);
+
+    List<BulkPaymentStatusResultDTO> results = paymentService.updatePaymentStatuses(List.of(
+        update(payment, PaymentStatus.REJETÉ),
+        update(payment, PaymentStatus.EN_ATTENTE)));
+
+    assertRejected(results.get(0), ErrorCode.INVALID_STATUS_TRANSITION);
+    assertRejected(results.get(1), ErrorCode.INVALID_STATUS_TRANSITION);
+    assertEquals(PaymentStatus.ENCAISSE, paymentRepository.findById(payment).orElseThrow().getStatus());
+  }
+
+  @Test
+  void bulkUpdateWaitsForAConcurrentPaymentOnTheOrder() throws Exception {
+    Long orderId = createOrder();
+    Long chequeId = cheque(orderId, 60.0);
+    CountDownLatch added = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService threads = Executors.newFixedThreadPool(2);
+    try {
+      // Paiement en espèces ajouté (commande verrouillée) mais pas encore validé
+      Future<?> cash = threads.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+        paymentService.addPayment(PaymentRequestDTO.builder()
+            .orderId(orderId)
+            .amount(30.0)
+            .paymentMethod(PaymentMethod.CASH)
+            .build());
+        added.countDown();
+        try {
+          release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }));
+      assertTrue(added.await(5, TimeUnit.SECONDS));
+
+      Future<List<BulkPaymentStatusResultDTO>> bulk = threads.submit(() ->
+          paymentService.updatePaymentStatuses(List.of(update(chequeId, PaymentStatus.ENCAISSE))));
+      Thread.sleep(200);
+      assertFalse(bulk.isDone(), "Le lot doit attendre le verrou de la commande");
+
+      release.countDown();
+      cash.get(5, TimeUnit.SECONDS);
+      assertUpdated(bulk.get(5, TimeUnit.SECONDS).get(0), orderId, PaymentStatus.ENCAISSE, 30.0);
+    } finally {
+      release.countDown();
+      threads.shutdownNow();
+    }
+    assertEquals(30.0, orderRepository.findById(orderId).orElseThrow().getRemainingAmount());
+    assertEquals(30.0, orderSummaryRepository.findById(orderId).orElseThrow().getRemainingAmount());
+  }
+
+  private static void assertUpdated(BulkPaymentStatusResultDTO result, Long orderId, PaymentStatus status,
+      double remainingAmount) {
+    assertEquals(BulkPaymentStatusResultDTO.UPDATED, result.getResult());
+    assertEquals(orderId, result.getOrderId());
+    assertEquals(PaymentStatus.EN_ATTENTE, result.getPreviousStatus());
+    assertEquals(status, result.getStatus());
+    assertEquals(remainingAmount, result.getRemainingAmount());
+  }
+
+  private static void assertRejected(BulkPaymentStatusResultDTO result, ErrorCode code) {
+    assertEquals(BulkPaymentStatusResultDTO.REJECTED, result.getResult());
+    assertEquals(code.name(), result.getCode());
+    assertNotNull(result.getReason());
+  }
+
+  private static PaymentStatusUpdateDTO update(Long paymentId, PaymentStatus status) {
+    return PaymentStatusUpdateDTO.builder().paymentId(paymentId).status(status).build();
+  }
+
+  private Long createOrder() {
+    return createOrder(clientId, product, 1);
+  }
+
+  private Long cheque(Long orderId, double amount) {
+    return paymentService.addPayment(PaymentRequestDTO.builder()
+        .orderId(orderId)
+        .amount(amount)
+        .paymentMethod(PaymentMethod.CHEQUE)
+        .checkNumber("CHQ-" + orderId)
+        .checkBank("Banque Populaire")
+        .checkDueDate(LocalDate.now().plusDays(30))
+        .build()).getId();
+  }
+
+  private Long transfer(Long orderId, double amount) {
+    return paymentService.addPayment(PaymentRequestDTO.builder()
+        .orderId(orderId)
+        .amount(amount)
+        .paymentMethod(PaymentMethod.TRANSFER)
+        .transferReference("VIR-" + orderId)
+        .transferBank("Attijariwafa")
+        .build()).getId();
+  }
+}
@@ -0,0 +1,135 @@
+package com.example.smartshop.service;
+
+import com.example.smartshop.dto.OrderItemRequestDTO;
+import com.example.smartshop.dto.OrderRequestDTO;
+import com.example.smartshop.dto.PaymentRequestDTO;
+import com.example.smartshop.entity.PaymentMethod;
+import com.example.smartshop.entity.Product;
+import com.example.smartshop.support.AbstractIntegrationTest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exports NDJSON : un objet JSON complet par ligne, articles regroupés sous leur commande.
+ */
+class ExportServiceTest extends AbstractIntegrationTest {
+
+  @Autowired
+  private ExportService exportService;
+
+  @Autowired
+  private PaymentService paymentService;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Test
+  void ordersAreExportedOnePerLineWithTheirItems() throws Exception {
+    Long clientId = createClient("Export Client", "export.client@example.com");
+    Product mouse = createProduct("Souris", 100.0, 50);
+    Product keyboard = createProduct("Clavier", 50.0, 50);
+    Long twoItems = orderService.create(OrderRequestDTO.builder()
+        .clientId(clientId)
+        .items(List.of(
+            OrderItemRequestDTO.builder().productId(mouse.getId()).quantity(2).build(),
+            OrderItemRequestDTO.builder().productId(keyboard.getId()).quantity(1).build()))
+        .build()).getId();
+    Long oneItem = createOrder(clientId, keyboard, 3);
+    // Commande sans ligne (LEFT JOIN) : tableau items vide
+    Long noItems = oneItem + 1000;
+    LocalDateTime createdAt = LocalDateTime.of(2025, 3, 1, 10, 0);
+    jdbcTemplate.update("INSERT INTO orders (id, client_id, date, created_at, status, subtotal, discount_amount, tax, "
+        + "total, remaining_amount) VALUES (?, ?, ?, ?, 'CANCELED', 0, 0, 20, 0, 0)",
+        noItems, clientId, createdAt.toLocalDate(), createdAt);
+
+    List<JsonNode> orders = export(exportService::exportOrders);
+
+    assertEquals(3, orders.size());
+    JsonNode first = orders.get(0);
+    assertEquals(twoItems, first.get("id").asLong());
+    assertEquals(clientId, first.get("clientId").asLong());
+    assertEquals("PENDING", first.get("status").asText());
+    assertEquals(250.0, first.get("subtotal").asDouble());
+    assertEquals(300.0, first.get("total").asDouble());
+    assertTrue(first.get("promoCode").isNull());
+    assertEquals(2, first.get("items").size());
+    assertEquals(mouse.getId(), first.get("items").get(0).get("productId").asLong());
+    assertEquals(2, first.get("items").get(0).get("quantity").asInt());
+    assertEquals(200.0, first.get("items").get(0).get("lineTotal").asDouble());
+    assertEquals(keyboard.getId(), first.get("items").get(1).get("productId").asLong());
+    assertTrue(first.get("items").get(0).get("id").asLong() < first.get("items").get(1).get("id").asLong());
+
+    assertEquals(oneItem, orders.get(1).get("id").asLong());
+    assertEquals(1, orders.get(1).get("items").size());
+    assertEquals(3, orders.get(1).get("items").get(0).get("quantity").asInt());
+
+    assertEquals(noItems, orders.get(2).get("id").asLong());
+    assertEquals("2025-03-01T10:00", orders.get(2).get("createdAt").asText());
+    assertEquals(0, orders.get(2).get("items").size());
+  }
+
+  @Test
+  void productsAndPaymentsAreExportedOnePerLine() throws Exception {
+    Long clientId = createClient("Export Payer", "export.payer@example.com");
+    Product mouse = createProduct("Souris", 100.0, 50);
+    createProduct("Clavier", 50.0, 0);
+    Long orderId = createOrder(clientId, mouse, 1);
+    paymentService.addPayment(PaymentRequestDTO.builder()
+        .orderId(orderId)
+        .amount(120.0)
+        .paymentMethod(PaymentMethod.CASH)
+        .build());
+
+    List<JsonNode> products = export(exportService::exportProducts);
+    List<JsonNode> payments = export(exportService::exportPayments);
+
+    assertEquals(2, products.size());
+    assertEquals("Souris", products.get(0).get("name").asText());
+    assertEquals(0, products.get(1).get("stock").asInt());
+    assertFalse(products.get(1).get("deleted").asBoolean());
+    assertEquals(1, payments.size());
+    assertEquals(orderId, payments.get(0).get("orderId").asLong());
+    assertEquals(1, payments.get(0).get("sequenceNumber").asInt());
+    assertEquals("CASH", payments.get(0).get("method").asText());
+    assertTrue(payments.get(0).get("checkDueDate").isNull());
+  }
+
+  @Test
+  void emptyTablesProduceAnEmptyExport() throws Exception {
+    assertEquals("", exportText(exportService::exportOrders));
+    assertEquals("", exportText(exportService::exportProducts));
+    assertEquals("", exportText(exportService::exportPayments));
+  }
+
+  /**
+   * Lit un export NDJSON : chaque ligne, terminée par '\n', est un objet JSON à elle seule
+   */
+  private List<JsonNode> export(Consumer<ByteArrayOutputStream> exporter) throws Exception {
+    String text = exportText(exporter);
+    assertTrue(text.endsWith("\n"), "last line must end with a newline");
+    List<JsonNode> rows = new ArrayList<>();
+    for (String line : text.split("\n")) {
+      JsonNode row = objectMapper.readTree(line);
+      assertTrue(row.isObject(), line);
+      rows.add(row);
+    }
+    return rows;
+  }
+
+  private String exportText(Consumer<ByteArrayOutputStream> exporter) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    exporter.accept(out);
+    return out.toString(StandardCharsets.UTF_8);
+  }
+}
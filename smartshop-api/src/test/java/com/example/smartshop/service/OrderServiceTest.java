@@ -1,13 +1,21 @@
 package com.example.smartshop.service;
 
+import com.example.smartshop.dto.OrderHistoryDTO;
 import com.example.smartshop.dto.OrderItemRequestDTO;
 import com.example.smartshop.dto.OrderRequestDTO;
 import com.example.smartshop.dto.OrderResponseDTO;
 import com.example.smartshop.entity.*;
+import com.example.smartshop.event.OrderChangedEvent;
 import com.example.smartshop.exception.BusinessRuleViolationException;
+import com.example.smartshop.exception.ErrorCode;
 import com.example.smartshop.mapper.OrderMapper;
+import com.example.smartshop.pricing.TierRuleEngine;
+import com.example.smartshop.pricing.TierRuleTable;
+import com.example.smartshop.promo.PromoCampaign;
+import com.example.smartshop.promo.PromoCodeRegistry;
 import com.example.smartshop.repository.ClientRepository;
 import com.example.smartshop.repository.OrderRepository;
+import com.example.smartshop.repository.OrderSummaryRepository;
 import com.example.smartshop.repository.ProductRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,13 +23,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -45,11 +59,28 @@ class OrderServiceTest {
     @Mock
     private OrderMapper orderMapper;
 
+    @Mock
+    private OrderSummaryRepository orderSummaryRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private PromoCodeRegistry promoCodeRegistry;
+
+    @Mock
+    private TierRuleEngine tierRuleEngine;
+
     @InjectMocks
     private OrderService orderService;
 
     @BeforeEach
     void setUp() {
+        lenient().when(tierRuleEngine.current()).thenReturn(TierRuleTable.DEFAULT);
+
         // Default behavior for OrderMapper.toResponseDTO
         lenient()
                 .when(orderMapper.toResponseDTO(any(Order.class)))
@@ -280,11 +311,53 @@ class OrderServiceTest {
         when(productRepository.findAllById(List.of(1L))).thenReturn(List.of(product));
         when(orderMapper.toEntity(any(OrderRequestDTO.class), any(Client.class))).thenReturn(order);
         when(orderRepository.save(any(Order.class))).thenReturn(order);
+        PromoCampaign campaign = mock(PromoCampaign.class);
+        when(campaign.isRedeemableAt(any())).thenReturn(true);
+        when(campaign.getDiscountPercentage()).thenReturn(5.0);
+        when(promoCodeRegistry.find("PROMO-ABC1")).thenReturn(Optional.of(campaign));
 
         OrderResponseDTO result = orderService.create(dto);
 
         assertNotNull(result);
         assertEquals("PROMO-ABC1", result.getPromoCode());
+        verify(promoCodeRegistry).redeem("PROMO-ABC1");
+    }
+
+    @Test
+    void createOrderWithUnknownPromoCode() {
+        Client client = new Client();
+        client.setId(1L);
+        client.setTier(CustomerTier.BASIC);
+
+        Product product = new Product();
+        product.setId(1L);
+        product.setPrice(100.0);
+        product.setStock(10);
+
+        OrderItemRequestDTO itemDTO = new OrderItemRequestDTO();
+        itemDTO.setProductId(1L);
+        itemDTO.setQuantity(2);
+
+        OrderRequestDTO dto = new OrderRequestDTO();
+        dto.setClientId(1L);
+        dto.setItems(List.of(itemDTO));
+        dto.setPromoCode("PROMO-ZZZ9");
+
+        Order order = new Order();
+        order.setClient(client);
+        order.setStatus(OrderStatus.PENDING);
+
+        when(clientRepository.findById(1L)).thenReturn(Optional.of(client));
+        when(productRepository.findAllById(List.of(1L))).thenReturn(List.of(product));
+        when(orderMapper.toEntity(any(OrderRequestDTO.class), any(Client.class))).thenReturn(order);
+        when(promoCodeRegistry.find("PROMO-ZZZ9")).thenReturn(Optional.empty());
+
+        BusinessRuleViolationException exception =
+                assertThrows(BusinessRuleViolationException.class, () -> orderService.create(dto));
+
+        assertEquals(ErrorCode.INVALID_PROMO_CODE, exception.getErrorCode());
+        verify(orderRepository, never()).save(any(Order.class));
+        verify(promoCodeRegistry, never()).redeem(any());
     }
 
     @Test
@@ -339,6 +412,7 @@ class OrderServiceTest {
         dto.setItems(List.of(itemDTO));
 
         Order order = new Order();
+        order.setId(1L);
         order.setClient(client);
         order.setStatus(OrderStatus.REJECTED);
         order.setSubtotal(0.0);
@@ -455,4 +529,69 @@ class OrderServiceTest {
         assertNotNull(result);
         assertEquals(250.0, result.getSubtotal());
     }
+
+    @Test
+    void createOrderPublishesOrderChangedEvent() {
+        Client client = new Client();
+        client.setId(1L);
+        client.setTier(CustomerTier.BASIC);
+
+        Product product = new Product();
+        product.setId(1L);
+        product.setPrice(100.0);
+        product.setStock(10);
+
+        OrderItemRequestDTO itemDTO = new OrderItemRequestDTO();
+        itemDTO.setProductId(1L);
+        itemDTO.setQuantity(1);
+
+        OrderRequestDTO dto = new OrderRequestDTO();
+        dto.setClientId(1L);
+        dto.setItems(List.of(itemDTO));
+
+        Order order = new Order();
+        order.setId(42L);
+        order.setClient(client);
+        order.setStatus(OrderStatus.PENDING);
+
+        when(clientRepository.findById(1L)).thenReturn(Optional.of(client));
+        when(productRepository.findAllById(List.of(1L))).thenReturn(List.of(product));
+        when(orderMapper.toEntity(any(OrderRequestDTO.class), any(Client.class))).thenReturn(order);
+        when(orderRepository.save(any(Order.class))).thenReturn(order);
+
+        orderService.create(dto);
+
+        verify(eventPublisher).publishEvent(argThat((Object event) ->
+            event instanceof OrderChangedEvent changed && changed.getOrderIds().equals(List.of(42L))));
+    }
+
+    @Test
+    void createOrderFailureDoesNotPublishEvent() {
+        OrderRequestDTO dto = new OrderRequestDTO();
+        dto.setClientId(1L);
+        dto.setItems(List.of());
+
+        assertThrows(BusinessRuleViolationException.class, () -> orderService.create(dto));
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void clientOrderHistoryIsReadFromSummary() {
+        OrderSummary summary = OrderSummary.builder()
+            .orderId(7L)
+            .clientId(1L)
+            .date(LocalDate.of(2025, 3, 1))
+            .status(OrderStatus.CONFIRMED)
+            .total(1200.0)
+            .build();
+        when(orderSummaryRepository.findByClientIdOrderByCreatedAtDesc(1L)).thenReturn(List.of(summary));
+
+        List<OrderHistoryDTO> history = orderService.getClientOrderHistory(1L);
+
+        assertEquals(1, history.size());
+        assertEquals(7L, history.get(0).getId());
+        assertEquals(1200.0, history.get(0).getTotalAmount());
+        assertEquals("CONFIRMED", history.get(0).getStatus());
+        verify(orderRepository, never()).findByClientIdOrderByCreatedAtDesc(any());
+    }
 }
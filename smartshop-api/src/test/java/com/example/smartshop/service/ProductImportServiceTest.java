@@ -0,0 +1,114 @@
+package com.example.smartshop.service;
+
+import com.example.smartshop.dto.ProductImportReportDTO;
+import com.example.smartshop.entity.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductImportServiceTest {
+
+  @Mock
+  private JdbcTemplate jdbcTemplate;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  @Mock
+  private EntityManagerFactory entityManagerFactory;
+
+  @Mock
+  private Cache cache;
+
+  private ProductImportService productImportService;
+
+  @BeforeEach
+  void setUp() {
+    productImportService = new ProductImportService(jdbcTemplate, new TransactionTemplate(transactionManager),
+        entityManagerFactory, new ObjectMapper(), 2, 10);
+  }
+
+  @Test
+  void csvImportUpsertsValidRowsInBatchesAndReportsErrors() {
+    when(entityManagerFactory.getCache()).thenReturn(cache);
+    String csv = """
+        sku,name,price,stock
+        SKU-1,"Clavier, AZERTY",49.90,10
+        SKU-2,Souris,abc,5
+        SKU-3,"Écran 27"" 4K",299,3
+        SKU-4,Casque,89,0
+        """;
+
+    ProductImportReportDTO report = productImportService.importProducts(stream(csv), ProductImportService.Format.CSV);
+
+    assertEquals(4, report.getProcessed());
+    assertEquals(3, report.getUpserted());
+    assertEquals(1, report.getRejected());
+    assertEquals(3L, report.getErrors().get(0).getLine());
+    assertEquals("SKU-2", report.getErrors().get(0).getSku());
+
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<Object[]>> batches = ArgumentCaptor.forClass(List.class);
+    verify(jdbcTemplate, times(2)).batchUpdate(eq(ProductImportService.UPSERT_SQL), batches.capture());
+    Object[] first = batches.getAllValues().get(0).get(0);
+    assertEquals("Clavier, AZERTY", first[1]);
+    Object[] second = batches.getAllValues().get(0).get(1);
+    assertEquals("Écran 27\" 4K", second[1]);
+
+    // Un seul vidage du cache pour tout l'import
+    verify(cache, times(1)).evict(Product.class);
+  }
+
+  @Test
+  void ndjsonImportReportsMalformedLinesAndKeepsDuplicateSkusOrdered() {
+    when(entityManagerFactory.getCache()).thenReturn(cache);
+    String ndjson = """
+        {"sku":"SKU-1","name":"Clavier","price":49.9,"stock":10}
+        {"sku":"SKU-1","name":"Clavier","price":44.9,"stock":8}
+        not json
+        {"name":"Sans SKU","price":10,"stock":1}
+        """;
+
+    ProductImportReportDTO report = productImportService.importProducts(stream(ndjson),
+        ProductImportService.Format.NDJSON);
+
+    assertEquals(4, report.getProcessed());
+    assertEquals(2, report.getUpserted());
+    assertEquals(2, report.getRejected());
+    assertEquals(3L, report.getErrors().get(0).getLine());
+    assertEquals("SKU is required", report.getErrors().get(1).getMessage());
+
+    // Le doublon force l'écriture du premier lot pour que la dernière valeur l'emporte
+    verify(jdbcTemplate, times(2)).batchUpdate(eq(ProductImportService.UPSERT_SQL), anyList());
+  }
+
+  @Test
+  void splitCsvHandlesQuotedSeparators() {
+    assertEquals(List.of("a", "b,c", "d\"e", ""), ProductImportService.splitCsv("a,\"b,c\",\"d\"\"e\","));
+  }
+
+  private ByteArrayInputStream stream(String content) {
+    return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+  }
+}
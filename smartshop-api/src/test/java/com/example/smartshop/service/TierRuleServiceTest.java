@@ -0,0 +1,101 @@
+package com.example.smartshop.service;
+
+import com.example.smartshop.dto.TierRuleDTO;
+import com.example.smartshop.entity.CustomerTier;
+import com.example.smartshop.entity.TierRule;
+import com.example.smartshop.exception.BusinessRuleViolationException;
+import com.example.smartshop.exception.ErrorCode;
+import com.example.smartshop.pricing.TierRuleTable;
+import com.example.smartshop.repository.TierRuleRepository;
+import com.example.smartshop.support.AbstractIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Modifications concurrentes de deux niveaux : la seconde est validée sur les règles
+ * enregistrées par la première.
+ */
+class TierRuleServiceTest extends AbstractIntegrationTest {
+
+  @Autowired
+  private TierRuleService tierRuleService;
+
+  @Autowired
+  private TierRuleRepository tierRuleRepository;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @BeforeEach
+  void setUp() {
+    tierRuleRepository.saveAll(Arrays.stream(CustomerTier.values())
+        .map(tier -> TierRule.builder()
+            .tier(tier)
+            .minOrders(TierRuleTable.DEFAULT.getMinOrders(tier))
+            .minSpent(TierRuleTable.DEFAULT.getMinSpent(tier))
+            .minSubtotal(TierRuleTable.DEFAULT.getMinSubtotal(tier))
+            .discountPercentage(TierRuleTable.DEFAULT.getDiscountPercentage(tier))
+            .build())
+        .toList());
+  }
+
+  @Test
+  void concurrentUpdateIsValidatedAgainstCommittedRules() throws Exception {
+    CountDownLatch updated = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService threads = Executors.newFixedThreadPool(2);
+    try {
+      // SILVER relevé à 8 commandes (GOLD : 10), pas encore validé
+      Future<?> silver = threads.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+        tierRuleService.update(CustomerTier.SILVER, rule(CustomerTier.SILVER, 8));
+        updated.countDown();
+        try {
+          release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }));
+      assertTrue(updated.await(5, TimeUnit.SECONDS));
+
+      // Cohérent avec SILVER à 3, plus après la première modification
+      Future<?> gold = threads.submit(() -> tierRuleService.update(CustomerTier.GOLD, rule(CustomerTier.GOLD, 6)));
+      Thread.sleep(200);
+      assertFalse(gold.isDone(), "La seconde modification doit attendre le verrou des règles");
+
+      release.countDown();
+      silver.get(5, TimeUnit.SECONDS);
+      ExecutionException failure = assertThrows(ExecutionException.class, () -> gold.get(5, TimeUnit.SECONDS));
+      BusinessRuleViolationException rejected = assertInstanceOf(BusinessRuleViolationException.class,
+          failure.getCause());
+      assertEquals(ErrorCode.INVALID_TIER_RULE, rejected.getErrorCode());
+    } finally {
+      release.countDown();
+      threads.shutdownNow();
+    }
+    assertEquals(8, tierRuleRepository.findById(CustomerTier.SILVER).orElseThrow().getMinOrders());
+    assertEquals(TierRuleTable.DEFAULT.getMinOrders(CustomerTier.GOLD),
+        tierRuleRepository.findById(CustomerTier.GOLD).orElseThrow().getMinOrders());
+  }
+
+  private static TierRuleDTO rule(CustomerTier tier, int minOrders) {
+    return TierRuleDTO.builder()
+        .tier(tier)
+        .minOrders(minOrders)
+        .minSpent(TierRuleTable.DEFAULT.getMinSpent(tier))
+        .minSubtotal(TierRuleTable.DEFAULT.getMinSubtotal(tier))
+        .discountPercentage(TierRuleTable.DEFAULT.getDiscountPercentage(tier))
+        .build();
+  }
+}
@@ -0,0 +1,130 @@
+package com.example.smartshop.sse;
+
+import com.example.smartshop.dto.PaymentRequestDTO;
+import com.example.smartshop.entity.PaymentMethod;
+import com.example.smartshop.entity.Product;
+import com.example.smartshop.service.PaymentService;
+import com.example.smartshop.support.AbstractIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Flux SSE client : événements poussés après validation, au seul client concerné,
+ * et plafond de connexions par client.
+ */
+@AutoConfigureMockMvc
+class ClientEventStreamTest extends AbstractIntegrationTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private PaymentService paymentService;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  private Product product;
+
+  @BeforeEach
+  void setUp() {
+    product = createProduct("Souris", 100.0, 50);
+  }
+
+  @Test
+  void committedStatusChangesArePushedToTheOwningClientOnly() throws Exception {
+    Long clientId = createClient("stream.client@example.com");
+    Long otherClientId = createClient("stream.other@example.com");
+    MvcResult stream = openStream(clientId);
+    MvcResult otherStream = openStream(otherClientId);
+
+    Long orderId = createOrder(clientId);
+    paymentService.addPayment(PaymentRequestDTO.builder()
+        .orderId(orderId)
+        .amount(240.0)
+        .paymentMethod(PaymentMethod.CASH)
+        .build());
+    orderService.confirmOrder(orderId);
+
+    String content = awaitContent(stream, "\"status\":\"CONFIRMED\"");
+    assertTrue(content.contains("event:payment-status"));
+    assertTrue(content.contains("\"status\":\"ENCAISSE\""));
+    assertTrue(content.contains("event:order-status"));
+    assertTrue(content.contains("\"orderId\":" + orderId));
+    assertFalse(otherStream.getResponse().getContentAsString().contains("event:"));
+  }
+
+  @Test
+  void rolledBackChangeIsNotPushed() throws Exception {
+    Long clientId = createClient("stream.rollback@example.com");
+    MvcResult stream = openStream(clientId);
+    Long orderId = createOrder(clientId);
+
+    transactionTemplate.executeWithoutResult(status -> {
+      orderService.cancelOrder(orderId);
+      status.setRollbackOnly();
+    });
+    orderService.cancelOrder(orderId);
+
+    String content = awaitContent(stream, "\"status\":\"CANCELED\"");
+    assertEquals(1, content.split("event:order-status", -1).length - 1);
+  }
+
+  @Test
+  void connectionsAreCappedPerClient() throws Exception {
+    Long clientId = createClient("stream.capped@example.com");
+    for (int i = 0; i < 3; i++) {
+      openStream(clientId);
+    }
+
+    mockMvc.perform(get("/api/client/orders/stream").session(session(clientId)).accept(MediaType.TEXT_EVENT_STREAM))
+        .andExpect(status().isServiceUnavailable())
+        .andExpect(header().exists("Retry-After"));
+  }
+
+  private MvcResult openStream(Long clientId) throws Exception {
+    return mockMvc.perform(get("/api/client/orders/stream").session(session(clientId))
+            .accept(MediaType.TEXT_EVENT_STREAM))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+  }
+
+  // Les événements sont écrits par le pool d'envoi du hub, hors du thread de test
+  private String awaitContent(MvcResult stream, String expected) throws Exception {
+    long deadline = System.currentTimeMillis() + 5_000;
+    String content = stream.getResponse().getContentAsString();
+    while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+      Thread.sleep(20);
+      content = stream.getResponse().getContentAsString();
+    }
+    assertTrue(content.contains(expected), "Événement attendu absent du flux : " + content);
+    return content;
+  }
+
+  private Long createClient(String email) {
+    return createClient("Stream Client", email);
+  }
+
+  private Long createOrder(Long clientId) {
+    return createOrder(clientId, product, 2);
+  }
+
+  private static MockHttpSession session(Long userId) {
+    MockHttpSession session = new MockHttpSession();
+    session.setAttribute("user", userId);
+    return session;
+  }
+}
@@ -0,0 +1,97 @@
+package com.example.smartshop.support;
+
+import com.example.smartshop.dto.CreateClientDTO;
+import com.example.smartshop.dto.OrderItemRequestDTO;
+import com.example.smartshop.dto.OrderRequestDTO;
+import com.example.smartshop.entity.Product;
+import com.example.smartshop.repository.ProductRepository;
+import com.example.smartshop.service.ClientService;
+import com.example.smartshop.service.OrderService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Base des tests d'intégration (profil "it", H2 en mémoire).
+ *
+ * Après chaque test, toutes les tables du schéma sont vidées et le cache de second niveau
+ * est purgé : une nouvelle table n'a pas à être ajoutée à chaque tearDown. Les @AfterEach
+ * des sous-classes s'exécutent avant ce nettoyage.
+ */
+@SpringBootTest
+@ActiveProfiles("it")
+public abstract class AbstractIntegrationTest {
+
+  @Autowired
+  protected JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  protected ClientService clientService;
+
+  @Autowired
+  protected OrderService orderService;
+
+  @Autowired
+  protected ProductRepository productRepository;
+
+  @Autowired
+  protected EntityManagerFactory entityManagerFactory;
+
+  @AfterEach
+  void cleanDatabase() {
+    jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+      List<String> tables = new ArrayList<>();
+      try (ResultSet rs = connection.getMetaData().getTables(null, connection.getSchema(), null, null)) {
+        while (rs.next()) {
+          // H2 2.x : "BASE TABLE"
+          if (List.of("TABLE", "BASE TABLE").contains(rs.getString("TABLE_TYPE"))) {
+            tables.add(rs.getString("TABLE_NAME"));
+          }
+        }
+      }
+      try (Statement statement = connection.createStatement()) {
+        statement.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        try {
+          for (String table : tables) {
+            statement.execute("DELETE FROM " + table);
+          }
+        } finally {
+          statement.execute("SET REFERENTIAL_INTEGRITY TRUE");
+        }
+      }
+      return null;
+    });
+    entityManagerFactory.getCache().evictAll();
+  }
+
+  protected Long createClient(String name, String email) {
+    return clientService.create(CreateClientDTO.builder()
+        .name(name)
+        .email(email)
+        .build()).getId();
+  }
+
+  protected Product createProduct(String name, double price, int stock) {
+    return productRepository.save(Product.builder()
+        .name(name)
+        .price(price)
+        .stock(stock)
+        .build());
+  }
+
+  protected Long createOrder(Long clientId, Product product, int quantity) {
+    return orderService.create(OrderRequestDTO.builder()
+        .clientId(clientId)
+        .items(List.of(OrderItemRequestDTO.builder().productId(product.getId()).quantity(quantity).build()))
+        .build()).getId();
+  }
+}
@@ -0,0 +1,37 @@
+package com.example.smartshop.support;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * Base des tests d'intégration sur une base PostgreSQL locale, schéma créé par Flyway
+ * (migrations V1 et suivantes) puis validé par Hibernate :
+ * mvn test -Dtest=... -Dsmartshop.test.postgres-url=jdbc:postgresql://localhost:5432/smartshop_test
+ * (identifiants : smartshop.test.postgres-user / smartshop.test.postgres-password)
+ *
+ * Les sous-classes portent @EnabledIfSystemProperty(named = "smartshop.test.postgres-url",
+ * matches = ".+") et suppriment les lignes qu'elles créent : la base n'est pas vidée.
+ */
+@SpringBootTest
+@ActiveProfiles("it")
+public abstract class AbstractPostgresIntegrationTest {
+
+  @Autowired
+  protected JdbcTemplate jdbcTemplate;
+
+  @DynamicPropertySource
+  static void postgres(DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", () -> System.getProperty("smartshop.test.postgres-url"));
+    registry.add("spring.datasource.username", () -> System.getProperty("smartshop.test.postgres-user", "postgres"));
+    registry.add("spring.datasource.password",
+        () -> System.getProperty("smartshop.test.postgres-password", "postgres"));
+    registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+    registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+    registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+    registry.add("spring.flyway.enabled", () -> "true");
+  }
+}
@@ -1,11 +0,0 @@
-package com.example.smartshop.exception;
-
-public class BusinessRuleViolationException extends RuntimeException {
-  public BusinessRuleViolationException(String message) {
-    super(message);
-  }
-
-  public BusinessRuleViolationException(String message, Throwable cause) {
-    super(message, cause);
-  }
-}